@@ -0,0 +1,41 @@
+package org.magicdgs.hdf5j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Helper class to get the files used by the benchmarks, which are shared with the tests.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class HDF5jBenchmarkResources {
+
+    /** Path containing the examples by API (relative to the project directory). */
+    private static final Path EXAMPLES_BY_API_FOLDER =
+            Paths.get("src", "test", "resources", "HDF5", "exbyapi").toAbsolutePath();
+
+    // cannot be instantiated
+    private HDF5jBenchmarkResources() {}
+
+    /** Gets all the examples by API files as a List. */
+    public static List<Path> getExamplesByApi() {
+        try (final Stream<Path> files = Files.list(EXAMPLES_BY_API_FOLDER)) {
+            return files.filter(f -> f.toString().endsWith(".h5"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new IllegalStateException(
+                    "Unable to retrieve files from " + EXAMPLES_BY_API_FOLDER);
+        }
+    }
+
+    /** Gets the examples by API file with the provided name. */
+    public static Path getExampleByApi(final String fileName) {
+        return EXAMPLES_BY_API_FOLDER.resolve(fileName);
+    }
+}
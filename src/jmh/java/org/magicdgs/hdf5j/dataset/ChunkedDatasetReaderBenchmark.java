@@ -0,0 +1,100 @@
+package org.magicdgs.hdf5j.dataset;
+
+import org.magicdgs.hdf5j.HDF5jBenchmarkResources;
+import org.magicdgs.hdf5j.dataset.filters.DeflateFilter;
+import org.magicdgs.hdf5j.dataset.filters.FilterPipeline;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for reading the chunked datasets in {@code h5ex_d_chunk.h5} (uncompressed) and
+ * {@code h5ex_d_gzip.h5} (deflate) with different pool sizes, either fully or a small window.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ChunkedDatasetReaderBenchmark {
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private HDF5FileReader reader;
+    private HDF5FileReader gzipReader;
+    private ForkJoinPool pool;
+    private ChunkedDatasetReader datasetReader;
+    private ChunkedDatasetReader gzipDatasetReader;
+    private ByteBuffer destination;
+    private ByteBuffer gzipDestination;
+    // 4x8 window crossing 4 chunks
+    private final Hyperslab window = Hyperslab.region(new long[] {2, 4}, new long[] {4, 8});
+    private ByteBuffer windowDestination;
+
+    @Setup
+    public void setUp() throws IOException {
+        reader = HDF5FileReader.open(HDF5jBenchmarkResources.getExampleByApi("h5ex_d_chunk.h5"));
+        pool = new ForkJoinPool(parallelism);
+        final ChunkedLayout layout = new ChunkedLayout(new long[] {6, 8}, new int[] {4, 4},
+                Integer.BYTES, 1400);
+        datasetReader = new ChunkedDatasetReader(reader, layout, FilterPipeline.EMPTY, pool);
+        destination = ByteBuffer.allocate((int) layout.getDatasetByteSize());
+        gzipReader =
+                HDF5FileReader.open(HDF5jBenchmarkResources.getExampleByApi("h5ex_d_gzip.h5"));
+        final ChunkedLayout gzipLayout = new ChunkedLayout(new long[] {32, 64},
+                new int[] {4, 8}, Integer.BYTES, 1400);
+        gzipDatasetReader = new ChunkedDatasetReader(gzipReader, gzipLayout,
+                FilterPipeline.EMPTY.append(DeflateFilter.INSTANCE, 9), pool);
+        gzipDestination = ByteBuffer.allocate((int) gzipLayout.getDatasetByteSize());
+        windowDestination =
+                ByteBuffer.allocate((int) window.getNumberOfElements() * Integer.BYTES);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        reader.close();
+        gzipReader.close();
+    }
+
+    @Benchmark
+    public ByteBuffer readDataset() throws IOException {
+        destination.clear();
+        datasetReader.read(destination);
+        return destination;
+    }
+
+    @Benchmark
+    public ByteBuffer readDeflateDataset() throws IOException {
+        gzipDestination.clear();
+        gzipDatasetReader.read(gzipDestination);
+        return gzipDestination;
+    }
+
+    @Benchmark
+    public ByteBuffer readDeflateWindow() throws IOException {
+        windowDestination.clear();
+        gzipDatasetReader.read(window, windowDestination);
+        return windowDestination;
+    }
+}
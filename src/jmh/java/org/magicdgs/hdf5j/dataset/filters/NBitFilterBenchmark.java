@@ -0,0 +1,63 @@
+package org.magicdgs.hdf5j.dataset.filters;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for decoding a chunk of 256K integers packed with different precisions, either into
+ * an {@code int[]} or into the byte buffer used by the filter pipeline.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class NBitFilterBenchmark {
+
+    private static final int ELEMENTS = 1 << 18;
+
+    @Param({"7", "16", "27"})
+    public int precision;
+
+    private ByteBuffer chunk;
+    private int[] clientData;
+    private int[] target;
+
+    @Setup
+    public void setUp() {
+        final byte[] data = new byte[(ELEMENTS * precision + 7) / 8];
+        new Random(1984).nextBytes(data);
+        chunk = ByteBuffer.wrap(data);
+        clientData = new int[] {8, 0, ELEMENTS, 1, Integer.BYTES, 0, precision, 0};
+        target = new int[ELEMENTS];
+    }
+
+    @Benchmark
+    public int[] decodeInts() {
+        chunk.clear();
+        NBitFilter.INSTANCE.decodeInts(chunk, clientData, true, target, 0);
+        return target;
+    }
+
+    @Benchmark
+    public ByteBuffer decode() {
+        chunk.clear();
+        return NBitFilter.INSTANCE.decode(chunk, clientData, ELEMENTS * Integer.BYTES);
+    }
+}
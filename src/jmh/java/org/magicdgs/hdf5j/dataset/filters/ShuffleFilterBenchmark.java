@@ -0,0 +1,54 @@
+package org.magicdgs.hdf5j.dataset.filters;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for unshuffling a 1 MiB chunk with different element sizes. Element sizes other than
+ * 2, 4 and 8 use the generic path.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ShuffleFilterBenchmark {
+
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    @Param({"2", "3", "4", "8"})
+    public int elementSize;
+
+    private ByteBuffer chunk;
+    private int[] clientData;
+
+    @Setup
+    public void setUp() {
+        final byte[] data = new byte[CHUNK_SIZE];
+        new Random(1984).nextBytes(data);
+        chunk = ByteBuffer.wrap(data);
+        clientData = new int[] {elementSize};
+    }
+
+    @Benchmark
+    public ByteBuffer unshuffle() {
+        chunk.clear();
+        return ShuffleFilter.INSTANCE.decode(chunk, clientData, CHUNK_SIZE);
+    }
+}
@@ -0,0 +1,83 @@
+package org.magicdgs.hdf5j.fileformat.address;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for encoding, decoding and normalizing addresses with {@link FileAddressManager}.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class FileAddressManagerBenchmark {
+
+    // position encoded in the buffers
+    private static final long POSITION = 0x1234;
+
+    @Param({"2", "4", "8"})
+    public int addressSize;
+
+    private FileAddressManager manager;
+    private ByteBuffer encoded;
+    private ByteBuffer toEncode;
+    private FileAddress address;
+    private FileAddress longAddress;
+
+    @Setup
+    public void setUp() {
+        manager = new FileAddressManager(addressSize);
+        address = manager.decodeAddress(POSITION);
+        // address encoded with a different size, which requires normalization
+        longAddress = new FileAddressManager(16).decodeAddress(POSITION);
+        // file addresses are little-endian
+        encoded = ByteBuffer.allocate(addressSize).order(ByteOrder.LITTLE_ENDIAN);
+        manager.encodeAddress(address, encoded);
+        encoded.flip();
+        toEncode = ByteBuffer.allocate(addressSize).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Benchmark
+    public long decodePosition() {
+        return manager.decodePosition(encoded, 0);
+    }
+
+    @Benchmark
+    public FileAddress decodeAddressFromBuffer() {
+        encoded.rewind();
+        return manager.decodeAddress(encoded);
+    }
+
+    @Benchmark
+    public FileAddress decodeAddressFromPosition() {
+        return manager.decodeAddress(POSITION);
+    }
+
+    @Benchmark
+    public FileAddress encodeAddress() {
+        toEncode.clear();
+        return manager.encodeAddress(address, toEncode);
+    }
+
+    @Benchmark
+    public FileAddress normalizeAddress() {
+        return manager.normalizeAddress(longAddress);
+    }
+}
@@ -0,0 +1,73 @@
+package org.magicdgs.hdf5j.fileformat.level0;
+
+import org.magicdgs.hdf5j.HDF5jBenchmarkResources;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmarks for superblock parsing over the examples by API files.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class SuperblockBenchmark {
+
+    private List<Path> files;
+    // the file contents, to exclude the IO from the decoding
+    private List<ByteBuffer> contents;
+
+    @Setup
+    public void setUp() throws IOException {
+        files = HDF5jBenchmarkResources.getExamplesByApi();
+        contents = files.stream().map(f -> {
+            try {
+                return ByteBuffer.wrap(Files.readAllBytes(f));
+            } catch (final IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void mapSuperblocks(final Blackhole blackhole) throws IOException {
+        for (final Path file : files) {
+            try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                final Superblock superblock = MappedSuperblock.map(channel, 0);
+                blackhole.consume(superblock.getEndOfFileAddress());
+            }
+        }
+    }
+
+    @Benchmark
+    public void decodeSuperblocks(final Blackhole blackhole) {
+        for (final ByteBuffer content : contents) {
+            final Superblock superblock = MappedSuperblock.decode(content);
+            blackhole.consume(superblock.getEndOfFileAddress());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.magicdgs.hdf5j.fileformat.level2;
+
+import org.magicdgs.hdf5j.HDF5jBenchmarkResources;
+import org.magicdgs.hdf5j.group.Group;
+import org.magicdgs.hdf5j.group.GroupResolver;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for object header parsing over the examples by API files (the root group and its
+ * members, with version 1 and 2 headers). The metadata of the files is already cached by the
+ * readers, so only the decoding is measured.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ObjectHeaderBenchmark {
+
+    private List<HDF5FileReader> readers;
+    // addresses of the object headers of the root group and its members for each file
+    private List<long[]> addresses;
+
+    @Setup
+    public void setUp() throws IOException {
+        readers = new ArrayList<>();
+        addresses = new ArrayList<>();
+        for (final Path file : HDF5jBenchmarkResources.getExamplesByApi()) {
+            final HDF5FileReader reader = HDF5FileReader.open(file);
+            readers.add(reader);
+            final Group root = new GroupResolver(reader).getRootGroup();
+            final List<Long> headers = new ArrayList<>();
+            headers.add(root.getObjectHeaderAddress());
+            for (final String name : root.getMemberNames()) {
+                final long address = root.getMemberAddress(name);
+                if (address != Group.NOT_FOUND) {
+                    headers.add(address);
+                }
+            }
+            addresses.add(headers.stream().mapToLong(Long::longValue).toArray());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        for (final HDF5FileReader reader : readers) {
+            reader.close();
+        }
+    }
+
+    @Benchmark
+    public void readObjectHeaders(final Blackhole blackhole) throws IOException {
+        for (int i = 0; i < readers.size(); i++) {
+            for (final long address : addresses.get(i)) {
+                blackhole.consume(ObjectHeader.read(readers.get(i), address));
+            }
+        }
+    }
+
+    @Benchmark
+    public void readObjectHeaderMessages(final Blackhole blackhole) throws IOException {
+        for (int i = 0; i < readers.size(); i++) {
+            for (final long address : addresses.get(i)) {
+                blackhole.consume(ObjectHeader.read(readers.get(i), address).getMessages());
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.magicdgs.hdf5j.group;
+
+import org.magicdgs.hdf5j.HDF5jBenchmarkResources;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmarks for group parsing over the examples by API files (symbol table, compact and dense
+ * groups). A new resolver is created on each invocation, so the groups are parsed again, but the
+ * metadata of the files is already cached by the readers.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class GroupResolverBenchmark {
+
+    private List<HDF5FileReader> readers;
+    // absolute paths of the members of the root group of each file
+    private List<List<String>> paths;
+
+    @Setup
+    public void setUp() throws IOException {
+        readers = new ArrayList<>();
+        paths = new ArrayList<>();
+        for (final Path file : HDF5jBenchmarkResources.getExamplesByApi()) {
+            final HDF5FileReader reader = HDF5FileReader.open(file);
+            readers.add(reader);
+            paths.add(new GroupResolver(reader).getRootGroup().getMemberNames().stream()
+                    .map(name -> "/" + name)
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        for (final HDF5FileReader reader : readers) {
+            reader.close();
+        }
+    }
+
+    @Benchmark
+    public void listRootGroups(final Blackhole blackhole) throws IOException {
+        for (final HDF5FileReader reader : readers) {
+            blackhole.consume(new GroupResolver(reader).getRootGroup().getMemberNames());
+        }
+    }
+
+    @Benchmark
+    public void resolveRootMembers(final Blackhole blackhole) throws IOException {
+        for (int i = 0; i < readers.size(); i++) {
+            final GroupResolver resolver = new GroupResolver(readers.get(i));
+            for (final String path : paths.get(i)) {
+                blackhole.consume(resolver.resolve(path));
+            }
+        }
+    }
+}
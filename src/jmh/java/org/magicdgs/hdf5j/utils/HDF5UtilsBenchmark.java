@@ -0,0 +1,72 @@
+package org.magicdgs.hdf5j.utils;
+
+import org.magicdgs.hdf5j.HDF5jBenchmarkResources;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the detection of HDF5 files/streams in {@link HDF5Utils}.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class HDF5UtilsBenchmark {
+
+    private List<Path> files;
+    private InputStream stream;
+
+    @Setup
+    public void setUp() throws IOException {
+        files = HDF5jBenchmarkResources.getExamplesByApi();
+        stream = new BufferedInputStream(
+                new ByteArrayInputStream(Files.readAllBytes(files.get(0))));
+    }
+
+    @Benchmark
+    public int isHDF5File() throws IOException {
+        int hdf5 = 0;
+        for (final Path file : files) {
+            if (HDF5Utils.isHDF5File(file)) {
+                hdf5++;
+            }
+        }
+        return hdf5;
+    }
+
+    @Benchmark
+    public long findSuperblockOffset() throws IOException {
+        long sum = 0;
+        for (final Path file : files) {
+            sum += HDF5Utils.findSuperblockOffset(file);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public boolean isHDF5Stream() throws IOException {
+        return HDF5Utils.isHDF5Stream(stream);
+    }
+}
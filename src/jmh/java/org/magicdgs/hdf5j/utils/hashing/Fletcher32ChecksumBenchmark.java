@@ -0,0 +1,56 @@
+package org.magicdgs.hdf5j.utils.hashing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Fletcher32Checksum} over chunk-sized inputs.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class Fletcher32ChecksumBenchmark {
+
+    @Param({"1024", "65536", "1048576"})
+    public int size;
+
+    private ByteBuffer heapBuffer;
+    private ByteBuffer directBuffer;
+
+    @Setup
+    public void setUp() {
+        final byte[] array = new byte[size];
+        new Random(1).nextBytes(array);
+        heapBuffer = ByteBuffer.wrap(array);
+        directBuffer = ByteBuffer.allocateDirect(size);
+        directBuffer.put(array).flip();
+    }
+
+    @Benchmark
+    public int checksumHeapBuffer() {
+        return Fletcher32Checksum.checksum(heapBuffer);
+    }
+
+    @Benchmark
+    public int checksumDirectBuffer() {
+        return Fletcher32Checksum.checksum(directBuffer);
+    }
+}
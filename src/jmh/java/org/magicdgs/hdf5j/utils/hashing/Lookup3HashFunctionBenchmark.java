@@ -0,0 +1,77 @@
+package org.magicdgs.hdf5j.utils.hashing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Lookup3HashFunction} over different input sizes: from link names (a few
+ * bytes) to large metadata blocks.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class Lookup3HashFunctionBenchmark {
+
+    // size of the pieces for the incremental hasher
+    private static final int PIECE_SIZE = 4096;
+
+    @Param({"8", "64", "1024", "65536"})
+    public int size;
+
+    private byte[] array;
+    private ByteBuffer heapBuffer;
+    private ByteBuffer directBuffer;
+
+    @Setup
+    public void setUp() {
+        array = new byte[size];
+        new Random(1).nextBytes(array);
+        heapBuffer = ByteBuffer.wrap(array);
+        directBuffer = ByteBuffer.allocateDirect(size);
+        directBuffer.put(array).flip();
+    }
+
+    @Benchmark
+    public int hashArray() {
+        return Lookup3HashFunction.hashBytes(array, 0, array.length, 0);
+    }
+
+    @Benchmark
+    public int hashHeapBuffer() {
+        return Lookup3HashFunction.hashBytes(heapBuffer, 0);
+    }
+
+    @Benchmark
+    public int hashDirectBuffer() {
+        return Lookup3HashFunction.hashBytes(directBuffer, 0);
+    }
+
+    @Benchmark
+    public int hashDirectBufferInPieces() {
+        final Lookup3Hasher hasher = Lookup3HashFunction.newHasher(size, 0);
+        for (int i = 0; i < size; i += PIECE_SIZE) {
+            final ByteBuffer piece = directBuffer.duplicate();
+            piece.position(i).limit(Math.min(size, i + PIECE_SIZE));
+            hasher.putBytes(piece);
+        }
+        return hasher.hash();
+    }
+}
@@ -31,8 +31,8 @@ public final class HDF5Constants {
      * as described in <b>Symbol Table Entry</b>.
      *
      * @see org.magicdgs.hdf5j.fileformat.level0.Superblock#getRootSymbolTableEntryVersionNumber()
+     * @see org.magicdgs.hdf5j.fileformat.level1.SymbolTableEntry
      */
-    // TODO: add link to Symbol Table Entry class once it is implemented
     public static final int ROOT_SYMBOL_TABLE_ENTRY_VERSION_NUMBER = 0;
 
     /**
@@ -45,6 +45,30 @@ public final class HDF5Constants {
     // TODO: add link to Data Object Header Messages class once it is implemented
     public static final int SHARED_HEADER_MESSAGE_FORMAT_VERSION_NUMBER = 0;
 
+    /**
+     * Default value for the <b>Indexed Storage Internal Node K</b>, used when the superblock does
+     * not contain that field (versions 0, 2 and 3).
+     *
+     * @see org.magicdgs.hdf5j.fileformat.level0.Superblock#getIndexedStorageInternalNodeK()
+     */
+    public static final int DEFAULT_INDEXED_STORAGE_INTERNAL_NODE_K = 32;
+
+    /**
+     * Default value for the <b>Group Leaf Node K</b>, used when the superblock does not contain
+     * that field (versions 2 and 3).
+     *
+     * @see org.magicdgs.hdf5j.fileformat.level0.Superblock#getGroupLeafNodeK()
+     */
+    public static final int DEFAULT_GROUP_LEAF_NODE_K = 4;
+
+    /**
+     * Default value for the <b>Group Internal Node K</b>, used when the superblock does not
+     * contain that field (versions 2 and 3).
+     *
+     * @see org.magicdgs.hdf5j.fileformat.level0.Superblock#getGroupInternalNodeK()
+     */
+    public static final int DEFAULT_GROUP_INTERNAL_NODE_K = 16;
+
     // cannot be instantiated
     private HDF5Constants() {}
 
@@ -0,0 +1,556 @@
+package org.magicdgs.hdf5j.dataset;
+
+import org.magicdgs.hdf5j.dataset.filters.FilterPipeline;
+import org.magicdgs.hdf5j.fileformat.level1.ChunkEntry;
+import org.magicdgs.hdf5j.fileformat.level1.RawDataChunkIndex;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reader for datasets with {@link ChunkedLayout}.
+ *
+ * <p>The chunks are fetched and decoded in parallel in a {@link ForkJoinPool}, and each of them is
+ * copied into its own region of the destination buffer. Thus, no synchronization is required
+ * between tasks. Asynchronous reads keep a bounded number of chunk reads outstanding, and
+ * decode each chunk as its read completes.
+ *
+ * <p>Once loaded, the chunks are indexed by their position in the grid of chunks, so the chunks
+ * intersecting a small selection are looked up directly instead of scanning all of them.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class ChunkedDatasetReader implements DatasetReader {
+
+    /** Maximum number of chunks processed sequentially by a single task. */
+    public static final int DEFAULT_CHUNKS_PER_TASK = 8;
+
+    // buffer to read the raw chunks, reused by each thread
+    private static final ThreadLocal<ByteBuffer> RAW_CHUNK_BUFFER =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(0));
+
+    private final HDF5FileReader reader;
+    private final ChunkedLayout layout;
+    private final FilterPipeline pipeline;
+    private final ForkJoinPool pool;
+    private final RawDataChunkIndex index;
+
+    // cached from the layout, to avoid copies for each chunk
+    private final long[] dimensions;
+    private final int[] chunkDimensions;
+    private final byte[] fillValue;
+    // element strides for the chunks
+    private final long[] chunkStrides;
+    // number of chunks in the grid of chunks (saturated)
+    private final long gridChunks;
+
+    // lazily loaded
+    private volatile List<ChunkEntry> chunks = null;
+    // chunks by linear index in the grid of chunks (see gridIndex); null if it cannot be built
+    private Map<Long, ChunkEntry> chunksByGridIndex = null;
+
+    /**
+     * Constructor using the {@link ForkJoinPool#commonPool()}.
+     *
+     * @param reader   reader for the file.
+     * @param layout   layout of the dataset.
+     * @param pipeline filters applied to the chunks.
+     */
+    public ChunkedDatasetReader(final HDF5FileReader reader, final ChunkedLayout layout,
+            final FilterPipeline pipeline) {
+        this(reader, layout, pipeline, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor with a custom pool.
+     *
+     * @param reader   reader for the file.
+     * @param layout   layout of the dataset.
+     * @param pipeline filters applied to the chunks.
+     * @param pool     pool to fetch and decode the chunks.
+     */
+    public ChunkedDatasetReader(final HDF5FileReader reader, final ChunkedLayout layout,
+            final FilterPipeline pipeline, final ForkJoinPool pool) {
+        Preconditions.checkArgument(reader != null, "null reader");
+        Preconditions.checkArgument(layout != null, "null layout");
+        Preconditions.checkArgument(pipeline != null, "null pipeline");
+        Preconditions.checkArgument(pool != null, "null pool");
+        this.reader = reader;
+        this.layout = layout;
+        this.pipeline = pipeline;
+        this.pool = pool;
+        this.index = new RawDataChunkIndex(reader, layout.getChunkIndexAddress(),
+                layout.getRank());
+        // row-major strides
+        final int rank = layout.getRank();
+        this.dimensions = layout.getDimensions();
+        this.chunkDimensions = layout.getChunkDimensions();
+        this.fillValue = layout.getFillValue();
+        this.chunkStrides = new long[rank];
+        chunkStrides[rank - 1] = 1;
+        for (int i = rank - 2; i >= 0; i--) {
+            chunkStrides[i] = chunkStrides[i + 1] * chunkDimensions[i + 1];
+        }
+        long grid = 1;
+        for (int i = 0; i < rank; i++) {
+            grid = multiplySaturated(grid,
+                    (dimensions[i] + chunkDimensions[i] - 1) / chunkDimensions[i]);
+        }
+        this.gridChunks = grid;
+    }
+
+    /**
+     * Gets the layout of the dataset.
+     *
+     * @return the layout.
+     */
+    public ChunkedLayout getLayout() {
+        return layout;
+    }
+
+    @Override
+    public long[] getDimensions() {
+        return dimensions.clone();
+    }
+
+    @Override
+    public int getElementSize() {
+        return layout.getElementSize();
+    }
+
+    /**
+     * Gets the chunks of the dataset, loading the index if it was not loaded yet.
+     *
+     * @return list of chunks sorted by offset.
+     *
+     * @throws IOException if an IO error occurs.
+     */
+    public List<ChunkEntry> getChunks() throws IOException {
+        List<ChunkEntry> result = chunks;
+        if (result == null) {
+            synchronized (this) {
+                result = chunks;
+                if (result == null) {
+                    result = index.getChunks();
+                    // published before the list, which is volatile
+                    chunksByGridIndex = indexByGrid(result);
+                    chunks = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks if some chunks of the dataset are not written to the file, loading the index if it
+     * was not loaded yet.
+     *
+     * @return {@code true} if there are less chunks than in the grid of chunks; {@code false}
+     * otherwise.
+     *
+     * @throws IOException if an IO error occurs.
+     */
+    boolean hasUnwrittenChunks() throws IOException {
+        return getChunks().size() < gridChunks;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Note: the regions of the destination that are not covered by any chunk (not written yet
+     * to the file) are set to the fill value of the layout; if it is not defined, they are not
+     * modified.
+     */
+    @Override
+    public void read(final ByteBuffer destination) throws IOException {
+        Preconditions.checkArgument(destination != null, "null destination");
+        final long size = layout.getDatasetByteSize();
+        Preconditions.checkArgument(destination.remaining() >= size,
+                "destination should have at least %s bytes remaining", size);
+        if (size != 0) {
+            read(Hyperslab.all(dimensions), destination);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The chunks intersecting the selection are fetched and decoded in parallel, and the
+     * selected elements of each of them are copied into the destination.
+     *
+     * <p>Note: the selected elements that are not covered by any chunk (not written yet to the
+     * file) are set to the fill value of the layout; if it is not defined, they are not modified.
+     */
+    @Override
+    public void read(final Hyperslab selection, final ByteBuffer destination)
+            throws IOException {
+        final HyperslabCopyPlan plan = checkRead(selection, destination);
+        final List<ChunkEntry> entries = getIntersectingChunks(selection, plan);
+        fillUnwritten(plan, destination, destination.position());
+        try {
+            pool.invoke(new ChunkTask(plan, entries, 0, entries.size(), destination,
+                    destination.position()));
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+        destination.position(destination.position()
+                + (int) (plan.getNumberOfElements() * layout.getElementSize()));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>If the chunk index is not loaded yet, it is loaded in the pool of this reader. Then, the
+     * chunks intersecting the selection are read asynchronously, and each chunk is decoded and
+     * copied into the destination once its read completes. At most
+     * {@link ForkJoinPool#getParallelism()} chunk reads of the pool of this reader are
+     * outstanding at once, so only those raw chunks are kept in memory; the next read is issued
+     * as each chunk is decoded.
+     *
+     * <p>Note: the selected elements that are not covered by any chunk (not written yet to the
+     * file) are set to the fill value of the layout; if it is not defined, they are not modified.
+     */
+    @Override
+    public CompletableFuture<ByteBuffer> readAsync(final Hyperslab selection,
+            final ByteBuffer destination) {
+        final HyperslabCopyPlan plan = checkRead(selection, destination);
+        final int start = destination.position();
+        final ByteBuffer result = destination.duplicate().order(destination.order());
+        result.limit(start + (int) (plan.getNumberOfElements() * layout.getElementSize()));
+        final Supplier<List<ChunkEntry>> intersecting = () -> {
+            try {
+                return getIntersectingChunks(selection, plan);
+            } catch (final IOException e) {
+                throw new CompletionException(e);
+            }
+        };
+        // the index is only read if it is not loaded yet
+        final CompletableFuture<List<ChunkEntry>> entries = (chunks != null)
+                ? CompletableFuture.completedFuture(null).thenApply(v -> intersecting.get())
+                : CompletableFuture.supplyAsync(intersecting, pool);
+        return entries.thenCompose(all -> {
+            try {
+                fillUnwritten(plan, destination, start);
+            } catch (final IOException e) {
+                throw new CompletionException(e);
+            }
+            // each lane reads the next pending chunk once its previous one is decoded
+            final AtomicInteger next = new AtomicInteger();
+            final int lanes = Math.min(pool.getParallelism(), all.size());
+            final CompletableFuture<?>[] pending = new CompletableFuture<?>[lanes];
+            for (int i = 0; i < lanes; i++) {
+                pending[i] = readNextAsync(plan, all, next, destination, start);
+            }
+            return CompletableFuture.allOf(pending).thenApply(v -> result);
+        });
+    }
+
+    // reads and decodes the next pending chunk, and then the following ones
+    private CompletableFuture<Void> readNextAsync(final HyperslabCopyPlan plan,
+            final List<ChunkEntry> entries, final AtomicInteger next,
+            final ByteBuffer destination, final int start) {
+        final int index = next.getAndIncrement();
+        if (index >= entries.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final ChunkEntry chunk = entries.get(index);
+        final ByteBuffer raw = ByteBuffer.allocate(chunk.getSize());
+        return reader.readRawAsync(chunk.getAddress(), raw).thenCompose(read -> {
+            read.flip();
+            try {
+                decodeChunk(plan, chunk, read, destination, start);
+            } catch (final IOException e) {
+                throw new CompletionException(e);
+            }
+            return readNextAsync(plan, entries, next, destination, start);
+        });
+    }
+
+    // sets the selected elements to the fill value before copying the chunks, if it is defined
+    // and some chunks are not written
+    private void fillUnwritten(final HyperslabCopyPlan plan, final ByteBuffer destination,
+            final int start) throws IOException {
+        if (fillValue != null && hasUnwrittenChunks()) {
+            FillValues.fill(destination, start, plan.getNumberOfElements(), fillValue);
+        }
+    }
+
+    // checks the arguments of a read and returns the plan for the selection
+    private HyperslabCopyPlan checkRead(final Hyperslab selection, final ByteBuffer destination) {
+        Preconditions.checkArgument(selection != null, "null selection");
+        Preconditions.checkArgument(destination != null, "null destination");
+        Preconditions.checkArgument(!destination.isReadOnly(), "read-only destination");
+        Preconditions.checkArgument(selection.isWithin(dimensions),
+                "%s out of bounds for dimensions %s", selection, Arrays.toString(dimensions));
+        final HyperslabCopyPlan plan = new HyperslabCopyPlan(selection);
+        final long size = Math.multiplyExact(plan.getNumberOfElements(),
+                layout.getElementSize());
+        Preconditions.checkArgument(destination.remaining() >= size,
+                "destination should have at least %s bytes remaining", size);
+        return plan;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Each block is a chunk, truncated to the dataset size, decoded in the thread consuming
+     * it (not in the pool of this reader). Only the chunks written to the file are streamed.
+     */
+    @Override
+    public Stream<DatasetBlock> stream() {
+        final List<ChunkEntry> entries;
+        try {
+            entries = getChunks();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return StreamSupport.stream(new DatasetBlockSpliterator(
+                index -> readBlock(entries.get(index)), entries.size()), false);
+    }
+
+    /**
+     * Reads and decodes a chunk into a new buffer, truncated to the dataset size.
+     *
+     * @param chunk chunk to read.
+     *
+     * @return the block with the elements of the chunk.
+     *
+     * @throws IOException if an IO error occurs.
+     */
+    DatasetBlock readBlock(final ChunkEntry chunk) throws IOException {
+        return new DatasetBlock(chunk.getOffsets(), chunkExtent(chunk), readChunk(chunk));
+    }
+
+    // indexes the chunks by their position in the grid of chunks; null if any chunk is not
+    // aligned with the grid (reported when read) or the grid is too large
+    private Map<Long, ChunkEntry> indexByGrid(final List<ChunkEntry> entries) {
+        final Map<Long, ChunkEntry> grid = new HashMap<>(2 * entries.size());
+        try {
+            for (final ChunkEntry chunk : entries) {
+                final long[] offsets = chunk.getOffsets();
+                for (int i = 0; i < offsets.length; i++) {
+                    if (offsets[i] < 0 || offsets[i] >= dimensions[i]
+                            || offsets[i] % chunkDimensions[i] != 0) {
+                        return null;
+                    }
+                    offsets[i] /= chunkDimensions[i];
+                }
+                grid.put(gridIndex(offsets), chunk);
+            }
+        } catch (final ArithmeticException e) {
+            return null;
+        }
+        return grid;
+    }
+
+    // linear index in row-major order of the grid of chunks
+    private long gridIndex(final long[] chunkCoordinates) {
+        long gridIndex = 0;
+        for (int i = 0; i < chunkCoordinates.length; i++) {
+            final long chunksInDimension = (dimensions[i] + chunkDimensions[i] - 1)
+                    / chunkDimensions[i];
+            gridIndex = Math.addExact(Math.multiplyExact(gridIndex, chunksInDimension),
+                    chunkCoordinates[i]);
+        }
+        return gridIndex;
+    }
+
+    // gets the chunks with selected elements, sorted by offset
+    private List<ChunkEntry> getIntersectingChunks(final Hyperslab selection,
+            final HyperslabCopyPlan plan) throws IOException {
+        final List<ChunkEntry> entries = getChunks();
+        final Map<Long, ChunkEntry> grid = chunksByGridIndex;
+        final int rank = dimensions.length;
+        // range of chunk coordinates covered by the bounding box of the selection
+        final long[] start = selection.getStart();
+        final long[] stride = selection.getStride();
+        final long[] count = selection.getCount();
+        final long[] block = selection.getBlock();
+        final long[] first = new long[rank];
+        final long[] last = new long[rank];
+        long covered = (plan.getNumberOfElements() == 0) ? 0 : 1;
+        for (int i = 0; i < rank && covered != 0; i++) {
+            first[i] = start[i] / chunkDimensions[i];
+            last[i] = (start[i] + (count[i] - 1) * stride[i] + block[i] - 1)
+                    / chunkDimensions[i];
+            covered = multiplySaturated(covered, last[i] - first[i] + 1);
+        }
+        final List<ChunkEntry> intersecting = new ArrayList<>();
+        if (grid == null || covered > entries.size()) {
+            // scanning the entries is cheaper than looking up every covered chunk
+            for (final ChunkEntry chunk : entries) {
+                if (plan.intersects(chunk.getOffsets(), chunkExtent(chunk))) {
+                    intersecting.add(chunk);
+                }
+            }
+            return intersecting;
+        }
+        // look up the covered chunks in row-major order
+        final long[] coordinates = first.clone();
+        for (long k = 0; k < covered; k++) {
+            final ChunkEntry chunk = grid.get(gridIndex(coordinates));
+            if (chunk != null && plan.intersects(chunk.getOffsets(), chunkExtent(chunk))) {
+                intersecting.add(chunk);
+            }
+            for (int i = rank - 1; i >= 0 && ++coordinates[i] > last[i]; i--) {
+                coordinates[i] = first[i];
+            }
+        }
+        return intersecting;
+    }
+
+    private static long multiplySaturated(final long a, final long b) {
+        try {
+            return Math.multiplyExact(a, b);
+        } catch (final ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Gets the number of elements of a chunk inside the dataset in each dimension.
+     *
+     * @param chunk chunk of the dataset.
+     *
+     * @return the extent of the chunk, truncated to the dataset size.
+     *
+     * @throws HDF5jException if the offset of the chunk is invalid.
+     */
+    long[] chunkExtent(final ChunkEntry chunk) {
+        final int rank = layout.getRank();
+        final long[] extent = new long[rank];
+        for (int i = 0; i < rank; i++) {
+            final long offset = chunk.getOffset(i);
+            if (offset < 0 || offset >= dimensions[i] || offset % chunkDimensions[i] != 0) {
+                throw new HDF5jException(String.format("%s: invalid chunk offset for %s",
+                        reader.getPath(), chunk));
+            }
+            extent[i] = Math.min(chunkDimensions[i], dimensions[i] - offset);
+        }
+        return extent;
+    }
+
+    /**
+     * Reads and decodes a chunk into a new buffer, truncated to the dataset size.
+     *
+     * @param chunk chunk to read.
+     *
+     * @return the elements of the chunk in row-major order of its
+     * {@link #chunkExtent(ChunkEntry)}, in little-endian order.
+     *
+     * @throws IOException if an IO error occurs.
+     */
+    ByteBuffer readChunk(final ChunkEntry chunk) throws IOException {
+        final HyperslabCopyPlan plan =
+                new HyperslabCopyPlan(Hyperslab.region(chunk.getOffsets(), chunkExtent(chunk)));
+        final ByteBuffer data = ByteBuffer
+                .allocate((int) (plan.getNumberOfElements() * layout.getElementSize()))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        readChunk(plan, chunk, data, 0);
+        return data;
+    }
+
+    // reads, decodes and copies the selected elements of a single chunk
+    private void readChunk(final HyperslabCopyPlan plan, final ChunkEntry chunk,
+            final ByteBuffer destination, final int start) throws IOException {
+        ByteBuffer raw = RAW_CHUNK_BUFFER.get();
+        if (raw.capacity() < chunk.getSize()) {
+            raw = ByteBuffer.allocate(chunk.getSize());
+            RAW_CHUNK_BUFFER.set(raw);
+        }
+        raw.clear().limit(chunk.getSize());
+        reader.readRaw(chunk.getAddress(), raw);
+        raw.flip();
+        decodeChunk(plan, chunk, raw, destination, start);
+    }
+
+    // decodes a raw chunk and copies its selected elements
+    private void decodeChunk(final HyperslabCopyPlan plan, final ChunkEntry chunk,
+            final ByteBuffer raw, final ByteBuffer destination, final int start)
+            throws IOException {
+        final int expectedSize = layout.getChunkByteSize();
+        final ByteBuffer decoded = pipeline.decode(raw, chunk.getFilterMask(), expectedSize);
+        if (decoded.remaining() != expectedSize) {
+            throw new HDF5jException(String.format(
+                    "%s: decoded chunk %s has %s bytes (expected %s)",
+                    reader.getPath(), chunk, decoded.remaining(), expectedSize));
+        }
+        // each thread uses its own view of the buffers
+        final int elementSize = layout.getElementSize();
+        final int chunkStart = decoded.position();
+        final ByteBuffer source = decoded.duplicate();
+        final ByteBuffer target = destination.duplicate();
+        plan.forEachRun(chunk.getOffsets(), chunkExtent(chunk), chunkStrides,
+                (sourceElement, targetElement, length) -> {
+                    final int sourceOffset = chunkStart + (int) sourceElement * elementSize;
+                    source.limit(sourceOffset + (int) length * elementSize).position(sourceOffset);
+                    target.position(start + (int) (targetElement * elementSize));
+                    target.put(source);
+                });
+    }
+
+    // task processing a range of chunks, splitting it in halves if it is too large
+    @SuppressWarnings("serial")
+    private final class ChunkTask extends RecursiveAction {
+        private final HyperslabCopyPlan plan;
+        private final List<ChunkEntry> entries;
+        private final int from;
+        private final int to;
+        private final ByteBuffer destination;
+        private final int start;
+
+        private ChunkTask(final HyperslabCopyPlan plan, final List<ChunkEntry> entries,
+                final int from, final int to, final ByteBuffer destination, final int start) {
+            this.plan = plan;
+            this.entries = entries;
+            this.from = from;
+            this.to = to;
+            this.destination = destination;
+            this.start = start;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= DEFAULT_CHUNKS_PER_TASK) {
+                try {
+                    for (int i = from; i < to; i++) {
+                        readChunk(plan, entries.get(i), destination, start);
+                    }
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            } else {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new ChunkTask(plan, entries, from, middle, destination, start),
+                        new ChunkTask(plan, entries, middle, to, destination, start));
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s, %s, %s]", this.getClass().getSimpleName(),
+                reader.getPath(), layout, pipeline);
+    }
+}
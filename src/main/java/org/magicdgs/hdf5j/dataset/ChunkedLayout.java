@@ -0,0 +1,164 @@
+package org.magicdgs.hdf5j.dataset;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+
+/**
+ * Layout of a dataset stored in chunks, as described in the <b>Data Layout Message</b> (layout
+ * class 2).
+ *
+ * <p>The dimensions are stored in row-major order (the last dimension changes fastest), and the
+ * dimension for the size of the elements stored in the message is represented separately. The
+ * fill value of the dataset (from the <b>Fill Value Message</b>) is optional, and it is used for
+ * the elements of chunks that are not written to the file.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class ChunkedLayout {
+
+    private final long[] dimensions;
+    private final int[] chunkDimensions;
+    private final int elementSize;
+    private final long chunkIndexAddress;
+    private final byte[] fillValue;
+
+    /**
+     * Constructor for the chunked layout without fill value.
+     *
+     * @param dimensions        size of the dataset in each dimension (in elements).
+     * @param chunkDimensions   size of the chunks in each dimension (in elements).
+     * @param elementSize       size of each element (in bytes).
+     * @param chunkIndexAddress address of the B-tree indexing the chunks.
+     */
+    public ChunkedLayout(final long[] dimensions, final int[] chunkDimensions,
+            final int elementSize, final long chunkIndexAddress) {
+        this(dimensions, chunkDimensions, elementSize, chunkIndexAddress, null);
+    }
+
+    /**
+     * Constructor for the chunked layout.
+     *
+     * @param dimensions        size of the dataset in each dimension (in elements).
+     * @param chunkDimensions   size of the chunks in each dimension (in elements).
+     * @param elementSize       size of each element (in bytes).
+     * @param chunkIndexAddress address of the B-tree indexing the chunks.
+     * @param fillValue         bytes of the fill value (one element), or {@code null} if it is
+     *                          not defined.
+     */
+    public ChunkedLayout(final long[] dimensions, final int[] chunkDimensions,
+            final int elementSize, final long chunkIndexAddress, final byte[] fillValue) {
+        Preconditions.checkArgument(dimensions != null && dimensions.length != 0,
+                "null or empty dimensions");
+        Preconditions.checkArgument(chunkDimensions != null, "null chunk dimensions");
+        Preconditions.checkArgument(dimensions.length == chunkDimensions.length,
+                "dimensions and chunk dimensions should have the same rank: %s vs. %s",
+                dimensions.length, chunkDimensions.length);
+        Preconditions.checkArgument(elementSize > 0, "non-positive element size: %s",
+                elementSize);
+        Preconditions.checkArgument(fillValue == null || fillValue.length == elementSize,
+                "fill value should have %s bytes", elementSize);
+        long chunkSize = elementSize;
+        for (int i = 0; i < dimensions.length; i++) {
+            Preconditions.checkArgument(dimensions[i] >= 0, "negative dimension: %s",
+                    Arrays.toString(dimensions));
+            Preconditions.checkArgument(chunkDimensions[i] > 0,
+                    "non-positive chunk dimension: %s", Arrays.toString(chunkDimensions));
+            chunkSize *= chunkDimensions[i];
+            Preconditions.checkArgument(chunkSize <= Integer.MAX_VALUE,
+                    "chunks cannot be larger than %s bytes", Integer.MAX_VALUE);
+        }
+        this.dimensions = dimensions.clone();
+        this.chunkDimensions = chunkDimensions.clone();
+        this.elementSize = elementSize;
+        this.chunkIndexAddress = chunkIndexAddress;
+        this.fillValue = (fillValue == null) ? null : fillValue.clone();
+    }
+
+    /**
+     * Gets the number of dimensions of the dataset.
+     *
+     * @return the rank.
+     */
+    public int getRank() {
+        return dimensions.length;
+    }
+
+    /**
+     * Gets the size of the dataset.
+     *
+     * @return size in each dimension (in elements).
+     */
+    public long[] getDimensions() {
+        return dimensions.clone();
+    }
+
+    /**
+     * Gets the size of the chunks.
+     *
+     * @return size in each dimension (in elements).
+     */
+    public int[] getChunkDimensions() {
+        return chunkDimensions.clone();
+    }
+
+    /**
+     * Gets the size of each element.
+     *
+     * @return size in bytes.
+     */
+    public int getElementSize() {
+        return elementSize;
+    }
+
+    /**
+     * Gets the address of the chunk index.
+     *
+     * @return address of the root of the B-tree (relative to the base address).
+     */
+    public long getChunkIndexAddress() {
+        return chunkIndexAddress;
+    }
+
+    /**
+     * Gets the fill value of the dataset.
+     *
+     * @return bytes of the fill value (one element), or {@code null} if it is not defined.
+     */
+    public byte[] getFillValue() {
+        return (fillValue == null) ? null : fillValue.clone();
+    }
+
+    /**
+     * Gets the size of an unfiltered chunk.
+     *
+     * @return size in bytes.
+     */
+    public int getChunkByteSize() {
+        int size = elementSize;
+        for (final int dim : chunkDimensions) {
+            size *= dim;
+        }
+        return size;
+    }
+
+    /**
+     * Gets the size of the whole dataset.
+     *
+     * @return size in bytes.
+     */
+    public long getDatasetByteSize() {
+        long size = elementSize;
+        for (final long dim : dimensions) {
+            size = Math.multiplyExact(size, dim);
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[dimensions=%s, chunk=%s, elementSize=%s, index=%s]",
+                this.getClass().getSimpleName(), Arrays.toString(dimensions),
+                Arrays.toString(chunkDimensions), elementSize, chunkIndexAddress);
+    }
+}
@@ -0,0 +1,429 @@
+package org.magicdgs.hdf5j.dataset;
+
+import org.magicdgs.hdf5j.fileformat.level1.ChunkEntry;
+import org.magicdgs.hdf5j.fileformat.level2.DatatypeMessage;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Members of a compound dataset transposed into columns: a contiguous primitive array for each
+ * selected member (see {@link CompoundProjection#transpose(DatasetReader, ForkJoinPool)}).
+ *
+ * <p>The type of the column depends on the datatype of the member:
+ *
+ * <ul>
+ *     <li>Floating-point members of 4 and 8 bytes are stored as {@code float[]} and
+ *     {@code double[]}.</li>
+ *     <li>Fixed-point and enumerated members of 1, 2, 4 and 8 bytes are stored as {@code byte[]},
+ *     {@code short[]}, {@code int[]} and {@code long[]}. Unsigned values are stored with the same
+ *     bits (e.g., using {@link Integer#toUnsignedLong(int)} to recover them).</li>
+ *     <li>Any other member is stored as a {@code byte[]} with the raw bytes of each element, one
+ *     after the other.</li>
+ * </ul>
+ *
+ * <p>The dataset is read in blocks, which are transposed in parallel into their own region of the
+ * columns. For chunked datasets, each block is a chunk written to the file, decoded only once;
+ * otherwise, blocks are made of consecutive rows (the first dimension). Each block is read into
+ * its own buffer, so the elements not present in the file (e.g., unwritten chunks) are set to the
+ * fill value of the layout, or zero if it is not defined.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class CompoundColumns {
+
+    /** Preferred size of the blocks of rows transposed by each task (1 MiB). */
+    public static final int DEFAULT_BLOCK_BYTES = 1 << 20;
+
+    // kind of column for each member
+    private static final int DOUBLE = 0;
+    private static final int FLOAT = 1;
+    private static final int LONG = 2;
+    private static final int INT = 3;
+    private static final int SHORT = 4;
+    private static final int BYTE = 5;
+    private static final int RAW = 6;
+
+    private final List<DatatypeMessage.Member> members;
+    private final int elementSize;
+    private final int size;
+    private final int[] kinds;
+    private final ByteOrder[] orders;
+    private final Object[] columns;
+
+    private CompoundColumns(final CompoundProjection projection, final int size) {
+        this.members = projection.getMembers();
+        this.elementSize = projection.getType().getSize();
+        this.size = size;
+        this.kinds = new int[members.size()];
+        this.orders = new ByteOrder[members.size()];
+        this.columns = new Object[members.size()];
+        for (int i = 0; i < kinds.length; i++) {
+            final DatatypeMessage type = members.get(i).getType();
+            final DatatypeMessage numeric = (type.getTypeClass() == DatatypeMessage.ENUMERATED)
+                    ? type.getBaseType() : type;
+            kinds[i] = kind(numeric);
+            orders[i] = numeric.getByteOrder();
+            columns[i] = allocate(kinds[i], type.getSize(), size);
+        }
+    }
+
+    private static int kind(final DatatypeMessage type) {
+        if (type.getTypeClass() == DatatypeMessage.FLOATING_POINT) {
+            switch (type.getSize()) {
+                case Double.BYTES:
+                    return DOUBLE;
+                case Float.BYTES:
+                    return FLOAT;
+                default:
+                    return RAW;
+            }
+        } else if (type.getTypeClass() == DatatypeMessage.FIXED_POINT) {
+            switch (type.getSize()) {
+                case Long.BYTES:
+                    return LONG;
+                case Integer.BYTES:
+                    return INT;
+                case Short.BYTES:
+                    return SHORT;
+                case Byte.BYTES:
+                    return BYTE;
+                default:
+                    return RAW;
+            }
+        }
+        return RAW;
+    }
+
+    private static Object allocate(final int kind, final int memberSize, final int size) {
+        switch (kind) {
+            case DOUBLE:
+                return new double[size];
+            case FLOAT:
+                return new float[size];
+            case LONG:
+                return new long[size];
+            case INT:
+                return new int[size];
+            case SHORT:
+                return new short[size];
+            case BYTE:
+                return new byte[size];
+            default:
+                final long bytes = (long) memberSize * size;
+                Preconditions.checkArgument(bytes <= Integer.MAX_VALUE,
+                        "column too large for a single array: %s bytes", bytes);
+                return new byte[(int) bytes];
+        }
+    }
+
+    /**
+     * Reads and transposes all the elements of a dataset.
+     *
+     * @param projection members to transpose.
+     * @param reader     reader for the dataset.
+     * @param pool       pool to transpose the blocks.
+     *
+     * @return the columns.
+     *
+     * @throws IOException if an IO error occurs.
+     */
+    static CompoundColumns read(final CompoundProjection projection, final DatasetReader reader,
+            final ForkJoinPool pool) throws IOException {
+        final long[] dimensions = reader.getDimensions();
+        Preconditions.checkArgument(dimensions.length != 0, "scalar datasets not supported");
+        long elements = 1;
+        for (final long dimension : dimensions) {
+            elements = Math.multiplyExact(elements, dimension);
+        }
+        Preconditions.checkArgument(elements <= Integer.MAX_VALUE,
+                "dataset too large for a single column: %s elements", elements);
+        final CompoundColumns result = new CompoundColumns(projection, (int) elements);
+        if (elements == 0) {
+            return result;
+        }
+        final DatasetBlockSpliterator.BlockReader blocks;
+        final int numberOfBlocks;
+        if (reader instanceof ChunkedDatasetReader) {
+            final ChunkedDatasetReader chunked = (ChunkedDatasetReader) reader;
+            final List<ChunkEntry> entries = chunked.getChunks();
+            final byte[] fillValue = chunked.getLayout().getFillValue();
+            if (fillValue != null && chunked.hasUnwrittenChunks()) {
+                result.fill(fillValue);
+            }
+            blocks = index -> chunked.readBlock(entries.get(index));
+            numberOfBlocks = entries.size();
+        } else {
+            final long rowBytes = elements / dimensions[0] * result.elementSize;
+            final long rowsPerBlock = Math.max(1, DEFAULT_BLOCK_BYTES / rowBytes);
+            Preconditions.checkArgument(rowsPerBlock * rowBytes <= Integer.MAX_VALUE,
+                    "blocks of %s rows too large for a single buffer", rowsPerBlock);
+            blocks = index -> readRows(reader, dimensions, index * rowsPerBlock, rowsPerBlock);
+            numberOfBlocks = (int) ((dimensions[0] + rowsPerBlock - 1) / rowsPerBlock);
+        }
+        if (numberOfBlocks != 0) {
+            try {
+                pool.invoke(result.new BlockTask(blocks, dimensions, 0, numberOfBlocks));
+            } catch (final UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        return result;
+    }
+
+    // reads the rows [firstRow, firstRow + rows) into a new buffer, truncated to the dataset size
+    private static DatasetBlock readRows(final DatasetReader reader, final long[] dimensions,
+            final long firstRow, final long rows) throws IOException {
+        final long[] offset = new long[dimensions.length];
+        final long[] extent = dimensions.clone();
+        offset[0] = firstRow;
+        extent[0] = Math.min(rows, dimensions[0] - firstRow);
+        final Hyperslab selection = Hyperslab.region(offset, extent);
+        final ByteBuffer data = ByteBuffer
+                .allocate((int) (selection.getNumberOfElements() * reader.getElementSize()))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        reader.read(selection, data);
+        data.flip();
+        return new DatasetBlock(offset, extent, data);
+    }
+
+    // sets every element of the columns to the fill value (one element)
+    private void fill(final byte[] fillValue) {
+        final ByteBuffer element = ByteBuffer.wrap(fillValue);
+        for (int i = 0; i < size; i++) {
+            transpose(element, 0, i, 1);
+        }
+    }
+
+    // transposes the elements of the block into their column positions, one row at a time
+    private void transpose(final DatasetBlock block, final long[] dimensions) {
+        final int rank = dimensions.length;
+        final long[] offset = block.getOffset();
+        final long[] extent = block.getDimensions();
+        final ByteBuffer data = block.getData();
+        // rows of the block (last dimension) are consecutive in the columns
+        final int rowLength = (int) extent[rank - 1];
+        final long[] index = new long[rank];
+        final long rows = block.getNumberOfElements() / Math.max(1, rowLength);
+        for (long row = 0; row < rows && rowLength != 0; row++) {
+            long first = 0;
+            for (int i = 0; i < rank; i++) {
+                first = first * dimensions[i] + offset[i] + index[i];
+            }
+            transpose(data, (int) (row * rowLength), (int) first, rowLength);
+            // next row in row-major order of the leading dimensions
+            for (int i = rank - 2; i >= 0 && ++index[i] == extent[i]; i--) {
+                index[i] = 0;
+            }
+        }
+    }
+
+    // copies each member of count elements (from the element start of the block) to the columns
+    // (from the element first), one member at a time
+    private void transpose(final ByteBuffer block, final int start, final int first,
+            final int count) {
+        for (int m = 0; m < kinds.length; m++) {
+            final ByteBuffer source = block.duplicate().order(orders[m]);
+            int position = start * elementSize + members.get(m).getOffset();
+            switch (kinds[m]) {
+                case DOUBLE:
+                    final double[] doubles = (double[]) columns[m];
+                    for (int i = first; i < first + count; i++, position += elementSize) {
+                        doubles[i] = source.getDouble(position);
+                    }
+                    break;
+                case FLOAT:
+                    final float[] floats = (float[]) columns[m];
+                    for (int i = first; i < first + count; i++, position += elementSize) {
+                        floats[i] = source.getFloat(position);
+                    }
+                    break;
+                case LONG:
+                    final long[] longs = (long[]) columns[m];
+                    for (int i = first; i < first + count; i++, position += elementSize) {
+                        longs[i] = source.getLong(position);
+                    }
+                    break;
+                case INT:
+                    final int[] ints = (int[]) columns[m];
+                    for (int i = first; i < first + count; i++, position += elementSize) {
+                        ints[i] = source.getInt(position);
+                    }
+                    break;
+                case SHORT:
+                    final short[] shorts = (short[]) columns[m];
+                    for (int i = first; i < first + count; i++, position += elementSize) {
+                        shorts[i] = source.getShort(position);
+                    }
+                    break;
+                case BYTE:
+                    final byte[] bytes = (byte[]) columns[m];
+                    for (int i = first; i < first + count; i++, position += elementSize) {
+                        bytes[i] = source.get(position);
+                    }
+                    break;
+                default:
+                    final byte[] raw = (byte[]) columns[m];
+                    final int memberSize = members.get(m).getType().getSize();
+                    for (int i = first; i < first + count; i++, position += elementSize) {
+                        source.limit(position + memberSize).position(position);
+                        source.get(raw, i * memberSize, memberSize);
+                    }
+                    break;
+            }
+        }
+    }
+
+    // task transposing a range of blocks, splitting it in halves if there is more than one
+    @SuppressWarnings("serial")
+    private final class BlockTask extends RecursiveAction {
+        private final DatasetBlockSpliterator.BlockReader blocks;
+        private final long[] dimensions;
+        private final int from;
+        private final int to;
+
+        private BlockTask(final DatasetBlockSpliterator.BlockReader blocks,
+                final long[] dimensions, final int from, final int to) {
+            this.blocks = blocks;
+            this.dimensions = dimensions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                try {
+                    transpose(blocks.read(from), dimensions);
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            } else {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new BlockTask(blocks, dimensions, from, middle),
+                        new BlockTask(blocks, dimensions, middle, to));
+            }
+        }
+    }
+
+    /**
+     * Gets the number of elements in each column.
+     *
+     * @return the number of elements.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the transposed members.
+     *
+     * @return unmodifiable list of members, in the order of the projection.
+     */
+    public List<DatatypeMessage.Member> getMembers() {
+        return members;
+    }
+
+    /**
+     * Gets the column of an 8-byte floating-point member.
+     *
+     * @param name name of the member.
+     *
+     * @return the column (not a copy).
+     */
+    public double[] getDoubles(final String name) {
+        return (double[]) column(name, DOUBLE);
+    }
+
+    /**
+     * Gets the column of a 4-byte floating-point member.
+     *
+     * @param name name of the member.
+     *
+     * @return the column (not a copy).
+     */
+    public float[] getFloats(final String name) {
+        return (float[]) column(name, FLOAT);
+    }
+
+    /**
+     * Gets the column of an 8-byte fixed-point member.
+     *
+     * @param name name of the member.
+     *
+     * @return the column (not a copy).
+     */
+    public long[] getLongs(final String name) {
+        return (long[]) column(name, LONG);
+    }
+
+    /**
+     * Gets the column of a 4-byte fixed-point member.
+     *
+     * @param name name of the member.
+     *
+     * @return the column (not a copy).
+     */
+    public int[] getInts(final String name) {
+        return (int[]) column(name, INT);
+    }
+
+    /**
+     * Gets the column of a 2-byte fixed-point member.
+     *
+     * @param name name of the member.
+     *
+     * @return the column (not a copy).
+     */
+    public short[] getShorts(final String name) {
+        return (short[]) column(name, SHORT);
+    }
+
+    /**
+     * Gets the column of a 1-byte fixed-point member, or the raw bytes of any other member not
+     * stored as a primitive column.
+     *
+     * @param name name of the member.
+     *
+     * @return the column (not a copy).
+     */
+    public byte[] getBytes(final String name) {
+        final int index = indexOf(name);
+        if (kinds[index] != BYTE && kinds[index] != RAW) {
+            throw new IllegalStateException(name + " is not stored as bytes");
+        }
+        return (byte[]) columns[index];
+    }
+
+    private Object column(final String name, final int kind) {
+        final int index = indexOf(name);
+        if (kinds[index] != kind) {
+            throw new IllegalStateException(String.format(
+                    "%s is stored in another type of column (%s bytes)", name,
+                    members.get(index).getType().getSize()));
+        }
+        return columns[index];
+    }
+
+    private int indexOf(final String name) {
+        for (int i = 0; i < members.size(); i++) {
+            if (members.get(i).getName().equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Member not transposed: " + name);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[members=%s, size=%s]", this.getClass().getSimpleName(),
+                members.size(), size);
+    }
+}
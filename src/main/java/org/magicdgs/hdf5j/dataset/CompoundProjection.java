@@ -0,0 +1,178 @@
+package org.magicdgs.hdf5j.dataset;
+
+import org.magicdgs.hdf5j.fileformat.level2.DatatypeMessage;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Projection of a compound datatype into a subset of its members, accessed as a
+ * {@link FieldView} for each member over the buffer holding the elements.
+ *
+ * <p>The elements are kept as they are read by the {@link DatasetReader}: projecting them does not
+ * copy any byte or create an object for each element, so the cost is independent of the number of
+ * members of the compound that are not selected.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class CompoundProjection {
+
+    private final DatatypeMessage type;
+    private final List<DatatypeMessage.Member> members;
+
+    private CompoundProjection(final DatatypeMessage type,
+            final List<DatatypeMessage.Member> members) {
+        this.type = type;
+        this.members = Collections.unmodifiableList(members);
+    }
+
+    /**
+     * Creates a projection into the members with the provided names.
+     *
+     * @param type  compound datatype.
+     * @param names names of the members to select, in the order of the returned views.
+     *
+     * @return the projection.
+     *
+     * @throws HDF5jException if any of the members is not present in the datatype.
+     */
+    public static CompoundProjection of(final DatatypeMessage type, final String... names) {
+        Preconditions.checkArgument(type != null, "null type");
+        Preconditions.checkArgument(type.getTypeClass() == DatatypeMessage.COMPOUND,
+                "not a compound datatype: %s", type);
+        Preconditions.checkArgument(names != null && names.length != 0, "null or empty names");
+        final List<DatatypeMessage.Member> members = new ArrayList<>(names.length);
+        for (final String name : names) {
+            final DatatypeMessage.Member member = type.getMember(name);
+            if (member == null) {
+                throw new HDF5jException("Member not found in compound datatype: " + name);
+            }
+            members.add(member);
+        }
+        return new CompoundProjection(type, members);
+    }
+
+    /**
+     * Gets the compound datatype.
+     *
+     * @return the datatype.
+     */
+    public DatatypeMessage getType() {
+        return type;
+    }
+
+    /**
+     * Gets the selected members.
+     *
+     * @return unmodifiable list of members.
+     */
+    public List<DatatypeMessage.Member> getMembers() {
+        return members;
+    }
+
+    /**
+     * Projects the elements in the buffer (from position to limit).
+     *
+     * @param elements buffer with the compound elements. It is not modified, and the views reflect
+     *                 any later modification.
+     *
+     * @return a view for each of the selected members, in the order of the selection.
+     */
+    public List<FieldView> project(final ByteBuffer elements) {
+        Preconditions.checkArgument(elements != null, "null elements");
+        final int elementSize = type.getSize();
+        Preconditions.checkArgument(elements.remaining() % elementSize == 0,
+                "%s bytes are not a multiple of the element size (%s)", elements.remaining(),
+                elementSize);
+        final int size = elements.remaining() / elementSize;
+        final List<FieldView> views = new ArrayList<>(members.size());
+        for (final DatatypeMessage.Member member : members) {
+            views.add(new FieldView(member.getName(), member.getType(), elements,
+                    elements.position() + member.getOffset(), elementSize, size));
+        }
+        return views;
+    }
+
+    /**
+     * Reads the selected elements of a dataset and projects them.
+     *
+     * @param reader    reader for the dataset, with elements of the compound datatype.
+     * @param selection elements to read.
+     *
+     * @return a view for each of the selected members, in the order of the selection.
+     *
+     * @throws HDF5jException if the data cannot be decoded.
+     * @throws IOException    if an IO error occurs.
+     */
+    public List<FieldView> read(final DatasetReader reader, final Hyperslab selection)
+            throws IOException {
+        Preconditions.checkArgument(reader != null, "null reader");
+        Preconditions.checkArgument(selection != null, "null selection");
+        Preconditions.checkArgument(reader.getElementSize() == type.getSize(),
+                "element size of the dataset (%s) does not match the datatype (%s)",
+                reader.getElementSize(), type.getSize());
+        final long size = Math.multiplyExact(selection.getNumberOfElements(), type.getSize());
+        Preconditions.checkArgument(size <= Integer.MAX_VALUE,
+                "selection too large for a single buffer: %s bytes", size);
+        final ByteBuffer elements = ByteBuffer.allocate((int) size);
+        reader.read(selection, elements);
+        elements.flip();
+        return project(elements);
+    }
+
+    /**
+     * Reads all the elements of a dataset and transposes them into a column for each selected
+     * member, using the {@link ForkJoinPool#commonPool()}.
+     *
+     * @param reader reader for the dataset, with elements of the compound datatype.
+     *
+     * @return the columns.
+     *
+     * @throws HDF5jException if the data cannot be decoded.
+     * @throws IOException    if an IO error occurs.
+     */
+    public CompoundColumns transpose(final DatasetReader reader) throws IOException {
+        return transpose(reader, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Reads all the elements of a dataset and transposes them into a column for each selected
+     * member.
+     *
+     * <p>Blocks of rows (aligned with the chunks for a {@link ChunkedDatasetReader}) are read and
+     * transposed in parallel, without materializing the whole dataset in row order.
+     *
+     * @param reader reader for the dataset, with elements of the compound datatype.
+     * @param pool   pool to transpose the blocks.
+     *
+     * @return the columns.
+     *
+     * @throws HDF5jException if the data cannot be decoded.
+     * @throws IOException    if an IO error occurs.
+     */
+    public CompoundColumns transpose(final DatasetReader reader, final ForkJoinPool pool)
+            throws IOException {
+        Preconditions.checkArgument(reader != null, "null reader");
+        Preconditions.checkArgument(pool != null, "null pool");
+        Preconditions.checkArgument(reader.getElementSize() == type.getSize(),
+                "element size of the dataset (%s) does not match the datatype (%s)",
+                reader.getElementSize(), type.getSize());
+        return CompoundColumns.read(this, reader, pool);
+    }
+
+    @Override
+    public String toString() {
+        final List<String> names = new ArrayList<>(members.size());
+        for (final DatatypeMessage.Member member : members) {
+            names.add(member.getName());
+        }
+        return String.format("%s[%s]", this.getClass().getSimpleName(), names);
+    }
+}
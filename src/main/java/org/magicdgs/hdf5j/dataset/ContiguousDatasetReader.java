@@ -0,0 +1,414 @@
+package org.magicdgs.hdf5j.dataset;
+
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reader for datasets with {@link ContiguousLayout}.
+ *
+ * <p>Hyperslab selections are read with a positional read for each run of consecutive bytes in
+ * the file. Runs separated by small gaps (at most {@link #MAXIMUM_GAP_BYTES}) are read at once
+ * into a scratch buffer of at most {@link #MAXIMUM_SPAN_BYTES} and the selected elements are
+ * copied from it, trading a few unselected bytes for fewer reads (e.g., for strided selections).
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class ContiguousDatasetReader implements DatasetReader {
+
+    /** Preferred size of the blocks of rows returned by {@link #stream()} (1 MiB). */
+    public static final int DEFAULT_BLOCK_BYTES = 1 << 20;
+
+    /** Maximum gap between two runs of selected bytes to read them at once (4 KiB). */
+    public static final int MAXIMUM_GAP_BYTES = 1 << 12;
+
+    /**
+     * Maximum size of a read spanning several runs of selected bytes (64 KiB, as the default
+     * sieve buffer of the HDF5 library).
+     */
+    public static final int MAXIMUM_SPAN_BYTES = 1 << 16;
+
+    private final HDF5FileReader reader;
+    private final ContiguousLayout layout;
+
+    // cached from the layout
+    private final long[] dimensions;
+    private final byte[] fillValue;
+    // element strides of the dataset
+    private final long[] strides;
+
+    /**
+     * Constructor for the reader.
+     *
+     * @param reader reader for the file.
+     * @param layout layout of the dataset.
+     */
+    public ContiguousDatasetReader(final HDF5FileReader reader, final ContiguousLayout layout) {
+        Preconditions.checkArgument(reader != null, "null reader");
+        Preconditions.checkArgument(layout != null, "null layout");
+        this.reader = reader;
+        this.layout = layout;
+        this.dimensions = layout.getDimensions();
+        this.fillValue = layout.getFillValue();
+        final int rank = layout.getRank();
+        this.strides = new long[rank];
+        strides[rank - 1] = 1;
+        for (int i = rank - 2; i >= 0; i--) {
+            strides[i] = strides[i + 1] * dimensions[i + 1];
+        }
+    }
+
+    /**
+     * Gets the layout of the dataset.
+     *
+     * @return the layout.
+     */
+    public ContiguousLayout getLayout() {
+        return layout;
+    }
+
+    @Override
+    public long[] getDimensions() {
+        return dimensions.clone();
+    }
+
+    @Override
+    public int getElementSize() {
+        return layout.getElementSize();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Note: if the storage is not allocated, the elements are set to the fill value of the
+     * layout; if it is not defined, the destination is not modified.
+     */
+    @Override
+    public void read(final ByteBuffer destination) throws IOException {
+        Preconditions.checkArgument(destination != null, "null destination");
+        final long size = layout.getDatasetByteSize();
+        Preconditions.checkArgument(destination.remaining() >= size,
+                "destination should have at least %s bytes remaining", size);
+        if (size != 0) {
+            read(Hyperslab.all(dimensions), destination);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Note: if the storage is not allocated, the elements are set to the fill value of the
+     * layout; if it is not defined, the destination is not modified.
+     */
+    @Override
+    public void read(final Hyperslab selection, final ByteBuffer destination)
+            throws IOException {
+        final HyperslabCopyPlan plan = checkRead(selection, destination);
+        if (layout.getAddress() != ContiguousLayout.UNALLOCATED) {
+            final RunReader runReader = new RunReader(destination, null);
+            plan.forEachRun(new long[dimensions.length], dimensions, strides, runReader);
+            runReader.flush();
+        } else if (fillValue != null) {
+            FillValues.fill(destination, destination.position(), plan.getNumberOfElements(),
+                    fillValue);
+        }
+        destination.position(destination.position()
+                + (int) (plan.getNumberOfElements() * layout.getElementSize()));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The runs of consecutive bytes in the file are read asynchronously. At most
+     * {@link ForkJoinPool#getCommonPoolParallelism()} reads are outstanding at once; the next
+     * read is issued as each of them completes.
+     *
+     * <p>Note: if the storage is not allocated, the elements are set to the fill value of the
+     * layout; if it is not defined, the destination is not modified.
+     */
+    @Override
+    public CompletableFuture<ByteBuffer> readAsync(final Hyperslab selection,
+            final ByteBuffer destination) {
+        final HyperslabCopyPlan plan = checkRead(selection, destination);
+        final ByteBuffer result = destination.duplicate().order(destination.order());
+        result.limit(result.position()
+                + (int) (plan.getNumberOfElements() * layout.getElementSize()));
+        if (layout.getAddress() == ContiguousLayout.UNALLOCATED || !result.hasRemaining()) {
+            if (fillValue != null) {
+                FillValues.fill(result, result.position(), plan.getNumberOfElements(),
+                        fillValue);
+            }
+            return CompletableFuture.completedFuture(result);
+        }
+        final List<long[]> runs = new ArrayList<>();
+        final RunReader runReader = new RunReader(destination, runs);
+        try {
+            plan.forEachRun(new long[dimensions.length], dimensions, strides, runReader);
+            runReader.flush();
+        } catch (final IOException e) {
+            // runs are not read synchronously, but the consumer might throw
+            final CompletableFuture<ByteBuffer> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        // each lane reads the next pending run once its previous read completes
+        final AtomicInteger next = new AtomicInteger();
+        final int lanes = Math.min(ForkJoinPool.getCommonPoolParallelism(), runs.size());
+        final CompletableFuture<?>[] pending = new CompletableFuture<?>[lanes];
+        for (int i = 0; i < lanes; i++) {
+            pending[i] = readNextAsync(runs, next, destination);
+        }
+        return CompletableFuture.allOf(pending).thenApply(v -> result);
+    }
+
+    // reads the next pending run ({address, position, bytes}), and then the following ones
+    private CompletableFuture<Void> readNextAsync(final List<long[]> runs,
+            final AtomicInteger next, final ByteBuffer destination) {
+        final int index = next.getAndIncrement();
+        if (index >= runs.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final long[] run = runs.get(index);
+        // each read uses its own view of the buffer
+        final ByteBuffer buffer = destination.duplicate();
+        buffer.limit((int) (run[1] + run[2])).position((int) run[1]);
+        return reader.readRawAsync(run[0], buffer)
+                .thenCompose(read -> readNextAsync(runs, next, destination));
+    }
+
+    // checks the arguments of a read and returns the plan for the selection
+    private HyperslabCopyPlan checkRead(final Hyperslab selection, final ByteBuffer destination) {
+        Preconditions.checkArgument(selection != null, "null selection");
+        Preconditions.checkArgument(destination != null, "null destination");
+        Preconditions.checkArgument(!destination.isReadOnly(), "read-only destination");
+        Preconditions.checkArgument(selection.isWithin(dimensions),
+                "%s out of bounds for dimensions %s", selection, Arrays.toString(dimensions));
+        final HyperslabCopyPlan plan = new HyperslabCopyPlan(selection);
+        final long size = Math.multiplyExact(plan.getNumberOfElements(), layout.getElementSize());
+        Preconditions.checkArgument(destination.remaining() >= size,
+                "destination should have at least %s bytes remaining", size);
+        return plan;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Blocks contain consecutive rows (first dimension) of about {@link #DEFAULT_BLOCK_BYTES}
+     * bytes, or a single row if it is larger.
+     */
+    @Override
+    public Stream<DatasetBlock> stream() {
+        long rowBytes = layout.getElementSize();
+        for (int i = 1; i < dimensions.length; i++) {
+            rowBytes = Math.multiplyExact(rowBytes, dimensions[i]);
+        }
+        if (dimensions[0] == 0 || rowBytes == 0) {
+            return Stream.empty();
+        }
+        Preconditions.checkState(rowBytes <= Integer.MAX_VALUE,
+                "rows too large for a single block: %s bytes", rowBytes);
+        final long rowsPerBlock = Math.max(1, DEFAULT_BLOCK_BYTES / rowBytes);
+        final long blocks = (dimensions[0] + rowsPerBlock - 1) / rowsPerBlock;
+        Preconditions.checkState(blocks <= Integer.MAX_VALUE, "too many blocks: %s", blocks);
+        return StreamSupport.stream(new DatasetBlockSpliterator(
+                index -> readRows(index * rowsPerBlock, rowsPerBlock), (int) blocks), false);
+    }
+
+    // reads a block of rows, truncated to the dataset size
+    private DatasetBlock readRows(final long firstRow, final long rows) throws IOException {
+        final long[] offset = new long[dimensions.length];
+        final long[] extent = dimensions.clone();
+        offset[0] = firstRow;
+        extent[0] = Math.min(rows, dimensions[0] - firstRow);
+        final Hyperslab selection = Hyperslab.region(offset, extent);
+        final ByteBuffer data = ByteBuffer
+                .allocate((int) (selection.getNumberOfElements() * layout.getElementSize()))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        read(selection, data);
+        data.flip();
+        return new DatasetBlock(offset, extent, data);
+    }
+
+    /**
+     * Maps the data of the dataset into memory, without reading it into the Java heap.
+     *
+     * @return read-only little-endian buffer with the elements of the dataset.
+     *
+     * @throws IllegalStateException if the storage is not allocated.
+     * @throws IOException           if an IO error occurs.
+     */
+    public ByteBuffer map() throws IOException {
+        final long size = layout.getDatasetByteSize();
+        Preconditions.checkState(size <= Integer.MAX_VALUE,
+                "dataset too large for a single mapping: %s bytes", size);
+        final ByteBuffer mapped = mapSelection(Hyperslab.all(dimensions));
+        return (mapped == null) ? ByteBuffer.allocate(0).asReadOnlyBuffer() : mapped;
+    }
+
+    /**
+     * Maps the selected elements into memory if they are consecutive in the file.
+     *
+     * @param selection elements to map.
+     *
+     * @return read-only little-endian buffer with the selected elements; {@code null} if they
+     *     are not consecutive in the file.
+     *
+     * @throws IllegalStateException if the storage is not allocated.
+     * @throws IOException           if an IO error occurs.
+     */
+    ByteBuffer mapSelection(final Hyperslab selection) throws IOException {
+        Preconditions.checkArgument(selection != null, "null selection");
+        Preconditions.checkArgument(selection.isWithin(dimensions),
+                "%s out of bounds for dimensions %s", selection, Arrays.toString(dimensions));
+        Preconditions.checkState(layout.getAddress() != ContiguousLayout.UNALLOCATED,
+                "storage not allocated");
+        final HyperslabCopyPlan plan = new HyperslabCopyPlan(selection);
+        final long size = Math.multiplyExact(plan.getNumberOfElements(), layout.getElementSize());
+        if (size == 0 || size > Integer.MAX_VALUE) {
+            return (size == 0) ? ByteBuffer.allocate(0).asReadOnlyBuffer() : null;
+        }
+        // first element and number of elements, if the runs are consecutive
+        final long[] range = {-1, 0};
+        plan.forEachRun(new long[dimensions.length], dimensions, strides,
+                (source, target, length) -> {
+                    if (range[0] == -1) {
+                        range[0] = source;
+                    } else if (range[1] != -1 && source != range[0] + range[1]) {
+                        range[1] = -1;
+                    }
+                    if (range[1] != -1) {
+                        range[1] += length;
+                    }
+                });
+        if (range[1] == -1) {
+            return null;
+        }
+        return reader.mapRaw(layout.getAddress() + range[0] * layout.getElementSize(),
+                (int) size);
+    }
+
+    // reads the runs of the plan, merging consecutive ones into a single read; if they are read
+    // now, runs separated by small gaps are also read at once (a span)
+    private final class RunReader implements HyperslabCopyPlan.RunConsumer {
+        private final ByteBuffer buffer;
+        private final int start;
+        private final int elementSize;
+        // runs to read asynchronously ({address, position, bytes}); null if they are read now
+        private final List<long[]> pending;
+        // pending run
+        private long source = 0;
+        private long offset = 0;
+        private long length = 0;
+        // runs of the current span ({source, target, length} for each of them)
+        private long[] span = new long[3 * 8];
+        private int spanRuns = 0;
+        // buffer for reading spans with more than one run; allocated when needed
+        private ByteBuffer scratch = null;
+
+        private RunReader(final ByteBuffer destination, final List<long[]> pending) {
+            this.buffer = destination.duplicate();
+            this.start = destination.position();
+            this.elementSize = layout.getElementSize();
+            this.pending = pending;
+        }
+
+        @Override
+        public void accept(final long source, final long target, final long length)
+                throws IOException {
+            if (this.length != 0 && source == this.source + this.length
+                    && target == this.offset + this.length) {
+                this.length += length;
+            } else {
+                endRun();
+                this.source = source;
+                this.offset = target;
+                this.length = length;
+            }
+        }
+
+        private void flush() throws IOException {
+            endRun();
+            flushSpan();
+        }
+
+        // queues the pending run or adds it to the span, reading the span first if it does not fit
+        private void endRun() throws IOException {
+            if (length == 0) {
+                return;
+            }
+            if (pending != null) {
+                pending.add(new long[] {layout.getAddress() + source * elementSize,
+                        start + offset * elementSize, length * elementSize});
+            } else {
+                if (spanRuns != 0 && !fitsInSpan()) {
+                    flushSpan();
+                }
+                if (3 * spanRuns == span.length) {
+                    span = Arrays.copyOf(span, 2 * span.length);
+                }
+                span[3 * spanRuns] = source;
+                span[3 * spanRuns + 1] = offset;
+                span[3 * spanRuns + 2] = length;
+                spanRuns++;
+            }
+            length = 0;
+        }
+
+        // true if the pending run is close enough to the end of the span
+        private boolean fitsInSpan() {
+            final int last = 3 * (spanRuns - 1);
+            final long spanEnd = span[last] + span[last + 2];
+            return source >= spanEnd && (source - spanEnd) * elementSize <= MAXIMUM_GAP_BYTES
+                    && (source + length - span[0]) * elementSize <= MAXIMUM_SPAN_BYTES;
+        }
+
+        private void flushSpan() throws IOException {
+            if (spanRuns == 0) {
+                return;
+            }
+            final long address = layout.getAddress() + span[0] * elementSize;
+            if (spanRuns == 1) {
+                final int position = start + (int) (span[1] * elementSize);
+                buffer.limit(position + (int) (span[2] * elementSize)).position(position);
+                reader.readRaw(address, buffer);
+            } else {
+                final int last = 3 * (spanRuns - 1);
+                final int bytes = (int) ((span[last] + span[last + 2] - span[0]) * elementSize);
+                if (scratch == null || scratch.capacity() < bytes) {
+                    scratch = ByteBuffer.allocate(bytes);
+                }
+                scratch.clear().limit(bytes);
+                reader.readRaw(address, scratch);
+                for (int i = 0; i < 3 * spanRuns; i += 3) {
+                    final int from = (int) ((span[i] - span[0]) * elementSize);
+                    final int position = start + (int) (span[i + 1] * elementSize);
+                    final int runBytes = (int) (span[i + 2] * elementSize);
+                    scratch.limit(from + runBytes).position(from);
+                    buffer.limit(position + runBytes).position(position);
+                    buffer.put(scratch);
+                }
+            }
+            spanRuns = 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s, %s]", this.getClass().getSimpleName(), reader.getPath(),
+                layout);
+    }
+}
@@ -0,0 +1,130 @@
+package org.magicdgs.hdf5j.dataset;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+
+/**
+ * Layout of a dataset stored contiguously in the file, as described in the <b>Data Layout
+ * Message</b> (layout class 1).
+ *
+ * <p>The dimensions are stored in row-major order (the last dimension changes fastest). The fill
+ * value of the dataset (from the <b>Fill Value Message</b>) is optional, and it is used for the
+ * elements of datasets without allocated storage.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class ContiguousLayout {
+
+    /** Address of datasets without allocated storage. */
+    public static final long UNALLOCATED = -1;
+
+    private final long[] dimensions;
+    private final int elementSize;
+    private final long address;
+    private final byte[] fillValue;
+
+    /**
+     * Constructor for the contiguous layout without fill value.
+     *
+     * @param dimensions  size of the dataset in each dimension (in elements).
+     * @param elementSize size of each element (in bytes).
+     * @param address     address of the raw data, or {@link #UNALLOCATED} if it is not allocated.
+     */
+    public ContiguousLayout(final long[] dimensions, final int elementSize, final long address) {
+        this(dimensions, elementSize, address, null);
+    }
+
+    /**
+     * Constructor for the contiguous layout.
+     *
+     * @param dimensions  size of the dataset in each dimension (in elements).
+     * @param elementSize size of each element (in bytes).
+     * @param address     address of the raw data, or {@link #UNALLOCATED} if it is not allocated.
+     * @param fillValue   bytes of the fill value (one element), or {@code null} if it is not
+     *                    defined.
+     */
+    public ContiguousLayout(final long[] dimensions, final int elementSize, final long address,
+            final byte[] fillValue) {
+        Preconditions.checkArgument(dimensions != null && dimensions.length != 0,
+                "null or empty dimensions");
+        Preconditions.checkArgument(elementSize > 0, "non-positive element size: %s",
+                elementSize);
+        Preconditions.checkArgument(address >= UNALLOCATED, "invalid address: %s", address);
+        Preconditions.checkArgument(fillValue == null || fillValue.length == elementSize,
+                "fill value should have %s bytes", elementSize);
+        for (final long dim : dimensions) {
+            Preconditions.checkArgument(dim >= 0, "negative dimension: %s",
+                    Arrays.toString(dimensions));
+        }
+        this.dimensions = dimensions.clone();
+        this.elementSize = elementSize;
+        this.address = address;
+        this.fillValue = (fillValue == null) ? null : fillValue.clone();
+    }
+
+    /**
+     * Gets the number of dimensions of the dataset.
+     *
+     * @return the rank.
+     */
+    public int getRank() {
+        return dimensions.length;
+    }
+
+    /**
+     * Gets the size of the dataset.
+     *
+     * @return size in each dimension (in elements).
+     */
+    public long[] getDimensions() {
+        return dimensions.clone();
+    }
+
+    /**
+     * Gets the size of each element.
+     *
+     * @return size in bytes.
+     */
+    public int getElementSize() {
+        return elementSize;
+    }
+
+    /**
+     * Gets the address of the raw data.
+     *
+     * @return address relative to the base address, or {@link #UNALLOCATED}.
+     */
+    public long getAddress() {
+        return address;
+    }
+
+    /**
+     * Gets the fill value of the dataset.
+     *
+     * @return bytes of the fill value (one element), or {@code null} if it is not defined.
+     */
+    public byte[] getFillValue() {
+        return (fillValue == null) ? null : fillValue.clone();
+    }
+
+    /**
+     * Gets the size of the whole dataset.
+     *
+     * @return size in bytes.
+     */
+    public long getDatasetByteSize() {
+        long size = elementSize;
+        for (final long dim : dimensions) {
+            size = Math.multiplyExact(size, dim);
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[dimensions=%s, elementSize=%s, address=%s]",
+                this.getClass().getSimpleName(), Arrays.toString(dimensions), elementSize,
+                address);
+    }
+}
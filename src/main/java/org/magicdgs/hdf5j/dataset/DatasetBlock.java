@@ -0,0 +1,79 @@
+package org.magicdgs.hdf5j.dataset;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Block of elements of a dataset (e.g., a chunk), as produced by {@link DatasetReader#stream()}.
+ *
+ * <p>The elements of the block are stored in row-major order of its dimensions, without
+ * conversion (e.g., in the byte order of the file).
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class DatasetBlock {
+
+    private final long[] offset;
+    private final long[] dimensions;
+    private final ByteBuffer data;
+
+    /**
+     * Constructor for the block.
+     *
+     * @param offset     offset of the block in the dataset (in elements).
+     * @param dimensions size of the block in each dimension (in elements).
+     * @param data       elements of the block (from position to limit).
+     */
+    DatasetBlock(final long[] offset, final long[] dimensions, final ByteBuffer data) {
+        this.offset = offset;
+        this.dimensions = dimensions;
+        this.data = data;
+    }
+
+    /**
+     * Gets the offset of the block in the dataset.
+     *
+     * @return offset in each dimension (in elements).
+     */
+    public long[] getOffset() {
+        return offset.clone();
+    }
+
+    /**
+     * Gets the size of the block.
+     *
+     * @return size in each dimension (in elements).
+     */
+    public long[] getDimensions() {
+        return dimensions.clone();
+    }
+
+    /**
+     * Gets the number of elements in the block.
+     *
+     * @return the number of elements.
+     */
+    public long getNumberOfElements() {
+        long elements = 1;
+        for (final long dimension : dimensions) {
+            elements *= dimension;
+        }
+        return elements;
+    }
+
+    /**
+     * Gets the elements of the block.
+     *
+     * @return read-only little-endian buffer with the elements.
+     */
+    public ByteBuffer getData() {
+        return data.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[offset=%s, dimensions=%s]", this.getClass().getSimpleName(),
+                Arrays.toString(offset), Arrays.toString(dimensions));
+    }
+}
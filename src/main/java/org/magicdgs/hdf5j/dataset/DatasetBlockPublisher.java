@@ -0,0 +1,330 @@
+package org.magicdgs.hdf5j.dataset;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publisher of the decoded blocks of a dataset or a region of it, with the protocol of the
+ * reactive streams ({@code java.util.concurrent.Flow} in Java 9+): blocks are read only on
+ * subscriber demand, and at most a bounded number of them are read concurrently. Thus, slow
+ * subscribers (e.g., network sinks) neither stall the reads nor require buffering the dataset.
+ *
+ * <p>Blocks are aligned with the storage of the dataset (chunks for {@link ChunkedDatasetReader},
+ * blocks of rows for other readers), truncated to the region, and read with
+ * {@link DatasetReader#readAsync(Hyperslab, ByteBuffer)}. They are emitted in row-major order of
+ * the blocks, from the thread requesting them or the one completing their read.
+ *
+ * <p>Only regions ({@link Hyperslab#region(long[], long[])}, or the whole dataset) can be
+ * published. A strided selection clipped to a chunk is not a block of consecutive elements, so it
+ * cannot be described by the offset and dimensions of a {@link DatasetBlock}. Strided selections
+ * are read with {@link DatasetReader#readAsync(Hyperslab, ByteBuffer)} instead.
+ *
+ * <p>Each subscription reads the blocks independently, from the beginning of the region.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class DatasetBlockPublisher {
+
+    /** Default maximum number of blocks read concurrently for each subscription. */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+    /** Receiver of the blocks, with the same contract as {@code Flow.Subscriber}. */
+    public interface Subscriber {
+
+        /**
+         * Called before any other method, with the subscription to request blocks.
+         *
+         * @param subscription the subscription.
+         */
+        public void onSubscribe(final Subscription subscription);
+
+        /**
+         * Called with the next block, once requested.
+         *
+         * @param block the block.
+         */
+        public void onNext(final DatasetBlock block);
+
+        /**
+         * Called if the blocks cannot be read or decoded, or if the demand is not positive. No
+         * other method is called afterwards.
+         *
+         * @param throwable the error.
+         */
+        public void onError(final Throwable throwable);
+
+        /** Called once all the blocks are emitted. No other method is called afterwards. */
+        public void onComplete();
+    }
+
+    /** Link between the publisher and a subscriber, as {@code Flow.Subscription}. */
+    public interface Subscription {
+
+        /**
+         * Adds demand for blocks.
+         *
+         * @param n number of blocks (should be positive; {@link Long#MAX_VALUE} for unbounded).
+         */
+        public void request(final long n);
+
+        /** Stops emitting blocks; the reads already issued are discarded. */
+        public void cancel();
+    }
+
+    private final DatasetReader reader;
+    private final long[] start;
+    private final long[] size;
+    private final int maxInFlight;
+
+    // dimensions of the storage-aligned blocks and number of them in each dimension
+    private final long[] blockDimensions;
+    private final long[] firstBlock;
+    private final long[] blocksPerDimension;
+    private final long numberOfBlocks;
+
+    /**
+     * Constructor for all the blocks of the dataset.
+     *
+     * @param reader reader for the dataset.
+     */
+    public DatasetBlockPublisher(final DatasetReader reader) {
+        this(reader, Hyperslab.all(checkReader(reader).getDimensions()), DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Constructor for the blocks of a region of the dataset.
+     *
+     * @param reader      reader for the dataset.
+     * @param region      region to publish (see {@link Hyperslab#region(long[], long[])}).
+     * @param maxInFlight maximum number of blocks read concurrently for each subscription.
+     *
+     * @throws IllegalArgumentException if the selection is strided (not a single region).
+     */
+    public DatasetBlockPublisher(final DatasetReader reader, final Hyperslab region,
+            final int maxInFlight) {
+        checkReader(reader);
+        Preconditions.checkArgument(region != null, "null region");
+        Preconditions.checkArgument(maxInFlight > 0, "non-positive maxInFlight: %s",
+                maxInFlight);
+        final long[] dimensions = reader.getDimensions();
+        Preconditions.checkArgument(region.isWithin(dimensions),
+                "%s out of bounds for dimensions %s", region, Arrays.toString(dimensions));
+        final long[] stride = region.getStride();
+        final long[] count = region.getCount();
+        final long[] block = region.getBlock();
+        for (int i = 0; i < dimensions.length; i++) {
+            Preconditions.checkArgument(count[i] <= 1 || stride[i] == block[i],
+                    "not a region: %s", region);
+        }
+        this.reader = reader;
+        this.start = region.getStart();
+        this.size = region.getSelectedDimensions();
+        this.maxInFlight = maxInFlight;
+        this.blockDimensions = blockDimensions(reader);
+        this.firstBlock = new long[dimensions.length];
+        this.blocksPerDimension = new long[dimensions.length];
+        long blocks = 1;
+        for (int i = 0; i < dimensions.length; i++) {
+            firstBlock[i] = start[i] / blockDimensions[i];
+            blocksPerDimension[i] = (size[i] == 0) ? 0
+                    : (start[i] + size[i] - 1) / blockDimensions[i] - firstBlock[i] + 1;
+            blocks = Math.multiplyExact(blocks, blocksPerDimension[i]);
+        }
+        this.numberOfBlocks = blocks;
+    }
+
+    private static DatasetReader checkReader(final DatasetReader reader) {
+        Preconditions.checkArgument(reader != null, "null reader");
+        return reader;
+    }
+
+    // dimensions of the blocks aligned with the storage
+    private static long[] blockDimensions(final DatasetReader reader) {
+        final long[] dimensions = reader.getDimensions();
+        final long[] blockDimensions = new long[dimensions.length];
+        if (reader instanceof ChunkedDatasetReader) {
+            final int[] chunkDimensions =
+                    ((ChunkedDatasetReader) reader).getLayout().getChunkDimensions();
+            for (int i = 0; i < dimensions.length; i++) {
+                blockDimensions[i] = chunkDimensions[i];
+            }
+            return blockDimensions;
+        }
+        // blocks of rows, as in ContiguousDatasetReader.stream()
+        long rowBytes = reader.getElementSize();
+        for (int i = 1; i < dimensions.length; i++) {
+            blockDimensions[i] = Math.max(1, dimensions[i]);
+            rowBytes = Math.multiplyExact(rowBytes, dimensions[i]);
+        }
+        blockDimensions[0] = Math.max(1, ContiguousDatasetReader.DEFAULT_BLOCK_BYTES
+                / Math.max(1, rowBytes));
+        return blockDimensions;
+    }
+
+    /**
+     * Gets the number of blocks emitted to each subscriber.
+     *
+     * @return the number of blocks.
+     */
+    public long getNumberOfBlocks() {
+        return numberOfBlocks;
+    }
+
+    /**
+     * Gets the maximum number of blocks read concurrently for each subscription.
+     *
+     * @return the maximum number of blocks in flight.
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Subscribes to the blocks. No block is read until they are requested through the
+     * {@link Subscription} provided to {@link Subscriber#onSubscribe(Subscription)}.
+     *
+     * @param subscriber the subscriber.
+     */
+    public void subscribe(final Subscriber subscriber) {
+        Preconditions.checkArgument(subscriber != null, "null subscriber");
+        final BlockSubscription subscription = new BlockSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        // completes without demand if there are no blocks
+        subscription.drain();
+    }
+
+    // issues the asynchronous read of a block
+    private CompletableFuture<DatasetBlock> readBlock(final long index) {
+        final int rank = start.length;
+        final long[] offset = new long[rank];
+        final long[] extent = new long[rank];
+        long remainder = index;
+        for (int i = rank - 1; i >= 0; i--) {
+            final long blockIndex = firstBlock[i] + remainder % blocksPerDimension[i];
+            remainder /= blocksPerDimension[i];
+            offset[i] = Math.max(start[i], blockIndex * blockDimensions[i]);
+            extent[i] = Math.min(start[i] + size[i], (blockIndex + 1) * blockDimensions[i])
+                    - offset[i];
+        }
+        try {
+            final Hyperslab selection = Hyperslab.region(offset, extent);
+            final ByteBuffer data = ByteBuffer
+                    .allocate(Math.toIntExact(Math.multiplyExact(
+                            selection.getNumberOfElements(), reader.getElementSize())))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            return reader.readAsync(selection, data)
+                    .thenApply(read -> new DatasetBlock(offset, extent, read));
+        } catch (final RuntimeException e) {
+            final CompletableFuture<DatasetBlock> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    // subscription emitting the blocks in order; the signals are serialized by a drain loop
+    private final class BlockSubscription implements Subscription {
+        private final Subscriber subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger pendingDrains = new AtomicInteger();
+        private volatile boolean cancelled = false;
+        private volatile Throwable invalidRequest = null;
+
+        // only accessed while draining
+        private final ArrayDeque<CompletableFuture<DatasetBlock>> inFlight = new ArrayDeque<>();
+        private long next = 0;
+        private boolean done = false;
+
+        private BlockSubscription(final Subscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("non-positive request: " + n);
+            } else {
+                requested.accumulateAndGet(n, (current, added) ->
+                        (current + added < 0) ? Long.MAX_VALUE : current + added);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        // runs the drain loop in a single thread at a time, repeating it for missed calls
+        private void drain() {
+            if (pendingDrains.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                drainLoop();
+                missed = pendingDrains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drainLoop() {
+            while (!done) {
+                if (cancelled || invalidRequest != null) {
+                    done = true;
+                    inFlight.clear();
+                    if (!cancelled) {
+                        subscriber.onError(invalidRequest);
+                    }
+                    return;
+                }
+                final long demand = requested.get();
+                // emit the completed blocks in order
+                final CompletableFuture<DatasetBlock> head = inFlight.peek();
+                if (demand > 0 && head != null && head.isDone()) {
+                    inFlight.poll();
+                    final DatasetBlock block;
+                    try {
+                        block = head.join();
+                    } catch (final CompletionException e) {
+                        done = true;
+                        inFlight.clear();
+                        subscriber.onError((e.getCause() == null) ? e : e.getCause());
+                        return;
+                    }
+                    if (demand != Long.MAX_VALUE) {
+                        requested.decrementAndGet();
+                    }
+                    subscriber.onNext(block);
+                    continue;
+                }
+                // issue reads for the demand, bounded by the blocks in flight
+                if (next < numberOfBlocks && inFlight.size() < Math.min(maxInFlight, demand)) {
+                    final CompletableFuture<DatasetBlock> block = readBlock(next++);
+                    inFlight.add(block);
+                    block.whenComplete((result, error) -> drain());
+                    continue;
+                }
+                if (next == numberOfBlocks && inFlight.isEmpty()) {
+                    done = true;
+                    subscriber.onComplete();
+                }
+                return;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s, start=%s, size=%s, blocks=%s, maxInFlight=%s]",
+                this.getClass().getSimpleName(), reader, Arrays.toString(start),
+                Arrays.toString(size), numberOfBlocks, maxInFlight);
+    }
+}
@@ -0,0 +1,115 @@
+package org.magicdgs.hdf5j.dataset;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the blocks of a dataset (see {@link DatasetReader#stream()}), which splits on
+ * block boundaries (e.g., chunks).
+ *
+ * <p>Each block is read when the spliterator advances to it, so only the blocks being processed
+ * are kept in memory. Splitting divides the remaining blocks in halves, so parallel streams read
+ * and decode the blocks in the common {@link java.util.concurrent.ForkJoinPool}.
+ *
+ * <p>IO errors are thrown as {@link UncheckedIOException}.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+final class DatasetBlockSpliterator implements Spliterator<DatasetBlock> {
+
+    /** Reader for the block with the provided index. */
+    @FunctionalInterface
+    interface BlockReader {
+
+        /**
+         * Reads the block.
+         *
+         * @param index index of the block.
+         *
+         * @return the block.
+         *
+         * @throws IOException if an IO error occurs.
+         */
+        public DatasetBlock read(final int index) throws IOException;
+    }
+
+    private final BlockReader reader;
+    // range of blocks to process
+    private int from;
+    private final int to;
+
+    /**
+     * Constructor for all the blocks.
+     *
+     * @param reader         reader for the blocks.
+     * @param numberOfBlocks number of blocks.
+     */
+    DatasetBlockSpliterator(final BlockReader reader, final int numberOfBlocks) {
+        this(reader, 0, numberOfBlocks);
+    }
+
+    private DatasetBlockSpliterator(final BlockReader reader, final int from, final int to) {
+        Preconditions.checkArgument(reader != null, "null reader");
+        Preconditions.checkArgument(0 <= from && from <= to, "invalid range: [%s, %s)", from,
+                to);
+        this.reader = reader;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super DatasetBlock> action) {
+        Preconditions.checkArgument(action != null, "null action");
+        if (from >= to) {
+            return false;
+        }
+        action.accept(read(from++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super DatasetBlock> action) {
+        Preconditions.checkArgument(action != null, "null action");
+        while (from < to) {
+            action.accept(read(from++));
+        }
+    }
+
+    private DatasetBlock read(final int index) {
+        try {
+            return reader.read(index);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Spliterator<DatasetBlock> trySplit() {
+        final int middle = (from + to) >>> 1;
+        if (middle <= from) {
+            return null;
+        }
+        final Spliterator<DatasetBlock> prefix = new DatasetBlockSpliterator(reader, from, middle);
+        from = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return to - from;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s, %s)", this.getClass().getSimpleName(), from, to);
+    }
+}
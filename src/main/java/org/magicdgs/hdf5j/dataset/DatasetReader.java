@@ -0,0 +1,91 @@
+package org.magicdgs.hdf5j.dataset;
+
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Reader for the raw data of a dataset, independent of its layout. The elements are copied
+ * without conversion (e.g., in the byte order of the file).
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public interface DatasetReader {
+
+    /**
+     * Gets the size of the dataset.
+     *
+     * @return size in each dimension (in elements).
+     */
+    public long[] getDimensions();
+
+    /**
+     * Gets the size of each element.
+     *
+     * @return size in bytes.
+     */
+    public int getElementSize();
+
+    /**
+     * Reads the whole dataset into the destination buffer, in row-major order, starting at its
+     * current position. After this method returns, the position of the buffer is advanced by the
+     * size of the dataset.
+     *
+     * @param destination buffer to store the dataset.
+     *
+     * @throws HDF5jException if the data cannot be decoded.
+     * @throws IOException    if an IO error occurs.
+     */
+    public void read(final ByteBuffer destination) throws IOException;
+
+    /**
+     * Reads the selected elements into the destination buffer, in row-major order of
+     * {@link Hyperslab#getSelectedDimensions()}, starting at its current position. After this
+     * method returns, the position of the buffer is advanced by the size of the selection.
+     *
+     * <p>Only the data intersecting the selection is read from the file.
+     *
+     * @param selection   elements to read.
+     * @param destination buffer to store the selected elements.
+     *
+     * @throws HDF5jException if the data cannot be decoded.
+     * @throws IOException    if an IO error occurs.
+     */
+    public void read(final Hyperslab selection, final ByteBuffer destination) throws IOException;
+
+    /**
+     * Reads the selected elements asynchronously into the destination buffer, in row-major order
+     * of {@link Hyperslab#getSelectedDimensions()}, starting at its current position. The
+     * position of the buffer is not modified, and it should not be accessed until the future is
+     * completed.
+     *
+     * <p>The reads for the selection are issued without blocking the calling thread, and the data
+     * is decoded as each of them completes. Only a bounded number of reads (e.g., the parallelism
+     * of a pool) are outstanding at once, and the next one is issued as each of them completes,
+     * so the memory for the raw data does not grow with the size of the selection.
+     *
+     * @param selection   elements to read.
+     * @param destination buffer to store the selected elements.
+     *
+     * @return future completed with a view of the destination containing the selected elements
+     *     (from position to limit), or exceptionally with an {@link HDF5jException} if the data
+     *     cannot be decoded or an {@link IOException} if an IO error occurs.
+     */
+    public CompletableFuture<ByteBuffer> readAsync(final Hyperslab selection,
+            final ByteBuffer destination);
+
+    /**
+     * Streams the dataset in blocks aligned with its storage (e.g., chunks), which are read
+     * lazily as the stream is consumed. Thus, the whole dataset is never materialized, and
+     * parallel streams read and decode the blocks concurrently.
+     *
+     * @return sequential stream of blocks, in storage order.
+     *
+     * @throws UncheckedIOException if an IO error occurs (also while consuming the stream).
+     */
+    public Stream<DatasetBlock> stream();
+}
@@ -0,0 +1,175 @@
+package org.magicdgs.hdf5j.dataset;
+
+import org.magicdgs.hdf5j.fileformat.level2.DatatypeMessage;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Strided view of a member of compound elements, over the buffer holding the elements (see
+ * {@link CompoundProjection}). No bytes are copied: each access reads the value of the member
+ * directly from the element, in the byte order of its datatype.
+ *
+ * <p>Values are accessed by the index of the element, with the getter matching the size of the
+ * member (e.g., {@link #getDouble(int)} for 8-byte floating-point members). Other members (e.g.,
+ * strings or nested compounds) are accessed as bytes with {@link #getBytes(int)}.
+ *
+ * <p>This class is thread-safe, as long as the underlying buffer is not modified.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class FieldView {
+
+    private final String name;
+    private final DatatypeMessage type;
+    // buffer in the byte order of the member
+    private final ByteBuffer buffer;
+    // absolute index of the member in the first element
+    private final int start;
+    private final int stride;
+    private final int size;
+
+    /**
+     * Constructor for the view.
+     *
+     * @param name   name of the member.
+     * @param type   datatype of the member.
+     * @param buffer buffer with the elements (it is not modified).
+     * @param start  absolute index of the member in the first element.
+     * @param stride size of the elements.
+     * @param size   number of elements.
+     */
+    FieldView(final String name, final DatatypeMessage type, final ByteBuffer buffer,
+            final int start, final int stride, final int size) {
+        this.name = name;
+        this.type = type;
+        this.buffer = buffer.duplicate().order(type.getByteOrder());
+        this.start = start;
+        this.stride = stride;
+        this.size = size;
+    }
+
+    /**
+     * Gets the name of the member.
+     *
+     * @return the name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the datatype of the member.
+     *
+     * @return the datatype.
+     */
+    public DatatypeMessage getType() {
+        return type;
+    }
+
+    /**
+     * Gets the number of elements in the view.
+     *
+     * @return the number of elements.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets a 1-byte member.
+     *
+     * @param index index of the element.
+     *
+     * @return the value.
+     */
+    public byte getByte(final int index) {
+        return buffer.get(position(index, Byte.BYTES));
+    }
+
+    /**
+     * Gets a 2-byte member.
+     *
+     * @param index index of the element.
+     *
+     * @return the value.
+     */
+    public short getShort(final int index) {
+        return buffer.getShort(position(index, Short.BYTES));
+    }
+
+    /**
+     * Gets a 4-byte integer member.
+     *
+     * @param index index of the element.
+     *
+     * @return the value.
+     */
+    public int getInt(final int index) {
+        return buffer.getInt(position(index, Integer.BYTES));
+    }
+
+    /**
+     * Gets an 8-byte integer member.
+     *
+     * @param index index of the element.
+     *
+     * @return the value.
+     */
+    public long getLong(final int index) {
+        return buffer.getLong(position(index, Long.BYTES));
+    }
+
+    /**
+     * Gets a 4-byte floating-point member.
+     *
+     * @param index index of the element.
+     *
+     * @return the value.
+     */
+    public float getFloat(final int index) {
+        return buffer.getFloat(position(index, Float.BYTES));
+    }
+
+    /**
+     * Gets an 8-byte floating-point member.
+     *
+     * @param index index of the element.
+     *
+     * @return the value.
+     */
+    public double getDouble(final int index) {
+        return buffer.getDouble(position(index, Double.BYTES));
+    }
+
+    /**
+     * Gets the bytes of the member, without copying them.
+     *
+     * @param index index of the element.
+     *
+     * @return read-only buffer with the bytes of the member, in its byte order.
+     */
+    public ByteBuffer getBytes(final int index) {
+        final int position = position(index, type.getSize());
+        final ByteBuffer bytes = buffer.duplicate();
+        bytes.limit(position + type.getSize()).position(position);
+        return bytes.slice().asReadOnlyBuffer().order(buffer.order());
+    }
+
+    // absolute position of the member in the element
+    private int position(final int index, final int width) {
+        if (type.getSize() != width) {
+            // not Preconditions, to avoid boxing on every access
+            throw new IllegalStateException(String.format("%s has %s bytes (requested %s)", name,
+                    type.getSize(), width));
+        }
+        Preconditions.checkElementIndex(index, size);
+        return start + index * stride;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s, size=%s]", this.getClass().getSimpleName(), name, size);
+    }
+}
@@ -0,0 +1,33 @@
+package org.magicdgs.hdf5j.dataset;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Utilities for writing the fill value of a dataset (from the <b>Fill Value Message</b>) into the
+ * elements that are not stored in the file.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+final class FillValues {
+
+    // cannot be instantiated
+    private FillValues() {}
+
+    /**
+     * Writes the fill value into consecutive elements of the destination. The position of the
+     * destination is not modified.
+     *
+     * @param destination buffer to fill.
+     * @param position    index of the first element in the destination.
+     * @param elements    number of elements to fill.
+     * @param fillValue   bytes of the fill value (one element).
+     */
+    static void fill(final ByteBuffer destination, final int position, final long elements,
+            final byte[] fillValue) {
+        final ByteBuffer buffer = destination.duplicate();
+        buffer.position(position);
+        for (long i = 0; i < elements; i++) {
+            buffer.put(fillValue);
+        }
+    }
+}
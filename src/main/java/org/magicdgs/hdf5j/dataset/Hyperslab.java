@@ -0,0 +1,218 @@
+package org.magicdgs.hdf5j.dataset;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+
+/**
+ * Regular hyperslab selection of a dataset, defined as in {@code H5Sselect_hyperslab} by four
+ * arrays with one value per dimension:
+ *
+ * <ul>
+ *     <li>Start: offset of the first selected element.</li>
+ *     <li>Stride: distance between the start of consecutive blocks.</li>
+ *     <li>Count: number of blocks.</li>
+ *     <li>Block: number of elements in each block.</li>
+ * </ul>
+ *
+ * <p>The selected elements are read in row-major order into an array with
+ * {@link #getSelectedDimensions()}.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class Hyperslab {
+
+    private final long[] start;
+    private final long[] stride;
+    private final long[] count;
+    private final long[] block;
+
+    /**
+     * Constructor for the hyperslab.
+     *
+     * @param start  offset of the selection in each dimension.
+     * @param stride distance between blocks in each dimension.
+     * @param count  number of blocks in each dimension.
+     * @param block  size of the blocks in each dimension.
+     */
+    public Hyperslab(final long[] start, final long[] stride, final long[] count,
+            final long[] block) {
+        Preconditions.checkArgument(start != null && start.length != 0, "null or empty start");
+        Preconditions.checkArgument(stride != null && stride.length == start.length,
+                "stride should have rank %s", start.length);
+        Preconditions.checkArgument(count != null && count.length == start.length,
+                "count should have rank %s", start.length);
+        Preconditions.checkArgument(block != null && block.length == start.length,
+                "block should have rank %s", start.length);
+        for (int i = 0; i < start.length; i++) {
+            Preconditions.checkArgument(start[i] >= 0, "negative start: %s",
+                    Arrays.toString(start));
+            Preconditions.checkArgument(count[i] > 0, "non-positive count: %s",
+                    Arrays.toString(count));
+            Preconditions.checkArgument(block[i] > 0, "non-positive block: %s",
+                    Arrays.toString(block));
+            Preconditions.checkArgument(count[i] == 1 || stride[i] >= block[i],
+                    "blocks overlap in dimension %s: stride=%s, block=%s", i, stride[i],
+                    block[i]);
+        }
+        this.start = start.clone();
+        this.stride = stride.clone();
+        this.count = count.clone();
+        this.block = block.clone();
+    }
+
+    /**
+     * Creates a hyperslab selecting a single contiguous region.
+     *
+     * @param start offset of the region in each dimension.
+     * @param size  size of the region in each dimension.
+     *
+     * @return the hyperslab.
+     */
+    public static Hyperslab region(final long[] start, final long[] size) {
+        Preconditions.checkArgument(start != null && size != null, "null start or size");
+        final long[] ones = new long[start.length];
+        Arrays.fill(ones, 1);
+        return new Hyperslab(start, size, ones, size);
+    }
+
+    /**
+     * Creates a hyperslab selecting all the elements of a dataset.
+     *
+     * @param dimensions size of the dataset in each dimension.
+     *
+     * @return the hyperslab.
+     */
+    public static Hyperslab all(final long[] dimensions) {
+        Preconditions.checkArgument(dimensions != null, "null dimensions");
+        return region(new long[dimensions.length], dimensions);
+    }
+
+    /**
+     * Gets the number of dimensions of the selection.
+     *
+     * @return the rank.
+     */
+    public int getRank() {
+        return start.length;
+    }
+
+    /**
+     * Gets the offset of the selection.
+     *
+     * @return offset in each dimension.
+     */
+    public long[] getStart() {
+        return start.clone();
+    }
+
+    /**
+     * Gets the distance between blocks.
+     *
+     * @return stride in each dimension.
+     */
+    public long[] getStride() {
+        return stride.clone();
+    }
+
+    /**
+     * Gets the number of blocks.
+     *
+     * @return count in each dimension.
+     */
+    public long[] getCount() {
+        return count.clone();
+    }
+
+    /**
+     * Gets the size of the blocks.
+     *
+     * @return block size in each dimension.
+     */
+    public long[] getBlock() {
+        return block.clone();
+    }
+
+    /**
+     * Gets the size of the array holding the selected elements.
+     *
+     * @return {@code count * block} in each dimension.
+     */
+    public long[] getSelectedDimensions() {
+        final long[] dimensions = new long[start.length];
+        for (int i = 0; i < start.length; i++) {
+            dimensions[i] = Math.multiplyExact(count[i], block[i]);
+        }
+        return dimensions;
+    }
+
+    /**
+     * Gets the number of selected elements.
+     *
+     * @return the number of elements.
+     */
+    public long getNumberOfElements() {
+        long elements = 1;
+        for (int i = 0; i < start.length; i++) {
+            elements = Math.multiplyExact(elements, Math.multiplyExact(count[i], block[i]));
+        }
+        return elements;
+    }
+
+    /**
+     * Returns {@code true} if the selection is within the bounds of a dataset.
+     *
+     * @param dimensions size of the dataset in each dimension.
+     *
+     * @return {@code true} if the selection is within bounds; {@code false} otherwise.
+     */
+    public boolean isWithin(final long[] dimensions) {
+        Preconditions.checkArgument(dimensions != null, "null dimensions");
+        if (dimensions.length != start.length) {
+            return false;
+        }
+        try {
+            for (int i = 0; i < start.length; i++) {
+                // last selected element: start + (count - 1) * stride + block - 1
+                final long last = Math.addExact(Math.addExact(start[i],
+                        Math.multiplyExact(count[i] - 1, stride[i])), block[i] - 1);
+                if (last >= dimensions[i]) {
+                    return false;
+                }
+            }
+        } catch (final ArithmeticException e) {
+            // the last element is beyond any dataset size
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Hyperslab)) {
+            return false;
+        }
+        final Hyperslab other = (Hyperslab) o;
+        return Arrays.equals(start, other.start) && Arrays.equals(stride, other.stride)
+                && Arrays.equals(count, other.count) && Arrays.equals(block, other.block);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(start);
+        result = 31 * result + Arrays.hashCode(stride);
+        result = 31 * result + Arrays.hashCode(count);
+        result = 31 * result + Arrays.hashCode(block);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[start=%s, stride=%s, count=%s, block=%s]",
+                this.getClass().getSimpleName(), Arrays.toString(start), Arrays.toString(stride),
+                Arrays.toString(count), Arrays.toString(block));
+    }
+}
@@ -0,0 +1,185 @@
+package org.magicdgs.hdf5j.dataset;
+
+import java.io.IOException;
+
+/**
+ * Plan for copying the elements of a {@link Hyperslab} from a box of the dataset (e.g., a chunk)
+ * into the array of selected elements.
+ *
+ * <p>The selection is separable: in each dimension, the elements of the box that are selected
+ * are computed arithmetically from the blocks intersecting it, and the copy is performed as runs
+ * of consecutive elements in the last dimension. Blocks that are adjacent in a dimension
+ * ({@code stride == block}) are merged into a single block.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+final class HyperslabCopyPlan {
+
+    /** Consumer for runs of consecutive elements (offsets and lengths in elements). */
+    @FunctionalInterface
+    interface RunConsumer {
+
+        /**
+         * Copies a run of elements.
+         *
+         * @param source offset of the run in the box.
+         * @param target offset of the run in the selection.
+         * @param length number of elements.
+         *
+         * @throws IOException if an IO error occurs.
+         */
+        public void accept(final long source, final long target, final long length)
+                throws IOException;
+    }
+
+    // empty segments
+    private static final long[] NO_SEGMENTS = new long[0];
+
+    private final int rank;
+    // normalized selection: adjacent blocks are merged
+    private final long[] start;
+    private final long[] stride;
+    private final long[] count;
+    private final long[] block;
+    // row-major strides of the selected elements
+    private final long[] targetStrides;
+    private final long elements;
+
+    /**
+     * Constructor for a selection.
+     *
+     * @param selection hyperslab to copy.
+     */
+    HyperslabCopyPlan(final Hyperslab selection) {
+        this.rank = selection.getRank();
+        this.start = selection.getStart();
+        this.stride = selection.getStride();
+        this.count = selection.getCount();
+        this.block = selection.getBlock();
+        for (int i = 0; i < rank; i++) {
+            if (count[i] == 1 || stride[i] == block[i]) {
+                block[i] *= count[i];
+                stride[i] = block[i];
+                count[i] = 1;
+            }
+        }
+        final long[] selected = selection.getSelectedDimensions();
+        this.targetStrides = new long[rank];
+        targetStrides[rank - 1] = 1;
+        for (int i = rank - 2; i >= 0; i--) {
+            targetStrides[i] = Math.multiplyExact(targetStrides[i + 1], selected[i + 1]);
+        }
+        this.elements = selection.getNumberOfElements();
+    }
+
+    /**
+     * Gets the number of selected elements.
+     *
+     * @return the number of elements.
+     */
+    long getNumberOfElements() {
+        return elements;
+    }
+
+    /**
+     * Returns {@code true} if the box contains selected elements.
+     *
+     * @param offset offset of the box in the dataset.
+     * @param extent size of the box.
+     *
+     * @return {@code true} if the box intersects the selection; {@code false} otherwise.
+     */
+    boolean intersects(final long[] offset, final long[] extent) {
+        for (int i = 0; i < rank; i++) {
+            final long to = offset[i] + extent[i];
+            if (firstBlock(i, offset[i]) > lastBlock(i, to)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Iterates over the runs of selected elements in the box.
+     *
+     * @param offset        offset of the box in the dataset.
+     * @param extent        size of the box.
+     * @param sourceStrides row-major strides of the box (in elements), with the last one being 1.
+     * @param consumer      consumer for the runs.
+     *
+     * @throws IOException if the consumer throws.
+     */
+    void forEachRun(final long[] offset, final long[] extent, final long[] sourceStrides,
+            final RunConsumer consumer) throws IOException {
+        final long[][] segments = new long[rank][];
+        for (int i = 0; i < rank; i++) {
+            segments[i] = segments(i, offset[i], offset[i] + extent[i]);
+            if (segments[i].length == 0) {
+                return;
+            }
+        }
+        final long[] lastSegments = segments[rank - 1];
+        // current segment and position within it for each dimension except the last one
+        final int[] segment = new int[rank];
+        final long[] position = new long[rank];
+        while (true) {
+            long source = 0;
+            long target = 0;
+            for (int i = 0; i < rank - 1; i++) {
+                final int s = 3 * segment[i];
+                source += (segments[i][s] + position[i]) * sourceStrides[i];
+                target += (segments[i][s + 1] + position[i]) * targetStrides[i];
+            }
+            for (int s = 0; s < lastSegments.length; s += 3) {
+                consumer.accept(source + lastSegments[s], target + lastSegments[s + 1],
+                        lastSegments[s + 2]);
+            }
+            // next row: advance the position from the second-to-last dimension
+            int dim = rank - 2;
+            while (dim >= 0) {
+                if (++position[dim] < segments[dim][3 * segment[dim] + 2]) {
+                    break;
+                }
+                position[dim] = 0;
+                if (3 * ++segment[dim] < segments[dim].length) {
+                    break;
+                }
+                segment[dim--] = 0;
+            }
+            if (dim < 0) {
+                return;
+            }
+        }
+    }
+
+    // segments of the selection within [from, to) in the dimension, as triplets of offset
+    // relative to from, offset in the selection and length
+    private long[] segments(final int dim, final long from, final long to) {
+        final long first = firstBlock(dim, from);
+        final long last = lastBlock(dim, to);
+        if (first > last) {
+            return NO_SEGMENTS;
+        }
+        final long[] segments = new long[3 * (int) (last - first + 1)];
+        int s = 0;
+        for (long c = first; c <= last; c++, s += 3) {
+            final long blockStart = start[dim] + c * stride[dim];
+            final long segmentStart = Math.max(from, blockStart);
+            final long segmentEnd = Math.min(to, blockStart + block[dim]);
+            segments[s] = segmentStart - from;
+            segments[s + 1] = c * block[dim] + segmentStart - blockStart;
+            segments[s + 2] = segmentEnd - segmentStart;
+        }
+        return segments;
+    }
+
+    // first block ending after from
+    private long firstBlock(final int dim, final long from) {
+        return Math.max(0, Math.floorDiv(from - start[dim] - block[dim], stride[dim]) + 1);
+    }
+
+    // last block starting before to
+    private long lastBlock(final int dim, final long to) {
+        return Math.min(count[dim] - 1, Math.floorDiv(to - start[dim] - 1, stride[dim]));
+    }
+}
@@ -0,0 +1,202 @@
+package org.magicdgs.hdf5j.dataset;
+
+import org.magicdgs.hdf5j.fileformat.level2.DatatypeMessage;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * Read-only view of the elements of a dataset of a primitive datatype, kept outside of the Java
+ * heap and accessed through typed buffers (e.g., {@link DoubleBuffer}) in the byte order of the
+ * datatype.
+ *
+ * <p>The data of contiguous datasets is memory-mapped when the selected elements are consecutive
+ * in the file; otherwise (e.g., chunked datasets, which are decoded), the elements are read into a
+ * direct buffer. Typed buffers and slices share the same memory, so no data is copied once read.
+ *
+ * <p>Views are limited to {@link Integer#MAX_VALUE} bytes; larger datasets can be viewed by
+ * parts with a {@link Hyperslab} selection.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class PrimitiveView {
+
+    private final DatatypeMessage type;
+    // read-only buffer in the byte order of the type, from 0 to limit
+    private final ByteBuffer bytes;
+    private final boolean mapped;
+
+    private PrimitiveView(final DatatypeMessage type, final ByteBuffer bytes,
+            final boolean mapped) {
+        this.type = type;
+        this.bytes = bytes.slice().asReadOnlyBuffer().order(type.getByteOrder());
+        this.mapped = mapped;
+    }
+
+    /**
+     * Reads all the elements of a dataset.
+     *
+     * @param reader reader for the dataset.
+     * @param type   datatype of the elements.
+     *
+     * @return the view.
+     *
+     * @throws IOException if an IO error occurs.
+     */
+    public static PrimitiveView read(final DatasetReader reader, final DatatypeMessage type)
+            throws IOException {
+        Preconditions.checkArgument(reader != null, "null reader");
+        return read(reader, type, Hyperslab.all(reader.getDimensions()));
+    }
+
+    /**
+     * Reads the selected elements of a dataset.
+     *
+     * @param reader    reader for the dataset.
+     * @param type      datatype of the elements.
+     * @param selection elements to read.
+     *
+     * @return the view, with the elements in the order of the selection.
+     *
+     * @throws IOException if an IO error occurs.
+     */
+    public static PrimitiveView read(final DatasetReader reader, final DatatypeMessage type,
+            final Hyperslab selection) throws IOException {
+        Preconditions.checkArgument(reader != null, "null reader");
+        Preconditions.checkArgument(type != null, "null type");
+        Preconditions.checkArgument(selection != null, "null selection");
+        Preconditions.checkArgument(reader.getElementSize() == type.getSize(),
+                "element size of the dataset (%s) does not match the datatype (%s)",
+                reader.getElementSize(), type.getSize());
+        if (reader instanceof ContiguousDatasetReader && ((ContiguousDatasetReader) reader)
+                .getLayout().getAddress() != ContiguousLayout.UNALLOCATED) {
+            final ByteBuffer mapped = ((ContiguousDatasetReader) reader).mapSelection(selection);
+            if (mapped != null) {
+                return new PrimitiveView(type, mapped, true);
+            }
+        }
+        final long size = Math.multiplyExact(selection.getNumberOfElements(), type.getSize());
+        Preconditions.checkArgument(size <= Integer.MAX_VALUE,
+                "selection too large for a single view: %s bytes", size);
+        final ByteBuffer direct = ByteBuffer.allocateDirect((int) size);
+        reader.read(selection, direct);
+        direct.flip();
+        return new PrimitiveView(type, direct, false);
+    }
+
+    /**
+     * Gets the datatype of the elements.
+     *
+     * @return the datatype.
+     */
+    public DatatypeMessage getType() {
+        return type;
+    }
+
+    /**
+     * Gets the number of elements in the view.
+     *
+     * @return the number of elements.
+     */
+    public int size() {
+        return bytes.limit() / type.getSize();
+    }
+
+    /**
+     * Returns {@code true} if the view is memory-mapped from the file; {@code false} if it was
+     * read into a direct buffer.
+     *
+     * @return {@code true} if mapped; {@code false} otherwise.
+     */
+    public boolean isMapped() {
+        return mapped;
+    }
+
+    /**
+     * Gets a view of a range of elements, sharing the same memory.
+     *
+     * @param first index of the first element.
+     * @param count number of elements.
+     *
+     * @return the view.
+     */
+    public PrimitiveView slice(final int first, final int count) {
+        Preconditions.checkPositionIndexes(first, first + count, size());
+        final ByteBuffer range = bytes.duplicate();
+        range.limit((first + count) * type.getSize()).position(first * type.getSize());
+        return new PrimitiveView(type, range, mapped);
+    }
+
+    /**
+     * Gets the bytes of the elements.
+     *
+     * @return read-only buffer in the byte order of the datatype.
+     */
+    public ByteBuffer getBytes() {
+        return bytes.duplicate().order(bytes.order());
+    }
+
+    /**
+     * Gets the elements of an 8-byte floating-point datatype.
+     *
+     * @return read-only buffer over the elements.
+     */
+    public DoubleBuffer asDoubleBuffer() {
+        return checkType(DatatypeMessage.FLOATING_POINT, Double.BYTES).asDoubleBuffer();
+    }
+
+    /**
+     * Gets the elements of a 4-byte floating-point datatype.
+     *
+     * @return read-only buffer over the elements.
+     */
+    public FloatBuffer asFloatBuffer() {
+        return checkType(DatatypeMessage.FLOATING_POINT, Float.BYTES).asFloatBuffer();
+    }
+
+    /**
+     * Gets the elements of an 8-byte fixed-point datatype.
+     *
+     * @return read-only buffer over the elements.
+     */
+    public LongBuffer asLongBuffer() {
+        return checkType(DatatypeMessage.FIXED_POINT, Long.BYTES).asLongBuffer();
+    }
+
+    /**
+     * Gets the elements of a 4-byte fixed-point datatype.
+     *
+     * @return read-only buffer over the elements.
+     */
+    public IntBuffer asIntBuffer() {
+        return checkType(DatatypeMessage.FIXED_POINT, Integer.BYTES).asIntBuffer();
+    }
+
+    /**
+     * Gets the elements of a 2-byte fixed-point datatype.
+     *
+     * @return read-only buffer over the elements.
+     */
+    public ShortBuffer asShortBuffer() {
+        return checkType(DatatypeMessage.FIXED_POINT, Short.BYTES).asShortBuffer();
+    }
+
+    private ByteBuffer checkType(final int typeClass, final int size) {
+        Preconditions.checkState(type.getTypeClass() == typeClass && type.getSize() == size,
+                "cannot view %s as %s-byte values of class %s", type, size, typeClass);
+        return getBytes();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s, size=%s, mapped=%s]", this.getClass().getSimpleName(), type,
+                size(), mapped);
+    }
+}
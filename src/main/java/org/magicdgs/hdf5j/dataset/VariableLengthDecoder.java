@@ -0,0 +1,208 @@
+package org.magicdgs.hdf5j.dataset;
+
+import org.magicdgs.hdf5j.fileformat.address.FileAddressManager;
+import org.magicdgs.hdf5j.fileformat.level1.GlobalHeapCache;
+import org.magicdgs.hdf5j.fileformat.level1.GlobalHeapCollection;
+import org.magicdgs.hdf5j.fileformat.level2.DatatypeMessage;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Decoder for variable-length elements (strings and sequences) of datasets and attributes.
+ *
+ * <p>Each element stores its length and a heap ID pointing to its data in a
+ * {@link GlobalHeapCollection}. The elements of a buffer (e.g., a chunk) are resolved together:
+ * the distinct collections are fetched once, in file order, from the {@link GlobalHeapCache}, and
+ * then every element is resolved against its collection. Thus, the collections are not re-read for
+ * each element.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class VariableLengthDecoder {
+
+    private final DatatypeMessage type;
+    private final GlobalHeapCache heaps;
+    private final FileAddressManager addressManager;
+
+    /**
+     * Constructor with its own cache of collections.
+     *
+     * @param reader reader for the file.
+     * @param type   variable-length datatype.
+     */
+    public VariableLengthDecoder(final HDF5FileReader reader, final DatatypeMessage type) {
+        this(reader, type, new GlobalHeapCache(reader));
+    }
+
+    /**
+     * Constructor with a shared cache of collections.
+     *
+     * @param reader reader for the file.
+     * @param type   variable-length datatype.
+     * @param heaps  cache for the global heap collections of the file.
+     */
+    public VariableLengthDecoder(final HDF5FileReader reader, final DatatypeMessage type,
+            final GlobalHeapCache heaps) {
+        Preconditions.checkArgument(reader != null, "null reader");
+        Preconditions.checkArgument(type != null, "null type");
+        Preconditions.checkArgument(type.getTypeClass() == DatatypeMessage.VARIABLE_LENGTH,
+                "not a variable-length datatype: %s", type);
+        Preconditions.checkArgument(heaps != null, "null heaps");
+        this.type = type;
+        this.heaps = heaps;
+        this.addressManager = reader.getAddressManager();
+        // length (4), collection address and object index (4)
+        final int expectedSize = 2 * Integer.BYTES + addressManager.getAddressSize();
+        Preconditions.checkArgument(type.getSize() == expectedSize,
+                "variable-length elements should have %s bytes: %s", expectedSize, type);
+    }
+
+    /**
+     * Gets the variable-length datatype.
+     *
+     * @return the datatype.
+     */
+    public DatatypeMessage getType() {
+        return type;
+    }
+
+    /**
+     * Gets the cache for the global heap collections.
+     *
+     * @return the cache.
+     */
+    public GlobalHeapCache getGlobalHeapCache() {
+        return heaps;
+    }
+
+    /**
+     * Decodes variable-length strings. Strings are truncated at the first null character.
+     *
+     * @param elements buffer with the elements (from position to limit). It is not modified.
+     *
+     * @return the decoded strings.
+     *
+     * @throws HDF5jException if any of the strings cannot be resolved.
+     * @throws IOException    if an IO error occurs.
+     */
+    public String[] decodeStrings(final ByteBuffer elements) throws IOException {
+        Preconditions.checkState(type.isVariableLengthString(), "not a string datatype: %s",
+                type);
+        final Charset charset = type.getCharset();
+        final ByteBuffer[] data = resolve(elements, 1);
+        final String[] strings = new String[data.length];
+        for (int i = 0; i < data.length; i++) {
+            final ByteBuffer bytes = data[i];
+            int end = 0;
+            while (end < bytes.limit() && bytes.get(end) != 0) {
+                end++;
+            }
+            final byte[] array = new byte[end];
+            bytes.get(array);
+            strings[i] = new String(array, charset);
+        }
+        return strings;
+    }
+
+    /**
+     * Decodes variable-length sequences, without copying their data.
+     *
+     * @param elements buffer with the elements (from position to limit). It is not modified.
+     *
+     * @return a read-only buffer for each sequence, with the elements of the base type in its
+     *     byte order.
+     *
+     * @throws HDF5jException if any of the sequences cannot be resolved.
+     * @throws IOException    if an IO error occurs.
+     */
+    public ByteBuffer[] decodeSequences(final ByteBuffer elements) throws IOException {
+        Preconditions.checkState(!type.isVariableLengthString(), "not a sequence datatype: %s",
+                type);
+        final ByteBuffer[] sequences = resolve(elements, type.getBaseType().getSize());
+        final ByteOrder order = type.getBaseType().getByteOrder();
+        for (final ByteBuffer sequence : sequences) {
+            sequence.order(order);
+        }
+        return sequences;
+    }
+
+    // resolves the data of each element, fetching each distinct collection once
+    private ByteBuffer[] resolve(final ByteBuffer elements, final int baseSize)
+            throws IOException {
+        Preconditions.checkArgument(elements != null, "null elements");
+        final int elementSize = type.getSize();
+        Preconditions.checkArgument(elements.remaining() % elementSize == 0,
+                "%s bytes are not a multiple of the element size (%s)", elements.remaining(),
+                elementSize);
+        final ByteBuffer buffer = elements.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        final int count = buffer.remaining() / elementSize;
+        final int[] lengths = new int[count];
+        final long[] addresses = new long[count];
+        final int[] indexes = new int[count];
+        long[] distinct = new long[count];
+        int numberOfCollections = 0;
+        for (int i = 0, position = buffer.position(); i < count; i++, position += elementSize) {
+            lengths[i] = buffer.getInt(position);
+            if (lengths[i] < 0) {
+                throw new HDF5jException("Invalid variable-length element size: "
+                        + Integer.toUnsignedString(lengths[i]));
+            }
+            if (lengths[i] != 0) {
+                addresses[i] = addressManager.decodePosition(buffer, position + Integer.BYTES);
+                indexes[i] = buffer.getInt(position + Integer.BYTES
+                        + addressManager.getAddressSize());
+                if (addresses[i] < 0) {
+                    throw new HDF5jException("Undefined global heap collection for element " + i);
+                }
+                distinct[numberOfCollections++] = addresses[i];
+            }
+        }
+        // fetch the collections in file order
+        Arrays.sort(distinct, 0, numberOfCollections);
+        int unique = 0;
+        for (int i = 0; i < numberOfCollections; i++) {
+            if (unique == 0 || distinct[unique - 1] != distinct[i]) {
+                distinct[unique++] = distinct[i];
+            }
+        }
+        distinct = Arrays.copyOf(distinct, unique);
+        final GlobalHeapCollection[] collections = new GlobalHeapCollection[unique];
+        for (int i = 0; i < unique; i++) {
+            collections[i] = heaps.get(distinct[i]);
+        }
+        final ByteBuffer[] data = new ByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            if (lengths[i] == 0) {
+                data[i] = ByteBuffer.allocate(0).asReadOnlyBuffer();
+                continue;
+            }
+            final GlobalHeapCollection collection =
+                    collections[Arrays.binarySearch(distinct, addresses[i])];
+            final ByteBuffer object = collection.getObject(indexes[i]);
+            final long size = (long) lengths[i] * baseSize;
+            if (size > object.remaining()) {
+                throw new HDF5jException(String.format(
+                        "Object %s of global heap collection at %s has %s bytes (expected %s)",
+                        indexes[i], addresses[i], object.remaining(), size));
+            }
+            object.limit((int) size);
+            data[i] = object;
+        }
+        return data;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s]", this.getClass().getSimpleName(), type);
+    }
+}
@@ -0,0 +1,95 @@
+package org.magicdgs.hdf5j.dataset.filters;
+
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Reader for a stream of bit fields packed most-significant bit first, as written by the N-bit
+ * and scale-offset filters.
+ *
+ * <p>The bytes are loaded into a 64-bit window with a single {@link ByteBuffer#getLong(int)},
+ * so most fields are extracted with a couple of shifts.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+final class BitReader {
+
+    private final ByteBuffer buffer;
+    private final int limit;
+    // next byte to load into the window
+    private int nextByte;
+    // bits not consumed yet, left-aligned
+    private long window = 0;
+    private int available = 0;
+
+    /**
+     * Constructor for the remaining bytes of the buffer. The buffer is not modified.
+     *
+     * @param input buffer with the packed bits.
+     */
+    BitReader(final ByteBuffer input) {
+        this.buffer = input.duplicate().order(ByteOrder.BIG_ENDIAN);
+        this.nextByte = input.position();
+        this.limit = input.limit();
+    }
+
+    /**
+     * Reads the next field as an unsigned value.
+     *
+     * @param bits number of bits of the field (from 0 to 64).
+     *
+     * @return value of the field in the lowest bits.
+     *
+     * @throws HDF5jException if there are not enough bits.
+     */
+    long read(final int bits) {
+        if (bits <= available) {
+            final long value = top(window, bits);
+            window = shiftLeft(window, bits);
+            available -= bits;
+            return value;
+        }
+        // take the available bits and load the rest from a new window
+        final int missing = bits - available;
+        final long high = top(window, available);
+        final int loaded = load();
+        if (loaded < missing) {
+            throw new HDF5jException("Truncated bit stream: " + missing
+                    + " bits required but only " + loaded + " available");
+        }
+        final long value = shiftLeft(high, missing) | top(window, missing);
+        window = shiftLeft(window, missing);
+        available = loaded - missing;
+        return value;
+    }
+
+    // loads the next 64 bits (or the remaining ones) into the window, returning the bits loaded
+    private int load() {
+        final int remaining = limit - nextByte;
+        if (remaining >= Long.BYTES) {
+            window = buffer.getLong(nextByte);
+            nextByte += Long.BYTES;
+            return Long.SIZE;
+        }
+        long value = 0;
+        for (int i = 0; i < remaining; i++) {
+            final int shift = Long.SIZE - Byte.SIZE * (i + 1);
+            value |= Byte.toUnsignedLong(buffer.get(nextByte + i)) << shift;
+        }
+        window = value;
+        nextByte = limit;
+        return remaining * Byte.SIZE;
+    }
+
+    // the n most significant bits of x, in the lowest bits (n from 0 to 64)
+    private static long top(final long x, final int n) {
+        return (n == 0) ? 0 : x >>> (Long.SIZE - n);
+    }
+
+    // shift without the modulo 64 of the shift operator (n from 0 to 64)
+    private static long shiftLeft(final long x, final int n) {
+        return (n == Long.SIZE) ? 0 : x << n;
+    }
+}
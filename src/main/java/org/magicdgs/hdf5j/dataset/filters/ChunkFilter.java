@@ -0,0 +1,40 @@
+package org.magicdgs.hdf5j.dataset.filters;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Filter applied to the chunks of a dataset, as defined in the <b>Data Storage - Filter Pipeline
+ * Message</b>.
+ *
+ * <p>Implementations should be thread-safe, because the chunks of a dataset are decoded
+ * concurrently.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public interface ChunkFilter {
+
+    /**
+     * Gets the filter identification value. Values from 0 to 255 are reserved for the filters
+     * defined by the HDF Group.
+     *
+     * @return the filter ID.
+     */
+    public int getFilterId();
+
+    /**
+     * Reverses the filter for the remaining bytes of the input.
+     *
+     * @param input        buffer with the filtered bytes; it may be modified by the filter.
+     * @param clientData   parameters for the filter, as stored in the pipeline message.
+     * @param expectedSize expected size of the decoded chunk (in bytes), which can be used as a
+     *                     hint to allocate the output.
+     *
+     * @return buffer with the decoded bytes between its position and limit.
+     *
+     * @implNote to avoid allocations, the returned buffer might be the input or a buffer reused by
+     * the current thread, which is only valid until the next call to this method in the same
+     * thread.
+     */
+    public ByteBuffer decode(final ByteBuffer input, final int[] clientData,
+            final int expectedSize);
+}
@@ -0,0 +1,131 @@
+package org.magicdgs.hdf5j.dataset.filters;
+
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * GZIP compression filter (filter ID 1), which stores the chunks as zlib streams. The only client
+ * data value is the compression level, which is not required for decompression.
+ *
+ * <p>Each thread keeps its own {@link Inflater} and output buffer, which are reset and reused for
+ * every chunk. Thus, the filter can be shared between the tasks decoding chunks in parallel
+ * without contention or allocations once the buffers reach the chunk size.
+ *
+ * <p>The per-thread {@link Inflater}s are never ended by the filter: each of them holds a small
+ * amount of native memory until its thread terminates and the finalizer of the inflater runs.
+ * This is bounded by the number of decoding threads (e.g., the threads of a pool), but threads
+ * that stop decoding while they keep running can free it earlier with {@link #release()}.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ * @implNote the {@link Inflater} in Java 8 only operates on arrays, so the output is a reused
+ * heap buffer and direct inputs are copied into a reused array.
+ */
+public final class DeflateFilter implements ChunkFilter {
+
+    /** Filter identification value. */
+    public static final int FILTER_ID = 1;
+
+    /** Singleton instance of the filter. */
+    public static final DeflateFilter INSTANCE = new DeflateFilter();
+
+    // per-thread inflater (created on the first decoding) and buffers
+    private static final ThreadLocal<Inflater> INFLATER = new ThreadLocal<>();
+    private static final ThreadLocal<byte[]> INPUT = ThreadLocal.withInitial(() -> new byte[0]);
+    private static final ThreadLocal<byte[]> OUTPUT = ThreadLocal.withInitial(() -> new byte[0]);
+
+    // use the singleton instance
+    private DeflateFilter() {}
+
+    @Override
+    public int getFilterId() {
+        return FILTER_ID;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The returned buffer is backed by an array owned by the current thread.
+     */
+    @Override
+    public ByteBuffer decode(final ByteBuffer input, final int[] clientData,
+            final int expectedSize) {
+        Preconditions.checkArgument(input != null, "null input");
+        Inflater inflater = INFLATER.get();
+        if (inflater == null) {
+            inflater = new Inflater();
+            INFLATER.set(inflater);
+        } else {
+            inflater.reset();
+        }
+        setInput(inflater, input);
+        byte[] output = OUTPUT.get();
+        if (output.length < expectedSize) {
+            output = new byte[expectedSize];
+            OUTPUT.set(output);
+        }
+        int decoded = 0;
+        try {
+            while (!inflater.finished()) {
+                if (decoded == output.length) {
+                    // larger than expected: grow and keep the already decoded bytes
+                    output = Arrays.copyOf(output, Math.max(16, 2 * output.length));
+                    OUTPUT.set(output);
+                }
+                final int n = inflater.inflate(output, decoded, output.length - decoded);
+                if (n == 0 && !inflater.finished()
+                        && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new HDF5jException("Truncated or invalid deflate stream");
+                }
+                decoded += n;
+            }
+        } catch (final DataFormatException e) {
+            throw new HDF5jException("Invalid deflate stream: " + e.getMessage(), e);
+        }
+        input.position(input.limit());
+        return ByteBuffer.wrap(output, 0, decoded);
+    }
+
+    // sets the remaining bytes as input, without copying if the buffer is backed by an array
+    private static void setInput(final Inflater inflater, final ByteBuffer input) {
+        if (input.hasArray()) {
+            inflater.setInput(input.array(), input.arrayOffset() + input.position(),
+                    input.remaining());
+        } else {
+            byte[] array = INPUT.get();
+            if (array.length < input.remaining()) {
+                array = new byte[input.remaining()];
+                INPUT.set(array);
+            }
+            final int length = input.remaining();
+            input.duplicate().get(array, 0, length);
+            inflater.setInput(array, 0, length);
+        }
+    }
+
+    /**
+     * Ends the {@link Inflater} of the current thread and drops its buffers, releasing their
+     * (native) memory. They are created again if the thread decodes another chunk.
+     *
+     * <p>Nothing is allocated if the current thread has never decoded a chunk.
+     */
+    public static void release() {
+        final Inflater inflater = INFLATER.get();
+        if (inflater != null) {
+            inflater.end();
+            INFLATER.remove();
+        }
+        INPUT.remove();
+        OUTPUT.remove();
+    }
+
+    @Override
+    public String toString() {
+        return "deflate";
+    }
+}
@@ -0,0 +1,109 @@
+package org.magicdgs.hdf5j.dataset.filters;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ordered list of {@link ChunkFilter} applied to the chunks of a dataset. The filters are applied
+ * in order when writing, and thus they are reversed in the opposite order when reading.
+ *
+ * <p>This class is immutable and thread-safe if the filters are thread-safe.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class FilterPipeline {
+
+    /** Maximum number of filters in a pipeline (limited by the 32-bit filter mask). */
+    public static final int MAX_FILTERS = Integer.SIZE;
+
+    /** Pipeline without filters. */
+    public static final FilterPipeline EMPTY =
+            new FilterPipeline(Collections.emptyList(), Collections.emptyList());
+
+    private final List<ChunkFilter> filters;
+    private final List<int[]> clientData;
+
+    private FilterPipeline(final List<ChunkFilter> filters, final List<int[]> clientData) {
+        this.filters = filters;
+        this.clientData = clientData;
+    }
+
+    /**
+     * Returns a new pipeline with the filter appended at the end.
+     *
+     * @param filter     filter to append.
+     * @param clientData parameters for the filter.
+     *
+     * @return new pipeline.
+     */
+    public FilterPipeline append(final ChunkFilter filter, final int... clientData) {
+        Preconditions.checkArgument(filter != null, "null filter");
+        Preconditions.checkArgument(clientData != null, "null client data");
+        Preconditions.checkState(filters.size() < MAX_FILTERS,
+                "pipeline cannot contain more than %s filters", MAX_FILTERS);
+        final List<ChunkFilter> newFilters = new ArrayList<>(filters);
+        newFilters.add(filter);
+        final List<int[]> newClientData = new ArrayList<>(this.clientData);
+        newClientData.add(clientData.clone());
+        return new FilterPipeline(Collections.unmodifiableList(newFilters),
+                Collections.unmodifiableList(newClientData));
+    }
+
+    /**
+     * Gets the filters in the order that they are applied when writing.
+     *
+     * @return unmodifiable list of filters.
+     */
+    public List<ChunkFilter> getFilters() {
+        return filters;
+    }
+
+    /**
+     * Gets the number of filters.
+     *
+     * @return number of filters in the pipeline.
+     */
+    public int size() {
+        return filters.size();
+    }
+
+    /**
+     * Decodes a chunk, reversing the filters that were applied to it.
+     *
+     * @param chunk        buffer with the filtered chunk; it may be modified.
+     * @param filterMask   mask of the filters that were not applied to the chunk.
+     * @param expectedSize expected size of the decoded chunk (in bytes).
+     *
+     * @return buffer with the decoded chunk, which might be reused by the current thread (see
+     * {@link ChunkFilter#decode(ByteBuffer, int[], int)}).
+     */
+    public ByteBuffer decode(final ByteBuffer chunk, final int filterMask,
+            final int expectedSize) {
+        ByteBuffer current = chunk;
+        for (int i = filters.size() - 1; i >= 0; i--) {
+            if ((filterMask & (1 << i)) == 0) {
+                current = filters.get(i).decode(current, clientData.get(i), expectedSize);
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder(this.getClass().getSimpleName())
+                .append('[');
+        for (int i = 0; i < filters.size(); i++) {
+            if (i != 0) {
+                builder.append(", ");
+            }
+            builder.append(filters.get(i).getFilterId())
+                    .append(Arrays.toString(clientData.get(i)));
+        }
+        return builder.append(']').toString();
+    }
+}
@@ -0,0 +1,104 @@
+package org.magicdgs.hdf5j.dataset.filters;
+
+import org.magicdgs.hdf5j.io.ChecksumVerification;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+import org.magicdgs.hdf5j.utils.hashing.Fletcher32Checksum;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fletcher-32 checksum filter (filter ID 3), which appends the little-endian checksum of the data
+ * to each chunk. It does not have client data.
+ *
+ * <p>Decoding removes the checksum, verifying it according to the {@link ChecksumVerification}
+ * policy. As in the HDF5 library, checksums with the bytes of each 16-bit half swapped (written
+ * by old versions of the library) are also accepted.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class Fletcher32Filter implements ChunkFilter {
+
+    /** Filter identification value. */
+    public static final int FILTER_ID = 3;
+
+    /** Size of the checksum appended to the chunks. */
+    public static final int CHECKSUM_LENGTH = Integer.BYTES;
+
+    /** Instance of the filter that verifies every chunk. */
+    public static final Fletcher32Filter INSTANCE =
+            new Fletcher32Filter(ChecksumVerification.ALWAYS);
+
+    private final ChecksumVerification verification;
+    // number of chunks decoded, for sampling
+    private final AtomicLong decodedChunks = new AtomicLong();
+
+    /**
+     * Constructor with a verification policy. Usually, the policy of the file is used (see
+     * {@link org.magicdgs.hdf5j.io.HDF5FileReader#getChecksumVerification()}).
+     *
+     * @param verification verification policy.
+     */
+    public Fletcher32Filter(final ChecksumVerification verification) {
+        Preconditions.checkArgument(verification != null, "null verification");
+        this.verification = verification;
+    }
+
+    @Override
+    public int getFilterId() {
+        return FILTER_ID;
+    }
+
+    /**
+     * Gets the verification policy.
+     *
+     * @return the policy.
+     */
+    public ChecksumVerification getVerification() {
+        return verification;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The returned buffer is a view of the input without the checksum.
+     *
+     * @throws HDF5jException if the checksum does not match.
+     */
+    @Override
+    public ByteBuffer decode(final ByteBuffer input, final int[] clientData,
+            final int expectedSize) {
+        Preconditions.checkArgument(input != null, "null input");
+        if (input.remaining() < CHECKSUM_LENGTH) {
+            throw new HDF5jException("Chunk too small to contain a Fletcher32 checksum: "
+                    + input.remaining() + " bytes");
+        }
+        final int dataLimit = input.limit() - CHECKSUM_LENGTH;
+        final ByteBuffer data = input.duplicate();
+        data.limit(dataLimit);
+        if (verification.shouldVerify(decodedChunks.getAndIncrement())) {
+            final int stored = input.duplicate().order(ByteOrder.LITTLE_ENDIAN).getInt(dataLimit);
+            final int computed = Fletcher32Checksum.checksum(data);
+            if (stored != computed && stored != swapHalfBytes(computed)) {
+                throw new HDF5jException(String.format(
+                        "Fletcher32 checksum mismatch: stored %08x, computed %08x",
+                        stored, computed));
+            }
+        }
+        input.position(input.limit());
+        return data;
+    }
+
+    // swaps the bytes of each 16-bit half (checksum written by old library versions)
+    private static int swapHalfBytes(final int checksum) {
+        return ((checksum & 0x00FF00FF) << 8) | ((checksum >>> 8) & 0x00FF00FF);
+    }
+
+    @Override
+    public String toString() {
+        return "fletcher32[" + verification + "]";
+    }
+}
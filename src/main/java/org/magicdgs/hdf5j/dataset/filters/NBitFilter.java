@@ -0,0 +1,306 @@
+package org.magicdgs.hdf5j.dataset.filters;
+
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * N-bit filter (filter ID 5), which packs only the significant bits (precision) of each element.
+ *
+ * <p>The client data is computed by the library from the datatype:
+ *
+ * <ol start="0">
+ *     <li>Number of client data values.</li>
+ *     <li>Flag set if the data is not compressed (e.g., no padding bits).</li>
+ *     <li>Number of elements in the chunk.</li>
+ *     <li>Datatype class (1 for atomic, 2 for array, 3 for compound, 4 for no-op).</li>
+ *     <li>For atomic types: size, byte order (0 for little-endian), precision and offset.</li>
+ * </ol>
+ *
+ * <p>Besides the byte-oriented {@link #decode(ByteBuffer, int[], int)}, atomic datatypes can be
+ * decoded directly into primitive arrays, reading the packed bits 64 at a time.
+ *
+ * <p>Note: packed array and compound datatypes are not supported (their client data describes
+ * the base and member types recursively), and they are rejected with an {@link HDF5jException}.
+ * Chunks that are not compressed are returned as they are for any datatype class.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class NBitFilter implements ChunkFilter {
+
+    /** Filter identification value. */
+    public static final int FILTER_ID = 5;
+
+    /** Singleton instance of the filter. */
+    public static final NBitFilter INSTANCE = new NBitFilter();
+
+    // datatype classes
+    private static final int ATOMIC = 1;
+    private static final int ARRAY = 2;
+    private static final int COMPOUND = 3;
+    private static final int NOOP = 4;
+
+    // client data indexes
+    private static final int NOT_COMPRESSED_INDEX = 1;
+    private static final int ELEMENTS_INDEX = 2;
+    private static final int CLASS_INDEX = 3;
+
+    // per-thread output buffer
+    private static final ThreadLocal<ByteBuffer> OUTPUT =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(0));
+
+    // use the singleton instance
+    private NBitFilter() {}
+
+    @Override
+    public int getFilterId() {
+        return FILTER_ID;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The returned buffer is owned by the current thread, unless the data is not compressed
+     * and the input is returned.
+     *
+     * @throws HDF5jException if the datatype class is not supported (e.g., packed array or
+     *                        compound datatypes).
+     */
+    @Override
+    public ByteBuffer decode(final ByteBuffer input, final int[] clientData,
+            final int expectedSize) {
+        Preconditions.checkArgument(input != null, "null input");
+        checkClientData(clientData);
+        if (clientData[NOT_COMPRESSED_INDEX] != 0) {
+            return input;
+        }
+        final int elements = clientData[ELEMENTS_INDEX];
+        final BitReader bits = new BitReader(input);
+        final ByteBuffer output;
+        switch (clientData[CLASS_INDEX]) {
+            case ATOMIC:
+                final Atomic type = new Atomic(clientData);
+                output = outputBuffer(elements * type.size, type.order);
+                for (int i = 0; i < elements; i++) {
+                    decodeAtomic(bits, type, output, i * type.size);
+                }
+                break;
+            case NOOP:
+                final int size = clientData[CLASS_INDEX + 1];
+                output = outputBuffer(elements * size, ByteOrder.LITTLE_ENDIAN);
+                for (int i = 0; i < elements * size; i++) {
+                    output.put(i, (byte) bits.read(Byte.SIZE));
+                }
+                break;
+            case ARRAY:
+            case COMPOUND:
+                throw new HDF5jException(
+                        "N-bit filter not supported for array and compound datatypes");
+            default:
+                throw new HDF5jException(
+                        "N-bit filter not supported for datatype class " + clientData[CLASS_INDEX]);
+        }
+        input.position(input.limit());
+        return output;
+    }
+
+    /**
+     * Decodes a chunk of an integer datatype of up to 4 bytes into an {@code int[]}. The
+     * significant bits of each element are extended to 32 bits.
+     *
+     * @param input        buffer with the packed chunk.
+     * @param clientData   parameters of the filter.
+     * @param signed       {@code true} if the datatype is signed; {@code false} otherwise.
+     * @param target       array to store the values.
+     * @param targetOffset index of the first element in the target.
+     *
+     * @return the number of elements decoded.
+     */
+    public int decodeInts(final ByteBuffer input, final int[] clientData, final boolean signed,
+            final int[] target, final int targetOffset) {
+        final Atomic type = checkAtomic(input, clientData, Integer.BYTES);
+        final int elements = checkTarget(clientData, target.length, targetOffset);
+        final BitReader bits = new BitReader(input);
+        final int shift = Integer.SIZE - type.precision;
+        for (int i = 0; i < elements; i++) {
+            final int value = (int) bits.read(type.precision);
+            target[targetOffset + i] = (signed) ? (value << shift) >> shift : value;
+        }
+        input.position(input.limit());
+        return elements;
+    }
+
+    /**
+     * Decodes a chunk of an integer datatype of up to 8 bytes into a {@code long[]}. The
+     * significant bits of each element are extended to 64 bits.
+     *
+     * @param input        buffer with the packed chunk.
+     * @param clientData   parameters of the filter.
+     * @param signed       {@code true} if the datatype is signed; {@code false} otherwise.
+     * @param target       array to store the values.
+     * @param targetOffset index of the first element in the target.
+     *
+     * @return the number of elements decoded.
+     */
+    public int decodeLongs(final ByteBuffer input, final int[] clientData, final boolean signed,
+            final long[] target, final int targetOffset) {
+        final Atomic type = checkAtomic(input, clientData, Long.BYTES);
+        final int elements = checkTarget(clientData, target.length, targetOffset);
+        final BitReader bits = new BitReader(input);
+        final int shift = Long.SIZE - type.precision;
+        for (int i = 0; i < elements; i++) {
+            final long value = bits.read(type.precision);
+            target[targetOffset + i] = (signed) ? (value << shift) >> shift : value;
+        }
+        input.position(input.limit());
+        return elements;
+    }
+
+    /**
+     * Decodes a chunk of a 4-bytes IEEE floating-point datatype into a {@code float[]}. The
+     * significant bits are restored at their offset, and the padding bits are set to zero.
+     *
+     * @param input        buffer with the packed chunk.
+     * @param clientData   parameters of the filter.
+     * @param target       array to store the values.
+     * @param targetOffset index of the first element in the target.
+     *
+     * @return the number of elements decoded.
+     */
+    public int decodeFloats(final ByteBuffer input, final int[] clientData, final float[] target,
+            final int targetOffset) {
+        final Atomic type = checkAtomic(input, clientData, Float.BYTES);
+        final int elements = checkTarget(clientData, target.length, targetOffset);
+        final BitReader bits = new BitReader(input);
+        for (int i = 0; i < elements; i++) {
+            final int value = (int) bits.read(type.precision) << type.offset;
+            target[targetOffset + i] = Float.intBitsToFloat(value);
+        }
+        input.position(input.limit());
+        return elements;
+    }
+
+    /**
+     * Decodes a chunk of an 8-bytes IEEE floating-point datatype into a {@code double[]}. The
+     * significant bits are restored at their offset, and the padding bits are set to zero.
+     *
+     * @param input        buffer with the packed chunk.
+     * @param clientData   parameters of the filter.
+     * @param target       array to store the values.
+     * @param targetOffset index of the first element in the target.
+     *
+     * @return the number of elements decoded.
+     */
+    public int decodeDoubles(final ByteBuffer input, final int[] clientData,
+            final double[] target, final int targetOffset) {
+        final Atomic type = checkAtomic(input, clientData, Double.BYTES);
+        final int elements = checkTarget(clientData, target.length, targetOffset);
+        final BitReader bits = new BitReader(input);
+        for (int i = 0; i < elements; i++) {
+            final long value = bits.read(type.precision) << type.offset;
+            target[targetOffset + i] = Double.longBitsToDouble(value);
+        }
+        input.position(input.limit());
+        return elements;
+    }
+
+    // decodes an atomic element into the output, at the provided index
+    private static void decodeAtomic(final BitReader bits, final Atomic type,
+            final ByteBuffer output, final int index) {
+        if (type.size <= Long.BYTES) {
+            final long value = bits.read(type.precision) << type.offset;
+            for (int b = 0; b < type.size; b++) {
+                final int shift = (type.order == ByteOrder.LITTLE_ENDIAN)
+                        ? b * Byte.SIZE : (type.size - 1 - b) * Byte.SIZE;
+                output.put(index + b, (byte) (value >>> shift));
+            }
+        } else {
+            // larger types (e.g., long double) are decoded byte by byte
+            for (int b = 0; b < type.size; b++) {
+                output.put(index + b, (byte) 0);
+            }
+            final int first = type.offset / Byte.SIZE;
+            final int last = (type.offset + type.precision - 1) / Byte.SIZE;
+            for (int k = last; k >= first; k--) {
+                final int low = Math.max(type.offset, k * Byte.SIZE);
+                final int high = Math.min(type.offset + type.precision, (k + 1) * Byte.SIZE);
+                final int value = (int) bits.read(high - low) << (low - k * Byte.SIZE);
+                final int position = (type.order == ByteOrder.LITTLE_ENDIAN)
+                        ? k : type.size - 1 - k;
+                output.put(index + position, (byte) value);
+            }
+        }
+    }
+
+    private static void checkClientData(final int[] clientData) {
+        Preconditions.checkArgument(clientData != null && clientData.length > CLASS_INDEX,
+                "N-bit filter requires at least %s client data values", CLASS_INDEX + 1);
+    }
+
+    // checks the client data and the size of the atomic type for the primitive decoders
+    private static Atomic checkAtomic(final ByteBuffer input, final int[] clientData,
+            final int maxSize) {
+        Preconditions.checkArgument(input != null, "null input");
+        checkClientData(clientData);
+        if (clientData[CLASS_INDEX] != ATOMIC || clientData[NOT_COMPRESSED_INDEX] != 0) {
+            throw new HDF5jException("Only compressed atomic datatypes can be decoded directly");
+        }
+        final Atomic type = new Atomic(clientData);
+        if (type.size > maxSize) {
+            throw new HDF5jException(String.format(
+                    "Datatype of %s bytes cannot be decoded into %s bytes", type.size, maxSize));
+        }
+        return type;
+    }
+
+    // checks that the target can hold all the elements
+    private static int checkTarget(final int[] clientData, final int length, final int offset) {
+        final int elements = clientData[ELEMENTS_INDEX];
+        Preconditions.checkPositionIndexes(offset, offset + elements, length);
+        return elements;
+    }
+
+    // gets the output buffer for the current thread, with enough capacity
+    private static ByteBuffer outputBuffer(final int size, final ByteOrder order) {
+        ByteBuffer output = OUTPUT.get();
+        if (output.capacity() < size) {
+            output = ByteBuffer.allocate(size);
+            OUTPUT.set(output);
+        }
+        output.clear().limit(size);
+        return output.order(order);
+    }
+
+    // parameters for an atomic datatype
+    private static final class Atomic {
+        private final int size;
+        private final ByteOrder order;
+        private final int precision;
+        private final int offset;
+
+        private Atomic(final int[] clientData) {
+            Preconditions.checkArgument(clientData.length >= CLASS_INDEX + 5,
+                    "N-bit filter requires %s client data values for atomic datatypes",
+                    CLASS_INDEX + 5);
+            this.size = clientData[CLASS_INDEX + 1];
+            this.order = (clientData[CLASS_INDEX + 2] == 0)
+                    ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+            this.precision = clientData[CLASS_INDEX + 3];
+            this.offset = clientData[CLASS_INDEX + 4];
+            if (size <= 0 || precision <= 0 || offset < 0
+                    || precision + offset > size * Byte.SIZE) {
+                throw new HDF5jException(String.format(
+                        "Invalid N-bit parameters: size=%s, precision=%s, offset=%s",
+                        size, precision, offset));
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "nbit";
+    }
+}
@@ -0,0 +1,387 @@
+package org.magicdgs.hdf5j.dataset.filters;
+
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Scale-offset filter (filter ID 6), which stores each element as the minimum number of bits
+ * required for its offset from the minimum value of the chunk. Floating-point values are first
+ * scaled by a power of 10 (D-scaling), losing precision.
+ *
+ * <p>The client data is computed by the library from the datatype:
+ *
+ * <ol start="0">
+ *     <li>Scale type (0 for D-scale floating-point, 1 for E-scale and 2 for integers).</li>
+ *     <li>Scale factor (decimal digits to keep for D-scaling).</li>
+ *     <li>Number of elements in the chunk.</li>
+ *     <li>Datatype class (0 for integers, 1 for floating-point).</li>
+ *     <li>Size of the datatype.</li>
+ *     <li>Sign (0 for unsigned, 1 for signed).</li>
+ *     <li>Byte order (0 for little-endian).</li>
+ *     <li>Flag set if the fill value is defined.</li>
+ *     <li>Fill value (little-endian words).</li>
+ * </ol>
+ *
+ * <p>Besides the byte-oriented {@link #decode(ByteBuffer, int[], int)}, chunks can be decoded
+ * directly into primitive arrays, reading the packed bits 64 at a time.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class ScaleOffsetFilter implements ChunkFilter {
+
+    /** Filter identification value. */
+    public static final int FILTER_ID = 6;
+
+    /** Singleton instance of the filter. */
+    public static final ScaleOffsetFilter INSTANCE = new ScaleOffsetFilter();
+
+    // scale types
+    private static final int FLOAT_DSCALE = 0;
+    private static final int INTEGER_SCALE = 2;
+
+    // client data indexes
+    private static final int SCALE_TYPE_INDEX = 0;
+    private static final int SCALE_FACTOR_INDEX = 1;
+    private static final int ELEMENTS_INDEX = 2;
+    private static final int CLASS_INDEX = 3;
+    private static final int SIZE_INDEX = 4;
+    private static final int SIGN_INDEX = 5;
+    private static final int ORDER_INDEX = 6;
+    private static final int FILL_DEFINED_INDEX = 7;
+    private static final int FILL_VALUE_INDEX = 8;
+
+    // size of the chunk header (minimum bits, minimum value size and padded minimum value)
+    private static final int HEADER_SIZE = 21;
+    private static final int MINVAL_INDEX = 5;
+
+    // per-thread output buffer
+    private static final ThreadLocal<ByteBuffer> OUTPUT =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(0));
+
+    // use the singleton instance
+    private ScaleOffsetFilter() {}
+
+    @Override
+    public int getFilterId() {
+        return FILTER_ID;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The returned buffer is owned by the current thread.
+     *
+     * @throws HDF5jException if the chunk is malformed or the scale type is not supported.
+     */
+    @Override
+    public ByteBuffer decode(final ByteBuffer input, final int[] clientData,
+            final int expectedSize) {
+        final Chunk chunk = new Chunk(input, clientData);
+        final ByteBuffer output = outputBuffer(chunk.elements * chunk.size, chunk.order);
+        for (int i = 0; i < chunk.elements; i++) {
+            final long bits;
+            if (!chunk.floating) {
+                bits = chunk.nextBits();
+            } else if (chunk.size == Float.BYTES) {
+                bits = Float.floatToRawIntBits(chunk.nextFloat());
+            } else {
+                bits = Double.doubleToRawLongBits(chunk.nextDouble());
+            }
+            putBits(output, i * chunk.size, chunk.size, bits);
+        }
+        input.position(input.limit());
+        return output;
+    }
+
+    /**
+     * Decodes a chunk of an integer datatype of up to 4 bytes into an {@code int[]}. The values
+     * are extended to 32 bits according to the sign of the datatype.
+     *
+     * @param input        buffer with the packed chunk.
+     * @param clientData   parameters of the filter.
+     * @param target       array to store the values.
+     * @param targetOffset index of the first element in the target.
+     *
+     * @return the number of elements decoded.
+     */
+    public int decodeInts(final ByteBuffer input, final int[] clientData, final int[] target,
+            final int targetOffset) {
+        final Chunk chunk = new Chunk(input, clientData);
+        chunk.checkTarget(false, Integer.BYTES, target.length, targetOffset);
+        for (int i = 0; i < chunk.elements; i++) {
+            target[targetOffset + i] = (int) chunk.nextLong();
+        }
+        input.position(input.limit());
+        return chunk.elements;
+    }
+
+    /**
+     * Decodes a chunk of an integer datatype of up to 8 bytes into a {@code long[]}. The values
+     * are extended to 64 bits according to the sign of the datatype.
+     *
+     * @param input        buffer with the packed chunk.
+     * @param clientData   parameters of the filter.
+     * @param target       array to store the values.
+     * @param targetOffset index of the first element in the target.
+     *
+     * @return the number of elements decoded.
+     */
+    public int decodeLongs(final ByteBuffer input, final int[] clientData, final long[] target,
+            final int targetOffset) {
+        final Chunk chunk = new Chunk(input, clientData);
+        chunk.checkTarget(false, Long.BYTES, target.length, targetOffset);
+        for (int i = 0; i < chunk.elements; i++) {
+            target[targetOffset + i] = chunk.nextLong();
+        }
+        input.position(input.limit());
+        return chunk.elements;
+    }
+
+    /**
+     * Decodes a chunk of a 4-bytes floating-point datatype into a {@code float[]}.
+     *
+     * @param input        buffer with the packed chunk.
+     * @param clientData   parameters of the filter.
+     * @param target       array to store the values.
+     * @param targetOffset index of the first element in the target.
+     *
+     * @return the number of elements decoded.
+     */
+    public int decodeFloats(final ByteBuffer input, final int[] clientData, final float[] target,
+            final int targetOffset) {
+        final Chunk chunk = new Chunk(input, clientData);
+        chunk.checkTarget(true, Float.BYTES, target.length, targetOffset);
+        for (int i = 0; i < chunk.elements; i++) {
+            target[targetOffset + i] = chunk.nextFloat();
+        }
+        input.position(input.limit());
+        return chunk.elements;
+    }
+
+    /**
+     * Decodes a chunk of an 8-bytes floating-point datatype into a {@code double[]}.
+     *
+     * @param input        buffer with the packed chunk.
+     * @param clientData   parameters of the filter.
+     * @param target       array to store the values.
+     * @param targetOffset index of the first element in the target.
+     *
+     * @return the number of elements decoded.
+     */
+    public int decodeDoubles(final ByteBuffer input, final int[] clientData,
+            final double[] target, final int targetOffset) {
+        final Chunk chunk = new Chunk(input, clientData);
+        chunk.checkTarget(true, Double.BYTES, target.length, targetOffset);
+        for (int i = 0; i < chunk.elements; i++) {
+            target[targetOffset + i] = chunk.nextDouble();
+        }
+        input.position(input.limit());
+        return chunk.elements;
+    }
+
+    // writes the lowest size bytes of the value at the index
+    private static void putBits(final ByteBuffer output, final int index, final int size,
+            final long bits) {
+        switch (size) {
+            case Byte.BYTES:
+                output.put(index, (byte) bits);
+                break;
+            case Short.BYTES:
+                output.putShort(index, (short) bits);
+                break;
+            case Integer.BYTES:
+                output.putInt(index, (int) bits);
+                break;
+            default:
+                output.putLong(index, bits);
+        }
+    }
+
+    // gets the output buffer for the current thread, with enough capacity
+    private static ByteBuffer outputBuffer(final int size, final ByteOrder order) {
+        ByteBuffer output = OUTPUT.get();
+        if (output.capacity() < size) {
+            output = ByteBuffer.allocate(size);
+            OUTPUT.set(output);
+        }
+        output.clear().limit(size);
+        return output.order(order);
+    }
+
+    // state for decoding the elements of a chunk in order
+    private static final class Chunk {
+        private final int elements;
+        private final int size;
+        private final boolean floating;
+        private final boolean signed;
+        private final ByteOrder order;
+        private final boolean fillDefined;
+        private final long fillValue;
+
+        private final int minBits;
+        private final long minValue;
+        // stored value marking the fill value
+        private final long fillMarker;
+        private final double doubleScale;
+
+        // packed bits, or stored values when the minimum bits are the full precision
+        private final BitReader bits;
+        private final ByteBuffer raw;
+
+        private Chunk(final ByteBuffer input, final int[] clientData) {
+            Preconditions.checkArgument(input != null, "null input");
+            Preconditions.checkArgument(clientData != null
+                            && clientData.length > FILL_VALUE_INDEX + 1,
+                    "Scale-offset filter requires %s client data values", FILL_VALUE_INDEX + 2);
+            this.elements = clientData[ELEMENTS_INDEX];
+            this.size = clientData[SIZE_INDEX];
+            this.floating = clientData[CLASS_INDEX] == 1;
+            this.signed = clientData[SIGN_INDEX] == 1;
+            this.order = (clientData[ORDER_INDEX] == 0)
+                    ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+            this.fillDefined = clientData[FILL_DEFINED_INDEX] == 1;
+            this.fillValue = Integer.toUnsignedLong(clientData[FILL_VALUE_INDEX])
+                    | (long) clientData[FILL_VALUE_INDEX + 1] << Integer.SIZE;
+            checkScaleType(clientData[SCALE_TYPE_INDEX]);
+            if (size != Byte.BYTES && size != Short.BYTES && size != Integer.BYTES
+                    && size != Long.BYTES || floating && size < Float.BYTES) {
+                throw new HDF5jException("Scale-offset filter not supported for datatype size "
+                        + size);
+            }
+
+            // chunk header
+            if (input.remaining() < HEADER_SIZE) {
+                throw new HDF5jException("Chunk too small to contain a scale-offset header: "
+                        + input.remaining() + " bytes");
+            }
+            final ByteBuffer header = input.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            final int start = input.position();
+            this.minBits = header.getInt(start);
+            final int minValueSize = Byte.toUnsignedInt(header.get(start + Integer.BYTES));
+            if (minBits < 0 || minBits > size * Byte.SIZE || minValueSize > Long.BYTES) {
+                throw new HDF5jException(String.format(
+                        "Invalid scale-offset header: minimum bits=%s, minimum value size=%s",
+                        minBits, minValueSize));
+            }
+            long min = 0;
+            for (int i = 0; i < minValueSize; i++) {
+                min |= Byte.toUnsignedLong(header.get(start + MINVAL_INDEX + i))
+                        << (Byte.SIZE * i);
+            }
+            this.minValue = min;
+            this.fillMarker = (1L << minBits) - 1;
+            final int scaleFactor = clientData[SCALE_FACTOR_INDEX];
+            this.doubleScale = Math.pow(10, scaleFactor);
+
+            // packed data
+            final ByteBuffer data = input.duplicate();
+            data.position(start + HEADER_SIZE);
+            if (minBits == size * Byte.SIZE) {
+                if (data.remaining() < elements * size) {
+                    throw new HDF5jException("Truncated scale-offset chunk: " + data.remaining()
+                            + " bytes for " + elements + " elements");
+                }
+                this.raw = data.order(order);
+                this.bits = null;
+            } else {
+                this.raw = null;
+                this.bits = new BitReader(data);
+            }
+        }
+
+        private void checkScaleType(final int scaleType) {
+            if (floating && scaleType != FLOAT_DSCALE) {
+                throw new HDF5jException(
+                        "Scale-offset filter only supports D-scaling for floating-point data");
+            }
+            if (!floating && scaleType != INTEGER_SCALE) {
+                throw new HDF5jException("Invalid scale type for integer data: " + scaleType);
+            }
+        }
+
+        // checks that the datatype is compatible with the target and that it can hold the chunk
+        private void checkTarget(final boolean floatingTarget, final int targetSize,
+                final int length, final int offset) {
+            final boolean compatible = (floating) ? size == targetSize : size <= targetSize;
+            if (floating != floatingTarget || !compatible) {
+                throw new HDF5jException(String.format(
+                        "%s datatype of %s bytes cannot be decoded into %s %s bytes",
+                        (floating) ? "Floating-point" : "Integer", size,
+                        (floatingTarget) ? "floating-point" : "integer", targetSize));
+            }
+            Preconditions.checkPositionIndexes(offset, offset + elements, length);
+        }
+
+        // next stored value (offset from the minimum)
+        private long nextOffset() {
+            return (minBits == 0) ? 0 : bits.read(minBits);
+        }
+
+        // next value of an integer datatype, as the lowest size bytes
+        private long nextBits() {
+            if (raw != null) {
+                return getRaw();
+            }
+            final long offset = nextOffset();
+            return (fillDefined && offset == fillMarker) ? fillValue : offset + minValue;
+        }
+
+        // next value of an integer datatype, extended to 64 bits
+        private long nextLong() {
+            final long value = nextBits();
+            if (size == Long.BYTES) {
+                return value;
+            }
+            final int shift = Long.SIZE - size * Byte.SIZE;
+            return (signed) ? (value << shift) >> shift : (value << shift) >>> shift;
+        }
+
+        // next value of a 4-bytes floating-point datatype
+        private float nextFloat() {
+            if (raw != null) {
+                return Float.intBitsToFloat((int) getRaw());
+            }
+            final long offset = nextOffset();
+            if (fillDefined && offset == fillMarker) {
+                return Float.intBitsToFloat((int) fillValue);
+            }
+            // computed in double and narrowed at the end, as in the HDF5 library
+            return (float) ((int) offset / doubleScale + Float.intBitsToFloat((int) minValue));
+        }
+
+        // next value of an 8-bytes floating-point datatype
+        private double nextDouble() {
+            if (raw != null) {
+                return Double.longBitsToDouble(getRaw());
+            }
+            final long offset = nextOffset();
+            if (fillDefined && offset == fillMarker) {
+                return Double.longBitsToDouble(fillValue);
+            }
+            return (double) offset / doubleScale + Double.longBitsToDouble(minValue);
+        }
+
+        // next stored value with full precision
+        private long getRaw() {
+            switch (size) {
+                case Byte.BYTES:
+                    return raw.get();
+                case Short.BYTES:
+                    return raw.getShort();
+                case Integer.BYTES:
+                    return raw.getInt();
+                default:
+                    return raw.getLong();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "scaleoffset";
+    }
+}
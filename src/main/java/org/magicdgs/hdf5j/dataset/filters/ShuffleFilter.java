@@ -0,0 +1,236 @@
+package org.magicdgs.hdf5j.dataset.filters;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Shuffle filter (filter ID 2), which stores the first byte of every element, followed by the
+ * second byte of every element, and so on. The only client data value is the element size.
+ *
+ * <p>Unshuffling is a transpose of the {@code elementSize x numberOfElements} byte matrix. For
+ * element sizes of 2, 4 and 8 bytes, blocks of elements are transposed in registers: one word is
+ * read from each byte stream, the bytes are exchanged with masks and shifts, and whole elements
+ * are written at once. Bytes that do not form a complete element are copied unchanged.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class ShuffleFilter implements ChunkFilter {
+
+    /** Filter identification value. */
+    public static final int FILTER_ID = 2;
+
+    /** Singleton instance of the filter. */
+    public static final ShuffleFilter INSTANCE = new ShuffleFilter();
+
+    // per-thread output buffer
+    private static final ThreadLocal<ByteBuffer> OUTPUT = ThreadLocal
+            .withInitial(() -> ByteBuffer.allocate(0).order(ByteOrder.LITTLE_ENDIAN));
+
+    // use the singleton instance
+    private ShuffleFilter() {}
+
+    @Override
+    public int getFilterId() {
+        return FILTER_ID;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The returned buffer is owned by the current thread, unless no bytes are unshuffled (the
+     * element size is 1 or larger than the input), where the input is returned.
+     */
+    @Override
+    public ByteBuffer decode(final ByteBuffer input, final int[] clientData,
+            final int expectedSize) {
+        Preconditions.checkArgument(input != null, "null input");
+        Preconditions.checkArgument(clientData != null && clientData.length >= 1,
+                "shuffle filter requires the element size as client data");
+        final int elementSize = clientData[0];
+        Preconditions.checkArgument(elementSize > 0, "non-positive element size: %s",
+                elementSize);
+        final int size = input.remaining();
+        final int elements = size / elementSize;
+        if (elementSize == 1 || elements <= 1) {
+            return input;
+        }
+        final ByteBuffer in = input.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        final ByteBuffer out = outputBuffer(size);
+        unshuffle(in, input.position(), out, elements, elementSize);
+        // leftover bytes are not shuffled
+        final int shuffled = elements * elementSize;
+        for (int i = shuffled; i < size; i++) {
+            out.put(i, in.get(input.position() + i));
+        }
+        input.position(input.limit());
+        out.limit(size);
+        return out;
+    }
+
+    // unshuffles the elements from the little-endian input (starting at offset) into the output
+    private static void unshuffle(final ByteBuffer in, final int offset, final ByteBuffer out,
+            final int elements, final int elementSize) {
+        switch (elementSize) {
+            case 2:
+                unshuffle2(in, offset, out, elements);
+                break;
+            case 4:
+                unshuffle4(in, offset, out, elements);
+                break;
+            case 8:
+                unshuffle8(in, offset, out, elements);
+                break;
+            default:
+                unshuffleScalar(in, offset, out, elements, elementSize, 0);
+        }
+    }
+
+    // unshuffles the elements starting at the provided one, reading each stream sequentially
+    private static void unshuffleScalar(final ByteBuffer in, final int offset,
+            final ByteBuffer out, final int elements, final int elementSize, final int first) {
+        for (int b = 0; b < elementSize; b++) {
+            final int stream = offset + b * elements;
+            for (int i = first; i < elements; i++) {
+                out.put(i * elementSize + b, in.get(stream + i));
+            }
+        }
+    }
+
+    // 4 elements per block: one int from each stream, interleaved into a long
+    private static void unshuffle2(final ByteBuffer in, final int offset, final ByteBuffer out,
+            final int elements) {
+        final int stream1 = offset + elements;
+        final int blocks = elements / Integer.BYTES;
+        for (int block = 0; block < blocks; block++) {
+            final int i = block * Integer.BYTES;
+            final long low = spreadBytes(Integer.toUnsignedLong(in.getInt(offset + i)));
+            final long high = spreadBytes(Integer.toUnsignedLong(in.getInt(stream1 + i)));
+            out.putLong(i * 2, low | (high << Byte.SIZE));
+        }
+        unshuffleScalar(in, offset, out, elements, 2, blocks * Integer.BYTES);
+    }
+
+    // places the 4 low bytes of x in the even bytes of the result
+    private static long spreadBytes(long x) {
+        x = (x | (x << 16)) & 0x0000FFFF0000FFFFL;
+        x = (x | (x << 8)) & 0x00FF00FF00FF00FFL;
+        return x;
+    }
+
+    // 4 elements per block: 4x4 byte transpose of one int from each stream
+    private static void unshuffle4(final ByteBuffer in, final int offset, final ByteBuffer out,
+            final int elements) {
+        final int blocks = elements / Integer.BYTES;
+        for (int block = 0; block < blocks; block++) {
+            final int i = block * Integer.BYTES;
+            int w0 = in.getInt(offset + i);
+            int w1 = in.getInt(offset + elements + i);
+            int w2 = in.getInt(offset + 2 * elements + i);
+            int w3 = in.getInt(offset + 3 * elements + i);
+            // exchange 2-byte blocks
+            int t = ((w0 >>> 16) ^ w2) & 0x0000FFFF;
+            w2 ^= t;
+            w0 ^= t << 16;
+            t = ((w1 >>> 16) ^ w3) & 0x0000FFFF;
+            w3 ^= t;
+            w1 ^= t << 16;
+            // exchange single bytes
+            t = ((w0 >>> 8) ^ w1) & 0x00FF00FF;
+            w1 ^= t;
+            w0 ^= t << 8;
+            t = ((w2 >>> 8) ^ w3) & 0x00FF00FF;
+            w3 ^= t;
+            w2 ^= t << 8;
+            final int o = i * Integer.BYTES;
+            out.putInt(o, w0);
+            out.putInt(o + 4, w1);
+            out.putInt(o + 8, w2);
+            out.putInt(o + 12, w3);
+        }
+        unshuffleScalar(in, offset, out, elements, 4, blocks * Integer.BYTES);
+    }
+
+    // 8 elements per block: 8x8 byte transpose of one long from each stream
+    private static void unshuffle8(final ByteBuffer in, final int offset, final ByteBuffer out,
+            final int elements) {
+        final int blocks = elements / Long.BYTES;
+        for (int block = 0; block < blocks; block++) {
+            final int i = block * Long.BYTES;
+            long w0 = in.getLong(offset + i);
+            long w1 = in.getLong(offset + elements + i);
+            long w2 = in.getLong(offset + 2 * elements + i);
+            long w3 = in.getLong(offset + 3 * elements + i);
+            long w4 = in.getLong(offset + 4 * elements + i);
+            long w5 = in.getLong(offset + 5 * elements + i);
+            long w6 = in.getLong(offset + 6 * elements + i);
+            long w7 = in.getLong(offset + 7 * elements + i);
+            // exchange 4-byte blocks
+            long t = ((w0 >>> 32) ^ w4) & 0x00000000FFFFFFFFL;
+            w4 ^= t;
+            w0 ^= t << 32;
+            t = ((w1 >>> 32) ^ w5) & 0x00000000FFFFFFFFL;
+            w5 ^= t;
+            w1 ^= t << 32;
+            t = ((w2 >>> 32) ^ w6) & 0x00000000FFFFFFFFL;
+            w6 ^= t;
+            w2 ^= t << 32;
+            t = ((w3 >>> 32) ^ w7) & 0x00000000FFFFFFFFL;
+            w7 ^= t;
+            w3 ^= t << 32;
+            // exchange 2-byte blocks
+            t = ((w0 >>> 16) ^ w2) & 0x0000FFFF0000FFFFL;
+            w2 ^= t;
+            w0 ^= t << 16;
+            t = ((w1 >>> 16) ^ w3) & 0x0000FFFF0000FFFFL;
+            w3 ^= t;
+            w1 ^= t << 16;
+            t = ((w4 >>> 16) ^ w6) & 0x0000FFFF0000FFFFL;
+            w6 ^= t;
+            w4 ^= t << 16;
+            t = ((w5 >>> 16) ^ w7) & 0x0000FFFF0000FFFFL;
+            w7 ^= t;
+            w5 ^= t << 16;
+            // exchange single bytes
+            t = ((w0 >>> 8) ^ w1) & 0x00FF00FF00FF00FFL;
+            w1 ^= t;
+            w0 ^= t << 8;
+            t = ((w2 >>> 8) ^ w3) & 0x00FF00FF00FF00FFL;
+            w3 ^= t;
+            w2 ^= t << 8;
+            t = ((w4 >>> 8) ^ w5) & 0x00FF00FF00FF00FFL;
+            w5 ^= t;
+            w4 ^= t << 8;
+            t = ((w6 >>> 8) ^ w7) & 0x00FF00FF00FF00FFL;
+            w7 ^= t;
+            w6 ^= t << 8;
+            final int o = i * Long.BYTES;
+            out.putLong(o, w0);
+            out.putLong(o + 8, w1);
+            out.putLong(o + 16, w2);
+            out.putLong(o + 24, w3);
+            out.putLong(o + 32, w4);
+            out.putLong(o + 40, w5);
+            out.putLong(o + 48, w6);
+            out.putLong(o + 56, w7);
+        }
+        unshuffleScalar(in, offset, out, elements, 8, blocks * Long.BYTES);
+    }
+
+    // gets the output buffer for the current thread, with position 0 and enough capacity
+    private static ByteBuffer outputBuffer(final int size) {
+        ByteBuffer output = OUTPUT.get();
+        if (output.capacity() < size) {
+            output = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+            OUTPUT.set(output);
+        }
+        output.clear();
+        return output;
+    }
+
+    @Override
+    public String toString() {
+        return "shuffle";
+    }
+}
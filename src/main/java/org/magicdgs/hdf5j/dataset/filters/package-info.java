@@ -0,0 +1,6 @@
+/**
+ * Filters applied to the chunks of a dataset (I/O filter pipeline).
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+package org.magicdgs.hdf5j.dataset.filters;
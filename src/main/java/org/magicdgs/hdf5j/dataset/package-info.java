@@ -0,0 +1,6 @@
+/**
+ * Readers for the raw data of HDF5 datasets.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+package org.magicdgs.hdf5j.dataset;
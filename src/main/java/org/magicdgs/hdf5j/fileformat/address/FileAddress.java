@@ -35,26 +35,66 @@ public final class FileAddress {
         this.position = getLongValue(bytes);
     }
 
+    /**
+     * Constructs a FileAddress from the provided bytes (big-endian) and its already decoded
+     * position.
+     *
+     * <p>Note: no validation is performed, so the position should be consistent with the bytes.
+     *
+     * @param bytes    big-endian bytes representing a position in the file.
+     * @param position position represented by the bytes; {@code -1} if undefined.
+     */
+    FileAddress(final byte[] bytes, final long position) {
+        this.bytes = bytes;
+        this.position = position;
+    }
+
     // helper method to check if all the bytes are unset
     private final static long getLongValue(final byte[] bytes) {
         Preconditions.checkArgument(bytes != null, "null bytes");
         Preconditions.checkArgument(bytes.length != 0, "empty bytes");
 
+        long value = 0;
+        boolean undefined = true;
+        boolean overflow = false;
         for (int i = 0; i < bytes.length; i++) {
-            if (bytes[i] != -1) {
-                final BigInteger bigInteger = new BigInteger(1, bytes);
-                try {
-                    return bigInteger.longValueExact();
-                } catch (final ArithmeticException e) {
-                    throw new FileAddressException(String
-                            .format("%s : Position %s cannot be converted to long",
-                                    baseHexDisplay(bytes.length, bigInteger.toString(16)),
-                                    bigInteger));
-                }
-            }
+            final int currentByte = Byte.toUnsignedInt(bytes[i]);
+            undefined &= currentByte == 0xFF;
+            // bytes that are shifted out of the long should be zero
+            overflow |= (value >>> (Long.SIZE - Byte.SIZE)) != 0;
+            value = (value << Byte.SIZE) | currentByte;
         }
         // -1 is the indication of an undefined address
-        return -1;
+        if (undefined) {
+            return -1;
+        }
+        if (overflow || value < 0) {
+            // only in the error case the BigInteger is constructed, for the message
+            final BigInteger bigInteger = new BigInteger(1, bytes);
+            throw new FileAddressException(String
+                    .format("%s : Position %s cannot be converted to long",
+                            baseHexDisplay(bytes.length, bigInteger.toString(16)),
+                            bigInteger));
+        }
+        return value;
+    }
+
+    /**
+     * Gets the position in the file pointed by this address.
+     *
+     * @return position in the file; {@code -1} if the address is undefined.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Checks if the address is undefined (all bits set).
+     *
+     * @return {@code true} if the address is undefined; {@code false} otherwise.
+     */
+    public boolean isUndefined() {
+        return position == -1;
     }
 
     /**
@@ -4,11 +4,12 @@ import org.magicdgs.hdf5j.utils.exceptions.FileAddressException;
 
 import com.google.common.base.Preconditions;
 
+import java.io.EOFException;
 import java.io.IOException;
-import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
-import java.util.stream.IntStream;
 
 /**
  * Manager for file addresses encoded in an arbitrary number of bytes. The manager provides:
@@ -19,6 +20,14 @@ import java.util.stream.IntStream;
  * <li>Validation methods </li>
  * </ul>
  *
+ * <p>For traversals of file metadata, {@link #decodePosition(ByteBuffer)} and
+ * {@link #decodePosition(ByteBuffer, int)} decode the address directly into a primitive
+ * {@code long}, without creating any object.
+ *
+ * <p>For reading, {@link #read(FileChannel, FileAddress, ByteBuffer)} reads at the address
+ * without modifying the position of the channel, so a single channel can be shared between
+ * threads.
+ *
  * @author Daniel Gomez-Sanchez (magicDGS)
  */
 public final class FileAddressManager {
@@ -63,6 +72,9 @@ public final class FileAddressManager {
     /**
      * Seeks the byte chanel to the provided file address.
      *
+     * @deprecated changing the position of a shared channel is not thread-safe; use
+     *     {@link #read(FileChannel, FileAddress, ByteBuffer)} instead.
+     *
      * @param byteChannel channel to seek.
      * @param address     file address to set the pointer to.
      *
@@ -73,6 +85,7 @@ public final class FileAddressManager {
      * @throws IOException                         if an IO error occurs.
      * @see #normalizeAddress(FileAddress)
      */
+    @Deprecated
     public FileAddress seek(final SeekableByteChannel byteChannel, final FileAddress address)
             throws IOException {
         Preconditions.checkArgument(byteChannel != null, "null byteChannel");
@@ -88,9 +101,45 @@ public final class FileAddressManager {
         return normalized;
     }
 
+    /**
+     * Reads from the channel at the provided file address into the destination buffer, until it
+     * is full. The position of the channel is not modified.
+     *
+     * @param channel     channel to read from.
+     * @param address     file address of the first byte to read.
+     * @param destination buffer to store the bytes.
+     *
+     * @return normalized file address that was read.
+     *
+     * @throws FileAddressException if the address cannot be handled or it is undefined.
+     * @throws EOFException         if the end of the channel is reached before filling the buffer.
+     * @throws IOException          if an IO error occurs.
+     * @see #normalizeAddress(FileAddress)
+     */
+    public FileAddress read(final FileChannel channel, final FileAddress address,
+            final ByteBuffer destination) throws IOException {
+        Preconditions.checkArgument(channel != null, "null channel");
+        Preconditions.checkArgument(destination != null, "null destination");
+        final FileAddress normalized = normalizeAddress(address);
+        if (undefinedAddress.equals(normalized)) {
+            throw new FileAddressException(address, " cannot be read");
+        }
+        final int start = destination.position();
+        while (destination.hasRemaining()) {
+            final long position = normalized.position + destination.position() - start;
+            if (channel.read(destination, position) == -1) {
+                throw new EOFException(String.format("%s bytes could not be read at %s",
+                        destination.remaining(), position));
+            }
+        }
+        return normalized;
+    }
+
     /**
      * Encodes the provided address into the {@link ByteBuffer}.
      *
+     * <p>Note: the address is encoded using the {@link ByteBuffer#order()} of the buffer.
+     *
      * @param address address to encode.
      * @param buffer  buffer to put the address bytes.
      *
@@ -108,7 +157,14 @@ public final class FileAddressManager {
 
         // normalize the address and put the bytes in the buffer
         final FileAddress normalized = normalizeAddress(address);
-        buffer.put(normalized.bytes);
+        if (buffer.order() == ByteOrder.BIG_ENDIAN) {
+            buffer.put(normalized.bytes);
+        } else {
+            // the bytes are stored in big-endian
+            for (int i = addressSize - 1; i >= 0; i--) {
+                buffer.put(normalized.bytes[i]);
+            }
+        }
         // return the normalized address
         return normalized;
     }
@@ -116,23 +172,103 @@ public final class FileAddressManager {
     /**
      * Reads an address from the provided byte buffer.
      *
-     * <p>Note: this method consumes {@link #getAddressSize()} bytes.
+     * <p>Note: this method consumes {@link #getAddressSize()} bytes, and decodes the address using
+     * the {@link ByteBuffer#order()} of the buffer.
      *
      * @param buffer buffer to get the bytes for decode the address.
      *
      * @return new file address parsed from the buffer; {@link #getUndefinedAddress()} if undefined.
      *
      * @throws FileAddressException if there is a problem parsing the address.
+     * @see #decodePosition(ByteBuffer)
      */
     public FileAddress decodeAddress(final ByteBuffer buffer) {
+        return decodeAddress(decodePosition(buffer));
+    }
+
+    /**
+     * Reads the position of an address from the provided byte buffer, without creating a
+     * {@link FileAddress}.
+     *
+     * <p>Note: this method consumes {@link #getAddressSize()} bytes, and decodes the address using
+     * the {@link ByteBuffer#order()} of the buffer.
+     *
+     * @param buffer buffer to get the bytes for decode the address.
+     *
+     * @return position in the file; {@code -1} if undefined.
+     *
+     * @throws FileAddressException if the position cannot be represented as a {@code long}.
+     */
+    public long decodePosition(final ByteBuffer buffer) {
         Preconditions.checkArgument(buffer != null, "null buffer");
-        Preconditions.checkArgument(buffer.remaining() == addressSize,
+        Preconditions.checkArgument(buffer.remaining() >= addressSize,
                 "at least %s should be available in the provided byte buffer", addressSize);
-        final byte[] bytes = new byte[addressSize];
-        buffer.get(bytes);
-        final FileAddress address = new FileAddress(bytes);
-        // return always the cached undefinedAddress to avoid storage of the same object
-        return (undefinedAddress.equals(address)) ? undefinedAddress : address;
+        final long position = decodePosition(buffer, buffer.position());
+        buffer.position(buffer.position() + addressSize);
+        return position;
+    }
+
+    /**
+     * Reads the position of an address from the provided index of the byte buffer, without
+     * creating a {@link FileAddress}.
+     *
+     * <p>Note: this method does not modify the position of the buffer, and decodes the address
+     * using the {@link ByteBuffer#order()} of the buffer.
+     *
+     * @param buffer buffer to get the bytes for decode the address.
+     * @param index  index of the first byte of the address.
+     *
+     * @return position in the file; {@code -1} if undefined.
+     *
+     * @throws FileAddressException if the position cannot be represented as a {@code long}.
+     */
+    public long decodePosition(final ByteBuffer buffer, final int index) {
+        // width-specialized decoding for the common offset sizes
+        switch (addressSize) {
+            case Short.BYTES:
+                return undefinedIfAllSet(Short.toUnsignedLong(buffer.getShort(index)), 0xFFFFL);
+            case Integer.BYTES:
+                return undefinedIfAllSet(Integer.toUnsignedLong(buffer.getInt(index)),
+                        0xFFFFFFFFL);
+            case Long.BYTES:
+                final long position = buffer.getLong(index);
+                if (position < -1) {
+                    throw new FileAddressException("Address at index " + index
+                            + " cannot be converted to long with " + this);
+                }
+                return position;
+            default:
+                return decodeArbitraryPosition(buffer, index);
+        }
+    }
+
+    // returns -1 if all the bits in the mask are set; otherwise, the value itself
+    private static long undefinedIfAllSet(final long value, final long mask) {
+        return (value == mask) ? -1 : value;
+    }
+
+    // fallback for address sizes without specialized decoding
+    private long decodeArbitraryPosition(final ByteBuffer buffer, final int index) {
+        final boolean littleEndian = buffer.order() == ByteOrder.LITTLE_ENDIAN;
+        long position = 0;
+        boolean undefined = true;
+        boolean overflow = false;
+        // iterate from the most significant byte
+        for (int i = addressSize - 1; i >= 0; i--) {
+            final int currentByte = Byte.toUnsignedInt(
+                    buffer.get(littleEndian ? index + i : index + addressSize - 1 - i));
+            undefined &= currentByte == 0xFF;
+            overflow |= i >= Long.BYTES && currentByte != 0;
+            position = (position << 8) | currentByte;
+        }
+        if (undefined) {
+            return -1;
+        }
+        if (overflow || position < 0) {
+            throw new FileAddressException("Address at index " + index
+                    + " cannot be converted to long with " + this);
+        }
+        return position;
     }
 
     /**
@@ -148,22 +284,21 @@ public final class FileAddressManager {
         Preconditions.checkArgument(filePosition >= -1,
                 "file position cannot be negative (%s) except for undefined address (%s)",
                 filePosition, undefinedAddress.position);
-        final byte[] convertedArray = BigInteger.valueOf(filePosition).toByteArray();
         if (filePosition == -1) {
             return undefinedAddress;
-        } else if (convertedArray.length == addressSize) {
-            return new FileAddress(convertedArray);
-        } else if (convertedArray.length < addressSize) {
-            final ByteBuffer buffer = ByteBuffer.allocate(addressSize);
-            // pad the byte array with zeroes at the beginning to get the same position encoded with more bytes
-            IntStream.range(convertedArray.length, addressSize).forEach(i -> buffer.put((byte) 0));
-            // put the address bytes into the buffer
-            buffer.put(convertedArray);
-            return new FileAddress(buffer.array());
-        } else {
+        }
+        // positions with all the bits set are reserved for the undefined address
+        if (addressSize < Long.BYTES && (filePosition >>> (Byte.SIZE * addressSize) != 0
+                || filePosition == (1L << (Byte.SIZE * addressSize)) - 1)) {
             throw new FileAddressException(
                     "Position " + filePosition + " cannot be be encoded with " + this);
         }
+        // big-endian bytes padded with zeroes at the beginning
+        final byte[] bytes = new byte[addressSize];
+        for (int i = 0; i < Math.min(addressSize, Long.BYTES); i++) {
+            bytes[addressSize - 1 - i] = (byte) (filePosition >>> (Byte.SIZE * i));
+        }
+        return new FileAddress(bytes, filePosition);
     }
 
     /**
@@ -0,0 +1,353 @@
+package org.magicdgs.hdf5j.fileformat.level0;
+
+import org.magicdgs.hdf5j.HDF5Constants;
+import org.magicdgs.hdf5j.fileformat.address.FileAddress;
+import org.magicdgs.hdf5j.fileformat.address.FileAddressManager;
+import org.magicdgs.hdf5j.fileformat.level1.SymbolTableEntry;
+import org.magicdgs.hdf5j.utils.DecodingUtils;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+import org.magicdgs.hdf5j.utils.exceptions.SuperblockVersionException;
+
+import com.google.common.base.Preconditions;
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.Ints;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * {@link Superblock} decoded directly from a (memory-mapped) {@link ByteBuffer}, supporting
+ * versions 0, 1, 2 and 3 of the superblock format.
+ *
+ * <p>Fields are not copied into the object: every getter reads the little-endian value from the
+ * backing buffer at the offset specified for its version. Only the file addresses are decoded once
+ * on construction, to return always the same {@link FileAddress} instances.
+ *
+ * <p>Use {@link #map(FileChannel, long)} to map the superblock region of a file with a single
+ * {@link java.nio.MappedByteBuffer}, or {@link #decode(ByteBuffer)} to decode an already
+ * available buffer.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class MappedSuperblock implements Superblock {
+
+    // common to all versions
+    private static final int SIGNATURE_LENGTH = HDF5Constants.HDF5_FORMAT_SIGNATURE.length;
+    // signature as signed bytes, to compare with the buffer
+    private static final byte[] SIGNATURE =
+            Bytes.toArray(Ints.asList(HDF5Constants.HDF5_FORMAT_SIGNATURE));
+    private static final int VERSION_NUMBER_OFFSET = SIGNATURE_LENGTH;
+
+    // version 0 and 1 offsets
+    private static final int V0_FREE_SPACE_VERSION_OFFSET = 9;
+    private static final int V0_ROOT_SYMBOL_TABLE_ENTRY_VERSION_OFFSET = 10;
+    private static final int V0_SHARED_HEADER_VERSION_OFFSET = 12;
+    private static final int V0_SIZE_OF_OFFSETS_OFFSET = 13;
+    private static final int V0_SIZE_OF_LENGTHS_OFFSET = 14;
+    private static final int V0_GROUP_LEAF_NODE_K_OFFSET = 16;
+    private static final int V0_GROUP_INTERNAL_NODE_K_OFFSET = 18;
+    private static final int V0_FILE_CONSISTENCY_FLAGS_OFFSET = 20;
+    private static final int V0_ADDRESSES_OFFSET = 24;
+    private static final int V1_INDEXED_STORAGE_INTERNAL_NODE_K_OFFSET = 24;
+    // indexed storage K (2 bytes) and reserved (2 bytes)
+    private static final int V1_ADDRESSES_OFFSET = 28;
+    // fixed part of the symbol table entry (cache type, reserved and scratch-pad)
+    private static final int SYMBOL_TABLE_ENTRY_FIXED_SIZE = 24;
+
+    // version 2 and 3 offsets
+    private static final int V2_SIZE_OF_OFFSETS_OFFSET = 9;
+    private static final int V2_SIZE_OF_LENGTHS_OFFSET = 10;
+    private static final int V2_FILE_CONSISTENCY_FLAGS_OFFSET = 11;
+    private static final int V2_ADDRESSES_OFFSET = 12;
+
+    /**
+     * Maximum number of bytes required by any superblock version (version 1 with the maximum size
+     * of offsets). This is the maximum size mapped by {@link #map(FileChannel, long)}.
+     */
+    public static final int MAX_SUPERBLOCK_SIZE = getBlockByteSize(1, 255);
+
+    // little-endian buffer starting at the format signature
+    private final ByteBuffer buffer;
+    private final int versionNumber;
+    private final int sizeOfOffsets;
+    private final FileAddressManager addressManager;
+
+    // offset of the first address field
+    private final int addressesOffset;
+    // decoded addresses
+    private final FileAddress baseAddress;
+    private final FileAddress secondAddress;
+    private final FileAddress endOfFileAddress;
+    private final FileAddress fourthAddress;
+
+    /**
+     * Maps the superblock found at the provided offset of the file.
+     *
+     * <p>Note: only one memory-map is performed, for at most {@link #MAX_SUPERBLOCK_SIZE} bytes.
+     *
+     * @param channel          file channel to map.
+     * @param superblockOffset offset of the format signature (0, 512, 1024, 2048...).
+     *
+     * @return decoded superblock.
+     *
+     * @throws HDF5jException             if the superblock cannot be decoded.
+     * @throws SuperblockVersionException if the version is not supported.
+     * @throws IOException                if an IO error occurs.
+     */
+    public static Superblock map(final FileChannel channel, final long superblockOffset)
+            throws IOException {
+        Preconditions.checkArgument(channel != null, "null channel");
+        Preconditions.checkArgument(superblockOffset >= 0,
+                "negative superblock offset: %s", superblockOffset);
+        final long available = channel.size() - superblockOffset;
+        if (available <= VERSION_NUMBER_OFFSET) {
+            throw new HDF5jException(
+                    "No superblock at offset " + superblockOffset + " (file too short)");
+        }
+        return decode(channel.map(FileChannel.MapMode.READ_ONLY, superblockOffset,
+                Math.min(available, MAX_SUPERBLOCK_SIZE)));
+    }
+
+    /**
+     * Decodes the superblock starting at the current position of the buffer.
+     *
+     * <p>Note: the buffer is not consumed and the bytes are not copied, so any modification of the
+     * underlying data would be reflected in the returned superblock.
+     *
+     * @param buffer buffer with the superblock, starting with the format signature.
+     *
+     * @return decoded superblock.
+     *
+     * @throws HDF5jException             if the superblock cannot be decoded.
+     * @throws SuperblockVersionException if the version is not supported.
+     */
+    public static Superblock decode(final ByteBuffer buffer) {
+        Preconditions.checkArgument(buffer != null, "null buffer");
+        return new MappedSuperblock(buffer.slice().order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    // private constructor: use the factory methods
+    private MappedSuperblock(final ByteBuffer buffer) {
+        this.buffer = buffer;
+        checkSignature(buffer);
+        this.versionNumber = getUnsignedByte(VERSION_NUMBER_OFFSET);
+        switch (versionNumber) {
+            case 0:
+                this.sizeOfOffsets = getUnsignedByte(V0_SIZE_OF_OFFSETS_OFFSET);
+                this.addressesOffset = V0_ADDRESSES_OFFSET;
+                break;
+            case 1:
+                this.sizeOfOffsets = getUnsignedByte(V0_SIZE_OF_OFFSETS_OFFSET);
+                this.addressesOffset = V1_ADDRESSES_OFFSET;
+                break;
+            case 2:
+            case 3:
+                this.sizeOfOffsets = getUnsignedByte(V2_SIZE_OF_OFFSETS_OFFSET);
+                this.addressesOffset = V2_ADDRESSES_OFFSET;
+                break;
+            default:
+                throw new SuperblockVersionException(this, "unsupported version");
+        }
+        if (sizeOfOffsets == 0) {
+            throw new HDF5jException("Invalid size of offsets (0) in " + this);
+        }
+        if (buffer.limit() < getBlockByteSize()) {
+            throw new HDF5jException(String.format(
+                    "Truncated superblock (%s bytes available but %s required)",
+                    buffer.limit(), getBlockByteSize()));
+        }
+        this.addressManager = new FileAddressManager(sizeOfOffsets);
+        // all versions have four consecutive addresses with different meaning
+        this.baseAddress = decodeAddress(0);
+        this.secondAddress = decodeAddress(1);
+        this.endOfFileAddress = decodeAddress(2);
+        this.fourthAddress = decodeAddress(3);
+    }
+
+    // helper method to check the format signature
+    private static void checkSignature(final ByteBuffer buffer) {
+        if (buffer.limit() <= VERSION_NUMBER_OFFSET) {
+            throw new HDF5jException("Not enough bytes for a superblock: " + buffer.limit());
+        }
+        if (!DecodingUtils.hasSignature(buffer, SIGNATURE)) {
+            throw new HDF5jException("Superblock does not start with the HDF5 signature");
+        }
+    }
+
+    // computes the size of the superblock for the version and the size of offsets
+    private static int getBlockByteSize(final int version, final int sizeOfOffsets) {
+        switch (version) {
+            case 0:
+                return V0_ADDRESSES_OFFSET + 4 * sizeOfOffsets
+                        + 2 * sizeOfOffsets + SYMBOL_TABLE_ENTRY_FIXED_SIZE;
+            case 1:
+                return V1_ADDRESSES_OFFSET + 4 * sizeOfOffsets
+                        + 2 * sizeOfOffsets + SYMBOL_TABLE_ENTRY_FIXED_SIZE;
+            default:
+                // address fields and checksum
+                return V2_ADDRESSES_OFFSET + 4 * sizeOfOffsets + Integer.BYTES;
+        }
+    }
+
+    // decodes the little-endian address in the index (0 to 3) of the address fields
+    private FileAddress decodeAddress(final int index) {
+        return addressManager.decodeAddress(addressManager
+                .decodePosition(buffer, addressesOffset + index * sizeOfOffsets));
+    }
+
+    private int getUnsignedByte(final int offset) {
+        return Byte.toUnsignedInt(buffer.get(offset));
+    }
+
+    private int getUnsignedShort(final int offset) {
+        return Short.toUnsignedInt(buffer.getShort(offset));
+    }
+
+    // throws if the version is not in the range
+    private void checkVersion(final int minVersion, final int maxVersion, final String field) {
+        if (versionNumber < minVersion || versionNumber > maxVersion) {
+            throw new SuperblockVersionException(this, field + " field is not present");
+        }
+    }
+
+    @Override
+    public int getVersionNumber() {
+        return versionNumber;
+    }
+
+    @Override
+    public int getFreeSpaceManagerVersionNumber() {
+        checkVersion(0, 1, "Version Number of the File's Free Space Information");
+        return getUnsignedByte(V0_FREE_SPACE_VERSION_OFFSET);
+    }
+
+    @Override
+    public int getRootSymbolTableEntryVersionNumber() {
+        checkVersion(0, 1, "Version Number of the Root Group Symbol Table Entry");
+        return getUnsignedByte(V0_ROOT_SYMBOL_TABLE_ENTRY_VERSION_OFFSET);
+    }
+
+    @Override
+    public int getSharedHeaderMessageFormatVersionNumber() {
+        checkVersion(0, 1, "Version Number of the Shared Header Message Format");
+        return getUnsignedByte(V0_SHARED_HEADER_VERSION_OFFSET);
+    }
+
+    @Override
+    public int getSizeOfOffsets() {
+        return sizeOfOffsets;
+    }
+
+    @Override
+    public int getSizeOfLengths() {
+        return getUnsignedByte((versionNumber < 2)
+                ? V0_SIZE_OF_LENGTHS_OFFSET : V2_SIZE_OF_LENGTHS_OFFSET);
+    }
+
+    @Override
+    public int getGroupLeafNodeK() {
+        checkVersion(0, 1, "Group Leaf Node K");
+        return getUnsignedShort(V0_GROUP_LEAF_NODE_K_OFFSET);
+    }
+
+    @Override
+    public int getGroupInternalNodeK() {
+        checkVersion(0, 1, "Group Internal Node K");
+        return getUnsignedShort(V0_GROUP_INTERNAL_NODE_K_OFFSET);
+    }
+
+    @Override
+    public int getFileConsistencyFlags() {
+        return (versionNumber < 2)
+                ? buffer.getInt(V0_FILE_CONSISTENCY_FLAGS_OFFSET)
+                : getUnsignedByte(V2_FILE_CONSISTENCY_FLAGS_OFFSET);
+    }
+
+    @Override
+    public int getIndexedStorageInternalNodeK() {
+        checkVersion(1, 1, "Indexed Storage Internal Node K");
+        return getUnsignedShort(V1_INDEXED_STORAGE_INTERNAL_NODE_K_OFFSET);
+    }
+
+    @Override
+    public FileAddress getBaseAddress() {
+        return baseAddress;
+    }
+
+    @Override
+    public FileAddress getAddressOfGlobalFreeSpaceIndex() {
+        checkVersion(0, 1, "Address of Global Free-space Index");
+        return secondAddress;
+    }
+
+    @Override
+    public FileAddress getEndOfFileAddress() {
+        return endOfFileAddress;
+    }
+
+    @Override
+    public FileAddress getDriverInformationBlockAddress() {
+        checkVersion(0, 1, "Driver Information Block Address");
+        return fourthAddress;
+    }
+
+    @Override
+    public SymbolTableEntry getRootGroupSymbolTableEntry() {
+        checkVersion(0, 1, "Root Group Symbol Table Entry");
+        return SymbolTableEntry.decode(buffer, addressesOffset + 4 * sizeOfOffsets,
+                addressManager);
+    }
+
+    @Override
+    public FileAddress getSuperblockExtensionAddress() {
+        checkVersion(2, 3, "Superblock Extension Address");
+        return secondAddress;
+    }
+
+    @Override
+    public FileAddress getRootGroupObjectHeaderAddress() {
+        checkVersion(2, 3, "Root Group Object Header Address");
+        return fourthAddress;
+    }
+
+    @Override
+    public int getSuperblockChecksum() {
+        checkVersion(2, 3, "Superblock Checksum");
+        return buffer.getInt(addressesOffset + 4 * sizeOfOffsets);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Note: the size includes the format signature.
+     */
+    @Override
+    public int getBlockByteSize() {
+        return getBlockByteSize(versionNumber, sizeOfOffsets);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The bytes are written as they were decoded, including the format signature.
+     */
+    @Override
+    public void write(final SeekableByteChannel byteChannel) throws IOException {
+        Preconditions.checkArgument(byteChannel != null, "null byteChannel");
+        final ByteBuffer toWrite = buffer.duplicate();
+        toWrite.position(0).limit(getBlockByteSize());
+        while (toWrite.hasRemaining()) {
+            byteChannel.write(toWrite);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[version=%s, sizeOfOffsets=%s, sizeOfLengths=%s]",
+                this.getClass().getSimpleName(), versionNumber, sizeOfOffsets,
+                getSizeOfLengths());
+    }
+}
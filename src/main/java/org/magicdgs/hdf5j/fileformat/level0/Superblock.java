@@ -2,6 +2,7 @@ package org.magicdgs.hdf5j.fileformat.level0;
 
 import org.magicdgs.hdf5j.fileformat.HDF5FileBlock;
 import org.magicdgs.hdf5j.fileformat.address.FileAddress;
+import org.magicdgs.hdf5j.fileformat.level1.SymbolTableEntry;
 import org.magicdgs.hdf5j.utils.exceptions.SuperblockVersionException;
 
 /**
@@ -102,8 +103,8 @@ public interface Superblock extends HDF5FileBlock {
      *                                                                            does not support
      *                                                                            this field.
      * @see org.magicdgs.hdf5j.HDF5Constants#ROOT_SYMBOL_TABLE_ENTRY_VERSION_NUMBER
+     * @see SymbolTableEntry
      */
-    // TODO: add link to Symbol Table Entry class once it is implemented
     public int getRootSymbolTableEntryVersionNumber();
 
     /**
@@ -334,9 +335,7 @@ public interface Superblock extends HDF5FileBlock {
      *                                                                            does not support
      *                                                                            this field.
      */
-    // TODO: add link to the Symbol Table Entry class once it is implemented
-    // TODO: this should return the Symbol Table Entry
-    public Object getRootGroupSymbolTableEntry();
+    public SymbolTableEntry getRootGroupSymbolTableEntry();
 
     /**
      * Gets the <b>Superblock Extension Address</b>.
@@ -0,0 +1,194 @@
+package org.magicdgs.hdf5j.fileformat.level1;
+
+import org.magicdgs.hdf5j.fileformat.address.FileAddressManager;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.DecodingUtils;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Node of a <b>Version 1 B-tree</b>, used for indexing the group nodes (type 0) and the raw data
+ * chunks (type 1).
+ *
+ * <p>The node is decoded lazily from a buffer containing the header, the keys and the child
+ * pointers, which are accessed by index without copying.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class BTreeV1Node {
+
+    /** Signature for the version 1 B-tree nodes ("TREE"). */
+    public static final byte[] SIGNATURE = "TREE".getBytes(StandardCharsets.US_ASCII);
+
+    /** Node type for the group nodes. */
+    public static final int GROUP_NODE_TYPE = 0;
+
+    /** Node type for the raw data chunks. */
+    public static final int RAW_DATA_CHUNK_NODE_TYPE = 1;
+
+    // signature + node type + node level + entries used
+    private static final int FIXED_HEADER_SIZE = SIGNATURE.length + 4;
+
+    private final long address;
+    private final int keySize;
+    private final FileAddressManager addressManager;
+    private final int sizeOfOffsets;
+    private final ByteBuffer buffer;
+    private final long leftSibling;
+    private final long rightSibling;
+
+    private BTreeV1Node(final long address, final ByteBuffer buffer, final int keySize,
+            final FileAddressManager addressManager) {
+        this.address = address;
+        this.keySize = keySize;
+        this.addressManager = addressManager;
+        this.sizeOfOffsets = addressManager.getAddressSize();
+        this.buffer = buffer;
+        this.leftSibling = addressManager.decodePosition(buffer, FIXED_HEADER_SIZE);
+        this.rightSibling = addressManager.decodePosition(buffer,
+                FIXED_HEADER_SIZE + sizeOfOffsets);
+    }
+
+    /**
+     * Reads the node at the provided address.
+     *
+     * <p>The number of entries is checked against the maximum allowed by the <b>K</b> value, and
+     * only the used entries are read.
+     *
+     * @param reader   reader for the file.
+     * @param address  address of the node (relative to the base address).
+     * @param keySize  size of the keys for this tree (in bytes).
+     * @param nodeType expected node type.
+     * @param k        maximum number of entries is {@code 2K}.
+     *
+     * @return the decoded node.
+     *
+     * @throws HDF5jException if the node is malformed or does not have the expected type.
+     * @throws IOException    if an IO error occurs.
+     */
+    public static BTreeV1Node read(final HDF5FileReader reader, final long address,
+            final int keySize, final int nodeType, final int k) throws IOException {
+        Preconditions.checkArgument(keySize > 0, "non-positive key size: %s", keySize);
+        Preconditions.checkArgument(k > 0, "non-positive K: %s", k);
+        final FileAddressManager addressManager = reader.getAddressManager();
+        final int headerSize = FIXED_HEADER_SIZE + 2 * addressManager.getAddressSize();
+        final ByteBuffer header = reader.readMetadata(address, headerSize);
+        DecodingUtils.checkSignature(header, SIGNATURE, "B-tree node", address);
+        final int type = Byte.toUnsignedInt(header.get(SIGNATURE.length));
+        if (type != nodeType) {
+            throw new HDF5jException(String.format(
+                    "B-tree node at %s has type %s (expected %s)", address, type, nodeType));
+        }
+        final int entriesUsed = Short.toUnsignedInt(header.getShort(SIGNATURE.length + 2));
+        if (entriesUsed > 2 * k) {
+            throw new HDF5jException(String.format(
+                    "B-tree node at %s has %s entries (maximum for K=%s is %s)",
+                    address, entriesUsed, k, 2 * k));
+        }
+        // entries + 1 keys and entries children
+        final int size = headerSize + (entriesUsed + 1) * keySize
+                + entriesUsed * addressManager.getAddressSize();
+        final ByteBuffer node = reader.readMetadata(address, size);
+        return new BTreeV1Node(address, node, keySize, addressManager);
+    }
+
+    /**
+     * Gets the address of this node.
+     *
+     * @return the address (relative to the base address).
+     */
+    public long getAddress() {
+        return address;
+    }
+
+    /**
+     * Gets the node type.
+     *
+     * @return {@link #GROUP_NODE_TYPE} or {@link #RAW_DATA_CHUNK_NODE_TYPE}.
+     */
+    public int getNodeType() {
+        return Byte.toUnsignedInt(buffer.get(SIGNATURE.length));
+    }
+
+    /**
+     * Gets the level of the node. Leaf nodes are at level 0.
+     *
+     * @return the node level.
+     */
+    public int getNodeLevel() {
+        return Byte.toUnsignedInt(buffer.get(SIGNATURE.length + 1));
+    }
+
+    /**
+     * Gets the number of children for this node.
+     *
+     * @return number of entries used.
+     */
+    public int getEntriesUsed() {
+        return Short.toUnsignedInt(buffer.getShort(SIGNATURE.length + 2));
+    }
+
+    /**
+     * Gets the address of the left sibling.
+     *
+     * @return the position, or {@code -1} if undefined.
+     */
+    public long getLeftSibling() {
+        return leftSibling;
+    }
+
+    /**
+     * Gets the address of the right sibling.
+     *
+     * @return the position, or {@code -1} if undefined.
+     */
+    public long getRightSibling() {
+        return rightSibling;
+    }
+
+    /**
+     * Gets the key with the provided index. There are {@code entriesUsed + 1} keys.
+     *
+     * @param index index of the key.
+     *
+     * @return little-endian read-only buffer with the bytes of the key.
+     */
+    public ByteBuffer getKey(final int index) {
+        Preconditions.checkElementIndex(index, getEntriesUsed() + 1);
+        final ByteBuffer key = buffer.duplicate();
+        final int start = keyOffset(index);
+        key.position(start).limit(start + keySize);
+        return key.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Gets the address of the child with the provided index, which is a B-tree node for internal
+     * nodes and the object pointed by the tree for leaf nodes.
+     *
+     * @param index index of the child.
+     *
+     * @return the position of the child (relative to the base address).
+     */
+    public long getChildAddress(final int index) {
+        Preconditions.checkElementIndex(index, getEntriesUsed());
+        return addressManager.decodePosition(buffer, keyOffset(index) + keySize);
+    }
+
+    // keys and children are interleaved after the header
+    private int keyOffset(final int index) {
+        return FIXED_HEADER_SIZE + 2 * sizeOfOffsets + index * (keySize + sizeOfOffsets);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[address=%s, type=%s, level=%s, entries=%s]",
+                this.getClass().getSimpleName(), address, getNodeType(), getNodeLevel(),
+                getEntriesUsed());
+    }
+}
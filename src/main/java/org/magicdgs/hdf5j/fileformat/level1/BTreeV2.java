@@ -0,0 +1,325 @@
+package org.magicdgs.hdf5j.fileformat.level1;
+
+import org.magicdgs.hdf5j.fileformat.address.FileAddressManager;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.DecodingUtils;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <b>Version 2 B-tree</b> (Level 1A2), which stores fixed-size records sorted by a type-specific
+ * key.
+ *
+ * <p>Records are provided as little-endian read-only buffers and decoded by the caller. Searches
+ * descend only into the nodes that might contain matching records, so finding a record costs one
+ * node read per level.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class BTreeV2 {
+
+    /** Signature for the header ("BTHD"). */
+    public static final byte[] SIGNATURE = "BTHD".getBytes(StandardCharsets.US_ASCII);
+
+    /** Signature for the internal nodes ("BTIN"). */
+    public static final byte[] INTERNAL_NODE_SIGNATURE =
+            "BTIN".getBytes(StandardCharsets.US_ASCII);
+
+    /** Signature for the leaf nodes ("BTLF"). */
+    public static final byte[] LEAF_NODE_SIGNATURE = "BTLF".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Type for the trees indexing the links of dense groups by name. Records contain the lookup3
+     * hash of the name (4 bytes) and the fractal heap ID of the link.
+     */
+    public static final int LINK_NAME_RECORD_TYPE = 5;
+
+    /** Visitor for the records of the tree. */
+    @FunctionalInterface
+    public interface RecordVisitor {
+
+        /**
+         * Visits a record.
+         *
+         * @param record little-endian read-only buffer with the record.
+         *
+         * @return {@code true} to continue the traversal; {@code false} to stop it.
+         *
+         * @throws IOException if an IO error occurs.
+         */
+        public boolean visit(final ByteBuffer record) throws IOException;
+    }
+
+    /** Comparator of a searched key with the records of the tree. */
+    @FunctionalInterface
+    public interface RecordComparator {
+
+        /**
+         * Compares the searched key with the record.
+         *
+         * @param record little-endian read-only buffer with the record.
+         *
+         * @return negative, zero or positive if the key is less than, equal or greater than the
+         * key of the record.
+         */
+        public int compareTo(final ByteBuffer record);
+    }
+
+    // signature (4), version (1) and type (1)
+    private static final int NODE_PREFIX_SIZE = SIGNATURE.length + 2;
+    // node prefix and checksum
+    private static final int NODE_METADATA_SIZE = NODE_PREFIX_SIZE + Integer.BYTES;
+    // node prefix, node size (4), record size (2), depth (2) and split/merge percent (2)
+    private static final int HEADER_FIXED_SIZE = NODE_PREFIX_SIZE + 10;
+
+    private final HDF5FileReader reader;
+    private final long address;
+    private final int type;
+    private final int recordSize;
+    private final int depth;
+    private final long rootAddress;
+    private final int rootRecords;
+    private final long totalRecords;
+
+    // size of the fields for the number of records in the child pointers
+    private final int recordsSize;
+    // size of the fields for the total number of records below the child pointers, by depth
+    private final int[] totalRecordsSize;
+
+    private BTreeV2(final HDF5FileReader reader, final long address, final int type,
+            final int nodeSize, final int recordSize, final int depth, final long rootAddress,
+            final int rootRecords, final long totalRecords) {
+        this.reader = reader;
+        this.address = address;
+        this.type = type;
+        this.recordSize = recordSize;
+        this.depth = depth;
+        this.rootAddress = rootAddress;
+        this.rootRecords = rootRecords;
+        this.totalRecords = totalRecords;
+        // maximum number of records of each depth, as computed by the library
+        final long leafRecords = (nodeSize - NODE_METADATA_SIZE) / recordSize;
+        this.recordsSize = encodedSize(leafRecords);
+        this.totalRecordsSize = new int[depth + 1];
+        long cumulative = leafRecords;
+        for (int d = 1; d <= depth; d++) {
+            final int pointerSize = pointerSize(d);
+            final long records =
+                    (nodeSize - (NODE_METADATA_SIZE + pointerSize)) / (recordSize + pointerSize);
+            cumulative = (records + 1) * cumulative + records;
+            totalRecordsSize[d] = encodedSize(cumulative);
+        }
+    }
+
+    /**
+     * Reads the header of the tree at the provided address.
+     *
+     * @param reader       reader for the file.
+     * @param address      address of the header (relative to the base address).
+     * @param expectedType expected type of the tree.
+     *
+     * @return the tree.
+     *
+     * @throws HDF5jException if the header is malformed or does not have the expected type.
+     * @throws IOException    if an IO error occurs.
+     */
+    public static BTreeV2 read(final HDF5FileReader reader, final long address,
+            final int expectedType) throws IOException {
+        Preconditions.checkArgument(reader != null, "null reader");
+        Preconditions.checkArgument(address >= 0, "undefined address");
+        final FileAddressManager addressManager = reader.getAddressManager();
+        final int size = HEADER_FIXED_SIZE + addressManager.getAddressSize() + Short.BYTES
+                + reader.getSuperblock().getSizeOfLengths();
+        final ByteBuffer header = reader.readMetadata(address, size + Integer.BYTES);
+        checkPrefix(header, SIGNATURE, expectedType, address);
+        reader.verifyMetadataChecksum(header, address);
+        header.position(NODE_PREFIX_SIZE);
+        final int nodeSize = header.getInt();
+        final int recordSize = Short.toUnsignedInt(header.getShort());
+        final int depth = Short.toUnsignedInt(header.getShort());
+        // skip split and merge percent
+        header.getShort();
+        final long rootAddress = addressManager.decodePosition(header);
+        final int rootRecords = Short.toUnsignedInt(header.getShort());
+        final long totalRecords = reader.decodeLength(header);
+        if (nodeSize <= NODE_METADATA_SIZE || recordSize == 0
+                || recordSize > nodeSize - NODE_METADATA_SIZE) {
+            throw new HDF5jException(String.format(
+                    "Invalid node size (%s) or record size (%s) for B-tree at %s", nodeSize,
+                    recordSize, address));
+        }
+        return new BTreeV2(reader, address, expectedType, nodeSize, recordSize, depth,
+                rootAddress, rootRecords, totalRecords);
+    }
+
+    /**
+     * Gets the address of the header.
+     *
+     * @return the address (relative to the base address).
+     */
+    public long getAddress() {
+        return address;
+    }
+
+    /**
+     * Gets the type of the tree.
+     *
+     * @return the type.
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Gets the size of the records.
+     *
+     * @return size in bytes.
+     */
+    public int getRecordSize() {
+        return recordSize;
+    }
+
+    /**
+     * Gets the depth of the tree.
+     *
+     * @return the depth (0 if the root is a leaf).
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Gets the number of records in the tree.
+     *
+     * @return the number of records.
+     */
+    public long getTotalRecords() {
+        return totalRecords;
+    }
+
+    /**
+     * Visits all the records in order.
+     *
+     * @param visitor visitor for the records.
+     *
+     * @return {@code false} if the visitor stopped the traversal; {@code true} otherwise.
+     *
+     * @throws HDF5jException if the tree is malformed.
+     * @throws IOException    if an IO error occurs.
+     */
+    public boolean forEachRecord(final RecordVisitor visitor) throws IOException {
+        Preconditions.checkArgument(visitor != null, "null visitor");
+        return search(record -> 0, visitor);
+    }
+
+    /**
+     * Visits in order the records equal to the searched key, descending only into the nodes that
+     * might contain them.
+     *
+     * @param comparator comparator of the searched key with the records.
+     * @param visitor    visitor for the matching records.
+     *
+     * @return {@code false} if the visitor stopped the traversal; {@code true} otherwise.
+     *
+     * @throws HDF5jException if the tree is malformed.
+     * @throws IOException    if an IO error occurs.
+     */
+    public boolean search(final RecordComparator comparator, final RecordVisitor visitor)
+            throws IOException {
+        Preconditions.checkArgument(comparator != null, "null comparator");
+        Preconditions.checkArgument(visitor != null, "null visitor");
+        if (rootAddress == -1 || rootRecords == 0) {
+            return true;
+        }
+        return search(rootAddress, depth, rootRecords, comparator, visitor);
+    }
+
+    private boolean search(final long nodeAddress, final int nodeDepth, final int records,
+            final RecordComparator comparator, final RecordVisitor visitor) throws IOException {
+        final ByteBuffer node = readNode(nodeAddress, nodeDepth, records);
+        final FileAddressManager addressManager = reader.getAddressManager();
+        final int pointers = NODE_PREFIX_SIZE + records * recordSize;
+        final int pointerSize = pointerSize(nodeDepth);
+        // comparison with the previous record
+        int previous = 1;
+        for (int i = 0; i <= records; i++) {
+            final int current = (i == records) ? -1 : comparator.compareTo(record(node, i));
+            // the child contains the keys between the previous and the current record
+            if (nodeDepth > 0 && previous >= 0 && current <= 0) {
+                final int pointer = pointers + i * pointerSize;
+                final long childAddress = addressManager.decodePosition(node, pointer);
+                final int childRecords = (int) DecodingUtils.decodeUnsigned(node,
+                        pointer + addressManager.getAddressSize(), recordsSize);
+                if (!search(childAddress, nodeDepth - 1, childRecords, comparator, visitor)) {
+                    return false;
+                }
+            }
+            if (current < 0) {
+                return true;
+            }
+            if (current == 0 && !visitor.visit(record(node, i))) {
+                return false;
+            }
+            previous = current;
+        }
+        return true;
+    }
+
+    private ByteBuffer readNode(final long nodeAddress, final int nodeDepth, final int records)
+            throws IOException {
+        int size = NODE_PREFIX_SIZE + records * recordSize;
+        if (nodeDepth > 0) {
+            size += (records + 1) * pointerSize(nodeDepth);
+        }
+        final ByteBuffer node = reader.readMetadata(nodeAddress, size + Integer.BYTES);
+        checkPrefix(node, (nodeDepth == 0) ? LEAF_NODE_SIGNATURE : INTERNAL_NODE_SIGNATURE, type,
+                nodeAddress);
+        reader.verifyMetadataChecksum(node, nodeAddress);
+        return node;
+    }
+
+    private ByteBuffer record(final ByteBuffer node, final int index) {
+        final ByteBuffer record = node.duplicate();
+        final int start = NODE_PREFIX_SIZE + index * recordSize;
+        record.limit(start + recordSize).position(start);
+        return record.slice().asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // size of the child pointers in an internal node of the depth
+    private int pointerSize(final int nodeDepth) {
+        return reader.getAddressManager().getAddressSize() + recordsSize
+                + ((nodeDepth > 1) ? totalRecordsSize[nodeDepth - 1] : 0);
+    }
+
+    // number of bytes to encode the value (at least 1)
+    private static int encodedSize(final long value) {
+        return (Long.SIZE - 1 - Long.numberOfLeadingZeros(Math.max(1, value))) / Byte.SIZE + 1;
+    }
+
+    private static void checkPrefix(final ByteBuffer buffer, final byte[] signature,
+            final int expectedType, final long address) {
+        DecodingUtils.checkSignature(buffer, signature, "B-tree", address);
+        final int version = Byte.toUnsignedInt(buffer.get(signature.length));
+        if (version != 0) {
+            throw new HDF5jException(String.format(
+                    "Unsupported B-tree version at %s: %s", address, version));
+        }
+        final int type = Byte.toUnsignedInt(buffer.get(signature.length + 1));
+        if (type != expectedType) {
+            throw new HDF5jException(String.format(
+                    "B-tree node at %s has type %s (expected %s)", address, type, expectedType));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[address=%s, type=%s, depth=%s, records=%s]",
+                this.getClass().getSimpleName(), address, type, depth, totalRecords);
+    }
+}
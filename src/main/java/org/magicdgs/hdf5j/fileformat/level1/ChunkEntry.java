@@ -0,0 +1,145 @@
+package org.magicdgs.hdf5j.fileformat.level1;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Entry for a chunk of raw data, as stored in the leaf nodes of a {@link BTreeV1Node} of type
+ * {@link BTreeV1Node#RAW_DATA_CHUNK_NODE_TYPE}.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class ChunkEntry {
+
+    private final long[] offsets;
+    private final int size;
+    private final int filterMask;
+    private final long address;
+
+    /**
+     * Constructor for a chunk entry.
+     *
+     * @param offsets    offset of the chunk in each dimension of the dataset (in elements).
+     * @param size       size of the chunk in the file (in bytes, after filtering).
+     * @param filterMask mask of the filters that were not applied to the chunk.
+     * @param address    address of the chunk (relative to the base address).
+     */
+    public ChunkEntry(final long[] offsets, final int size, final int filterMask,
+            final long address) {
+        this.offsets = offsets;
+        this.size = size;
+        this.filterMask = filterMask;
+        this.address = address;
+    }
+
+    /**
+     * Decodes the entry from a raw data chunk key and the child address.
+     *
+     * <p>The key contains the size of the chunk, the filter mask and the offsets for each
+     * dimension. The last offset (the element size dimension) is always zero and is discarded.
+     *
+     * @param key     little-endian buffer with the key.
+     * @param rank    number of dimensions of the dataset.
+     * @param address address of the chunk.
+     *
+     * @return the chunk entry.
+     */
+    static ChunkEntry decode(final ByteBuffer key, final int rank, final long address) {
+        final int size = key.getInt(0);
+        final int filterMask = key.getInt(Integer.BYTES);
+        final long[] offsets = new long[rank];
+        for (int i = 0; i < rank; i++) {
+            offsets[i] = key.getLong(2 * Integer.BYTES + i * Long.BYTES);
+        }
+        return new ChunkEntry(offsets, size, filterMask, address);
+    }
+
+    /**
+     * Gets the size of the key for a dataset with the provided rank.
+     *
+     * @param rank number of dimensions of the dataset.
+     *
+     * @return size of the key in bytes.
+     */
+    static int keySize(final int rank) {
+        // size + filter mask + offset for each dimension and the element size dimension
+        return 2 * Integer.BYTES + (rank + 1) * Long.BYTES;
+    }
+
+    /**
+     * Gets the offset of the chunk in the dataset.
+     *
+     * @return offset in each dimension (in elements).
+     */
+    public long[] getOffsets() {
+        return offsets.clone();
+    }
+
+    /**
+     * Gets the offset of the chunk in the provided dimension.
+     *
+     * @param dimension the dimension.
+     *
+     * @return offset in elements.
+     */
+    public long getOffset(final int dimension) {
+        return offsets[dimension];
+    }
+
+    /**
+     * Gets the size of the chunk in the file.
+     *
+     * @return size in bytes.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the filter mask. If the bit {@code n} is set, the filter {@code n} of the pipeline was
+     * not applied to this chunk.
+     *
+     * @return the filter mask.
+     */
+    public int getFilterMask() {
+        return filterMask;
+    }
+
+    /**
+     * Gets the address of the chunk.
+     *
+     * @return the address (relative to the base address).
+     */
+    public long getAddress() {
+        return address;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ChunkEntry)) {
+            return false;
+        }
+        final ChunkEntry that = (ChunkEntry) o;
+        return size == that.size && filterMask == that.filterMask && address == that.address
+                && Arrays.equals(offsets, that.offsets);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(offsets);
+        result = 31 * result + size;
+        result = 31 * result + filterMask;
+        result = 31 * result + Long.hashCode(address);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[offsets=%s, size=%s, filterMask=%s, address=%s]",
+                this.getClass().getSimpleName(), Arrays.toString(offsets), size, filterMask,
+                address);
+    }
+}
@@ -0,0 +1,359 @@
+package org.magicdgs.hdf5j.fileformat.level1;
+
+import org.magicdgs.hdf5j.fileformat.address.FileAddressManager;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.DecodingUtils;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <b>Fractal Heap</b> (Level 1F), which stores variable-size objects (e.g., the links of dense
+ * groups) identified by heap IDs.
+ *
+ * <p>Managed objects are located by walking the doubling table from the root block: each indirect
+ * block is read once and kept (they are few and small), and only the bytes of the object are read
+ * from the direct block containing it (the whole block is read the first time, if its checksum
+ * should be verified). Tiny objects are decoded from the heap ID itself.
+ *
+ * <p>Huge objects (stored out of the heap and indexed by a version 2 B-tree) and heaps with I/O
+ * filters are not supported: opening a filtered heap or getting a huge object throws an
+ * {@link HDF5jException}. The library only writes them for objects larger than the maximum size
+ * of the managed objects (64 KiB by default) or if filters are explicitly set for the heap.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class FractalHeap {
+
+    /** Signature for the fractal heap header ("FRHP"). */
+    public static final byte[] SIGNATURE = "FRHP".getBytes(StandardCharsets.US_ASCII);
+
+    /** Signature for the direct blocks ("FHDB"). */
+    public static final byte[] DIRECT_BLOCK_SIGNATURE = "FHDB".getBytes(StandardCharsets.US_ASCII);
+
+    /** Signature for the indirect blocks ("FHIB"). */
+    public static final byte[] INDIRECT_BLOCK_SIGNATURE =
+            "FHIB".getBytes(StandardCharsets.US_ASCII);
+
+    // heap ID types
+    private static final int MANAGED_OBJECT = 0;
+    private static final int HUGE_OBJECT = 1;
+    private static final int TINY_OBJECT = 2;
+
+    // maximum heap ID length for tiny objects with the length encoded in 4 bits
+    private static final int MAX_NORMAL_TINY_ID_LENGTH = 18;
+
+    // flags
+    private static final int DIRECT_BLOCKS_CHECKSUMMED = 0x02;
+
+    // signature (4), version (1), heap ID length (2), filters length (2), flags (1), maximum
+    // managed object size (4), table width (2), maximum heap size (2), starting rows (2) and
+    // current rows (2)
+    private static final int HEADER_FIXED_SIZE = SIGNATURE.length + 18;
+    // lengths and offsets in the header
+    private static final int HEADER_LENGTHS = 12;
+    private static final int HEADER_OFFSETS = 3;
+
+    private final HDF5FileReader reader;
+    private final long address;
+    private final int heapIdLength;
+    private final boolean directBlocksChecksummed;
+    private final long maximumManagedObjectSize;
+    private final long numberOfManagedObjects;
+    private final int tableWidth;
+    private final long startingBlockSize;
+    private final long maximumDirectBlockSize;
+    private final int maximumHeapSize;
+    private final long rootBlockAddress;
+    private final int rootIndirectBlockRows;
+
+    // derived from the header
+    private final int heapOffsetSize;
+    private final int heapLengthSize;
+    private final int maximumDirectRows;
+    private final int firstRowBits;
+
+    // verified indirect blocks, by address
+    private final ConcurrentMap<Long, ByteBuffer> indirectBlocks = new ConcurrentHashMap<>();
+
+    private FractalHeap(final HDF5FileReader reader, final long address, final ByteBuffer header,
+            final int heapIdLength, final int flags) {
+        this.reader = reader;
+        this.address = address;
+        this.heapIdLength = heapIdLength;
+        this.directBlocksChecksummed = (flags & DIRECT_BLOCKS_CHECKSUMMED) != 0;
+        final FileAddressManager addressManager = reader.getAddressManager();
+        header.position(SIGNATURE.length + 6);
+        this.maximumManagedObjectSize = Integer.toUnsignedLong(header.getInt());
+        // skip next huge object ID, huge objects B-tree, free space and free space manager
+        header.position(header.position() + 2 * reader.getSuperblock().getSizeOfLengths()
+                + 2 * addressManager.getAddressSize());
+        // skip managed space, allocated space and allocation iterator
+        header.position(header.position() + 3 * reader.getSuperblock().getSizeOfLengths());
+        this.numberOfManagedObjects = reader.decodeLength(header);
+        // skip size and number of huge and tiny objects
+        header.position(header.position() + 4 * reader.getSuperblock().getSizeOfLengths());
+        this.tableWidth = Short.toUnsignedInt(header.getShort());
+        this.startingBlockSize = reader.decodeLength(header);
+        this.maximumDirectBlockSize = reader.decodeLength(header);
+        this.maximumHeapSize = Short.toUnsignedInt(header.getShort());
+        // skip starting number of rows
+        header.getShort();
+        this.rootBlockAddress = addressManager.decodePosition(header);
+        this.rootIndirectBlockRows = Short.toUnsignedInt(header.getShort());
+        if (tableWidth == 0 || Long.bitCount(startingBlockSize) != 1
+                || Long.bitCount(maximumDirectBlockSize) != 1
+                || maximumDirectBlockSize < startingBlockSize
+                || maximumHeapSize == 0 || maximumHeapSize > Long.SIZE - 1) {
+            throw new HDF5jException("Invalid doubling table for fractal heap at " + address);
+        }
+        this.heapOffsetSize = (maximumHeapSize + 7) / Byte.SIZE;
+        this.heapLengthSize = Math.min((log2(maximumDirectBlockSize) + 7) / Byte.SIZE,
+                log2(maximumManagedObjectSize) / Byte.SIZE + 1);
+        this.maximumDirectRows = log2(maximumDirectBlockSize) - log2(startingBlockSize) + 2;
+        this.firstRowBits = log2(startingBlockSize) + log2(tableWidth);
+    }
+
+    /**
+     * Reads the header of the heap at the provided address.
+     *
+     * @param reader  reader for the file.
+     * @param address address of the heap header (relative to the base address).
+     *
+     * @return the fractal heap.
+     *
+     * @throws HDF5jException if the header is malformed or the heap is filtered.
+     * @throws IOException    if an IO error occurs.
+     */
+    public static FractalHeap read(final HDF5FileReader reader, final long address)
+            throws IOException {
+        Preconditions.checkArgument(reader != null, "null reader");
+        Preconditions.checkArgument(address >= 0, "undefined address");
+        final int size = HEADER_FIXED_SIZE
+                + HEADER_LENGTHS * reader.getSuperblock().getSizeOfLengths()
+                + HEADER_OFFSETS * reader.getAddressManager().getAddressSize();
+        final ByteBuffer header = reader.readMetadata(address, size + Integer.BYTES);
+        DecodingUtils.checkSignature(header, SIGNATURE, "fractal heap", address);
+        final int heapIdLength = Short.toUnsignedInt(header.getShort(SIGNATURE.length + 1));
+        final int filtersLength = Short.toUnsignedInt(header.getShort(SIGNATURE.length + 3));
+        if (filtersLength != 0) {
+            throw new HDF5jException("Filtered fractal heaps are not supported: " + address);
+        }
+        reader.verifyMetadataChecksum(header, address);
+        final int flags = Byte.toUnsignedInt(header.get(SIGNATURE.length + 5));
+        return new FractalHeap(reader, address, header, heapIdLength, flags);
+    }
+
+    /**
+     * Gets the address of the heap header.
+     *
+     * @return the address (relative to the base address).
+     */
+    public long getAddress() {
+        return address;
+    }
+
+    /**
+     * Gets the length of the heap IDs.
+     *
+     * @return length in bytes.
+     */
+    public int getHeapIdLength() {
+        return heapIdLength;
+    }
+
+    /**
+     * Gets the number of managed objects in the heap.
+     *
+     * @return the number of objects.
+     */
+    public long getNumberOfManagedObjects() {
+        return numberOfManagedObjects;
+    }
+
+    /**
+     * Gets the object with the provided heap ID.
+     *
+     * @param heapId buffer with the heap ID (from its position). It is not modified.
+     *
+     * @return read-only little-endian buffer with the object.
+     *
+     * @throws HDF5jException if the heap ID is invalid or identifies a huge object.
+     * @throws IOException    if an IO error occurs.
+     */
+    public ByteBuffer getObject(final ByteBuffer heapId) throws IOException {
+        Preconditions.checkArgument(heapId != null, "null heap ID");
+        Preconditions.checkArgument(heapId.remaining() >= heapIdLength,
+                "heap ID should have %s bytes", heapIdLength);
+        final int start = heapId.position();
+        final int flags = Byte.toUnsignedInt(heapId.get(start));
+        final int version = flags >>> 6;
+        if (version != 0) {
+            throw new HDF5jException("Unsupported heap ID version: " + version);
+        }
+        switch ((flags >>> 4) & 0x03) {
+            case MANAGED_OBJECT:
+                final long offset = DecodingUtils.decodeUnsigned(heapId, start + 1,
+                        heapOffsetSize);
+                final long length = DecodingUtils.decodeUnsigned(heapId,
+                        start + 1 + heapOffsetSize, heapLengthSize);
+                return readManagedObject(offset, length);
+            case TINY_OBJECT:
+                final ByteBuffer tiny = heapId.duplicate();
+                if (heapIdLength <= MAX_NORMAL_TINY_ID_LENGTH) {
+                    tiny.position(start + 1).limit(start + 2 + (flags & 0x0F));
+                } else {
+                    final int extended = ((flags & 0x0F) << Byte.SIZE)
+                            | Byte.toUnsignedInt(heapId.get(start + 1));
+                    tiny.position(start + 2).limit(start + 3 + extended);
+                }
+                return tiny.slice().asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+            case HUGE_OBJECT:
+                throw new HDF5jException("Huge objects are not supported: " + this);
+            default:
+                throw new HDF5jException("Invalid heap ID type: " + flags);
+        }
+    }
+
+    private ByteBuffer readManagedObject(final long offset, final long length)
+            throws IOException {
+        if (length <= 0 || length > maximumManagedObjectSize || offset < 0
+                || offset >= 1L << maximumHeapSize) {
+            throw new HDF5jException(String.format(
+                    "Invalid managed object (offset=%s, length=%s) for %s", offset, length,
+                    this));
+        }
+        if (rootIndirectBlockRows == 0) {
+            return readFromDirectBlock(rootBlockAddress, 0, startingBlockSize, offset,
+                    (int) length);
+        }
+        long blockAddress = rootBlockAddress;
+        long blockOffset = 0;
+        int rows = rootIndirectBlockRows;
+        while (true) {
+            final ByteBuffer block = getIndirectBlock(blockAddress, blockOffset, rows);
+            final long relative = offset - blockOffset;
+            // locate the row and column in the doubling table
+            int row = 0;
+            long rowOffset = 0;
+            while (row < rows && relative >= rowOffset + tableWidth * blockSize(row)) {
+                rowOffset += tableWidth * blockSize(row);
+                row++;
+            }
+            if (row == rows) {
+                throw new HDF5jException(String.format(
+                        "Offset %s out of the indirect block at %s", offset, blockAddress));
+            }
+            final long size = blockSize(row);
+            final int column = (int) ((relative - rowOffset) / size);
+            final long childOffset = blockOffset + rowOffset + column * size;
+            final long childAddress = reader.getAddressManager().decodePosition(block,
+                    indirectBlockHeaderSize() + (row * tableWidth + column)
+                            * reader.getAddressManager().getAddressSize());
+            if (childAddress == -1) {
+                throw new HDF5jException(String.format(
+                        "Offset %s in an unallocated block of %s", offset, this));
+            }
+            if (row < maximumDirectRows) {
+                return readFromDirectBlock(childAddress, childOffset, size, offset,
+                        (int) length);
+            }
+            blockAddress = childAddress;
+            blockOffset = childOffset;
+            rows = log2(size) - firstRowBits + 1;
+        }
+    }
+
+    private ByteBuffer readFromDirectBlock(final long blockAddress, final long blockOffset,
+            final long blockSize, final long offset, final int length) throws IOException {
+        final int headerSize = DIRECT_BLOCK_SIGNATURE.length + 1
+                + reader.getAddressManager().getAddressSize() + heapOffsetSize
+                + ((directBlocksChecksummed) ? Integer.BYTES : 0);
+        final long inBlock = offset - blockOffset;
+        if (inBlock < headerSize || inBlock + length > blockSize) {
+            throw new HDF5jException(String.format(
+                    "Object (offset=%s, length=%s) out of the direct block at %s", offset, length,
+                    blockAddress));
+        }
+        final ByteBuffer header = reader.readMetadata(blockAddress, headerSize);
+        DecodingUtils.checkSignature(header, DIRECT_BLOCK_SIGNATURE, "fractal heap direct block",
+                blockAddress);
+        checkBlockOffset(header, blockOffset, blockAddress);
+        if (directBlocksChecksummed && reader.shouldVerifyMetadataChecksum(blockAddress)) {
+            // the whole block is read only for verifying it (not cached, as it might be large)
+            final ByteBuffer block = ByteBuffer.allocate(Math.toIntExact(blockSize));
+            reader.readRaw(blockAddress, block);
+            block.flip();
+            reader.getMetadataVerifier().verify(reader.getPath(), block,
+                    headerSize - Integer.BYTES, blockAddress);
+            block.limit((int) inBlock + length).position((int) inBlock);
+            return block.slice().asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        }
+        // otherwise, only the object is read
+        return reader.readMetadata(blockAddress + inBlock, length).asReadOnlyBuffer()
+                .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // the entries of the direct rows come first, followed by the ones of the indirect rows
+    private ByteBuffer getIndirectBlock(final long blockAddress, final long blockOffset,
+            final int rows) throws IOException {
+        ByteBuffer block = indirectBlocks.get(blockAddress);
+        if (block == null) {
+            final int size = indirectBlockHeaderSize()
+                    + rows * tableWidth * reader.getAddressManager().getAddressSize()
+                    + Integer.BYTES;
+            block = reader.readMetadata(blockAddress, size);
+            DecodingUtils.checkSignature(block, INDIRECT_BLOCK_SIGNATURE,
+                    "fractal heap indirect block", blockAddress);
+            checkBlockOffset(block, blockOffset, blockAddress);
+            reader.verifyMetadataChecksum(block, blockAddress);
+            // not cached until verified if it was submitted to a sweep
+            if (!reader.getMetadataVerifier().isAwaitingSweep(blockAddress)) {
+                indirectBlocks.putIfAbsent(blockAddress, block);
+            }
+        }
+        return block;
+    }
+
+    private int indirectBlockHeaderSize() {
+        return INDIRECT_BLOCK_SIGNATURE.length + 1 + reader.getAddressManager().getAddressSize()
+                + heapOffsetSize;
+    }
+
+    // the block offset is after the signature, version and heap header address in both blocks
+    private void checkBlockOffset(final ByteBuffer block, final long expected,
+            final long blockAddress) {
+        final long stored = DecodingUtils.decodeUnsigned(block,
+                SIGNATURE.length + 1 + reader.getAddressManager().getAddressSize(),
+                heapOffsetSize);
+        if (stored != expected) {
+            throw new HDF5jException(String.format(
+                    "Fractal heap block at %s has offset %s (expected %s)", blockAddress, stored,
+                    expected));
+        }
+    }
+
+    // size of the blocks in the row of the doubling table
+    private long blockSize(final int row) {
+        return (row == 0) ? startingBlockSize : startingBlockSize << (row - 1);
+    }
+
+    private static int log2(final long value) {
+        return Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[address=%s, objects=%s]", this.getClass().getSimpleName(),
+                address, numberOfManagedObjects);
+    }
+}
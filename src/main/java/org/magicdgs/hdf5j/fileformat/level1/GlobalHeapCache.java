@@ -0,0 +1,143 @@
+package org.magicdgs.hdf5j.fileformat.level1;
+
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.WeightedLruCache;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+
+/**
+ * Cache of {@link GlobalHeapCollection}s, keyed by their address, to avoid reading and indexing a
+ * collection for each variable-length element stored in it.
+ *
+ * <p>Collections are evicted in least-recently-used order once their total size exceeds the
+ * configured budget. Hit, miss and eviction counters are kept to tune the budget.
+ *
+ * <p>This class is thread-safe: collections are read outside of the lock, so concurrent misses
+ * for different collections do not block each other (concurrent misses for the same collection
+ * might read it more than once).
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class GlobalHeapCache {
+
+    /** Default maximum number of bytes retained by the cache (8 MiB). */
+    public static final long DEFAULT_MAX_BYTES = 8L * 1024 * 1024;
+
+    private final HDF5FileReader reader;
+    private final WeightedLruCache<Long, GlobalHeapCollection> collections;
+
+    /**
+     * Constructor with the default memory budget.
+     *
+     * @param reader reader for the file.
+     */
+    public GlobalHeapCache(final HDF5FileReader reader) {
+        this(reader, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Constructor with a custom memory budget.
+     *
+     * @param reader   reader for the file.
+     * @param maxBytes maximum number of bytes to retain in the cache.
+     */
+    public GlobalHeapCache(final HDF5FileReader reader, final long maxBytes) {
+        Preconditions.checkArgument(reader != null, "null reader");
+        Preconditions.checkArgument(maxBytes >= 0, "negative maxBytes: %s", maxBytes);
+        this.reader = reader;
+        this.collections = new WeightedLruCache<>(maxBytes, GlobalHeapCollection::getSize);
+    }
+
+    /**
+     * Gets the collection at the provided address, reading it if it is not cached.
+     *
+     * @param address address of the collection (relative to the base address).
+     *
+     * @return the collection.
+     *
+     * @throws HDF5jException if the collection is malformed or its version is not supported.
+     * @throws IOException    if an IO error occurs.
+     */
+    public GlobalHeapCollection get(final long address) throws IOException {
+        Preconditions.checkArgument(address >= 0, "undefined address");
+        return collections.get(address, a -> GlobalHeapCollection.read(reader, a));
+    }
+
+    /**
+     * Removes the collection at the provided address from the cache, if present.
+     *
+     * @param address address of the collection (relative to the base address).
+     */
+    public void invalidate(final long address) {
+        collections.invalidate(address);
+    }
+
+    /** Removes all the collections from the cache. */
+    public void invalidateAll() {
+        collections.invalidateAll();
+    }
+
+    /**
+     * Gets the maximum number of bytes retained by the cache.
+     *
+     * @return memory budget in bytes.
+     */
+    public long getMaxBytes() {
+        return collections.getMaxWeight();
+    }
+
+    /**
+     * Gets the estimated number of bytes currently retained by the cache.
+     *
+     * @return cached bytes.
+     */
+    public long getCachedBytes() {
+        return collections.getWeight();
+    }
+
+    /**
+     * Gets the number of collections currently cached.
+     *
+     * @return number of collections.
+     */
+    public int size() {
+        return collections.size();
+    }
+
+    /**
+     * Gets the number of requests served from the cache.
+     *
+     * @return number of hits.
+     */
+    public long getHitCount() {
+        return collections.getHitCount();
+    }
+
+    /**
+     * Gets the number of requests that required to read the collection.
+     *
+     * @return number of misses.
+     */
+    public long getMissCount() {
+        return collections.getMissCount();
+    }
+
+    /**
+     * Gets the number of collections evicted from the cache.
+     *
+     * @return number of evictions.
+     */
+    public long getEvictionCount() {
+        return collections.getEvictionCount();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s, maxBytes=%s, hits=%s, misses=%s, evictions=%s]",
+                this.getClass().getSimpleName(), reader.getPath(), getMaxBytes(), getHitCount(),
+                getMissCount(), getEvictionCount());
+    }
+}
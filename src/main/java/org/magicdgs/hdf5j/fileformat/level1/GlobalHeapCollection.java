@@ -0,0 +1,189 @@
+package org.magicdgs.hdf5j.fileformat.level1;
+
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.DecodingUtils;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * <b>Global Heap Collection</b> (Level 1E), which stores the data of variable-length elements
+ * (e.g., strings and sequences) referenced by heap IDs (collection address and object index).
+ *
+ * <p>The whole collection is read at once, bypassing the
+ * {@link org.magicdgs.hdf5j.io.MetadataPageCache} (its pages would not be reused by other
+ * structures), and the objects are located by index without scanning the collection again.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class GlobalHeapCollection {
+
+    /** Signature for the global heap collection ("GCOL"). */
+    public static final byte[] SIGNATURE = "GCOL".getBytes(StandardCharsets.US_ASCII);
+
+    // signature + version + reserved
+    private static final int FIXED_HEADER_SIZE = SIGNATURE.length + 4;
+    // heap object index (2), reference count (2) and reserved (4)
+    private static final int OBJECT_HEADER_SIZE = 8;
+
+    private final long address;
+    private final ByteBuffer collection;
+    // start and size of each object, indexed by the heap object index (-1 if absent)
+    private final int[] starts;
+    private final int[] sizes;
+    private final int numberOfObjects;
+
+    private GlobalHeapCollection(final long address, final ByteBuffer collection,
+            final int[] starts, final int[] sizes, final int numberOfObjects) {
+        this.address = address;
+        this.collection = collection;
+        this.starts = starts;
+        this.sizes = sizes;
+        this.numberOfObjects = numberOfObjects;
+    }
+
+    /**
+     * Reads the collection at the provided address.
+     *
+     * @param reader  reader for the file.
+     * @param address address of the collection (relative to the base address).
+     *
+     * @return the collection.
+     *
+     * @throws HDF5jException if the collection is malformed.
+     * @throws IOException    if an IO error occurs.
+     */
+    public static GlobalHeapCollection read(final HDF5FileReader reader, final long address)
+            throws IOException {
+        Preconditions.checkArgument(reader != null, "null reader");
+        final int sizeOfLengths = reader.getSuperblock().getSizeOfLengths();
+        final ByteBuffer header = ByteBuffer.allocate(FIXED_HEADER_SIZE + sizeOfLengths)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        reader.readRaw(address, header);
+        header.flip();
+        DecodingUtils.checkSignature(header, SIGNATURE, "global heap collection", address);
+        final int version = Byte.toUnsignedInt(header.get(SIGNATURE.length));
+        if (version != 1) {
+            throw new HDF5jException(String.format(
+                    "Unsupported global heap collection version at %s: %s", address, version));
+        }
+        header.position(FIXED_HEADER_SIZE);
+        final long size = reader.decodeLength(header);
+        if (size < header.limit() || size > Integer.MAX_VALUE) {
+            throw new HDF5jException(String.format(
+                    "Invalid global heap collection size at %s: %s", address, size));
+        }
+        final ByteBuffer collection = ByteBuffer.allocate((int) size)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        reader.readRaw(address, collection);
+        collection.flip();
+        return index(reader, address, collection, header.limit());
+    }
+
+    // locates the objects in the collection
+    private static GlobalHeapCollection index(final HDF5FileReader reader, final long address,
+            final ByteBuffer collection, final int firstObject) {
+        final int sizeOfLengths = reader.getSuperblock().getSizeOfLengths();
+        int[] starts = new int[0];
+        int[] sizes = new int[0];
+        int numberOfObjects = 0;
+        int position = firstObject;
+        while (collection.limit() - position >= OBJECT_HEADER_SIZE + sizeOfLengths) {
+            final int index = Short.toUnsignedInt(collection.getShort(position));
+            if (index == 0) {
+                // free space: the rest of the collection
+                break;
+            }
+            collection.position(position + OBJECT_HEADER_SIZE);
+            final long objectSize = reader.decodeLength(collection);
+            final int start = collection.position();
+            if (objectSize > collection.limit() - start) {
+                throw new HDF5jException(String.format(
+                        "Object %s of global heap collection at %s out of bounds", index,
+                        address));
+            }
+            if (index >= starts.length) {
+                final int previous = starts.length;
+                starts = Arrays.copyOf(starts, Math.max(index + 1, 2 * previous));
+                sizes = Arrays.copyOf(sizes, starts.length);
+                Arrays.fill(starts, previous, starts.length, -1);
+            }
+            starts[index] = start;
+            sizes[index] = (int) objectSize;
+            numberOfObjects++;
+            // data is padded to a multiple of 8 bytes
+            position = start + (((int) objectSize + 7) & ~7);
+        }
+        collection.position(0);
+        return new GlobalHeapCollection(address, collection, starts, sizes, numberOfObjects);
+    }
+
+    /**
+     * Gets the address of this collection.
+     *
+     * @return the address (relative to the base address).
+     */
+    public long getAddress() {
+        return address;
+    }
+
+    /**
+     * Gets the size of this collection, including its header and free space.
+     *
+     * @return size in bytes.
+     */
+    public int getSize() {
+        return collection.limit();
+    }
+
+    /**
+     * Gets the number of objects in the collection.
+     *
+     * @return the number of objects.
+     */
+    public int getNumberOfObjects() {
+        return numberOfObjects;
+    }
+
+    /**
+     * Returns {@code true} if the collection contains an object with the provided index.
+     *
+     * @param index heap object index.
+     *
+     * @return {@code true} if the object is present; {@code false} otherwise.
+     */
+    public boolean contains(final int index) {
+        return index > 0 && index < starts.length && starts[index] >= 0;
+    }
+
+    /**
+     * Gets the data of an object, without copying it.
+     *
+     * @param index heap object index.
+     *
+     * @return read-only little-endian buffer with the data of the object.
+     *
+     * @throws HDF5jException if the object is not present in the collection.
+     */
+    public ByteBuffer getObject(final int index) {
+        if (!contains(index)) {
+            throw new HDF5jException(String.format(
+                    "Object %s not found in global heap collection at %s", index, address));
+        }
+        final ByteBuffer object = collection.duplicate();
+        object.limit(starts[index] + sizes[index]).position(starts[index]);
+        return object.slice().asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[address=%s, size=%s, objects=%s]",
+                this.getClass().getSimpleName(), address, getSize(), numberOfObjects);
+    }
+}
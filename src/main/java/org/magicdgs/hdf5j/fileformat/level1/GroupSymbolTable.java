@@ -0,0 +1,122 @@
+package org.magicdgs.hdf5j.fileformat.level1;
+
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Symbol table of an old-style group, stored as a version 1 B-tree with nodes of type
+ * {@link BTreeV1Node#GROUP_NODE_TYPE} pointing to {@link SymbolTableNode}s, and a
+ * {@link LocalHeap} with the names of the members.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class GroupSymbolTable {
+
+    private final HDF5FileReader reader;
+    private final long bTreeAddress;
+    private final long localHeapAddress;
+    private final int keySize;
+    private final int internalK;
+    private final int leafK;
+
+    /**
+     * Constructor for the symbol table.
+     *
+     * @param reader           reader for the file.
+     * @param bTreeAddress     address of the root node of the B-tree.
+     * @param localHeapAddress address of the local heap.
+     */
+    public GroupSymbolTable(final HDF5FileReader reader, final long bTreeAddress,
+            final long localHeapAddress) {
+        Preconditions.checkArgument(reader != null, "null reader");
+        Preconditions.checkArgument(bTreeAddress >= 0, "undefined B-tree address");
+        Preconditions.checkArgument(localHeapAddress >= 0, "undefined local heap address");
+        this.reader = reader;
+        this.bTreeAddress = bTreeAddress;
+        this.localHeapAddress = localHeapAddress;
+        // keys are offsets into the local heap
+        this.keySize = reader.getSuperblock().getSizeOfLengths();
+        this.internalK = reader.getGroupInternalNodeK();
+        this.leafK = reader.getGroupLeafNodeK();
+    }
+
+    /**
+     * Gets the address of the root node of the B-tree.
+     *
+     * @return the address (relative to the base address).
+     */
+    public long getBTreeAddress() {
+        return bTreeAddress;
+    }
+
+    /**
+     * Gets the address of the local heap.
+     *
+     * @return the address (relative to the base address).
+     */
+    public long getLocalHeapAddress() {
+        return localHeapAddress;
+    }
+
+    /**
+     * Reads the local heap with the names of the members.
+     *
+     * @return the local heap.
+     *
+     * @throws HDF5jException if the heap is malformed.
+     * @throws IOException    if an IO error occurs.
+     */
+    public LocalHeap readLocalHeap() throws IOException {
+        return LocalHeap.read(reader, localHeapAddress);
+    }
+
+    /**
+     * Collects the entries of all the members of the group, sorted by name.
+     *
+     * @return list of entries.
+     *
+     * @throws HDF5jException if the tree is malformed.
+     * @throws IOException    if an IO error occurs.
+     */
+    public List<SymbolTableEntry> getEntries() throws IOException {
+        final List<SymbolTableEntry> entries = new ArrayList<>();
+        collect(bTreeAddress, -1, entries);
+        return entries;
+    }
+
+    // depth-first traversal keeps the order of the keys
+    private void collect(final long address, final int expectedLevel,
+            final List<SymbolTableEntry> entries) throws IOException {
+        final BTreeV1Node node = BTreeV1Node.read(reader, address, keySize,
+                BTreeV1Node.GROUP_NODE_TYPE, internalK);
+        final int level = node.getNodeLevel();
+        if (expectedLevel != -1 && level != expectedLevel) {
+            throw new HDF5jException(String.format(
+                    "B-tree node at %s has level %s (expected %s)", address, level,
+                    expectedLevel));
+        }
+        for (int i = 0; i < node.getEntriesUsed(); i++) {
+            final long child = node.getChildAddress(i);
+            if (level == 0) {
+                final SymbolTableNode symbols = SymbolTableNode.read(reader, child, leafK);
+                for (int j = 0; j < symbols.getNumberOfSymbols(); j++) {
+                    entries.add(symbols.getEntry(j));
+                }
+            } else {
+                collect(child, level - 1, entries);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[btree=%s, heap=%s]", this.getClass().getSimpleName(),
+                bTreeAddress, localHeapAddress);
+    }
+}
@@ -0,0 +1,143 @@
+package org.magicdgs.hdf5j.fileformat.level1;
+
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.DecodingUtils;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <b>Local Heap</b> (Level 1D), which stores the names of the members of a group with symbol
+ * table.
+ *
+ * <p>The data segment is read once and the null-terminated strings are decoded from it by offset.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class LocalHeap {
+
+    /** Signature for the local heap ("HEAP"). */
+    public static final byte[] SIGNATURE = "HEAP".getBytes(StandardCharsets.US_ASCII);
+
+    // signature + version + reserved
+    private static final int FIXED_HEADER_SIZE = SIGNATURE.length + 4;
+
+    private final long address;
+    private final long dataSegmentAddress;
+    private final ByteBuffer dataSegment;
+
+    private LocalHeap(final long address, final long dataSegmentAddress,
+            final ByteBuffer dataSegment) {
+        this.address = address;
+        this.dataSegmentAddress = dataSegmentAddress;
+        this.dataSegment = dataSegment;
+    }
+
+    /**
+     * Reads the heap at the provided address, including its data segment.
+     *
+     * @param reader  reader for the file.
+     * @param address address of the heap (relative to the base address).
+     *
+     * @return the local heap.
+     *
+     * @throws HDF5jException if the heap is malformed.
+     * @throws IOException    if an IO error occurs.
+     */
+    public static LocalHeap read(final HDF5FileReader reader, final long address)
+            throws IOException {
+        Preconditions.checkArgument(reader != null, "null reader");
+        final int sizeOfLengths = reader.getSuperblock().getSizeOfLengths();
+        final int sizeOfOffsets = reader.getAddressManager().getAddressSize();
+        final ByteBuffer header = reader.readMetadata(address,
+                FIXED_HEADER_SIZE + 2 * sizeOfLengths + sizeOfOffsets);
+        DecodingUtils.checkSignature(header, SIGNATURE, "local heap", address);
+        final int version = Byte.toUnsignedInt(header.get(SIGNATURE.length));
+        if (version != 0) {
+            throw new HDF5jException(String.format(
+                    "Unsupported local heap version at %s: %s", address, version));
+        }
+        header.position(FIXED_HEADER_SIZE);
+        final long dataSegmentSize = reader.decodeLength(header);
+        // skip the offset to the head of the free-list
+        header.position(header.position() + sizeOfLengths);
+        final long dataSegmentAddress = reader.getAddressManager().decodePosition(header);
+        if (dataSegmentSize > Integer.MAX_VALUE) {
+            throw new HDF5jException(String.format(
+                    "Local heap at %s too large: %s bytes", address, dataSegmentSize));
+        }
+        final ByteBuffer dataSegment = (dataSegmentSize == 0) ? ByteBuffer.allocate(0)
+                : reader.readMetadata(dataSegmentAddress, (int) dataSegmentSize);
+        return new LocalHeap(address, dataSegmentAddress, dataSegment);
+    }
+
+    /**
+     * Gets the address of this heap.
+     *
+     * @return the address (relative to the base address).
+     */
+    public long getAddress() {
+        return address;
+    }
+
+    /**
+     * Gets the address of the data segment.
+     *
+     * @return the address (relative to the base address).
+     */
+    public long getDataSegmentAddress() {
+        return dataSegmentAddress;
+    }
+
+    /**
+     * Gets the size of the data segment.
+     *
+     * @return size in bytes.
+     */
+    public int getDataSegmentSize() {
+        return dataSegment.remaining();
+    }
+
+    /**
+     * Gets the null-terminated string at the provided offset of the data segment.
+     *
+     * @param offset byte offset into the data segment.
+     *
+     * @return the decoded (UTF-8) string.
+     *
+     * @throws HDF5jException if the offset is out of bounds or the string is not terminated.
+     */
+    public String getString(final long offset) {
+        final int start = dataSegment.position();
+        final int limit = dataSegment.limit();
+        if (offset < 0 || offset >= limit - start) {
+            throw new HDF5jException(String.format(
+                    "Offset %s out of bounds for local heap at %s", offset, address));
+        }
+        final int first = start + (int) offset;
+        int end = first;
+        while (end < limit && dataSegment.get(end) != 0) {
+            end++;
+        }
+        if (end == limit) {
+            throw new HDF5jException(String.format(
+                    "Unterminated string at offset %s of local heap at %s", offset, address));
+        }
+        final byte[] bytes = new byte[end - first];
+        final ByteBuffer view = dataSegment.duplicate();
+        view.position(first);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[address=%s, dataSegment=%s, size=%s]",
+                this.getClass().getSimpleName(), address, dataSegmentAddress,
+                getDataSegmentSize());
+    }
+}
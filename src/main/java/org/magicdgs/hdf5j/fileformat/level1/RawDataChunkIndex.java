@@ -0,0 +1,94 @@
+package org.magicdgs.hdf5j.fileformat.level1;
+
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Index of the chunks of a dataset with chunked layout, stored as a version 1 B-tree with nodes
+ * of type {@link BTreeV1Node#RAW_DATA_CHUNK_NODE_TYPE}.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class RawDataChunkIndex {
+
+    private final HDF5FileReader reader;
+    private final long rootAddress;
+    private final int rank;
+    private final int keySize;
+    private final int k;
+
+    /**
+     * Constructor for the index.
+     *
+     * @param reader      reader for the file.
+     * @param rootAddress address of the root node of the B-tree.
+     * @param rank        number of dimensions of the dataset.
+     */
+    public RawDataChunkIndex(final HDF5FileReader reader, final long rootAddress,
+            final int rank) {
+        Preconditions.checkArgument(reader != null, "null reader");
+        Preconditions.checkArgument(rootAddress >= 0, "undefined root address");
+        Preconditions.checkArgument(rank > 0, "non-positive rank: %s", rank);
+        this.reader = reader;
+        this.rootAddress = rootAddress;
+        this.rank = rank;
+        this.keySize = ChunkEntry.keySize(rank);
+        this.k = reader.getIndexedStorageInternalNodeK();
+    }
+
+    /**
+     * Gets the number of dimensions of the dataset.
+     *
+     * @return the rank.
+     */
+    public int getRank() {
+        return rank;
+    }
+
+    /**
+     * Collects all the chunks of the dataset, sorted by their offset in the dataset.
+     *
+     * @return list of chunks.
+     *
+     * @throws HDF5jException if the tree is malformed.
+     * @throws IOException    if an IO error occurs.
+     */
+    public List<ChunkEntry> getChunks() throws IOException {
+        final List<ChunkEntry> chunks = new ArrayList<>();
+        collect(rootAddress, -1, chunks);
+        return chunks;
+    }
+
+    // depth-first traversal keeps the order of the keys
+    private void collect(final long address, final int expectedLevel,
+            final List<ChunkEntry> chunks) throws IOException {
+        final BTreeV1Node node = BTreeV1Node.read(reader, address, keySize,
+                BTreeV1Node.RAW_DATA_CHUNK_NODE_TYPE, k);
+        final int level = node.getNodeLevel();
+        if (expectedLevel != -1 && level != expectedLevel) {
+            throw new HDF5jException(String.format(
+                    "B-tree node at %s has level %s (expected %s)", address, level,
+                    expectedLevel));
+        }
+        for (int i = 0; i < node.getEntriesUsed(); i++) {
+            final long child = node.getChildAddress(i);
+            if (level == 0) {
+                chunks.add(ChunkEntry.decode(node.getKey(i), rank, child));
+            } else {
+                collect(child, level - 1, chunks);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[root=%s, rank=%s, K=%s]",
+                this.getClass().getSimpleName(), rootAddress, rank, k);
+    }
+}
@@ -0,0 +1,176 @@
+package org.magicdgs.hdf5j.fileformat.level1;
+
+import org.magicdgs.hdf5j.fileformat.address.FileAddressManager;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <b>Symbol Table Entry</b> (Level 1C), which links a name in the local heap of a group to the
+ * object header of a member.
+ *
+ * <p>If the member is a group, the entry might cache the address of its B-tree and local heap in
+ * the scratch-pad space ({@link #CACHED_SYMBOL_TABLE}), so the object header does not need to be
+ * read to traverse the group.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class SymbolTableEntry {
+
+    /** Cache type for entries without cached data in the scratch-pad. */
+    public static final int NO_CACHE = 0;
+
+    /** Cache type for groups with the symbol table addresses in the scratch-pad. */
+    public static final int CACHED_SYMBOL_TABLE = 1;
+
+    /** Cache type for symbolic links with the link value offset in the scratch-pad. */
+    public static final int CACHED_SYMBOLIC_LINK = 2;
+
+    // cache type (4 bytes), reserved (4 bytes) and scratch-pad (16 bytes)
+    private static final int FIXED_SIZE = 24;
+
+    private final long linkNameOffset;
+    private final long objectHeaderAddress;
+    private final int cacheType;
+    private final long bTreeAddress;
+    private final long localHeapAddress;
+
+    private SymbolTableEntry(final long linkNameOffset, final long objectHeaderAddress,
+            final int cacheType, final long bTreeAddress, final long localHeapAddress) {
+        this.linkNameOffset = linkNameOffset;
+        this.objectHeaderAddress = objectHeaderAddress;
+        this.cacheType = cacheType;
+        this.bTreeAddress = bTreeAddress;
+        this.localHeapAddress = localHeapAddress;
+    }
+
+    /**
+     * Decodes the entry at the provided index of the buffer, without modifying its position.
+     *
+     * @param buffer         little-endian buffer containing the entry.
+     * @param index          index of the first byte of the entry.
+     * @param addressManager address manager for the size of offsets of the file.
+     *
+     * @return the decoded entry.
+     */
+    public static SymbolTableEntry decode(final ByteBuffer buffer, final int index,
+            final FileAddressManager addressManager) {
+        Preconditions.checkArgument(buffer != null, "null buffer");
+        Preconditions.checkArgument(addressManager != null, "null address manager");
+        final int sizeOfOffsets = addressManager.getAddressSize();
+        final long linkNameOffset = addressManager.decodePosition(buffer, index);
+        final long objectHeaderAddress =
+                addressManager.decodePosition(buffer, index + sizeOfOffsets);
+        final int cacheTypeIndex = index + 2 * sizeOfOffsets;
+        final int cacheType = buffer.getInt(cacheTypeIndex);
+        long bTreeAddress = -1;
+        long localHeapAddress = -1;
+        if (cacheType == CACHED_SYMBOL_TABLE) {
+            // scratch-pad after cache type and reserved
+            final int scratchPad = cacheTypeIndex + 2 * Integer.BYTES;
+            bTreeAddress = addressManager.decodePosition(buffer, scratchPad);
+            localHeapAddress = addressManager.decodePosition(buffer, scratchPad + sizeOfOffsets);
+        }
+        return new SymbolTableEntry(linkNameOffset, objectHeaderAddress, cacheType, bTreeAddress,
+                localHeapAddress);
+    }
+
+    /**
+     * Gets the size of an entry.
+     *
+     * @param sizeOfOffsets size of offsets of the file.
+     *
+     * @return size of the entry in bytes.
+     */
+    public static int size(final int sizeOfOffsets) {
+        return 2 * sizeOfOffsets + FIXED_SIZE;
+    }
+
+    /**
+     * Gets the offset of the name in the local heap of the group.
+     *
+     * @return byte offset into the data segment of the local heap.
+     */
+    public long getLinkNameOffset() {
+        return linkNameOffset;
+    }
+
+    /**
+     * Gets the address of the object header of the member.
+     *
+     * @return address (relative to the base address).
+     */
+    public long getObjectHeaderAddress() {
+        return objectHeaderAddress;
+    }
+
+    /**
+     * Gets the type of the data cached in the scratch-pad.
+     *
+     * @return {@link #NO_CACHE}, {@link #CACHED_SYMBOL_TABLE} or {@link #CACHED_SYMBOLIC_LINK}.
+     */
+    public int getCacheType() {
+        return cacheType;
+    }
+
+    /**
+     * Returns {@code true} if the symbol table of the member is cached in the entry.
+     *
+     * @return {@code true} if the B-tree and local heap addresses are available;
+     * {@code false} otherwise.
+     */
+    public boolean hasCachedSymbolTable() {
+        return cacheType == CACHED_SYMBOL_TABLE;
+    }
+
+    /**
+     * Gets the cached address of the B-tree of the member group.
+     *
+     * @return address (relative to the base address); {@code -1} if not cached.
+     */
+    public long getBTreeAddress() {
+        return bTreeAddress;
+    }
+
+    /**
+     * Gets the cached address of the local heap of the member group.
+     *
+     * @return address (relative to the base address); {@code -1} if not cached.
+     */
+    public long getLocalHeapAddress() {
+        return localHeapAddress;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SymbolTableEntry)) {
+            return false;
+        }
+        final SymbolTableEntry other = (SymbolTableEntry) o;
+        return linkNameOffset == other.linkNameOffset
+                && objectHeaderAddress == other.objectHeaderAddress
+                && cacheType == other.cacheType && bTreeAddress == other.bTreeAddress
+                && localHeapAddress == other.localHeapAddress;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Long.hashCode(linkNameOffset);
+        result = 31 * result + Long.hashCode(objectHeaderAddress);
+        result = 31 * result + cacheType;
+        result = 31 * result + Long.hashCode(bTreeAddress);
+        result = 31 * result + Long.hashCode(localHeapAddress);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[name=%s, header=%s, cache=%s, btree=%s, heap=%s]",
+                this.getClass().getSimpleName(), linkNameOffset, objectHeaderAddress, cacheType,
+                bTreeAddress, localHeapAddress);
+    }
+}
@@ -0,0 +1,111 @@
+package org.magicdgs.hdf5j.fileformat.level1;
+
+import org.magicdgs.hdf5j.fileformat.address.FileAddressManager;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.DecodingUtils;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <b>Group Symbol Table Node</b> (Level 1B), which is pointed to by the leaf nodes of the group
+ * B-tree and contains up to {@code 2K} symbol table entries.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class SymbolTableNode {
+
+    /** Signature for the symbol table nodes ("SNOD"). */
+    public static final byte[] SIGNATURE = "SNOD".getBytes(StandardCharsets.US_ASCII);
+
+    // signature + version + reserved + number of symbols
+    private static final int HEADER_SIZE = SIGNATURE.length + 4;
+
+    private final long address;
+    private final ByteBuffer buffer;
+    private final FileAddressManager addressManager;
+    private final int entrySize;
+
+    private SymbolTableNode(final long address, final ByteBuffer buffer,
+            final FileAddressManager addressManager) {
+        this.address = address;
+        this.buffer = buffer;
+        this.addressManager = addressManager;
+        this.entrySize = SymbolTableEntry.size(addressManager.getAddressSize());
+    }
+
+    /**
+     * Reads the node at the provided address.
+     *
+     * @param reader  reader for the file.
+     * @param address address of the node (relative to the base address).
+     * @param leafK   maximum number of entries is {@code 2K}.
+     *
+     * @return the decoded node.
+     *
+     * @throws HDF5jException if the node is malformed.
+     * @throws IOException    if an IO error occurs.
+     */
+    public static SymbolTableNode read(final HDF5FileReader reader, final long address,
+            final int leafK) throws IOException {
+        Preconditions.checkArgument(reader != null, "null reader");
+        Preconditions.checkArgument(leafK > 0, "non-positive K: %s", leafK);
+        final ByteBuffer header = reader.readMetadata(address, HEADER_SIZE);
+        DecodingUtils.checkSignature(header, SIGNATURE, "symbol table node", address);
+        final int version = Byte.toUnsignedInt(header.get(SIGNATURE.length));
+        if (version != 1) {
+            throw new HDF5jException(String.format(
+                    "Unsupported symbol table node version at %s: %s", address, version));
+        }
+        final int symbols = Short.toUnsignedInt(header.getShort(SIGNATURE.length + 2));
+        if (symbols > 2 * leafK) {
+            throw new HDF5jException(String.format(
+                    "Symbol table node at %s has %s entries (maximum for K=%s is %s)",
+                    address, symbols, leafK, 2 * leafK));
+        }
+        final FileAddressManager addressManager = reader.getAddressManager();
+        final int size = HEADER_SIZE
+                + symbols * SymbolTableEntry.size(addressManager.getAddressSize());
+        return new SymbolTableNode(address, reader.readMetadata(address, size), addressManager);
+    }
+
+    /**
+     * Gets the address of this node.
+     *
+     * @return the address (relative to the base address).
+     */
+    public long getAddress() {
+        return address;
+    }
+
+    /**
+     * Gets the number of entries in this node.
+     *
+     * @return number of symbols.
+     */
+    public int getNumberOfSymbols() {
+        return Short.toUnsignedInt(buffer.getShort(SIGNATURE.length + 2));
+    }
+
+    /**
+     * Gets the entry at the provided index. Entries are sorted by name.
+     *
+     * @param index index of the entry.
+     *
+     * @return the decoded entry.
+     */
+    public SymbolTableEntry getEntry(final int index) {
+        Preconditions.checkElementIndex(index, getNumberOfSymbols());
+        return SymbolTableEntry.decode(buffer, HEADER_SIZE + index * entrySize, addressManager);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[address=%s, symbols=%s]", this.getClass().getSimpleName(),
+                address, getNumberOfSymbols());
+    }
+}
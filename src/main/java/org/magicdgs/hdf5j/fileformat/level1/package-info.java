@@ -0,0 +1,6 @@
+/**
+ * Disk Format: Level 1 - File Infrastructure.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+package org.magicdgs.hdf5j.fileformat.level1;
@@ -0,0 +1,158 @@
+package org.magicdgs.hdf5j.fileformat.level2;
+
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <b>Attribute Message</b> ({@link HeaderMessage#ATTRIBUTE}), which stores an attribute of an
+ * object with its datatype, dataspace and raw data.
+ *
+ * <p>Attributes with shared datatype or dataspace are not supported.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class AttributeMessage {
+
+    // flags (version 2 and 3)
+    private static final int SHARED_DATATYPE = 0x01;
+    private static final int SHARED_DATASPACE = 0x02;
+
+    private final String name;
+    private final DatatypeMessage datatype;
+    private final DataspaceMessage dataspace;
+    private final ByteBuffer data;
+
+    private AttributeMessage(final String name, final DatatypeMessage datatype,
+            final DataspaceMessage dataspace, final ByteBuffer data) {
+        this.name = name;
+        this.datatype = datatype;
+        this.dataspace = dataspace;
+        this.data = data;
+    }
+
+    /**
+     * Decodes the message.
+     *
+     * @param message attribute message.
+     * @param reader  reader for the file, for the size of lengths.
+     *
+     * @return the decoded message.
+     *
+     * @throws HDF5jException if the message is malformed or not supported.
+     */
+    public static AttributeMessage decode(final HeaderMessage message,
+            final HDF5FileReader reader) {
+        Preconditions.checkArgument(message != null, "null message");
+        Preconditions.checkArgument(message.getType() == HeaderMessage.ATTRIBUTE,
+                "not an attribute message: %s", message);
+        Preconditions.checkArgument(reader != null, "null reader");
+        try {
+            return decode(message.getData(), reader);
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new HDF5jException("Attribute message too short: " + message, e);
+        }
+    }
+
+    private static AttributeMessage decode(final ByteBuffer data, final HDF5FileReader reader) {
+        final int version = Byte.toUnsignedInt(data.get());
+        if (version < 1 || version > 3) {
+            throw new HDF5jException("Unsupported attribute message version: " + version);
+        }
+        final int flags = Byte.toUnsignedInt(data.get());
+        if (version > 1 && (flags & (SHARED_DATATYPE | SHARED_DATASPACE)) != 0) {
+            throw new HDF5jException("Attributes with shared datatype or dataspace not supported");
+        }
+        final int nameSize = Short.toUnsignedInt(data.getShort());
+        final int datatypeSize = Short.toUnsignedInt(data.getShort());
+        final int dataspaceSize = Short.toUnsignedInt(data.getShort());
+        if (version == 3) {
+            // character set encoding of the name (ASCII is a subset of UTF-8)
+            data.get();
+        }
+        // version 1 pads each field to a multiple of 8 bytes
+        final boolean padded = version == 1;
+        final int start = data.position();
+        final byte[] nameBytes = new byte[Math.max(0, nameSize - 1)];
+        data.get(nameBytes);
+        final String name = new String(nameBytes, StandardCharsets.UTF_8);
+        data.position(start + padded(nameSize, padded));
+        final DatatypeMessage datatype = DatatypeMessage.decode(field(data, datatypeSize));
+        data.position(data.position() + padded(datatypeSize, padded));
+        final DataspaceMessage dataspace = DataspaceMessage.decode(field(data, dataspaceSize),
+                reader);
+        data.position(data.position() + padded(dataspaceSize, padded));
+        final long dataSize = Math.multiplyExact(dataspace.getNumberOfElements(),
+                datatype.getSize());
+        if (dataSize > data.remaining()) {
+            throw new HDF5jException(String.format(
+                    "Attribute %s data too short: %s bytes (expected %s)", name, data.remaining(),
+                    dataSize));
+        }
+        data.limit(data.position() + (int) dataSize);
+        return new AttributeMessage(name, datatype, dataspace,
+                data.slice().asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    // little-endian view of the next field, without modifying the buffer
+    private static ByteBuffer field(final ByteBuffer data, final int size) {
+        if (size > data.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        final ByteBuffer field = data.duplicate();
+        field.limit(field.position() + size);
+        return field.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int padded(final int size, final boolean padded) {
+        return (padded) ? (size + 7) & ~7 : size;
+    }
+
+    /**
+     * Gets the name of the attribute.
+     *
+     * @return the name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the datatype of the attribute.
+     *
+     * @return the datatype.
+     */
+    public DatatypeMessage getDatatype() {
+        return datatype;
+    }
+
+    /**
+     * Gets the dataspace of the attribute.
+     *
+     * @return the dataspace.
+     */
+    public DataspaceMessage getDataspace() {
+        return dataspace;
+    }
+
+    /**
+     * Gets the raw data of the attribute (elements encoded with its datatype).
+     *
+     * @return read-only little-endian buffer with the data.
+     */
+    public ByteBuffer getData() {
+        return data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s, %s, %s]", this.getClass().getSimpleName(), name, datatype,
+                dataspace);
+    }
+}
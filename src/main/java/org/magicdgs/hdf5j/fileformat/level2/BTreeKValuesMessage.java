@@ -0,0 +1,96 @@
+package org.magicdgs.hdf5j.fileformat.level2;
+
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <b>B-tree 'K' Values Message</b> ({@link HeaderMessage#BTREE_K_VALUES}), which is present in
+ * the superblock extension of files with version 2+ of the superblock and stores the values of K
+ * that were kept in the superblock by previous versions.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class BTreeKValuesMessage {
+
+    // version, indexed storage internal node K, group internal node K and group leaf node K
+    private static final int SIZE = 7;
+
+    private final int indexedStorageInternalNodeK;
+    private final int groupInternalNodeK;
+    private final int groupLeafNodeK;
+
+    private BTreeKValuesMessage(final int indexedStorageInternalNodeK,
+            final int groupInternalNodeK, final int groupLeafNodeK) {
+        this.indexedStorageInternalNodeK = indexedStorageInternalNodeK;
+        this.groupInternalNodeK = groupInternalNodeK;
+        this.groupLeafNodeK = groupLeafNodeK;
+    }
+
+    /**
+     * Decodes the message.
+     *
+     * @param message B-tree 'K' values message.
+     *
+     * @return the decoded message.
+     *
+     * @throws HDF5jException if the message is malformed or its version is not supported.
+     */
+    public static BTreeKValuesMessage decode(final HeaderMessage message) {
+        Preconditions.checkArgument(message != null, "null message");
+        Preconditions.checkArgument(message.getType() == HeaderMessage.BTREE_K_VALUES,
+                "not a B-tree 'K' values message: %s", message);
+        if (message.getSize() < SIZE) {
+            throw new HDF5jException("B-tree 'K' values message too short: " + message);
+        }
+        final ByteBuffer data = message.getData();
+        final int version = Byte.toUnsignedInt(data.get(0));
+        if (version != 0) {
+            throw new HDF5jException("Unsupported B-tree 'K' values message version: " + version);
+        }
+        final int indexedStorageInternalNodeK = Short.toUnsignedInt(data.getShort(1));
+        final int groupInternalNodeK = Short.toUnsignedInt(data.getShort(3));
+        final int groupLeafNodeK = Short.toUnsignedInt(data.getShort(5));
+        if (indexedStorageInternalNodeK == 0 || groupInternalNodeK == 0 || groupLeafNodeK == 0) {
+            throw new HDF5jException("Invalid K in B-tree 'K' values message: " + message);
+        }
+        return new BTreeKValuesMessage(indexedStorageInternalNodeK, groupInternalNodeK,
+                groupLeafNodeK);
+    }
+
+    /**
+     * Gets the <b>Indexed Storage Internal Node K</b>.
+     *
+     * @return value of K for the chunked storage B-trees.
+     */
+    public int getIndexedStorageInternalNodeK() {
+        return indexedStorageInternalNodeK;
+    }
+
+    /**
+     * Gets the <b>Group Internal Node K</b>.
+     *
+     * @return value of K for the group B-trees.
+     */
+    public int getGroupInternalNodeK() {
+        return groupInternalNodeK;
+    }
+
+    /**
+     * Gets the <b>Group Leaf Node K</b>.
+     *
+     * @return value of K for the symbol table nodes.
+     */
+    public int getGroupLeafNodeK() {
+        return groupLeafNodeK;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[indexed=%s, internal=%s, leaf=%s]",
+                this.getClass().getSimpleName(), indexedStorageInternalNodeK, groupInternalNodeK,
+                groupLeafNodeK);
+    }
+}
@@ -0,0 +1,188 @@
+package org.magicdgs.hdf5j.fileformat.level2;
+
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * <b>Dataspace Message</b> ({@link HeaderMessage#DATASPACE}), which describes the dimensions of a
+ * dataset or attribute.
+ *
+ * <p>Scalar dataspaces have no dimensions and a single element; null dataspaces have no
+ * dimensions and no elements.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class DataspaceMessage {
+
+    // flags
+    private static final int MAXIMUM_DIMENSIONS_PRESENT = 0x01;
+    private static final int PERMUTATION_PRESENT = 0x02;
+
+    // dataspace types (version 2)
+    private static final int SCALAR = 0;
+    private static final int SIMPLE = 1;
+    private static final int NULL = 2;
+
+    private final long[] dimensions;
+    private final long[] maximumDimensions;
+    private final boolean isNull;
+
+    private DataspaceMessage(final long[] dimensions, final long[] maximumDimensions,
+            final boolean isNull) {
+        this.dimensions = dimensions;
+        this.maximumDimensions = maximumDimensions;
+        this.isNull = isNull;
+    }
+
+    /**
+     * Decodes the message.
+     *
+     * @param message dataspace message.
+     * @param reader  reader for the file, for the size of lengths.
+     *
+     * @return the decoded message.
+     *
+     * @throws HDF5jException if the message is malformed.
+     */
+    public static DataspaceMessage decode(final HeaderMessage message,
+            final HDF5FileReader reader) {
+        Preconditions.checkArgument(message != null, "null message");
+        Preconditions.checkArgument(message.getType() == HeaderMessage.DATASPACE,
+                "not a dataspace message: %s", message);
+        try {
+            return decode(message.getData(), reader);
+        } catch (final BufferUnderflowException e) {
+            throw new HDF5jException("Dataspace message too short: " + message, e);
+        }
+    }
+
+    /**
+     * Decodes a dataspace from the current position of the buffer, which is advanced to the end
+     * of the dataspace (e.g., for dataspaces nested in attribute messages).
+     *
+     * @param buffer little-endian buffer.
+     * @param reader reader for the file, for the size of lengths.
+     *
+     * @return the decoded dataspace.
+     *
+     * @throws HDF5jException           if the dataspace is malformed or not supported.
+     * @throws BufferUnderflowException if the buffer is too short.
+     */
+    public static DataspaceMessage decode(final ByteBuffer buffer, final HDF5FileReader reader) {
+        Preconditions.checkArgument(buffer != null, "null buffer");
+        Preconditions.checkArgument(reader != null, "null reader");
+        final int version = Byte.toUnsignedInt(buffer.get());
+        final int rank = Byte.toUnsignedInt(buffer.get());
+        final int flags = Byte.toUnsignedInt(buffer.get());
+        final boolean isNull;
+        if (version == 1) {
+            // reserved (5)
+            if (buffer.remaining() < 5) {
+                throw new BufferUnderflowException();
+            }
+            buffer.position(buffer.position() + 5);
+            isNull = false;
+        } else if (version == 2) {
+            final int type = Byte.toUnsignedInt(buffer.get());
+            if (type != SCALAR && type != SIMPLE && type != NULL) {
+                throw new HDF5jException("Unknown dataspace type: " + type);
+            }
+            isNull = type == NULL;
+        } else {
+            throw new HDF5jException("Unsupported dataspace version: " + version);
+        }
+        final long[] dimensions = new long[rank];
+        for (int i = 0; i < rank; i++) {
+            dimensions[i] = reader.decodeLength(buffer);
+        }
+        final long[] maximumDimensions = new long[rank];
+        if ((flags & MAXIMUM_DIMENSIONS_PRESENT) != 0) {
+            for (int i = 0; i < rank; i++) {
+                // unlimited dimensions are encoded with all bits set
+                final int start = buffer.position();
+                final boolean unlimited = allBitsSet(buffer, start,
+                        reader.getSuperblock().getSizeOfLengths());
+                maximumDimensions[i] = (unlimited) ? -1 : reader.decodeLength(buffer);
+                if (unlimited) {
+                    buffer.position(start + reader.getSuperblock().getSizeOfLengths());
+                }
+            }
+        } else {
+            System.arraycopy(dimensions, 0, maximumDimensions, 0, rank);
+        }
+        if (version == 1 && (flags & PERMUTATION_PRESENT) != 0) {
+            for (int i = 0; i < rank; i++) {
+                reader.decodeLength(buffer);
+            }
+        }
+        return new DataspaceMessage(dimensions, maximumDimensions, isNull);
+    }
+
+    private static boolean allBitsSet(final ByteBuffer buffer, final int start,
+            final int length) {
+        if (buffer.limit() - start < length) {
+            throw new BufferUnderflowException();
+        }
+        for (int i = start; i < start + length; i++) {
+            if (buffer.get(i) != (byte) 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of dimensions.
+     *
+     * @return the rank ({@code 0} for scalar and null dataspaces).
+     */
+    public int getRank() {
+        return dimensions.length;
+    }
+
+    /**
+     * Gets the current size of the dataspace.
+     *
+     * @return size in each dimension (in elements).
+     */
+    public long[] getDimensions() {
+        return dimensions.clone();
+    }
+
+    /**
+     * Gets the maximum size of the dataspace.
+     *
+     * @return maximum size in each dimension (in elements); {@code -1} for unlimited dimensions.
+     */
+    public long[] getMaximumDimensions() {
+        return maximumDimensions.clone();
+    }
+
+    /**
+     * Gets the number of elements in the dataspace.
+     *
+     * @return the number of elements.
+     */
+    public long getNumberOfElements() {
+        if (isNull) {
+            return 0;
+        }
+        long elements = 1;
+        for (final long dimension : dimensions) {
+            elements = Math.multiplyExact(elements, dimension);
+        }
+        return elements;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s]", this.getClass().getSimpleName(),
+                (isNull) ? "null" : Arrays.toString(dimensions));
+    }
+}
@@ -0,0 +1,444 @@
+package org.magicdgs.hdf5j.fileformat.level2;
+
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <b>Datatype Message</b> ({@link HeaderMessage#DATATYPE}), which describes the elements of a
+ * dataset or attribute.
+ *
+ * <p>All the classes are decoded to the extent of their size, byte order and nested types:
+ * members of compound types, and base types of enumerated, variable-length and array types. Other
+ * properties (e.g., floating-point bit fields or enumeration names) are skipped.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class DatatypeMessage {
+
+    /** Fixed-point (integer) class. */
+    public static final int FIXED_POINT = 0;
+    /** Floating-point class. */
+    public static final int FLOATING_POINT = 1;
+    /** Time class. */
+    public static final int TIME = 2;
+    /** Fixed-length string class. */
+    public static final int STRING = 3;
+    /** Bit field class. */
+    public static final int BITFIELD = 4;
+    /** Opaque class. */
+    public static final int OPAQUE = 5;
+    /** Compound class. */
+    public static final int COMPOUND = 6;
+    /** Reference class. */
+    public static final int REFERENCE = 7;
+    /** Enumerated class. */
+    public static final int ENUMERATED = 8;
+    /** Variable-length class (sequences and strings). */
+    public static final int VARIABLE_LENGTH = 9;
+    /** Array class. */
+    public static final int ARRAY = 10;
+
+    // class and version (1), class bit field (3) and size (4)
+    private static final int HEADER_SIZE = 8;
+    // bit 0 of the class bit field for fixed-point, floating-point, time and bit field classes
+    private static final int BIG_ENDIAN = 0x01;
+    // bit 3 of the class bit field for fixed-point class
+    private static final int SIGNED = 0x08;
+    // bits 0-3 of the class bit field for variable-length class
+    private static final int VARIABLE_LENGTH_TYPE_MASK = 0x0F;
+    private static final int VARIABLE_LENGTH_STRING = 1;
+    // bit 4 of the class bit field for string class and bit 8 for variable-length strings (the
+    // next 3 bits are reserved)
+    private static final int STRING_UTF8 = 0x10;
+    private static final int VARIABLE_LENGTH_STRING_UTF8 = 0x100;
+
+    private final int typeClass;
+    private final int version;
+    private final int classBitField;
+    private final int size;
+    private final List<Member> members;
+    private final DatatypeMessage baseType;
+    private final int[] arrayDimensions;
+
+    private DatatypeMessage(final int typeClass, final int version, final int classBitField,
+            final int size, final List<Member> members, final DatatypeMessage baseType,
+            final int[] arrayDimensions) {
+        this.typeClass = typeClass;
+        this.version = version;
+        this.classBitField = classBitField;
+        this.size = size;
+        this.members = Collections.unmodifiableList(members);
+        this.baseType = baseType;
+        this.arrayDimensions = arrayDimensions;
+    }
+
+    /**
+     * Member of a compound datatype.
+     */
+    public static final class Member {
+        private final String name;
+        private final int offset;
+        private final DatatypeMessage type;
+
+        private Member(final String name, final int offset, final DatatypeMessage type) {
+            this.name = name;
+            this.offset = offset;
+            this.type = type;
+        }
+
+        /**
+         * Gets the name of the member.
+         *
+         * @return the name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the byte offset of the member in the compound element.
+         *
+         * @return the offset.
+         */
+        public int getOffset() {
+            return offset;
+        }
+
+        /**
+         * Gets the datatype of the member.
+         *
+         * @return the datatype.
+         */
+        public DatatypeMessage getType() {
+            return type;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s[%s, offset=%s, %s]", this.getClass().getSimpleName(), name,
+                    offset, type);
+        }
+    }
+
+    /**
+     * Decodes the message.
+     *
+     * @param message datatype message.
+     *
+     * @return the decoded message.
+     *
+     * @throws HDF5jException if the message is malformed or the datatype is not supported.
+     */
+    public static DatatypeMessage decode(final HeaderMessage message) {
+        Preconditions.checkArgument(message != null, "null message");
+        Preconditions.checkArgument(message.getType() == HeaderMessage.DATATYPE,
+                "not a datatype message: %s", message);
+        try {
+            return decode(message.getData());
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new HDF5jException("Datatype message too short: " + message, e);
+        }
+    }
+
+    /**
+     * Decodes a datatype from the current position of the buffer, which is advanced to the end of
+     * the datatype (e.g., for datatypes nested in other structures).
+     *
+     * @param buffer little-endian buffer.
+     *
+     * @return the decoded datatype.
+     *
+     * @throws HDF5jException           if the datatype is malformed or not supported.
+     * @throws BufferUnderflowException if the buffer is too short.
+     */
+    public static DatatypeMessage decode(final ByteBuffer buffer) {
+        Preconditions.checkArgument(buffer != null, "null buffer");
+        Preconditions.checkArgument(buffer.order() == ByteOrder.LITTLE_ENDIAN,
+                "buffer should be little-endian");
+        final int classAndVersion = Byte.toUnsignedInt(buffer.get());
+        final int typeClass = classAndVersion & 0x0F;
+        final int version = classAndVersion >>> 4;
+        if (version < 1 || version > 3) {
+            throw new HDF5jException("Unsupported datatype version: " + version);
+        }
+        final int classBitField = Byte.toUnsignedInt(buffer.get())
+                | Byte.toUnsignedInt(buffer.get()) << 8 | Byte.toUnsignedInt(buffer.get()) << 16;
+        final int size = buffer.getInt();
+        if (size < 0) {
+            throw new HDF5jException("Datatype too large: " + Integer.toUnsignedString(size));
+        }
+        List<Member> members = Collections.emptyList();
+        DatatypeMessage baseType = null;
+        int[] arrayDimensions = null;
+        switch (typeClass) {
+            case FIXED_POINT:
+            case BITFIELD:
+                // bit offset (2) and precision (2)
+                skip(buffer, 4);
+                break;
+            case FLOATING_POINT:
+                // bit offset (2), precision (2), exponent and mantissa location and size (1 each)
+                // and exponent bias (4)
+                skip(buffer, 12);
+                break;
+            case TIME:
+                // bit precision (2)
+                skip(buffer, 2);
+                break;
+            case STRING:
+            case REFERENCE:
+                break;
+            case OPAQUE:
+                // tag, padded to a multiple of 8 bytes
+                skip(buffer, classBitField & 0xFF);
+                break;
+            case COMPOUND:
+                members = decodeMembers(buffer, version, classBitField & 0xFFFF, size);
+                break;
+            case ENUMERATED:
+                baseType = decode(buffer);
+                final int numberOfNames = classBitField & 0xFFFF;
+                for (int i = 0; i < numberOfNames; i++) {
+                    decodeName(buffer, version < 3);
+                }
+                skip(buffer, numberOfNames * baseType.size);
+                break;
+            case VARIABLE_LENGTH:
+                baseType = decode(buffer);
+                break;
+            case ARRAY:
+                final int rank = Byte.toUnsignedInt(buffer.get());
+                if (version < 3) {
+                    skip(buffer, 3);
+                }
+                arrayDimensions = new int[rank];
+                for (int i = 0; i < rank; i++) {
+                    arrayDimensions[i] = buffer.getInt();
+                }
+                if (version < 3) {
+                    // permutation indexes (unused)
+                    skip(buffer, 4 * rank);
+                }
+                baseType = decode(buffer);
+                break;
+            default:
+                throw new HDF5jException("Unsupported datatype class: " + typeClass);
+        }
+        return new DatatypeMessage(typeClass, version, classBitField, size, members, baseType,
+                arrayDimensions);
+    }
+
+    private static List<Member> decodeMembers(final ByteBuffer buffer, final int version,
+            final int numberOfMembers, final int size) {
+        final List<Member> members = new ArrayList<>(numberOfMembers);
+        // version 3 encodes the offset with the minimum number of bytes for the size
+        final int offsetSize = (size < (1 << 8)) ? 1 : (size < (1 << 16)) ? 2
+                : (size < (1 << 24)) ? 3 : 4;
+        for (int i = 0; i < numberOfMembers; i++) {
+            final String name = decodeName(buffer, version < 3);
+            final int offset;
+            if (version < 3) {
+                offset = buffer.getInt();
+            } else {
+                int value = 0;
+                for (int b = 0; b < offsetSize; b++) {
+                    value |= Byte.toUnsignedInt(buffer.get()) << (Byte.SIZE * b);
+                }
+                offset = value;
+            }
+            if (version == 1) {
+                // dimensionality (1), reserved (3), permutation (4), reserved (4) and size of
+                // 4 dimensions (16)
+                final int rank = Byte.toUnsignedInt(buffer.get());
+                skip(buffer, 27);
+                if (rank != 0) {
+                    throw new HDF5jException(String.format(
+                            "Array members of version 1 compound datatypes not supported: %s",
+                            name));
+                }
+            }
+            final DatatypeMessage type = decode(buffer);
+            if (offset < 0 || (long) offset + type.size > size) {
+                throw new HDF5jException(String.format(
+                        "Compound member %s (offset=%s, size=%s) out of the datatype (size=%s)",
+                        name, offset, type.size, size));
+            }
+            members.add(new Member(name, offset, type));
+        }
+        return members;
+    }
+
+    // null-terminated name, padded to a multiple of 8 bytes (including the terminator) if requested
+    private static String decodeName(final ByteBuffer buffer, final boolean padded) {
+        final int start = buffer.position();
+        int end = start;
+        while (buffer.get(end) != 0) {
+            end++;
+        }
+        final byte[] bytes = new byte[end - start];
+        buffer.get(bytes);
+        final int length = end - start + 1;
+        buffer.position(start + ((padded) ? (length + 7) & ~7 : length));
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void skip(final ByteBuffer buffer, final int bytes) {
+        if (bytes > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        buffer.position(buffer.position() + bytes);
+    }
+
+    /**
+     * Gets the class of the datatype (e.g., {@link #COMPOUND}).
+     *
+     * @return the datatype class.
+     */
+    public int getTypeClass() {
+        return typeClass;
+    }
+
+    /**
+     * Gets the version of the datatype encoding.
+     *
+     * @return the version.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the class bit field, whose meaning depends on the class.
+     *
+     * @return the 24-bit class bit field.
+     */
+    public int getClassBitField() {
+        return classBitField;
+    }
+
+    /**
+     * Gets the size of each element of this datatype.
+     *
+     * @return size in bytes.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the byte order of the elements. Only fixed-point, floating-point, time and bit field
+     * datatypes can be big-endian.
+     *
+     * @return the byte order.
+     */
+    public ByteOrder getByteOrder() {
+        switch (typeClass) {
+            case FIXED_POINT:
+            case FLOATING_POINT:
+            case TIME:
+            case BITFIELD:
+                return ((classBitField & BIG_ENDIAN) != 0)
+                        ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+            default:
+                return ByteOrder.LITTLE_ENDIAN;
+        }
+    }
+
+    /**
+     * Returns {@code true} if this is a signed fixed-point datatype.
+     *
+     * @return {@code true} if signed; {@code false} otherwise.
+     */
+    public boolean isSigned() {
+        return typeClass == FIXED_POINT && (classBitField & SIGNED) != 0;
+    }
+
+    /**
+     * Returns {@code true} if this is a variable-length string datatype.
+     *
+     * @return {@code true} if variable-length string; {@code false} otherwise.
+     */
+    public boolean isVariableLengthString() {
+        return typeClass == VARIABLE_LENGTH
+                && (classBitField & VARIABLE_LENGTH_TYPE_MASK) == VARIABLE_LENGTH_STRING;
+    }
+
+    /**
+     * Gets the character set of fixed-length and variable-length strings.
+     *
+     * @return {@link StandardCharsets#UTF_8} or {@link StandardCharsets#US_ASCII}; {@code null}
+     *     if this is not a string datatype.
+     */
+    public Charset getCharset() {
+        if (typeClass == STRING) {
+            return ((classBitField & STRING_UTF8) != 0)
+                    ? StandardCharsets.UTF_8 : StandardCharsets.US_ASCII;
+        } else if (isVariableLengthString()) {
+            return ((classBitField & VARIABLE_LENGTH_STRING_UTF8) != 0)
+                    ? StandardCharsets.UTF_8 : StandardCharsets.US_ASCII;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the members of a compound datatype.
+     *
+     * @return unmodifiable list of members (empty if this is not a compound datatype).
+     */
+    public List<Member> getMembers() {
+        return members;
+    }
+
+    /**
+     * Gets the member of a compound datatype with the provided name.
+     *
+     * @param name name of the member.
+     *
+     * @return the member; {@code null} if there is no member with the name.
+     */
+    public Member getMember(final String name) {
+        for (final Member member : members) {
+            if (member.name.equals(name)) {
+                return member;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the base datatype of enumerated, variable-length and array datatypes.
+     *
+     * @return the base datatype; {@code null} for other classes.
+     */
+    public DatatypeMessage getBaseType() {
+        return baseType;
+    }
+
+    /**
+     * Gets the dimensions of an array datatype.
+     *
+     * @return size of each dimension; {@code null} if this is not an array datatype.
+     */
+    public int[] getArrayDimensions() {
+        return (arrayDimensions == null) ? null : arrayDimensions.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[class=%s, version=%s, size=%s%s]",
+                this.getClass().getSimpleName(), typeClass, version, size,
+                (typeClass == ARRAY) ? ", dimensions=" + Arrays.toString(arrayDimensions)
+                        : (typeClass == COMPOUND) ? ", members=" + members.size() : "");
+    }
+}
@@ -0,0 +1,111 @@
+package org.magicdgs.hdf5j.fileformat.level2;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Message stored in an {@link ObjectHeader}, consisting on its type, flags and raw data.
+ *
+ * <p>The data is kept undecoded; the decoders for each message type should be applied to
+ * {@link #getData()}.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class HeaderMessage {
+
+    /** Type for the NIL message, which marks free space in the header. */
+    public static final int NIL = 0x0000;
+
+    /** Type for the Dataspace message. */
+    public static final int DATASPACE = 0x0001;
+
+    /** Type for the Link Info message, which is present in new-style groups. */
+    public static final int LINK_INFO = 0x0002;
+
+    /** Type for the Datatype message. */
+    public static final int DATATYPE = 0x0003;
+
+    /** Type for the Link message, which stores the links of compact new-style groups. */
+    public static final int LINK = 0x0006;
+
+    /** Type for the Attribute message. */
+    public static final int ATTRIBUTE = 0x000C;
+
+    /** Type for the Object Header Continuation message. */
+    public static final int CONTINUATION = 0x0010;
+
+    /** Type for the Symbol Table message. */
+    public static final int SYMBOL_TABLE = 0x0011;
+
+    /** Type for the B-tree 'K' Values message, which is present in the superblock extension. */
+    public static final int BTREE_K_VALUES = 0x0013;
+
+    /**
+     * Type for the Object Reference Count message, which stores the number of hard links to
+     * objects with version 2 headers if it is larger than 1.
+     */
+    public static final int REFERENCE_COUNT = 0x0016;
+
+    private final int type;
+    private final int flags;
+    private final ByteBuffer data;
+
+    /**
+     * Constructor for a message.
+     *
+     * @param type  message type.
+     * @param flags message flags.
+     * @param data  buffer with the message data (from position to limit).
+     */
+    public HeaderMessage(final int type, final int flags, final ByteBuffer data) {
+        Preconditions.checkArgument(type >= 0 && type <= 0xFFFF, "invalid type: %s", type);
+        Preconditions.checkArgument(data != null, "null data");
+        this.type = type;
+        this.flags = flags;
+        this.data = data.slice().asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Gets the type of the message.
+     *
+     * @return the type.
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Gets the flags of the message.
+     *
+     * @return the flags.
+     */
+    public int getFlags() {
+        return flags;
+    }
+
+    /**
+     * Gets the size of the message data.
+     *
+     * @return size in bytes.
+     */
+    public int getSize() {
+        return data.capacity();
+    }
+
+    /**
+     * Gets the data of the message.
+     *
+     * @return little-endian read-only buffer starting at the first byte of the message data.
+     */
+    public ByteBuffer getData() {
+        return data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[type=0x%04X, flags=%s, size=%s]",
+                this.getClass().getSimpleName(), type, flags, getSize());
+    }
+}
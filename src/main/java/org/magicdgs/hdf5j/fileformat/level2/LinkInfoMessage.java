@@ -0,0 +1,134 @@
+package org.magicdgs.hdf5j.fileformat.level2;
+
+import org.magicdgs.hdf5j.fileformat.address.FileAddressManager;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <b>Link Info Message</b> ({@link HeaderMessage#LINK_INFO}), which is present in the object
+ * header of new-style groups.
+ *
+ * <p>If the fractal heap address is defined, the links are stored densely in the heap and indexed
+ * by name with a version 2 B-tree; otherwise, the links are stored compactly as
+ * {@link HeaderMessage#LINK} messages in the object header.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class LinkInfoMessage {
+
+    // flags
+    private static final int CREATION_ORDER_TRACKED = 0x01;
+    private static final int CREATION_ORDER_INDEXED = 0x02;
+
+    private final long maximumCreationIndex;
+    private final long fractalHeapAddress;
+    private final long nameIndexAddress;
+    private final long creationOrderIndexAddress;
+
+    private LinkInfoMessage(final long maximumCreationIndex, final long fractalHeapAddress,
+            final long nameIndexAddress, final long creationOrderIndexAddress) {
+        this.maximumCreationIndex = maximumCreationIndex;
+        this.fractalHeapAddress = fractalHeapAddress;
+        this.nameIndexAddress = nameIndexAddress;
+        this.creationOrderIndexAddress = creationOrderIndexAddress;
+    }
+
+    /**
+     * Decodes the message.
+     *
+     * @param message        link info message.
+     * @param addressManager address manager for the size of offsets of the file.
+     *
+     * @return the decoded message.
+     *
+     * @throws HDF5jException if the message is malformed.
+     */
+    public static LinkInfoMessage decode(final HeaderMessage message,
+            final FileAddressManager addressManager) {
+        Preconditions.checkArgument(message != null, "null message");
+        Preconditions.checkArgument(message.getType() == HeaderMessage.LINK_INFO,
+                "not a link info message: %s", message);
+        Preconditions.checkArgument(addressManager != null, "null address manager");
+        final ByteBuffer data = message.getData();
+        final int sizeOfOffsets = addressManager.getAddressSize();
+        if (data.remaining() < 2) {
+            throw new HDF5jException("Link info message too short: " + message);
+        }
+        final int version = Byte.toUnsignedInt(data.get(0));
+        if (version != 0) {
+            throw new HDF5jException("Unsupported link info message version: " + version);
+        }
+        final int flags = Byte.toUnsignedInt(data.get(1));
+        int index = 2;
+        long maximumCreationIndex = -1;
+        if ((flags & CREATION_ORDER_TRACKED) != 0) {
+            maximumCreationIndex = data.getLong(index);
+            index += Long.BYTES;
+        }
+        final boolean indexed = (flags & CREATION_ORDER_INDEXED) != 0;
+        if (data.remaining() < index + (indexed ? 3 : 2) * sizeOfOffsets) {
+            throw new HDF5jException("Link info message too short: " + message);
+        }
+        final long fractalHeapAddress = addressManager.decodePosition(data, index);
+        final long nameIndexAddress = addressManager.decodePosition(data, index + sizeOfOffsets);
+        final long creationOrderIndexAddress = (indexed)
+                ? addressManager.decodePosition(data, index + 2 * sizeOfOffsets) : -1;
+        return new LinkInfoMessage(maximumCreationIndex, fractalHeapAddress, nameIndexAddress,
+                creationOrderIndexAddress);
+    }
+
+    /**
+     * Gets the maximum creation index of the links.
+     *
+     * @return the maximum creation index; {@code -1} if the creation order is not tracked.
+     */
+    public long getMaximumCreationIndex() {
+        return maximumCreationIndex;
+    }
+
+    /**
+     * Returns {@code true} if the links are stored in a fractal heap.
+     *
+     * @return {@code true} for dense storage; {@code false} for compact storage.
+     */
+    public boolean isDense() {
+        return fractalHeapAddress != -1;
+    }
+
+    /**
+     * Gets the address of the fractal heap storing the links.
+     *
+     * @return the address (relative to the base address); {@code -1} for compact storage.
+     */
+    public long getFractalHeapAddress() {
+        return fractalHeapAddress;
+    }
+
+    /**
+     * Gets the address of the version 2 B-tree indexing the links by name.
+     *
+     * @return the address (relative to the base address); {@code -1} for compact storage.
+     */
+    public long getNameIndexAddress() {
+        return nameIndexAddress;
+    }
+
+    /**
+     * Gets the address of the version 2 B-tree indexing the links by creation order.
+     *
+     * @return the address (relative to the base address); {@code -1} if it is not indexed.
+     */
+    public long getCreationOrderIndexAddress() {
+        return creationOrderIndexAddress;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[heap=%s, nameIndex=%s, creationOrderIndex=%s]",
+                this.getClass().getSimpleName(), fractalHeapAddress, nameIndexAddress,
+                creationOrderIndexAddress);
+    }
+}
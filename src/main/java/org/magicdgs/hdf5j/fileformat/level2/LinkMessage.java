@@ -0,0 +1,276 @@
+package org.magicdgs.hdf5j.fileformat.level2;
+
+import org.magicdgs.hdf5j.fileformat.address.FileAddressManager;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <b>Link Message</b> ({@link HeaderMessage#LINK}), which stores a link of a new-style group,
+ * either in the object header (compact storage) or in the fractal heap (dense storage).
+ *
+ * <p>Hard, soft and external links are fully decoded. The value of user-defined links (types
+ * 65-255) is skipped, so only their name and type are available. Other link types are reserved
+ * by the format and rejected with an {@link HDF5jException}.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class LinkMessage {
+
+    /** Link type for hard links. */
+    public static final int HARD_LINK = 0;
+
+    /** Link type for soft links. */
+    public static final int SOFT_LINK = 1;
+
+    /** Link type for external links. */
+    public static final int EXTERNAL_LINK = 64;
+
+    // first link type for user-defined links
+    private static final int FIRST_USER_DEFINED_LINK = 65;
+
+    // flags
+    private static final int NAME_LENGTH_SIZE_MASK = 0x03;
+    private static final int CREATION_ORDER_PRESENT = 0x04;
+    private static final int LINK_TYPE_PRESENT = 0x08;
+    private static final int CHARACTER_SET_PRESENT = 0x10;
+
+    private final String name;
+    private final int linkType;
+    private final long creationOrder;
+    private final long address;
+    private final String softLinkValue;
+    private final String externalFileName;
+    private final String externalObjectPath;
+
+    private LinkMessage(final String name, final int linkType, final long creationOrder,
+            final long address, final String softLinkValue, final String externalFileName,
+            final String externalObjectPath) {
+        this.name = name;
+        this.linkType = linkType;
+        this.creationOrder = creationOrder;
+        this.address = address;
+        this.softLinkValue = softLinkValue;
+        this.externalFileName = externalFileName;
+        this.externalObjectPath = externalObjectPath;
+    }
+
+    /**
+     * Decodes the message.
+     *
+     * @param message        link message.
+     * @param addressManager address manager for the size of offsets of the file.
+     *
+     * @return the decoded message.
+     *
+     * @throws HDF5jException if the message is malformed.
+     */
+    public static LinkMessage decode(final HeaderMessage message,
+            final FileAddressManager addressManager) {
+        Preconditions.checkArgument(message != null, "null message");
+        Preconditions.checkArgument(message.getType() == HeaderMessage.LINK,
+                "not a link message: %s", message);
+        return decode(message.getData(), addressManager);
+    }
+
+    /**
+     * Decodes the message stored in the buffer (from its position to its limit), without
+     * modifying it. This is the encoding of the links in the fractal heap of dense groups.
+     *
+     * @param data           buffer with the link message.
+     * @param addressManager address manager for the size of offsets of the file.
+     *
+     * @return the decoded message.
+     *
+     * @throws HDF5jException if the message is malformed or the link type is reserved.
+     */
+    public static LinkMessage decode(final ByteBuffer data,
+            final FileAddressManager addressManager) {
+        Preconditions.checkArgument(data != null, "null data");
+        Preconditions.checkArgument(addressManager != null, "null address manager");
+        final ByteBuffer buffer = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            final int version = Byte.toUnsignedInt(buffer.get());
+            if (version != 1) {
+                throw new HDF5jException("Unsupported link message version: " + version);
+            }
+            final int flags = Byte.toUnsignedInt(buffer.get());
+            final int linkType = ((flags & LINK_TYPE_PRESENT) != 0)
+                    ? Byte.toUnsignedInt(buffer.get()) : HARD_LINK;
+            final long creationOrder = ((flags & CREATION_ORDER_PRESENT) != 0)
+                    ? buffer.getLong() : -1;
+            if ((flags & CHARACTER_SET_PRESENT) != 0) {
+                // both ASCII and UTF-8 are decoded as UTF-8
+                buffer.get();
+            }
+            final long nameLength = decodeNameLength(buffer, 1 << (flags & NAME_LENGTH_SIZE_MASK));
+            if (nameLength <= 0 || nameLength > buffer.remaining()) {
+                throw new HDF5jException("Invalid link name length: " + nameLength);
+            }
+            final byte[] nameBytes = new byte[(int) nameLength];
+            buffer.get(nameBytes);
+            final String name = new String(nameBytes, StandardCharsets.UTF_8);
+            long address = -1;
+            String softLinkValue = null;
+            String externalFileName = null;
+            String externalObjectPath = null;
+            switch (linkType) {
+                case HARD_LINK:
+                    address = addressManager.decodePosition(buffer);
+                    break;
+                case SOFT_LINK:
+                    final byte[] value = new byte[Short.toUnsignedInt(buffer.getShort())];
+                    buffer.get(value);
+                    softLinkValue = new String(value, StandardCharsets.UTF_8);
+                    break;
+                case EXTERNAL_LINK:
+                    final ByteBuffer external = linkValue(buffer);
+                    // version in the high 4 bits and flags in the low 4 bits
+                    final int externalVersion = Byte.toUnsignedInt(external.get()) >>> 4;
+                    if (externalVersion != 0) {
+                        throw new HDF5jException(
+                                "Unsupported external link version: " + externalVersion);
+                    }
+                    externalFileName = decodeNullTerminated(external);
+                    externalObjectPath = decodeNullTerminated(external);
+                    break;
+                default:
+                    if (linkType < FIRST_USER_DEFINED_LINK) {
+                        throw new HDF5jException("Reserved link type: " + linkType);
+                    }
+                    // the value of user-defined links is not decoded
+                    linkValue(buffer);
+                    break;
+            }
+            return new LinkMessage(name, linkType, creationOrder, address, softLinkValue,
+                    externalFileName, externalObjectPath);
+        } catch (final BufferUnderflowException e) {
+            throw new HDF5jException("Link message too short: " + data.remaining() + " bytes");
+        }
+    }
+
+    // consumes the length and the value of the link, returning the latter
+    private static ByteBuffer linkValue(final ByteBuffer buffer) {
+        final int length = Short.toUnsignedInt(buffer.getShort());
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        final ByteBuffer value = buffer.slice();
+        value.limit(length);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    // consumes the string and its null terminator
+    private static String decodeNullTerminated(final ByteBuffer buffer) {
+        final int start = buffer.position();
+        int end = start;
+        while (end < buffer.limit() && buffer.get(end) != 0) {
+            end++;
+        }
+        if (end == buffer.limit()) {
+            throw new HDF5jException("Missing null terminator in link value");
+        }
+        final byte[] bytes = new byte[end - start];
+        buffer.get(bytes);
+        buffer.get();
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long decodeNameLength(final ByteBuffer buffer, final int size) {
+        switch (size) {
+            case Byte.BYTES:
+                return Byte.toUnsignedLong(buffer.get());
+            case Short.BYTES:
+                return Short.toUnsignedLong(buffer.getShort());
+            case Integer.BYTES:
+                return Integer.toUnsignedLong(buffer.getInt());
+            default:
+                return buffer.getLong();
+        }
+    }
+
+    /**
+     * Gets the name of the link.
+     *
+     * @return the name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the type of the link.
+     *
+     * @return the link type (e.g., {@link #HARD_LINK}).
+     */
+    public int getLinkType() {
+        return linkType;
+    }
+
+    /**
+     * Returns {@code true} if this is a hard link.
+     *
+     * @return {@code true} if this is a hard link; {@code false} otherwise.
+     */
+    public boolean isHardLink() {
+        return linkType == HARD_LINK;
+    }
+
+    /**
+     * Gets the creation order of the link.
+     *
+     * @return the creation order; {@code -1} if it is not present.
+     */
+    public long getCreationOrder() {
+        return creationOrder;
+    }
+
+    /**
+     * Gets the address of the object header of the linked object.
+     *
+     * @return the address (relative to the base address); {@code -1} if this is not a hard
+     * link.
+     */
+    public long getAddress() {
+        return address;
+    }
+
+    /**
+     * Gets the path of the linked object for soft links.
+     *
+     * @return the value of the soft link; {@code null} if this is not a soft link.
+     */
+    public String getSoftLinkValue() {
+        return softLinkValue;
+    }
+
+    /**
+     * Gets the name of the file containing the linked object for external links.
+     *
+     * @return the file name; {@code null} if this is not an external link.
+     */
+    public String getExternalFileName() {
+        return externalFileName;
+    }
+
+    /**
+     * Gets the path of the linked object in the external file for external links.
+     *
+     * @return the object path; {@code null} if this is not an external link.
+     */
+    public String getExternalObjectPath() {
+        return externalObjectPath;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[name=%s, type=%s, address=%s]",
+                this.getClass().getSimpleName(), name, linkType, address);
+    }
+}
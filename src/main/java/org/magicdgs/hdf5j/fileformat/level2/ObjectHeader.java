@@ -0,0 +1,543 @@
+package org.magicdgs.hdf5j.fileformat.level2;
+
+import org.magicdgs.hdf5j.fileformat.address.FileAddressManager;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.DecodingUtils;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * <b>Data Object Header</b> (Level 2A), containing the messages describing an object. Both
+ * version 1 and version 2 ({@code OHDR}) headers are supported.
+ *
+ * <p>Continuation blocks are followed when the header is read, so {@link #getMessages()} returns
+ * the messages of all the blocks in order. NIL and continuation messages are not included.
+ *
+ * <p>Reading the header only indexes the type, flags, size and offset of each message: the
+ * {@link HeaderMessage}s are created when they are first requested, and decoded messages (see
+ * {@link #getDecodedMessage(int, Function)}) are kept for later calls. Thus, objects whose
+ * header is read only for a few messages (e.g., to check if they are groups) do not pay for the
+ * rest of them (e.g., attributes).
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class ObjectHeader {
+
+    /** Signature for version 2 object headers ("OHDR"). */
+    public static final byte[] SIGNATURE = "OHDR".getBytes(StandardCharsets.US_ASCII);
+
+    /** Signature for version 2 continuation blocks ("OCHK"). */
+    public static final byte[] CONTINUATION_SIGNATURE =
+            "OCHK".getBytes(StandardCharsets.US_ASCII);
+
+    // version (1), reserved (1), number of messages (2), reference count (4), header size (4)
+    // and padding (4) to align the messages
+    private static final int VERSION_1_PREFIX_SIZE = 16;
+
+    // type (2), size (2), flags (1) and reserved (3)
+    private static final int VERSION_1_MESSAGE_HEADER_SIZE = 8;
+
+    // signature (4), version (1) and flags (1)
+    private static final int VERSION_2_FIXED_PREFIX_SIZE = SIGNATURE.length + 2;
+
+    // type (1), size (2) and flags (1)
+    private static final int VERSION_2_MESSAGE_HEADER_SIZE = 4;
+
+    // version 2 flags
+    private static final int CHUNK_SIZE_MASK = 0x03;
+    private static final int ATTRIBUTE_CREATION_ORDER_TRACKED = 0x04;
+    private static final int ATTRIBUTE_PHASE_CHANGE_STORED = 0x10;
+    private static final int TIMES_STORED = 0x20;
+
+    // estimated bytes retained by the header and by each message (index, created message and
+    // decoded message), excluding the message data
+    private static final int HEADER_OVERHEAD = 128;
+    private static final int MESSAGE_OVERHEAD = 160;
+
+    private final long address;
+    private final int version;
+    private final int referenceCount;
+
+    // message index: the data of message i is in blocks[block[i]], at offsets[i]
+    private final ByteBuffer[] blocks;
+    private final int[] types;
+    private final byte[] flags;
+    private final int[] block;
+    private final int[] offsets;
+    private final int[] sizes;
+
+    // created on demand
+    private final AtomicReferenceArray<HeaderMessage> messages;
+    private final AtomicReferenceArray<Object> decoded;
+    private final List<HeaderMessage> messageList = new AbstractList<HeaderMessage>() {
+        @Override
+        public HeaderMessage get(final int index) {
+            return getMessageAt(index);
+        }
+
+        @Override
+        public int size() {
+            return types.length;
+        }
+    };
+
+    private ObjectHeader(final long address, final int version, final int referenceCount,
+            final MessageIndex index) {
+        this.address = address;
+        this.version = version;
+        this.referenceCount = referenceCount;
+        this.blocks = index.blocks.toArray(new ByteBuffer[index.blocks.size()]);
+        this.types = Arrays.copyOf(index.types, index.size);
+        this.flags = Arrays.copyOf(index.flags, index.size);
+        this.block = Arrays.copyOf(index.block, index.size);
+        this.offsets = Arrays.copyOf(index.offsets, index.size);
+        this.sizes = Arrays.copyOf(index.sizes, index.size);
+        this.messages = new AtomicReferenceArray<>(index.size);
+        this.decoded = new AtomicReferenceArray<>(index.size);
+    }
+
+    // growable index of messages, while reading the header
+    private static final class MessageIndex {
+        private final List<ByteBuffer> blocks = new ArrayList<>();
+        private int size = 0;
+        private int[] types = new int[8];
+        private byte[] flags = new byte[8];
+        private int[] block = new int[8];
+        private int[] offsets = new int[8];
+        private int[] sizes = new int[8];
+
+        // adds the block (from 0 to limit), returning its index
+        private int addBlock(final ByteBuffer buffer) {
+            final ByteBuffer duplicate = buffer.duplicate();
+            duplicate.position(0);
+            blocks.add(duplicate);
+            return blocks.size() - 1;
+        }
+
+        private void add(final int type, final int messageFlags, final int blockIndex,
+                final int offset, final int messageSize) {
+            if (size == types.length) {
+                final int capacity = 2 * size;
+                types = Arrays.copyOf(types, capacity);
+                flags = Arrays.copyOf(flags, capacity);
+                block = Arrays.copyOf(block, capacity);
+                offsets = Arrays.copyOf(offsets, capacity);
+                sizes = Arrays.copyOf(sizes, capacity);
+            }
+            types[size] = type;
+            flags[size] = (byte) messageFlags;
+            block[size] = blockIndex;
+            offsets[size] = offset;
+            sizes[size] = messageSize;
+            size++;
+        }
+    }
+
+    /**
+     * Reads the object header at the provided address, including its continuation blocks.
+     *
+     * <p>The checksums of version 2 headers are verified according to the policy of the reader.
+     *
+     * @param reader  reader for the file.
+     * @param address address of the header (relative to the base address).
+     *
+     * @return the object header.
+     *
+     * @throws HDF5jException if the header is malformed or its version is not supported.
+     * @throws IOException    if an IO error occurs.
+     */
+    public static ObjectHeader read(final HDF5FileReader reader, final long address)
+            throws IOException {
+        Preconditions.checkArgument(reader != null, "null reader");
+        Preconditions.checkArgument(address >= 0, "undefined address");
+        final ByteBuffer start = reader.readMetadata(address, VERSION_2_FIXED_PREFIX_SIZE);
+        if (DecodingUtils.hasSignature(start, SIGNATURE)) {
+            return readVersion2(reader, address, start);
+        }
+        final int version = Byte.toUnsignedInt(start.get(0));
+        if (version != 1) {
+            throw new HDF5jException(String.format(
+                    "Object header version not supported yet at %s: %s", address, version));
+        }
+        return readVersion1(reader, address);
+    }
+
+    private static ObjectHeader readVersion1(final HDF5FileReader reader, final long address)
+            throws IOException {
+        final ByteBuffer prefix = reader.readMetadata(address, VERSION_1_PREFIX_SIZE);
+        final int numberOfMessages = Short.toUnsignedInt(prefix.getShort(2));
+        final int referenceCount = prefix.getInt(4);
+        final long headerSize = Integer.toUnsignedLong(prefix.getInt(8));
+        final MessageIndex messages = new MessageIndex();
+        final List<long[]> blocks = new ArrayList<>();
+        blocks.add(new long[] {address + VERSION_1_PREFIX_SIZE, headerSize});
+        int read = 0;
+        for (int b = 0; b < blocks.size() && read < numberOfMessages; b++) {
+            final long blockAddress = blocks.get(b)[0];
+            final ByteBuffer block = reader.readMetadata(blockAddress,
+                    checkBlockSize(blockAddress, blocks.get(b)[1]));
+            read += readMessages(reader, blockAddress, block, 1, 0, messages, blocks);
+        }
+        if (read != numberOfMessages) {
+            throw new HDF5jException(String.format(
+                    "Object header at %s has %s messages (expected %s)", address, read,
+                    numberOfMessages));
+        }
+        return new ObjectHeader(address, 1, referenceCount, messages);
+    }
+
+    private static ObjectHeader readVersion2(final HDF5FileReader reader, final long address,
+            final ByteBuffer start) throws IOException {
+        final int version = Byte.toUnsignedInt(start.get(SIGNATURE.length));
+        if (version != 2) {
+            throw new HDF5jException(String.format(
+                    "Object header version not supported yet at %s: %s", address, version));
+        }
+        final int flags = Byte.toUnsignedInt(start.get(SIGNATURE.length + 1));
+        final int chunkSizeLength = 1 << (flags & CHUNK_SIZE_MASK);
+        int prefixSize = VERSION_2_FIXED_PREFIX_SIZE;
+        if ((flags & TIMES_STORED) != 0) {
+            // access, modification, change and birth times
+            prefixSize += 4 * Integer.BYTES;
+        }
+        if ((flags & ATTRIBUTE_PHASE_CHANGE_STORED) != 0) {
+            // maximum compact and minimum dense attributes
+            prefixSize += 2 * Short.BYTES;
+        }
+        final ByteBuffer chunkSizeField =
+                reader.readMetadata(address + prefixSize, chunkSizeLength);
+        long chunkSize = 0;
+        for (int i = 0; i < chunkSizeLength; i++) {
+            chunkSize |= Byte.toUnsignedLong(chunkSizeField.get(i)) << (Byte.SIZE * i);
+        }
+        prefixSize += chunkSizeLength;
+        if (chunkSize < 0 || chunkSize > Integer.MAX_VALUE - prefixSize - Integer.BYTES) {
+            throw new HDF5jException(String.format(
+                    "Object header at %s too large: %s bytes", address, chunkSize));
+        }
+        // the checksum covers the prefix and the first chunk
+        final ByteBuffer header = reader.readMetadata(address,
+                prefixSize + (int) chunkSize + Integer.BYTES);
+        reader.verifyMetadataChecksum(header, address);
+        final MessageIndex messages = new MessageIndex();
+        final List<long[]> blocks = new ArrayList<>();
+        header.limit(header.limit() - Integer.BYTES).position(prefixSize);
+        readMessages(reader, address, header, version, flags, messages, blocks);
+        for (int b = 0; b < blocks.size(); b++) {
+            final long blockAddress = blocks.get(b)[0];
+            final ByteBuffer block = reader.readMetadata(blockAddress,
+                    checkBlockSize(blockAddress, blocks.get(b)[1]));
+            if (block.remaining() < CONTINUATION_SIGNATURE.length + Integer.BYTES
+                    || !DecodingUtils.hasSignature(block, CONTINUATION_SIGNATURE)) {
+                throw new HDF5jException(
+                        "Invalid object header continuation block at " + blockAddress);
+            }
+            reader.verifyMetadataChecksum(block, blockAddress);
+            block.limit(block.limit() - Integer.BYTES).position(CONTINUATION_SIGNATURE.length);
+            readMessages(reader, blockAddress, block, version, flags, messages, blocks);
+        }
+        return new ObjectHeader(address, version, decodeReferenceCount(address, messages),
+                messages);
+    }
+
+    // decodes the reference count message of version 2 headers, which is 1 if absent
+    private static int decodeReferenceCount(final long address, final MessageIndex messages) {
+        for (int i = 0; i < messages.size; i++) {
+            if (messages.types[i] == HeaderMessage.REFERENCE_COUNT) {
+                final ByteBuffer data = messages.blocks.get(messages.block[i]);
+                final int offset = messages.offsets[i];
+                if (messages.sizes[i] < 1 + Integer.BYTES) {
+                    throw new HDF5jException(
+                            "Object reference count message too short at " + address);
+                }
+                final int version = Byte.toUnsignedInt(data.get(offset));
+                if (version != 0) {
+                    throw new HDF5jException(String.format(
+                            "Unsupported object reference count version at %s: %s", address,
+                            version));
+                }
+                final long count = DecodingUtils.decodeUnsigned(data, offset + 1, Integer.BYTES);
+                if (count <= 0 || count > Integer.MAX_VALUE) {
+                    throw new HDF5jException(String.format(
+                            "Invalid object reference count at %s: %s", address, count));
+                }
+                return (int) count;
+            }
+        }
+        return 1;
+    }
+
+    private static int checkBlockSize(final long address, final long size) {
+        if (size > Integer.MAX_VALUE) {
+            throw new HDF5jException(String.format(
+                    "Object header block at %s too large: %s bytes", address, size));
+        }
+        return (int) size;
+    }
+
+    // reads the messages in the block (from position to limit), adding the continuation blocks
+    // found; returns the number of messages, including NIL and continuation
+    // the flags of the header are only used for version 2
+    private static int readMessages(final HDF5FileReader reader, final long address,
+            final ByteBuffer block, final int version, final int flags,
+            final MessageIndex messages, final List<long[]> blocks) {
+        final boolean version1 = version == 1;
+        final int messageHeaderSize;
+        if (version1) {
+            messageHeaderSize = VERSION_1_MESSAGE_HEADER_SIZE;
+        } else if ((flags & ATTRIBUTE_CREATION_ORDER_TRACKED) != 0) {
+            messageHeaderSize = VERSION_2_MESSAGE_HEADER_SIZE + Short.BYTES;
+        } else {
+            messageHeaderSize = VERSION_2_MESSAGE_HEADER_SIZE;
+        }
+        final FileAddressManager addressManager = reader.getAddressManager();
+        final int blockIndex = messages.addBlock(block);
+        int read = 0;
+        int index = block.position();
+        // remaining bytes smaller than a message header are a gap
+        while (block.limit() - index >= messageHeaderSize) {
+            final int type;
+            final int messageSize;
+            final int messageFlags;
+            if (version1) {
+                type = Short.toUnsignedInt(block.getShort(index));
+                messageSize = Short.toUnsignedInt(block.getShort(index + 2));
+                messageFlags = Byte.toUnsignedInt(block.get(index + 4));
+            } else {
+                type = Byte.toUnsignedInt(block.get(index));
+                messageSize = Short.toUnsignedInt(block.getShort(index + 1));
+                messageFlags = Byte.toUnsignedInt(block.get(index + 3));
+            }
+            final int start = index + messageHeaderSize;
+            if (messageSize > block.limit() - start) {
+                throw new HDF5jException(String.format(
+                        "Header message at %s exceeds the object header block",
+                        address + index));
+            }
+            if (type == HeaderMessage.CONTINUATION) {
+                final ByteBuffer data = block.duplicate().order(block.order());
+                data.limit(start + messageSize).position(start);
+                final long offset = addressManager.decodePosition(data, start);
+                if (offset == -1) {
+                    throw new HDF5jException(
+                            "Undefined continuation block in object header block at " + address);
+                }
+                data.position(start + addressManager.getAddressSize());
+                blocks.add(new long[] {offset, reader.decodeLength(data)});
+            } else if (type != HeaderMessage.NIL) {
+                messages.add(type, messageFlags, blockIndex, start, messageSize);
+            }
+            read++;
+            index = start + messageSize;
+        }
+        return read;
+    }
+
+    /**
+     * Gets the address of this header.
+     *
+     * @return the address (relative to the base address).
+     */
+    public long getAddress() {
+        return address;
+    }
+
+    /**
+     * Gets the version of this header.
+     *
+     * @return the version.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the number of hard links to the object.
+     *
+     * <p>For version 2 headers, this is decoded from the Object Reference Count message (1 if
+     * the header does not contain it).
+     *
+     * @return the reference count.
+     */
+    public int getReferenceCount() {
+        return referenceCount;
+    }
+
+    /**
+     * Gets the number of messages of the object, excluding NIL and continuation messages.
+     *
+     * @return the number of messages.
+     */
+    public int getNumberOfMessages() {
+        return types.length;
+    }
+
+    /**
+     * Gets the type of a message, without creating it.
+     *
+     * @param index index of the message.
+     *
+     * @return the message type.
+     */
+    public int getMessageType(final int index) {
+        return types[index];
+    }
+
+    /**
+     * Gets the size of the data of a message, without creating it.
+     *
+     * @param index index of the message.
+     *
+     * @return size in bytes.
+     */
+    public int getMessageSize(final int index) {
+        return sizes[index];
+    }
+
+    /**
+     * Gets the index of the first message with the provided type.
+     *
+     * @param type message type.
+     *
+     * @return the index of the message; {@code -1} if there is no message of the type.
+     */
+    public int indexOf(final int type) {
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == type) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the message with the provided index, creating it on first access.
+     *
+     * @param index index of the message.
+     *
+     * @return the message.
+     */
+    public HeaderMessage getMessageAt(final int index) {
+        HeaderMessage message = messages.get(index);
+        if (message == null) {
+            final ByteBuffer data = blocks[block[index]].duplicate();
+            data.limit(offsets[index] + sizes[index]).position(offsets[index]);
+            message = new HeaderMessage(types[index], Byte.toUnsignedInt(flags[index]), data);
+            if (!messages.compareAndSet(index, null, message)) {
+                message = messages.get(index);
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Gets the messages of the object, excluding NIL and continuation messages. Each message is
+     * created on first access.
+     *
+     * @return unmodifiable list of messages.
+     */
+    public List<HeaderMessage> getMessages() {
+        return messageList;
+    }
+
+    /**
+     * Gets the first message with the provided type.
+     *
+     * @param type message type.
+     *
+     * @return the message; {@code null} if there is no message of the type.
+     */
+    public HeaderMessage getMessage(final int type) {
+        final int index = indexOf(type);
+        return (index == -1) ? null : getMessageAt(index);
+    }
+
+    /**
+     * Gets the first message with the provided type, decoded on first access. The same decoder
+     * should be used for each type, as the decoded message is kept in the header.
+     *
+     * @param type    message type.
+     * @param decoder decoder for the message (e.g., {@link SymbolTableMessage#decode}).
+     * @param <T>     type of the decoded message.
+     *
+     * @return the decoded message; {@code null} if there is no message of the type.
+     *
+     * @throws HDF5jException if the message is malformed.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getDecodedMessage(final int type, final Function<HeaderMessage, T> decoder) {
+        Preconditions.checkArgument(decoder != null, "null decoder");
+        final int index = indexOf(type);
+        if (index == -1) {
+            return null;
+        }
+        Object value = decoded.get(index);
+        if (value == null) {
+            value = decoder.apply(getMessageAt(index));
+            if (!decoded.compareAndSet(index, null, value)) {
+                value = decoded.get(index);
+            }
+        }
+        return (T) value;
+    }
+
+    /**
+     * Gets the estimated number of bytes retained by this header: the message data and the
+     * objects indexing it, including the messages once created or decoded (so the estimate does
+     * not change with the accessed messages).
+     *
+     * <p>Note: headers read from the file might share (and retain) larger buffers with the
+     * {@link org.magicdgs.hdf5j.io.MetadataPageCache}, which are not accounted.
+     *
+     * @return the retained size in bytes.
+     */
+    public long getRetainedSize() {
+        long size = HEADER_OVERHEAD;
+        for (final int messageSize : sizes) {
+            size += MESSAGE_OVERHEAD + messageSize;
+        }
+        return size;
+    }
+
+    /**
+     * Copies this header with the data of all the messages in a single buffer, which does not
+     * retain the buffers of the file that the header was read from. Messages are not created.
+     *
+     * @return the compacted header.
+     */
+    ObjectHeader compact() {
+        int size = 0;
+        for (final int messageSize : sizes) {
+            size += messageSize;
+        }
+        final ByteBuffer data = ByteBuffer.allocate(size);
+        final MessageIndex index = new MessageIndex();
+        final int blockIndex = index.addBlock(data);
+        for (int i = 0; i < types.length; i++) {
+            final ByteBuffer source = blocks[block[i]].duplicate();
+            source.limit(offsets[i] + sizes[i]).position(offsets[i]);
+            index.add(types[i], flags[i], blockIndex, data.position(), sizes[i]);
+            data.put(source);
+        }
+        return new ObjectHeader(address, version, referenceCount, index);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[address=%s, version=%s, messages=%s]",
+                this.getClass().getSimpleName(), address, version, types.length);
+    }
+}
@@ -0,0 +1,168 @@
+package org.magicdgs.hdf5j.fileformat.level2;
+
+import org.magicdgs.hdf5j.fileformat.address.FileAddress;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.WeightedLruCache;
+import org.magicdgs.hdf5j.utils.exceptions.FileAddressException;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+
+/**
+ * Cache of decoded {@link ObjectHeader}s, keyed by their address, to avoid reading and decoding
+ * the headers (and their continuation blocks) of the objects accessed repeatedly.
+ *
+ * <p>Headers are evicted in least-recently-used order once their estimated retained bytes
+ * ({@link ObjectHeader#getRetainedSize()}) exceed the configured budget, so that a few headers
+ * with many messages (e.g., attributes) weight more than many small ones. The cached headers are
+ * compacted, so they do not retain the pages of the
+ * {@link org.magicdgs.hdf5j.io.MetadataPageCache}. Hit, miss and eviction counters are kept to
+ * tune the budget.
+ *
+ * <p>This class is thread-safe: headers are decoded outside of the lock, so concurrent misses for
+ * different headers do not block each other (concurrent misses for the same header might decode
+ * it more than once).
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class ObjectHeaderCache {
+
+    /** Default maximum number of bytes retained by the cache (8 MiB). */
+    public static final long DEFAULT_MAX_BYTES = 8L * 1024 * 1024;
+
+    private final HDF5FileReader reader;
+    private final WeightedLruCache<Long, ObjectHeader> headers;
+
+    /**
+     * Constructor with the default memory budget.
+     *
+     * @param reader reader for the file.
+     */
+    public ObjectHeaderCache(final HDF5FileReader reader) {
+        this(reader, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Constructor with a custom memory budget.
+     *
+     * @param reader   reader for the file.
+     * @param maxBytes maximum number of bytes to retain in the cache.
+     */
+    public ObjectHeaderCache(final HDF5FileReader reader, final long maxBytes) {
+        Preconditions.checkArgument(reader != null, "null reader");
+        Preconditions.checkArgument(maxBytes >= 0, "negative maxBytes: %s", maxBytes);
+        this.reader = reader;
+        this.headers = new WeightedLruCache<>(maxBytes, ObjectHeader::getRetainedSize);
+    }
+
+    /**
+     * Gets the object header at the provided address, reading it if it is not cached.
+     *
+     * @param address address of the header.
+     *
+     * @return the object header.
+     *
+     * @throws FileAddressException if the address is undefined.
+     * @throws HDF5jException       if the header is malformed or its version is not supported.
+     * @throws IOException          if an IO error occurs.
+     */
+    public ObjectHeader get(final FileAddress address) throws IOException {
+        Preconditions.checkArgument(address != null, "null address");
+        if (address.isUndefined()) {
+            throw new FileAddressException(address, "cannot be read");
+        }
+        return get(address.getPosition());
+    }
+
+    /**
+     * Gets the object header at the provided address, reading it if it is not cached.
+     *
+     * @param address address of the header (relative to the base address).
+     *
+     * @return the object header.
+     *
+     * @throws HDF5jException if the header is malformed or its version is not supported.
+     * @throws IOException    if an IO error occurs.
+     */
+    public ObjectHeader get(final long address) throws IOException {
+        Preconditions.checkArgument(address >= 0, "undefined address");
+        return headers.get(address, a -> ObjectHeader.read(reader, a).compact());
+    }
+
+    /**
+     * Removes the header at the provided address from the cache, if present.
+     *
+     * @param address address of the header (relative to the base address).
+     */
+    public void invalidate(final long address) {
+        headers.invalidate(address);
+    }
+
+    /** Removes all the headers from the cache. */
+    public void invalidateAll() {
+        headers.invalidateAll();
+    }
+
+    /**
+     * Gets the maximum number of bytes retained by the cache.
+     *
+     * @return memory budget in bytes.
+     */
+    public long getMaxBytes() {
+        return headers.getMaxWeight();
+    }
+
+    /**
+     * Gets the estimated number of bytes currently retained by the cache.
+     *
+     * @return cached bytes.
+     */
+    public long getCachedBytes() {
+        return headers.getWeight();
+    }
+
+    /**
+     * Gets the number of headers currently cached.
+     *
+     * @return number of headers.
+     */
+    public int size() {
+        return headers.size();
+    }
+
+    /**
+     * Gets the number of requests served from the cache.
+     *
+     * @return number of hits.
+     */
+    public long getHitCount() {
+        return headers.getHitCount();
+    }
+
+    /**
+     * Gets the number of requests that required to read the header.
+     *
+     * @return number of misses.
+     */
+    public long getMissCount() {
+        return headers.getMissCount();
+    }
+
+    /**
+     * Gets the number of headers evicted from the cache.
+     *
+     * @return number of evictions.
+     */
+    public long getEvictionCount() {
+        return headers.getEvictionCount();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s, maxBytes=%s, hits=%s, misses=%s, evictions=%s]",
+                this.getClass().getSimpleName(), reader.getPath(), getMaxBytes(), getHitCount(),
+                getMissCount(), getEvictionCount());
+    }
+}
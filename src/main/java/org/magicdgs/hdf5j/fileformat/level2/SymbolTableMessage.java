@@ -0,0 +1,78 @@
+package org.magicdgs.hdf5j.fileformat.level2;
+
+import org.magicdgs.hdf5j.fileformat.address.FileAddressManager;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <b>Symbol Table Message</b> ({@link HeaderMessage#SYMBOL_TABLE}), which is present in the
+ * object header of old-style groups and points to the B-tree and local heap of the group.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class SymbolTableMessage {
+
+    private final long bTreeAddress;
+    private final long localHeapAddress;
+
+    private SymbolTableMessage(final long bTreeAddress, final long localHeapAddress) {
+        this.bTreeAddress = bTreeAddress;
+        this.localHeapAddress = localHeapAddress;
+    }
+
+    /**
+     * Decodes the message.
+     *
+     * @param message        symbol table message.
+     * @param addressManager address manager for the size of offsets of the file.
+     *
+     * @return the decoded message.
+     *
+     * @throws HDF5jException if the message is malformed.
+     */
+    public static SymbolTableMessage decode(final HeaderMessage message,
+            final FileAddressManager addressManager) {
+        Preconditions.checkArgument(message != null, "null message");
+        Preconditions.checkArgument(message.getType() == HeaderMessage.SYMBOL_TABLE,
+                "not a symbol table message: %s", message);
+        Preconditions.checkArgument(addressManager != null, "null address manager");
+        final int sizeOfOffsets = addressManager.getAddressSize();
+        if (message.getSize() < 2 * sizeOfOffsets) {
+            throw new HDF5jException("Symbol table message too short: " + message);
+        }
+        final ByteBuffer data = message.getData();
+        final long bTreeAddress = addressManager.decodePosition(data, 0);
+        final long localHeapAddress = addressManager.decodePosition(data, sizeOfOffsets);
+        if (bTreeAddress == -1 || localHeapAddress == -1) {
+            throw new HDF5jException("Undefined address in symbol table message");
+        }
+        return new SymbolTableMessage(bTreeAddress, localHeapAddress);
+    }
+
+    /**
+     * Gets the address of the B-tree of the group.
+     *
+     * @return the address (relative to the base address).
+     */
+    public long getBTreeAddress() {
+        return bTreeAddress;
+    }
+
+    /**
+     * Gets the address of the local heap of the group.
+     *
+     * @return the address (relative to the base address).
+     */
+    public long getLocalHeapAddress() {
+        return localHeapAddress;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[btree=%s, heap=%s]", this.getClass().getSimpleName(),
+                bTreeAddress, localHeapAddress);
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Disk Format: Level 2 - Data Objects.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+package org.magicdgs.hdf5j.fileformat.level2;
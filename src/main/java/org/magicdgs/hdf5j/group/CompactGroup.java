@@ -0,0 +1,92 @@
+package org.magicdgs.hdf5j.group;
+
+import org.magicdgs.hdf5j.fileformat.level2.LinkMessage;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * New-style group with compact storage, whose links are stored as messages in its object header.
+ *
+ * <p>Note: soft and external links are not resolved, so {@link #getMemberAddress(String)}
+ * returns {@link #NOT_FOUND} for them.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class CompactGroup implements Group {
+
+    private final long objectHeaderAddress;
+    // sorted by name
+    private final LinkMessage[] links;
+    private final String[] names;
+    private final LinkNameIndex index;
+
+    /**
+     * Constructor for the group.
+     *
+     * @param objectHeaderAddress address of the object header of the group.
+     * @param links               link messages of the group.
+     */
+    public CompactGroup(final long objectHeaderAddress, final List<LinkMessage> links) {
+        Preconditions.checkArgument(objectHeaderAddress >= 0, "undefined object header address");
+        Preconditions.checkArgument(links != null, "null links");
+        this.objectHeaderAddress = objectHeaderAddress;
+        this.links = links.toArray(new LinkMessage[0]);
+        Arrays.sort(this.links, (l1, l2) -> l1.getName().compareTo(l2.getName()));
+        this.names = new String[this.links.length];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = this.links[i].getName();
+        }
+        this.index = new LinkNameIndex(names);
+    }
+
+    @Override
+    public long getObjectHeaderAddress() {
+        return objectHeaderAddress;
+    }
+
+    @Override
+    public int size() {
+        return links.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Note: names are sorted.
+     */
+    @Override
+    public List<String> getMemberNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    @Override
+    public long getMemberAddress(final String name) {
+        final LinkMessage link = getLink(name);
+        return (link == null || !link.isHardLink()) ? NOT_FOUND : link.getAddress();
+    }
+
+    /**
+     * Gets the link of a member.
+     *
+     * @param name link name of the member.
+     *
+     * @return the link; {@code null} if the group does not contain the member.
+     */
+    public LinkMessage getLink(final String name) {
+        Preconditions.checkArgument(name != null, "null name");
+        final int position = index.get(name);
+        return (position == -1) ? null : links[position];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[address=%s, links=%s]", this.getClass().getSimpleName(),
+                objectHeaderAddress, links.length);
+    }
+}
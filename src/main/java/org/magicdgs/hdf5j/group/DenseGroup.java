@@ -0,0 +1,136 @@
+package org.magicdgs.hdf5j.group;
+
+import org.magicdgs.hdf5j.fileformat.address.FileAddressManager;
+import org.magicdgs.hdf5j.fileformat.level1.BTreeV2;
+import org.magicdgs.hdf5j.fileformat.level1.FractalHeap;
+import org.magicdgs.hdf5j.fileformat.level2.LinkMessage;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+import org.magicdgs.hdf5j.utils.hashing.Lookup3HashFunction;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * New-style group with dense storage, whose links are stored in a {@link FractalHeap} and indexed
+ * by the lookup3 hash of their names in a {@link BTreeV2}.
+ *
+ * <p>Looking up a member hashes its name and descends the B-tree once, reading from the heap only
+ * the links with the same hash; thus, it does not iterate over the links of the group.
+ *
+ * <p>Note: soft and external links are not resolved, so {@link #getMemberAddress(String)}
+ * returns {@link #NOT_FOUND} for them.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class DenseGroup implements Group {
+
+    // offset of the heap ID in the records of the name index
+    private static final int HEAP_ID_OFFSET = Integer.BYTES;
+
+    private final long objectHeaderAddress;
+    private final FractalHeap heap;
+    private final BTreeV2 nameIndex;
+    private final FileAddressManager addressManager;
+
+    /**
+     * Constructor for the group.
+     *
+     * @param objectHeaderAddress address of the object header of the group.
+     * @param heap                fractal heap storing the links.
+     * @param nameIndex           B-tree indexing the links by name.
+     * @param addressManager      address manager for the size of offsets of the file.
+     */
+    public DenseGroup(final long objectHeaderAddress, final FractalHeap heap,
+            final BTreeV2 nameIndex, final FileAddressManager addressManager) {
+        Preconditions.checkArgument(objectHeaderAddress >= 0, "undefined object header address");
+        Preconditions.checkArgument(heap != null, "null heap");
+        Preconditions.checkArgument(nameIndex != null, "null name index");
+        Preconditions.checkArgument(nameIndex.getType() == BTreeV2.LINK_NAME_RECORD_TYPE,
+                "not a link name index: %s", nameIndex);
+        Preconditions.checkArgument(addressManager != null, "null address manager");
+        if (nameIndex.getRecordSize() < HEAP_ID_OFFSET + heap.getHeapIdLength()) {
+            throw new HDF5jException(String.format(
+                    "Records of %s too small for heap IDs of %s", nameIndex, heap));
+        }
+        this.objectHeaderAddress = objectHeaderAddress;
+        this.heap = heap;
+        this.nameIndex = nameIndex;
+        this.addressManager = addressManager;
+    }
+
+    @Override
+    public long getObjectHeaderAddress() {
+        return objectHeaderAddress;
+    }
+
+    @Override
+    public int size() {
+        return Math.toIntExact(nameIndex.getTotalRecords());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Note: names are sorted. This method reads all the links from the heap.
+     */
+    @Override
+    public List<String> getMemberNames() throws IOException {
+        final List<String> names = new ArrayList<>(size());
+        nameIndex.forEachRecord(record -> names.add(readLink(record).getName()));
+        Collections.sort(names);
+        return Collections.unmodifiableList(names);
+    }
+
+    @Override
+    public long getMemberAddress(final String name) throws IOException {
+        final LinkMessage link = getLink(name);
+        return (link == null || !link.isHardLink()) ? NOT_FOUND : link.getAddress();
+    }
+
+    /**
+     * Gets the link of a member.
+     *
+     * @param name link name of the member.
+     *
+     * @return the link; {@code null} if the group does not contain the member.
+     *
+     * @throws HDF5jException if the group is malformed.
+     * @throws IOException    if an IO error occurs.
+     */
+    public LinkMessage getLink(final String name) throws IOException {
+        Preconditions.checkArgument(name != null, "null name");
+        final int hash = Lookup3HashFunction
+                .hashBytes(ByteBuffer.wrap(name.getBytes(StandardCharsets.UTF_8)), 0);
+        final LinkMessage[] found = new LinkMessage[1];
+        // hashes are compared as unsigned integers, as in the library
+        nameIndex.search(record -> Integer.compareUnsigned(hash, record.getInt(0)), record -> {
+            final LinkMessage link = readLink(record);
+            if (link.getName().equals(name)) {
+                found[0] = link;
+                return false;
+            }
+            return true;
+        });
+        return found[0];
+    }
+
+    private LinkMessage readLink(final ByteBuffer record) throws IOException {
+        final ByteBuffer heapId = record.duplicate();
+        heapId.position(HEAP_ID_OFFSET);
+        return LinkMessage.decode(heap.getObject(heapId), addressManager);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[address=%s, %s, %s]", this.getClass().getSimpleName(),
+                objectHeaderAddress, heap, nameIndex);
+    }
+}
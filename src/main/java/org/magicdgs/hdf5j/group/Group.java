@@ -0,0 +1,57 @@
+package org.magicdgs.hdf5j.group;
+
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Group of an HDF5 file, mapping link names to the object header of its members.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public interface Group {
+
+    /** Address returned for members that are not found. */
+    public static final long NOT_FOUND = -1;
+
+    /**
+     * Gets the address of the object header of the group.
+     *
+     * @return the address (relative to the base address).
+     */
+    public long getObjectHeaderAddress();
+
+    /**
+     * Gets the number of members of the group.
+     *
+     * @return the number of members.
+     *
+     * @throws HDF5jException if the group is malformed.
+     * @throws IOException    if an IO error occurs.
+     */
+    public int size() throws IOException;
+
+    /**
+     * Gets the names of the members of the group.
+     *
+     * @return unmodifiable list of names.
+     *
+     * @throws HDF5jException if the group is malformed.
+     * @throws IOException    if an IO error occurs.
+     */
+    public List<String> getMemberNames() throws IOException;
+
+    /**
+     * Gets the address of the object header of a member.
+     *
+     * @param name link name of the member.
+     *
+     * @return the address (relative to the base address); {@link #NOT_FOUND} if the group does
+     * not contain the member.
+     *
+     * @throws HDF5jException if the group is malformed.
+     * @throws IOException    if an IO error occurs.
+     */
+    public long getMemberAddress(final String name) throws IOException;
+}
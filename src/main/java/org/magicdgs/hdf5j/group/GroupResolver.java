@@ -0,0 +1,332 @@
+package org.magicdgs.hdf5j.group;
+
+import org.magicdgs.hdf5j.fileformat.address.FileAddressManager;
+import org.magicdgs.hdf5j.fileformat.level0.Superblock;
+import org.magicdgs.hdf5j.fileformat.level1.BTreeV2;
+import org.magicdgs.hdf5j.fileformat.level1.FractalHeap;
+import org.magicdgs.hdf5j.fileformat.level1.GroupSymbolTable;
+import org.magicdgs.hdf5j.fileformat.level1.SymbolTableEntry;
+import org.magicdgs.hdf5j.fileformat.level2.HeaderMessage;
+import org.magicdgs.hdf5j.fileformat.level2.LinkInfoMessage;
+import org.magicdgs.hdf5j.fileformat.level2.LinkMessage;
+import org.magicdgs.hdf5j.fileformat.level2.ObjectHeader;
+import org.magicdgs.hdf5j.fileformat.level2.ObjectHeaderCache;
+import org.magicdgs.hdf5j.fileformat.level2.SymbolTableMessage;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.io.MetadataChecksumVerifier;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves paths in the group hierarchy of a file (e.g., {@code /a/b/c}), for both old-style
+ * groups ({@link SymbolTableGroup}) and new-style groups ({@link CompactGroup} and
+ * {@link DenseGroup}).
+ *
+ * <p>Groups are cached by the address of their object header, and each of them indexes its
+ * members on first access; thus, resolving a path costs a lookup for each of its components. The
+ * symbol table addresses cached in the scratch-pad of the entries are used when present, to avoid
+ * reading the object header of the groups. Other object headers are read through an
+ * {@link ObjectHeaderCache}, which can be shared with other components accessing the same objects.
+ *
+ * <p>If the {@link MetadataChecksumVerifier} of the file is eager, the metadata of all the objects
+ * reachable from the root group is verified on construction (see {@link #verifyMetadata()}).
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class GroupResolver {
+
+    /** Separator for the components of a path. */
+    public static final char SEPARATOR = '/';
+
+    private final HDF5FileReader reader;
+    private final ObjectHeaderCache headerCache;
+    private final ConcurrentMap<Long, Group> groups = new ConcurrentHashMap<>();
+    private final Group root;
+
+    /**
+     * Constructor for the resolver, which reads the root group.
+     *
+     * @param reader reader for the file.
+     *
+     * @throws HDF5jException if the root group cannot be read, or if the metadata is verified
+     *                        eagerly and it is corrupt.
+     * @throws IOException    if an IO error occurs.
+     */
+    public GroupResolver(final HDF5FileReader reader) throws IOException {
+        this(reader, new ObjectHeaderCache(reader));
+    }
+
+    /**
+     * Constructor for the resolver, which reads the root group.
+     *
+     * @param reader      reader for the file.
+     * @param headerCache cache for the object headers of the file.
+     *
+     * @throws HDF5jException if the root group cannot be read, or if the metadata is verified
+     *                        eagerly and it is corrupt.
+     * @throws IOException    if an IO error occurs.
+     */
+    public GroupResolver(final HDF5FileReader reader, final ObjectHeaderCache headerCache)
+            throws IOException {
+        Preconditions.checkArgument(reader != null, "null reader");
+        Preconditions.checkArgument(headerCache != null, "null header cache");
+        this.reader = reader;
+        this.headerCache = headerCache;
+        this.root = readRootGroup(true);
+        if (reader.getMetadataVerifier().getMode() == MetadataChecksumVerifier.Mode.EAGER) {
+            final List<Long> corrupt = verifyMetadata();
+            if (!corrupt.isEmpty()) {
+                throw new HDF5jException(String.format("%s: corrupt metadata at %s",
+                        reader.getPath(), corrupt));
+            }
+        }
+    }
+
+    /**
+     * Gets the root group.
+     *
+     * @return the root group.
+     */
+    public Group getRootGroup() {
+        return root;
+    }
+
+    /**
+     * Gets the cache for the object headers.
+     *
+     * @return the object header cache.
+     */
+    public ObjectHeaderCache getObjectHeaderCache() {
+        return headerCache;
+    }
+
+    /**
+     * Gets the group with the provided object header address.
+     *
+     * @param address address of the object header (relative to the base address).
+     *
+     * @return the group.
+     *
+     * @throws HDF5jException if the object is not a group or the group is not supported.
+     * @throws IOException    if an IO error occurs.
+     */
+    public Group openGroup(final long address) throws IOException {
+        Preconditions.checkArgument(address >= 0, "undefined address");
+        final Group cached = groups.get(address);
+        return (cached != null) ? cached : cache(readGroup(headerCache.get(address)));
+    }
+
+    /**
+     * Verifies the metadata checksums of the objects reachable from the root group, in a
+     * {@link MetadataChecksumVerifier#sweep(MetadataChecksumVerifier.Walk)}: the object headers
+     * and the structures indexing the members of the groups (e.g., B-tree nodes and heap blocks).
+     *
+     * <p>Structures already verified (e.g., decoded before) are not verified again. The groups
+     * decoded by the sweep are not cached, as their structures are verified after the walk; thus,
+     * the corrupt ones are still detected when they are accessed later.
+     *
+     * @return sorted addresses of the corrupt structures, including the objects that cannot be
+     * decoded.
+     *
+     * @throws IOException if an IO error occurs.
+     */
+    public List<Long> verifyMetadata() throws IOException {
+        final List<Long> unreadable = new ArrayList<>();
+        final List<Long> corrupt = reader.getMetadataVerifier().sweep(() -> visitAll(unreadable));
+        if (unreadable.isEmpty()) {
+            return corrupt;
+        }
+        final Set<Long> all = new HashSet<>(corrupt);
+        all.addAll(unreadable);
+        final List<Long> sorted = new ArrayList<>(all);
+        sorted.sort(null);
+        return sorted;
+    }
+
+    // reads the object headers and members of all the groups, collecting the unreadable objects
+    private void visitAll(final List<Long> unreadable) throws IOException {
+        final Set<Long> visited = new HashSet<>();
+        final Deque<Group> pending = new ArrayDeque<>();
+        visited.add(root.getObjectHeaderAddress());
+        try {
+            // not read on construction if the symbol table is cached in the superblock
+            ObjectHeader.read(reader, root.getObjectHeaderAddress());
+        } catch (final HDF5jException e) {
+            unreadable.add(root.getObjectHeaderAddress());
+        }
+        try {
+            pending.push(readRootGroup(false));
+        } catch (final HDF5jException e) {
+            if (unreadable.isEmpty()) {
+                unreadable.add(root.getObjectHeaderAddress());
+            }
+        }
+        while (!pending.isEmpty()) {
+            final Group group = pending.pop();
+            try {
+                for (final String name : group.getMemberNames()) {
+                    final long address = group.getMemberAddress(name);
+                    if (address != Group.NOT_FOUND && visited.add(address)) {
+                        visitObject(address, pending, unreadable);
+                    }
+                }
+            } catch (final HDF5jException e) {
+                unreadable.add(group.getObjectHeaderAddress());
+            }
+        }
+    }
+
+    // reads the object header, adding the object to the pending ones if it is a group (not cached)
+    private void visitObject(final long address, final Deque<Group> pending,
+            final List<Long> unreadable) throws IOException {
+        try {
+            final ObjectHeader header = ObjectHeader.read(reader, address);
+            if (header.indexOf(HeaderMessage.SYMBOL_TABLE) != -1
+                    || header.indexOf(HeaderMessage.LINK_INFO) != -1) {
+                pending.push(readGroup(header));
+            }
+        } catch (final HDF5jException | EOFException e) {
+            // EOF if the address is out of the file
+            unreadable.add(address);
+        }
+    }
+
+    /**
+     * Resolves an absolute path (relative paths are resolved from the root group). Empty
+     * components and {@code .} are ignored.
+     *
+     * @param path path to resolve.
+     *
+     * @return the address of the object header (relative to the base address);
+     * {@link Group#NOT_FOUND} if any of the components is not found.
+     *
+     * @throws HDF5jException if an intermediate component is not a group or the group is not
+     *                        supported.
+     * @throws IOException    if an IO error occurs.
+     */
+    public long resolve(final String path) throws IOException {
+        Preconditions.checkArgument(path != null, "null path");
+        Group current = root;
+        long address = root.getObjectHeaderAddress();
+        final int length = path.length();
+        int start = 0;
+        while (start <= length) {
+            int end = path.indexOf(SEPARATOR, start);
+            if (end == -1) {
+                end = length;
+            }
+            if (end != start && !(end - start == 1 && path.charAt(start) == '.')) {
+                if (current == null) {
+                    current = openGroup(address);
+                }
+                final String name = path.substring(start, end);
+                address = openMember(current, name);
+                if (address == Group.NOT_FOUND) {
+                    return Group.NOT_FOUND;
+                }
+                // opened lazily, as the last component might not be a group
+                current = groups.get(address);
+            }
+            start = end + 1;
+        }
+        return address;
+    }
+
+    // returns the address of the member and caches it if it is a group with cached symbol table
+    private long openMember(final Group group, final String name) throws IOException {
+        if (group instanceof SymbolTableGroup) {
+            final SymbolTableEntry entry = ((SymbolTableGroup) group).getMemberEntry(name);
+            if (entry == null) {
+                return Group.NOT_FOUND;
+            }
+            final long address = entry.getObjectHeaderAddress();
+            if (entry.hasCachedSymbolTable() && !groups.containsKey(address)) {
+                cache(symbolTableGroup(address, entry.getBTreeAddress(),
+                        entry.getLocalHeapAddress()));
+            }
+            return address;
+        }
+        return group.getMemberAddress(name);
+    }
+
+    // reads the root group, which is cached (and the object header) only if requested
+    private Group readRootGroup(final boolean cache) throws IOException {
+        final Superblock superblock = reader.getSuperblock();
+        final long address;
+        if (superblock.getVersionNumber() < 2) {
+            final SymbolTableEntry entry = superblock.getRootGroupSymbolTableEntry();
+            if (entry.hasCachedSymbolTable()) {
+                final Group group = symbolTableGroup(entry.getObjectHeaderAddress(),
+                        entry.getBTreeAddress(), entry.getLocalHeapAddress());
+                return (cache) ? cache(group) : group;
+            }
+            address = entry.getObjectHeaderAddress();
+        } else {
+            address = superblock.getRootGroupObjectHeaderAddress().getPosition();
+        }
+        return (cache) ? openGroup(address) : readGroup(ObjectHeader.read(reader, address));
+    }
+
+    private Group readGroup(final ObjectHeader header) throws IOException {
+        final long address = header.getAddress();
+        final FileAddressManager addressManager = reader.getAddressManager();
+        final SymbolTableMessage symbolTable = header.getDecodedMessage(
+                HeaderMessage.SYMBOL_TABLE, m -> SymbolTableMessage.decode(m, addressManager));
+        if (symbolTable != null) {
+            return symbolTableGroup(address, symbolTable.getBTreeAddress(),
+                    symbolTable.getLocalHeapAddress());
+        }
+        final LinkInfoMessage linkInfo = header.getDecodedMessage(HeaderMessage.LINK_INFO,
+                m -> LinkInfoMessage.decode(m, addressManager));
+        if (linkInfo != null) {
+            if (linkInfo.isDense()) {
+                return new DenseGroup(address,
+                        FractalHeap.read(reader, linkInfo.getFractalHeapAddress()),
+                        BTreeV2.read(reader, linkInfo.getNameIndexAddress(),
+                                BTreeV2.LINK_NAME_RECORD_TYPE),
+                        addressManager);
+            }
+            // only the link messages are created
+            final List<LinkMessage> links = new ArrayList<>();
+            for (int i = 0; i < header.getNumberOfMessages(); i++) {
+                if (header.getMessageType(i) == HeaderMessage.LINK) {
+                    links.add(LinkMessage.decode(header.getMessageAt(i), addressManager));
+                }
+            }
+            return new CompactGroup(address, links);
+        }
+        throw new HDF5jException("Object at " + address + " is not a group");
+    }
+
+    private SymbolTableGroup symbolTableGroup(final long address, final long bTreeAddress,
+            final long localHeapAddress) {
+        return new SymbolTableGroup(address,
+                new GroupSymbolTable(reader, bTreeAddress, localHeapAddress));
+    }
+
+    // returns the group already cached, if any
+    private Group cache(final Group group) {
+        final Group previous = groups.putIfAbsent(group.getObjectHeaderAddress(), group);
+        return (previous != null) ? previous : group;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s, cached=%s]", this.getClass().getSimpleName(),
+                reader.getPath(), groups.size());
+    }
+}
@@ -0,0 +1,78 @@
+package org.magicdgs.hdf5j.group;
+
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+/**
+ * Open-addressing hash index from link names to their position in an array, using linear
+ * probing over a power-of-two table kept at most half full.
+ *
+ * <p>The hash codes of the names are stored with the slots, so probing only compares the strings
+ * when the full hash code matches.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+final class LinkNameIndex {
+
+    // golden ratio multiplier for spreading the hash codes into the high bits
+    private static final int SPREAD = 0x9E3779B9;
+
+    private final String[] names;
+    // position of the name plus one (0 for empty slots)
+    private final int[] slots;
+    private final int[] hashes;
+    private final int mask;
+    private final int shift;
+
+    /**
+     * Constructor for the index.
+     *
+     * @param names link names (not copied).
+     *
+     * @throws HDF5jException if there are duplicated names.
+     */
+    LinkNameIndex(final String[] names) {
+        this.names = names;
+        final int capacity = Integer.highestOneBit(Math.max(2, 2 * names.length - 1)) << 1;
+        this.slots = new int[capacity];
+        this.hashes = new int[capacity];
+        this.mask = capacity - 1;
+        this.shift = Integer.SIZE - Integer.numberOfTrailingZeros(capacity);
+        for (int i = 0; i < names.length; i++) {
+            final int hash = names[i].hashCode();
+            int slot = slot(hash);
+            while (slots[slot] != 0) {
+                if (hashes[slot] == hash && names[slots[slot] - 1].equals(names[i])) {
+                    throw new HDF5jException("Duplicated link name: " + names[i]);
+                }
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = i + 1;
+            hashes[slot] = hash;
+        }
+    }
+
+    /**
+     * Gets the position of a name.
+     *
+     * @param name link name.
+     *
+     * @return the position in the array of names; {@code -1} if not found.
+     */
+    int get(final String name) {
+        final int hash = name.hashCode();
+        int slot = slot(hash);
+        int position;
+        while ((position = slots[slot]) != 0) {
+            if (hashes[slot] == hash && names[position - 1].equals(name)) {
+                return position - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // top bits of the spread hash code
+    private int slot(final int hash) {
+        return (hash * SPREAD) >>> shift;
+    }
+}
@@ -0,0 +1,144 @@
+package org.magicdgs.hdf5j.group;
+
+import org.magicdgs.hdf5j.fileformat.level1.GroupSymbolTable;
+import org.magicdgs.hdf5j.fileformat.level1.LocalHeap;
+import org.magicdgs.hdf5j.fileformat.level1.SymbolTableEntry;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Old-style group, whose members are stored in a {@link GroupSymbolTable}.
+ *
+ * <p>The symbol table is traversed once, on the first access to the members, and the names are
+ * indexed with an open-addressing hash table; thus, looking up a member is constant time instead
+ * of a scan of the symbol table nodes.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class SymbolTableGroup implements Group {
+
+    private final long objectHeaderAddress;
+    private final GroupSymbolTable symbolTable;
+
+    // lazily loaded
+    private volatile Members members;
+
+    /**
+     * Constructor for the group.
+     *
+     * @param objectHeaderAddress address of the object header of the group.
+     * @param symbolTable         symbol table of the group.
+     */
+    public SymbolTableGroup(final long objectHeaderAddress, final GroupSymbolTable symbolTable) {
+        Preconditions.checkArgument(objectHeaderAddress >= 0, "undefined object header address");
+        Preconditions.checkArgument(symbolTable != null, "null symbol table");
+        this.objectHeaderAddress = objectHeaderAddress;
+        this.symbolTable = symbolTable;
+    }
+
+    /**
+     * Gets the symbol table of the group.
+     *
+     * @return the symbol table.
+     */
+    public GroupSymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    @Override
+    public long getObjectHeaderAddress() {
+        return objectHeaderAddress;
+    }
+
+    @Override
+    public int size() throws IOException {
+        return getMembers().names.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Note: names are sorted as in the symbol table.
+     */
+    @Override
+    public List<String> getMemberNames() throws IOException {
+        return Collections.unmodifiableList(Arrays.asList(getMembers().names));
+    }
+
+    @Override
+    public long getMemberAddress(final String name) throws IOException {
+        final SymbolTableEntry entry = getMemberEntry(name);
+        return (entry == null) ? NOT_FOUND : entry.getObjectHeaderAddress();
+    }
+
+    /**
+     * Gets the symbol table entry of a member, which might contain cached information about the
+     * member.
+     *
+     * @param name link name of the member.
+     *
+     * @return the entry; {@code null} if the group does not contain the member.
+     *
+     * @throws HDF5jException if the group is malformed.
+     * @throws IOException    if an IO error occurs.
+     */
+    public SymbolTableEntry getMemberEntry(final String name) throws IOException {
+        Preconditions.checkArgument(name != null, "null name");
+        final Members current = getMembers();
+        final int index = current.index.get(name);
+        return (index == -1) ? null : current.entries[index];
+    }
+
+    // double-checked locking to read the symbol table only once
+    private Members getMembers() throws IOException {
+        Members current = members;
+        if (current == null) {
+            synchronized (this) {
+                current = members;
+                if (current == null) {
+                    current = readMembers();
+                    members = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Members readMembers() throws IOException {
+        final SymbolTableEntry[] entries =
+                symbolTable.getEntries().toArray(new SymbolTableEntry[0]);
+        final LocalHeap heap = symbolTable.readLocalHeap();
+        final String[] names = new String[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            names[i] = heap.getString(entries[i].getLinkNameOffset());
+        }
+        return new Members(names, entries);
+    }
+
+    // immutable snapshot of the members
+    private static final class Members {
+        private final String[] names;
+        private final SymbolTableEntry[] entries;
+        private final LinkNameIndex index;
+
+        private Members(final String[] names, final SymbolTableEntry[] entries) {
+            this.names = names;
+            this.entries = entries;
+            this.index = new LinkNameIndex(names);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[address=%s, %s]", this.getClass().getSimpleName(),
+                objectHeaderAddress, symbolTable);
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Navigation of the group hierarchy of HDF5 files.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+package org.magicdgs.hdf5j.group;
@@ -0,0 +1,83 @@
+package org.magicdgs.hdf5j.io;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Policy for verifying the checksums stored in a file: always (the default), never, or for a
+ * sample of the checksummed objects.
+ *
+ * <p>Skipping verification removes its cost when the storage is trusted (e.g., local scratch
+ * files), while sampling still detects systematic corruption with a fraction of the cost.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class ChecksumVerification {
+
+    /** Verifies every checksum. */
+    public static final ChecksumVerification ALWAYS = new ChecksumVerification(1);
+
+    /** Does not verify any checksum. */
+    public static final ChecksumVerification NEVER = new ChecksumVerification(0);
+
+    private final int samplingInterval;
+
+    private ChecksumVerification(final int samplingInterval) {
+        this.samplingInterval = samplingInterval;
+    }
+
+    /**
+     * Creates a policy verifying one out of {@code interval} checksums.
+     *
+     * @param interval sampling interval (1 verifies all the checksums).
+     *
+     * @return the sampling policy.
+     */
+    public static ChecksumVerification sampled(final int interval) {
+        Preconditions.checkArgument(interval > 0, "non-positive interval: %s", interval);
+        return (interval == 1) ? ALWAYS : new ChecksumVerification(interval);
+    }
+
+    /**
+     * Gets the sampling interval.
+     *
+     * @return 1 if every checksum is verified, 0 if none is verified and N if one out of N
+     * checksums is verified.
+     */
+    public int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    /**
+     * Returns {@code true} if the checksum with the provided sequence number should be verified.
+     *
+     * @param sequenceNumber non-negative number identifying the checksum (e.g., a counter).
+     *
+     * @return {@code true} if the checksum should be verified; {@code false} otherwise.
+     */
+    public boolean shouldVerify(final long sequenceNumber) {
+        return samplingInterval != 0 && sequenceNumber % samplingInterval == 0;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return this == o || o instanceof ChecksumVerification
+                && samplingInterval == ((ChecksumVerification) o).samplingInterval;
+    }
+
+    @Override
+    public int hashCode() {
+        return samplingInterval;
+    }
+
+    @Override
+    public String toString() {
+        switch (samplingInterval) {
+            case 0:
+                return "NEVER";
+            case 1:
+                return "ALWAYS";
+            default:
+                return "SAMPLED(1/" + samplingInterval + ")";
+        }
+    }
+}
@@ -0,0 +1,639 @@
+package org.magicdgs.hdf5j.io;
+
+import org.magicdgs.hdf5j.HDF5Constants;
+import org.magicdgs.hdf5j.fileformat.address.FileAddress;
+import org.magicdgs.hdf5j.fileformat.address.FileAddressManager;
+import org.magicdgs.hdf5j.fileformat.level0.MappedSuperblock;
+import org.magicdgs.hdf5j.fileformat.level0.Superblock;
+import org.magicdgs.hdf5j.fileformat.level2.BTreeKValuesMessage;
+import org.magicdgs.hdf5j.fileformat.level2.HeaderMessage;
+import org.magicdgs.hdf5j.fileformat.level2.ObjectHeader;
+import org.magicdgs.hdf5j.utils.HDF5Utils;
+import org.magicdgs.hdf5j.utils.exceptions.FileAddressException;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Low-level reader for an HDF5 file, which holds the open channel, the decoded superblock and the
+ * {@link MetadataPageCache} shared by all the metadata decoders of the file.
+ *
+ * <p>All the addresses provided to this reader are relative to the base address of the superblock,
+ * as they are stored in the file.
+ *
+ * <p>Asynchronous reads are issued through an {@link AsynchronousFileChannel}, opened on the
+ * first request, and return {@link CompletableFuture}s completed from its thread pool. Thus, many
+ * reads might be outstanding without blocking the calling threads.
+ *
+ * <p>This class is thread-safe: all the reads are positional, so the same instance can be shared
+ * between threads.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class HDF5FileReader implements Closeable {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Superblock superblock;
+    private final FileAddressManager addressManager;
+    private final MetadataPageCache metadataCache;
+    private final ChecksumVerification checksumVerification;
+    private final MetadataChecksumVerifier metadataVerifier;
+    // number of metadata checksums requested, for sampling
+    private final AtomicLong metadataChecksums = new AtomicLong();
+    // absolute position of the base address
+    private final long baseOffset;
+    // lazily opened for asynchronous reads
+    // K values from the superblock extension (versions 2+); null if not present
+    private volatile BTreeKValuesMessage bTreeKValues = null;
+    private volatile AsynchronousFileChannel asyncChannel = null;
+    private boolean closed = false;
+
+    /**
+     * Opens the HDF5 file, locating its superblock. All the checksums are verified, the metadata
+     * ones when the structures are first decoded.
+     *
+     * @param path file to open.
+     *
+     * @return reader for the file.
+     *
+     * @throws HDF5jException if the file is not HDF5 formatted.
+     * @throws IOException    if an IO error occurs.
+     */
+    public static HDF5FileReader open(final Path path) throws IOException {
+        return open(path, ChecksumVerification.ALWAYS);
+    }
+
+    /**
+     * Opens the HDF5 file, locating its superblock.
+     *
+     * @param path                 file to open.
+     * @param checksumVerification policy for verifying the checksums in the file.
+     *
+     * @return reader for the file.
+     *
+     * @throws HDF5jException if the file is not HDF5 formatted.
+     * @throws IOException    if an IO error occurs.
+     */
+    public static HDF5FileReader open(final Path path,
+            final ChecksumVerification checksumVerification) throws IOException {
+        return open(path, checksumVerification, MetadataChecksumVerifier.lazy());
+    }
+
+    /**
+     * Opens the HDF5 file, locating its superblock.
+     *
+     * @param path                 file to open.
+     * @param checksumVerification policy for verifying the checksums in the file.
+     * @param metadataVerifier     verifier for the metadata checksums. It should not be shared
+     *                             between files.
+     *
+     * @return reader for the file.
+     *
+     * @throws HDF5jException if the file is not HDF5 formatted or the superblock checksum does
+     *                        not match.
+     * @throws IOException    if an IO error occurs.
+     */
+    public static HDF5FileReader open(final Path path,
+            final ChecksumVerification checksumVerification,
+            final MetadataChecksumVerifier metadataVerifier) throws IOException {
+        Preconditions.checkArgument(path != null, "null path");
+        Preconditions.checkArgument(checksumVerification != null, "null checksum verification");
+        Preconditions.checkArgument(metadataVerifier != null, "null metadata verifier");
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            final long superblockOffset = HDF5Utils.findSuperblockOffset(channel);
+            if (superblockOffset == -1) {
+                throw new HDF5jException(path + " is not an HDF5 file");
+            }
+            final Superblock superblock = MappedSuperblock.map(channel, superblockOffset);
+            final HDF5FileReader reader = new HDF5FileReader(path, channel, superblock,
+                    superblockOffset, checksumVerification, metadataVerifier);
+            if (superblock.getVersionNumber() >= 2) {
+                // the superblock is at the base address
+                reader.verifyMetadataChecksum(
+                        reader.readMetadata(0, superblock.getBlockByteSize()), 0);
+                reader.bTreeKValues = reader.readBTreeKValues();
+            }
+            return reader;
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private HDF5FileReader(final Path path, final FileChannel channel,
+            final Superblock superblock, final long superblockOffset,
+            final ChecksumVerification checksumVerification,
+            final MetadataChecksumVerifier metadataVerifier) {
+        this.path = path;
+        this.channel = channel;
+        this.superblock = superblock;
+        this.addressManager = new FileAddressManager(superblock.getSizeOfOffsets());
+        this.metadataCache = new MetadataPageCache(channel);
+        this.checksumVerification = checksumVerification;
+        this.metadataVerifier = metadataVerifier;
+        // the base address is the absolute position of the superblock unless the file was moved
+        // after writing (e.g., adding a userblock), so the found offset is always used
+        this.baseOffset = superblockOffset;
+    }
+
+    // reads the B-tree 'K' values message from the superblock extension (versions 2+)
+    private BTreeKValuesMessage readBTreeKValues() throws IOException {
+        final FileAddress extension = superblock.getSuperblockExtensionAddress();
+        if (extension.isUndefined()) {
+            return null;
+        }
+        return ObjectHeader.read(this, extension.getPosition())
+                .getDecodedMessage(HeaderMessage.BTREE_K_VALUES, BTreeKValuesMessage::decode);
+    }
+
+    /**
+     * Gets the path of the file.
+     *
+     * @return the path.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the superblock of the file.
+     *
+     * @return the superblock.
+     */
+    public Superblock getSuperblock() {
+        return superblock;
+    }
+
+    /**
+     * Gets the address manager for the size of offsets of the file.
+     *
+     * @return the address manager.
+     */
+    public FileAddressManager getAddressManager() {
+        return addressManager;
+    }
+
+    /**
+     * Gets the metadata cache for the file.
+     *
+     * @return the metadata cache.
+     */
+    public MetadataPageCache getMetadataCache() {
+        return metadataCache;
+    }
+
+    /**
+     * Gets the policy for verifying the checksums in the file.
+     *
+     * @return the verification policy.
+     */
+    public ChecksumVerification getChecksumVerification() {
+        return checksumVerification;
+    }
+
+    /**
+     * Gets the verifier for the metadata checksums.
+     *
+     * @return the metadata verifier.
+     */
+    public MetadataChecksumVerifier getMetadataVerifier() {
+        return metadataVerifier;
+    }
+
+    /**
+     * Gets the <b>Indexed Storage Internal Node K</b> for the file, which is read from the
+     * superblock (version 1) or the <b>B-tree 'K' Values</b> message of the superblock extension
+     * (versions 2+). The default value is returned if not present in either of them.
+     *
+     * @return value of K for the chunked storage B-trees.
+     *
+     * @see HDF5Constants#DEFAULT_INDEXED_STORAGE_INTERNAL_NODE_K
+     */
+    public int getIndexedStorageInternalNodeK() {
+        if (superblock.getVersionNumber() == 1) {
+            return superblock.getIndexedStorageInternalNodeK();
+        }
+        return (bTreeKValues == null) ? HDF5Constants.DEFAULT_INDEXED_STORAGE_INTERNAL_NODE_K
+                : bTreeKValues.getIndexedStorageInternalNodeK();
+    }
+
+    /**
+     * Gets the <b>Group Leaf Node K</b> for the file, which is read from the superblock (versions
+     * 0 and 1) or the <b>B-tree 'K' Values</b> message of the superblock extension (versions 2+).
+     * The default value is returned if the extension does not contain the message.
+     *
+     * @return value of K for the symbol table nodes.
+     *
+     * @see HDF5Constants#DEFAULT_GROUP_LEAF_NODE_K
+     */
+    public int getGroupLeafNodeK() {
+        if (superblock.getVersionNumber() < 2) {
+            return superblock.getGroupLeafNodeK();
+        }
+        return (bTreeKValues == null) ? HDF5Constants.DEFAULT_GROUP_LEAF_NODE_K
+                : bTreeKValues.getGroupLeafNodeK();
+    }
+
+    /**
+     * Gets the <b>Group Internal Node K</b> for the file, which is read from the superblock
+     * (versions 0 and 1) or the <b>B-tree 'K' Values</b> message of the superblock extension
+     * (versions 2+). The default value is returned if the extension does not contain the
+     * message.
+     *
+     * @return value of K for the group B-trees.
+     *
+     * @see HDF5Constants#DEFAULT_GROUP_INTERNAL_NODE_K
+     */
+    public int getGroupInternalNodeK() {
+        if (superblock.getVersionNumber() < 2) {
+            return superblock.getGroupInternalNodeK();
+        }
+        return (bTreeKValues == null) ? HDF5Constants.DEFAULT_GROUP_INTERNAL_NODE_K
+                : bTreeKValues.getGroupInternalNodeK();
+    }
+
+    /**
+     * Reads metadata through the {@link MetadataPageCache}.
+     *
+     * @param position position relative to the base address.
+     * @param length   number of bytes to read.
+     *
+     * @return read-only little-endian buffer with exactly {@code length} remaining bytes.
+     *
+     * @throws EOFException if the end of the file is reached before reading all the bytes.
+     * @throws IOException  if an IO error occurs.
+     */
+    public ByteBuffer readMetadata(final long position, final int length) throws IOException {
+        return metadataCache.read(toAbsolute(position), length);
+    }
+
+    /**
+     * Reads metadata through the {@link MetadataPageCache}.
+     *
+     * @param address address relative to the base address.
+     * @param length  number of bytes to read.
+     *
+     * @return read-only little-endian buffer with exactly {@code length} remaining bytes.
+     *
+     * @throws FileAddressException if the address is undefined.
+     * @throws EOFException         if the end of the file is reached before reading all the bytes.
+     * @throws IOException          if an IO error occurs.
+     */
+    public ByteBuffer readMetadata(final FileAddress address, final int length)
+            throws IOException {
+        return readMetadata(checkDefined(address), length);
+    }
+
+    /**
+     * Verifies the checksum of a metadata structure (e.g., version 2 object headers), according
+     * to the {@link ChecksumVerification} and the {@link MetadataChecksumVerifier} of the file.
+     * See {@link #shouldVerifyMetadataChecksum(long)} for how the checksums are sampled. The
+     * checksum is stored in the last 4 bytes and it is the lookup3 hash of the preceding bytes.
+     *
+     * @param structure buffer with the structure (from position to limit), including the
+     *                  checksum. It is not modified.
+     * @param address   address of the structure.
+     *
+     * @throws HDF5jException if the checksum does not match.
+     */
+    public void verifyMetadataChecksum(final ByteBuffer structure, final long address) {
+        Preconditions.checkArgument(structure != null, "null structure");
+        verifyMetadataChecksum(structure, structure.remaining() - Integer.BYTES, address);
+    }
+
+    /**
+     * Verifies the checksum of a metadata structure with the checksum stored inside it (e.g.,
+     * fractal heap direct blocks), which is the lookup3 hash of the structure with the checksum
+     * zeroed.
+     *
+     * @param structure      buffer with the structure (from position to limit). It is not
+     *                       modified.
+     * @param checksumOffset offset of the checksum from the position of the buffer.
+     * @param address        address of the structure.
+     *
+     * @throws HDF5jException if the checksum does not match.
+     * @see MetadataChecksumVerifier#verify(Path, ByteBuffer, int, long)
+     */
+    public void verifyMetadataChecksum(final ByteBuffer structure, final int checksumOffset,
+            final long address) {
+        if (shouldVerifyMetadataChecksum(address)) {
+            metadataVerifier.verify(path, structure, checksumOffset, address);
+        }
+    }
+
+    /**
+     * Decides if the checksum of a metadata structure is verified now: it should be pending in
+     * the {@link MetadataChecksumVerifier}, and sampled by the {@link ChecksumVerification}.
+     *
+     * <p>The sampling decision is made once for each structure: a structure not sampled is
+     * {@link MetadataChecksumVerifier#skip(long) skipped}, so it is not considered again. Within
+     * a {@link MetadataChecksumVerifier#sweep(MetadataChecksumVerifier.Walk)}, the checksums are
+     * not sampled: all of them are verified unless verification is disabled.
+     *
+     * <p>Decoders reading more bytes than needed to verify a structure (e.g., fractal heap direct
+     * blocks) should call this before reading it, and verify it with
+     * {@link MetadataChecksumVerifier#verify(Path, ByteBuffer, int, long)} only if it returns
+     * {@code true}.
+     *
+     * @param address address of the structure.
+     *
+     * @return {@code true} if the checksum should be verified; {@code false} otherwise.
+     */
+    public boolean shouldVerifyMetadataChecksum(final long address) {
+        if (checksumVerification.getSamplingInterval() == 0
+                || !metadataVerifier.isPending(address)) {
+            return false;
+        }
+        // a sweep verifies all the structures, as they are not verified again afterwards
+        if (metadataVerifier.isSweeping()
+                || checksumVerification.shouldVerify(metadataChecksums.getAndIncrement())) {
+            return true;
+        }
+        metadataVerifier.skip(address);
+        return false;
+    }
+
+    /**
+     * Reads raw data (not cached) into the destination buffer, until it is full.
+     *
+     * @param position    position relative to the base address.
+     * @param destination buffer to store the bytes.
+     *
+     * @throws EOFException if the end of the file is reached before filling the buffer.
+     * @throws IOException  if an IO error occurs.
+     */
+    public void readRaw(final long position, final ByteBuffer destination) throws IOException {
+        Preconditions.checkArgument(destination != null, "null destination");
+        final long absolute = toAbsolute(position);
+        final int start = destination.position();
+        while (destination.hasRemaining()) {
+            if (channel.read(destination, absolute + destination.position() - start) == -1) {
+                throw new EOFException(String.format("%s: %s bytes could not be read at %s",
+                        path, destination.remaining(), position));
+            }
+        }
+    }
+
+    /**
+     * Reads raw data (not cached) into the destination buffer, until it is full.
+     *
+     * @param address     address relative to the base address.
+     * @param destination buffer to store the bytes.
+     *
+     * @throws FileAddressException if the address is undefined.
+     * @throws EOFException         if the end of the file is reached before filling the buffer.
+     * @throws IOException          if an IO error occurs.
+     */
+    public void readRaw(final FileAddress address, final ByteBuffer destination)
+            throws IOException {
+        readRaw(checkDefined(address), destination);
+    }
+
+    /**
+     * Reads metadata asynchronously through the {@link MetadataPageCache}. If the bytes are not
+     * cached, the pages containing them are read with a single asynchronous read and cached
+     * once it completes.
+     *
+     * @param position position relative to the base address.
+     * @param length   number of bytes to read.
+     *
+     * @return future completed with a read-only little-endian buffer with exactly {@code length}
+     *     remaining bytes, or exceptionally with an {@link EOFException} if the end of the file
+     *     is reached before reading all the bytes (or any other {@link IOException}).
+     */
+    public CompletableFuture<ByteBuffer> readMetadataAsync(final long position,
+            final int length) {
+        Preconditions.checkArgument(length >= 0, "negative length: %s", length);
+        final long absolute = toAbsolute(position);
+        if (metadataCache.isCached(absolute, length)) {
+            return fromCache(absolute, length);
+        }
+        final long[] range = metadataCache.pageRange(absolute, length);
+        final long size = range[1] - range[0];
+        Preconditions.checkArgument(size <= Integer.MAX_VALUE, "too many bytes: %s", length);
+        final ByteBuffer pages = ByteBuffer.allocate((int) size);
+        return readAsync(range[0], pages, false).thenCompose(read -> {
+            read.flip();
+            metadataCache.cachePages(range[0], read);
+            return fromCache(absolute, length);
+        });
+    }
+
+    // reads the bytes from the cache in a completed future
+    private CompletableFuture<ByteBuffer> fromCache(final long absolute, final int length) {
+        final CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
+        try {
+            future.complete(metadataCache.read(absolute, length));
+        } catch (final IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Reads raw data (not cached) asynchronously into the destination buffer, until it is full.
+     * The buffer should not be accessed until the future is completed.
+     *
+     * @param position    position relative to the base address.
+     * @param destination buffer to store the bytes.
+     *
+     * @return future completed with the destination (with no remaining bytes), or exceptionally
+     *     with an {@link EOFException} if the end of the file is reached before filling the buffer
+     *     (or any other {@link IOException}).
+     */
+    public CompletableFuture<ByteBuffer> readRawAsync(final long position,
+            final ByteBuffer destination) {
+        Preconditions.checkArgument(destination != null, "null destination");
+        return readAsync(toAbsolute(position), destination, true);
+    }
+
+    /**
+     * Reads raw data (not cached) asynchronously into the destination buffer, until it is full.
+     * The buffer should not be accessed until the future is completed.
+     *
+     * @param address     address relative to the base address.
+     * @param destination buffer to store the bytes.
+     *
+     * @return future completed with the destination (with no remaining bytes), or exceptionally
+     *     with an {@link EOFException} if the end of the file is reached before filling the buffer
+     *     (or any other {@link IOException}).
+     *
+     * @throws FileAddressException if the address is undefined.
+     */
+    public CompletableFuture<ByteBuffer> readRawAsync(final FileAddress address,
+            final ByteBuffer destination) {
+        return readRawAsync(checkDefined(address), destination);
+    }
+
+    // reads until the buffer is full (or the end of the file, if it is not required to be full)
+    private CompletableFuture<ByteBuffer> readAsync(final long absolute,
+            final ByteBuffer destination, final boolean full) {
+        final CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
+        final AsynchronousFileChannel async;
+        try {
+            async = getAsyncChannel();
+        } catch (final IOException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        final int start = destination.position();
+        async.read(destination, absolute, null, new CompletionHandler<Integer, Void>() {
+            @Override
+            public void completed(final Integer read, final Void attachment) {
+                if (read == -1 && full) {
+                    failed(new EOFException(String.format("%s: %s bytes could not be read at %s",
+                            path, destination.remaining(), absolute - baseOffset)), null);
+                } else if (read == -1 || !destination.hasRemaining()) {
+                    future.complete(destination);
+                } else {
+                    try {
+                        async.read(destination, absolute + destination.position() - start, null,
+                                this);
+                    } catch (final RuntimeException e) {
+                        failed(e, null);
+                    }
+                }
+            }
+
+            @Override
+            public void failed(final Throwable e, final Void attachment) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    // opens the asynchronous channel on the first request
+    private AsynchronousFileChannel getAsyncChannel() throws IOException {
+        AsynchronousFileChannel result = asyncChannel;
+        if (result == null) {
+            synchronized (this) {
+                result = asyncChannel;
+                if (result == null) {
+                    if (closed) {
+                        throw new IOException(path + ": reader is closed");
+                    }
+                    asyncChannel = result = AsynchronousFileChannel
+                            .open(path, StandardOpenOption.READ);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Maps raw data into memory, without reading it into the Java heap. The mapping remains valid
+     * after the reader is closed.
+     *
+     * @param position position relative to the base address.
+     * @param length   number of bytes to map.
+     *
+     * @return read-only little-endian buffer with exactly {@code length} remaining bytes.
+     *
+     * @throws EOFException if the mapped region goes beyond the end of the file.
+     * @throws IOException  if an IO error occurs.
+     */
+    public ByteBuffer mapRaw(final long position, final int length) throws IOException {
+        Preconditions.checkArgument(length >= 0, "negative length: %s", length);
+        final long absolute = toAbsolute(position);
+        if (absolute + length > channel.size()) {
+            throw new EOFException(String.format("%s: %s bytes could not be mapped at %s", path,
+                    length, position));
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, absolute, length)
+                .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Decodes a length field (encoded with the <b>Size of Lengths</b> of the superblock) from the
+     * current position of the buffer.
+     *
+     * @param buffer little-endian buffer.
+     *
+     * @return the length.
+     *
+     * @throws HDF5jException if the length cannot be represented as a {@code long}.
+     */
+    public long decodeLength(final ByteBuffer buffer) {
+        final int sizeOfLengths = superblock.getSizeOfLengths();
+        switch (sizeOfLengths) {
+            case Short.BYTES:
+                return Short.toUnsignedLong(buffer.getShort());
+            case Integer.BYTES:
+                return Integer.toUnsignedLong(buffer.getInt());
+            case Long.BYTES:
+                final long length = buffer.getLong();
+                if (length < 0) {
+                    throw new HDF5jException("Length cannot be represented as long: "
+                            + Long.toUnsignedString(length));
+                }
+                return length;
+            default:
+                long value = 0;
+                for (int i = 0; i < sizeOfLengths; i++) {
+                    final long currentByte = Byte.toUnsignedLong(buffer.get());
+                    final boolean overflow = (i >= Long.BYTES) ? currentByte != 0
+                            : i == Long.BYTES - 1 && currentByte > Byte.MAX_VALUE;
+                    if (overflow) {
+                        throw new HDF5jException("Length cannot be represented as long");
+                    }
+                    if (i < Long.BYTES) {
+                        value |= currentByte << (Byte.SIZE * i);
+                    }
+                }
+                return value;
+        }
+    }
+
+    // converts to the absolute position in the file
+    private long toAbsolute(final long position) {
+        Preconditions.checkArgument(position >= 0, "negative position: %s", position);
+        return baseOffset + position;
+    }
+
+    // checks that the address is not undefined
+    private static long checkDefined(final FileAddress address) {
+        Preconditions.checkArgument(address != null, "null address");
+        if (address.isUndefined()) {
+            throw new FileAddressException(address, "cannot be read");
+        }
+        return address.getPosition();
+    }
+
+    @Override
+    public void close() throws IOException {
+        metadataCache.invalidateAll();
+        final AsynchronousFileChannel async;
+        synchronized (this) {
+            closed = true;
+            async = asyncChannel;
+        }
+        try {
+            channel.close();
+        } finally {
+            if (async != null) {
+                async.close();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s]", this.getClass().getSimpleName(), path);
+    }
+}
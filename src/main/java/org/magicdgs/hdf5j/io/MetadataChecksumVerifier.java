@@ -0,0 +1,361 @@
+package org.magicdgs.hdf5j.io;
+
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+import org.magicdgs.hdf5j.utils.hashing.Lookup3HashFunction;
+import org.magicdgs.hdf5j.utils.hashing.Lookup3Hasher;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Verifies the lookup3 checksums of the metadata structures of a file (e.g., version 2
+ * superblocks, version 2 object headers, version 2 B-trees or fractal heaps), once per structure.
+ *
+ * <p>The {@link Mode} establishes when the structures are verified:
+ *
+ * <ul>
+ *     <li>{@link Mode#EAGER}: all the structures reachable from the root group are verified in
+ *     a {@link #sweep(Walk)} when the file is opened (see
+ *     {@link org.magicdgs.hdf5j.group.GroupResolver}).</li>
+ *     <li>{@link Mode#LAZY}: each structure is verified the first time that it is decoded.</li>
+ *     <li>{@link Mode#OFF}: the structures are never verified.</li>
+ * </ul>
+ *
+ * <p>Outside a sweep, the checksums are computed by the decoding thread. During a sweep, the
+ * decoded structures are grouped into batches of (at least) {@link #getBatchSize()} bytes,
+ * which are verified by the {@link Executor} while the sweep keeps decoding; thus, the cost of
+ * the sweep is bounded by the IO and not by the hashing in a single thread.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class MetadataChecksumVerifier {
+
+    /** When the metadata checksums are verified. */
+    public enum Mode {
+        /** Verifies all the structures when the file is opened. */
+        EAGER,
+        /** Verifies each structure when it is first decoded. */
+        LAZY,
+        /** Does not verify the structures. */
+        OFF
+    }
+
+    /** Default minimum number of bytes for each batch of structures verified in a sweep. */
+    public static final int DEFAULT_BATCH_SIZE = 1 << 20;
+
+    // bytes hashed instead of an embedded checksum (only read)
+    private static final byte[] ZERO_CHECKSUM = new byte[Integer.BYTES];
+
+    /** Task for decoding the structures to verify in a sweep. */
+    @FunctionalInterface
+    public interface Walk {
+
+        /**
+         * Decodes the structures, which are submitted for verification by the decoders.
+         *
+         * @throws IOException if an IO error occurs.
+         */
+        public void walk() throws IOException;
+    }
+
+    private final Mode mode;
+    private final Executor executor;
+    private final int batchSize;
+    // addresses of the structures with a verified checksum
+    private final Set<Long> verified = ConcurrentHashMap.newKeySet();
+    // addresses of the structures skipped outside of sweeps (e.g., by sampling)
+    private final Set<Long> skipped = ConcurrentHashMap.newKeySet();
+    // sweep running in the current thread, if any
+    private final ThreadLocal<Sweep> currentSweep = new ThreadLocal<>();
+
+    /**
+     * Constructor for the verifier.
+     *
+     * @param mode      when the checksums are verified.
+     * @param executor  executor for verifying the batches in a sweep.
+     * @param batchSize minimum number of bytes of each batch.
+     */
+    public MetadataChecksumVerifier(final Mode mode, final Executor executor,
+            final int batchSize) {
+        Preconditions.checkArgument(mode != null, "null mode");
+        Preconditions.checkArgument(executor != null, "null executor");
+        Preconditions.checkArgument(batchSize > 0, "non-positive batch size: %s", batchSize);
+        this.mode = mode;
+        this.executor = executor;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Creates a verifier checking each structure when it is first decoded. Sweeps are verified
+     * in the calling thread.
+     *
+     * @return the verifier.
+     */
+    public static MetadataChecksumVerifier lazy() {
+        return new MetadataChecksumVerifier(Mode.LAZY, MoreExecutors.directExecutor(),
+                DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a verifier checking all the structures when the file is opened.
+     *
+     * @param executor executor for verifying the batches (e.g., a thread pool).
+     *
+     * @return the verifier.
+     */
+    public static MetadataChecksumVerifier eager(final Executor executor) {
+        return new MetadataChecksumVerifier(Mode.EAGER, executor, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a verifier which does not check any structure.
+     *
+     * @return the verifier.
+     */
+    public static MetadataChecksumVerifier off() {
+        return new MetadataChecksumVerifier(Mode.OFF, MoreExecutors.directExecutor(),
+                DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Gets when the checksums are verified.
+     *
+     * @return the mode.
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Gets the minimum number of bytes of each batch verified in a sweep.
+     *
+     * @return the batch size.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Returns {@code true} if the structure at the address should be verified (i.e., it is not
+     * verified or {@link #skip(long) skipped} yet and the mode is not {@link Mode#OFF}). Decoders
+     * reading more bytes than needed to verify a structure (e.g., fractal heap direct blocks)
+     * should check this first.
+     *
+     * @param address address of the structure.
+     *
+     * @return {@code true} if the structure is pending verification; {@code false} otherwise.
+     */
+    public boolean isPending(final long address) {
+        if (mode == Mode.OFF || verified.contains(address)) {
+            return false;
+        }
+        final Sweep sweep = currentSweep.get();
+        return (sweep == null) ? !skipped.contains(address) : !sweep.submitted.contains(address);
+    }
+
+    /**
+     * Settles the structure at the address without verifying it (e.g., if it is not sampled), so
+     * it is not pending anymore outside of sweeps. A sweep still verifies it.
+     *
+     * @param address address of the structure.
+     */
+    public void skip(final long address) {
+        if (mode != Mode.OFF) {
+            skipped.add(address);
+        }
+    }
+
+    /**
+     * Returns {@code true} if a {@link #sweep(Walk)} is running in the current thread.
+     *
+     * @return {@code true} if the current thread is sweeping; {@code false} otherwise.
+     */
+    public boolean isSweeping() {
+        return currentSweep.get() != null;
+    }
+
+    /**
+     * Returns {@code true} if the structure at the address was submitted to the sweep running in
+     * the current thread and it is not verified yet. Decoders caching the structures (e.g.,
+     * fractal heap indirect blocks) should not cache them in that case, as they might be corrupt.
+     *
+     * @param address address of the structure.
+     *
+     * @return {@code true} if the structure awaits the end of the sweep; {@code false} otherwise.
+     */
+    public boolean isAwaitingSweep(final long address) {
+        final Sweep sweep = currentSweep.get();
+        return sweep != null && sweep.submitted.contains(address) && !verified.contains(address);
+    }
+
+    /**
+     * Verifies the checksum of a structure, if it was not verified before. Within a sweep, the
+     * structure is submitted for verification and any mismatch is reported by the sweep.
+     *
+     * @param path           path of the file, for the error message.
+     * @param structure      buffer with the structure (from position to limit), including the
+     *                       checksum. It is not modified, and it should not be modified afterwards.
+     * @param checksumOffset offset of the checksum from the buffer position. If it is in the last
+     *                       4 bytes, the checksum is computed over the preceding bytes; otherwise,
+     *                       it is computed over the whole structure with the checksum zeroed.
+     * @param address        address of the structure.
+     *
+     * @throws HDF5jException if the checksum does not match.
+     */
+    public void verify(final Path path, final ByteBuffer structure, final int checksumOffset,
+            final long address) {
+        Preconditions.checkArgument(structure != null, "null structure");
+        Preconditions.checkArgument(checksumOffset >= 0
+                        && checksumOffset <= structure.remaining() - Integer.BYTES,
+                "checksum offset %s out of the structure", checksumOffset);
+        if (!isPending(address)) {
+            return;
+        }
+        final Sweep sweep = currentSweep.get();
+        if (sweep != null) {
+            sweep.submit(structure.slice(), checksumOffset, address);
+            return;
+        }
+        final int stored = getStoredChecksum(structure, checksumOffset);
+        final int computed = computeChecksum(structure, checksumOffset);
+        if (stored != computed) {
+            throw new HDF5jException(String.format(
+                    "%s: metadata checksum mismatch at %s: stored %08x, computed %08x",
+                    path, address, stored, computed));
+        }
+        verified.add(address);
+    }
+
+    /**
+     * Runs a sweep in the current thread: the structures verified by the walk are submitted in
+     * batches to the executor, and this method waits until all of them are verified.
+     *
+     * <p>The walk should not depend on the checksums of the structures, as they are verified
+     * concurrently (e.g., unreadable structures should be handled by the walk).
+     *
+     * @param walk task decoding the structures.
+     *
+     * @return sorted addresses of the structures whose checksum does not match.
+     *
+     * @throws IOException if an IO error occurs in the walk.
+     */
+    public List<Long> sweep(final Walk walk) throws IOException {
+        Preconditions.checkArgument(walk != null, "null walk");
+        Preconditions.checkState(currentSweep.get() == null, "sweep already running");
+        final Sweep sweep = new Sweep();
+        currentSweep.set(sweep);
+        try {
+            walk.walk();
+        } finally {
+            currentSweep.remove();
+            sweep.flush();
+        }
+        return sweep.await();
+    }
+
+    // computes the checksum with the field zeroed (or excluded if it is the trailing one)
+    private static int computeChecksum(final ByteBuffer structure, final int checksumOffset) {
+        final ByteBuffer data = structure.duplicate();
+        if (checksumOffset == data.remaining() - Integer.BYTES) {
+            data.limit(data.limit() - Integer.BYTES);
+            return Lookup3HashFunction.hashBytes(data, 0);
+        }
+        // hashed from the structure around the checksum, without copying it
+        final int start = data.position();
+        final int end = data.limit();
+        final Lookup3Hasher hasher = Lookup3HashFunction.newHasher(data.remaining(), 0);
+        data.limit(start + checksumOffset);
+        hasher.putBytes(data);
+        hasher.putBytes(ZERO_CHECKSUM, 0, Integer.BYTES);
+        data.limit(end).position(start + checksumOffset + Integer.BYTES);
+        return hasher.putBytes(data).hash();
+    }
+
+    private static int getStoredChecksum(final ByteBuffer structure, final int checksumOffset) {
+        return structure.duplicate().order(ByteOrder.LITTLE_ENDIAN)
+                .getInt(structure.position() + checksumOffset);
+    }
+
+    // structures of a sweep, submitted in batches
+    private final class Sweep {
+        // only accessed by the thread running the sweep
+        private final Set<Long> submitted = new HashSet<>();
+        private final List<CompletableFuture<List<Long>>> batches = new ArrayList<>();
+        private List<Structure> batch = new ArrayList<>();
+        private long batchBytes = 0;
+
+        private void submit(final ByteBuffer structure, final int checksumOffset,
+                final long address) {
+            submitted.add(address);
+            batch.add(new Structure(structure, checksumOffset, address));
+            batchBytes += structure.remaining();
+            if (batchBytes >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (!batch.isEmpty()) {
+                final List<Structure> toVerify = batch;
+                batches.add(CompletableFuture.supplyAsync(() -> verifyBatch(toVerify), executor));
+                batch = new ArrayList<>();
+                batchBytes = 0;
+            }
+        }
+
+        private List<Long> await() {
+            final List<Long> corrupt = new ArrayList<>();
+            for (final CompletableFuture<List<Long>> future : batches) {
+                corrupt.addAll(future.join());
+            }
+            corrupt.sort(null);
+            return corrupt;
+        }
+    }
+
+    // returns the corrupt addresses
+    private List<Long> verifyBatch(final List<Structure> batch) {
+        final List<Long> corrupt = new ArrayList<>();
+        for (final Structure structure : batch) {
+            if (getStoredChecksum(structure.buffer, structure.checksumOffset)
+                    == computeChecksum(structure.buffer, structure.checksumOffset)) {
+                verified.add(structure.address);
+            } else {
+                corrupt.add(structure.address);
+            }
+        }
+        return corrupt;
+    }
+
+    private static final class Structure {
+        private final ByteBuffer buffer;
+        private final int checksumOffset;
+        private final long address;
+
+        private Structure(final ByteBuffer buffer, final int checksumOffset, final long address) {
+            this.buffer = buffer;
+            this.checksumOffset = checksumOffset;
+            this.address = address;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s, verified=%s]", this.getClass().getSimpleName(), mode,
+                verified.size());
+    }
+}
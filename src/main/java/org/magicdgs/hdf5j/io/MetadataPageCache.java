@@ -0,0 +1,319 @@
+package org.magicdgs.hdf5j.io;
+
+import org.magicdgs.hdf5j.fileformat.address.FileAddress;
+import org.magicdgs.hdf5j.utils.WeightedLruCache;
+import org.magicdgs.hdf5j.utils.exceptions.FileAddressException;
+
+import com.google.common.base.Preconditions;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Cache of fixed-size pages of a file, used to read small and scattered metadata structures (object
+ * headers, local heaps, B-tree nodes...) without reading from the channel every time.
+ *
+ * <p>Pages are keyed by their page-aligned position in the file, and they are evicted in
+ * least-recently-used order once the cached bytes exceed the configured budget. Hit, miss and
+ * eviction counters are kept to tune the page size and the budget.
+ *
+ * <p>This class is thread-safe: the pages are loaded with positional reads, which do not modify
+ * the position of the channel, and the returned buffers are independent views of the cached
+ * pages.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class MetadataPageCache {
+
+    /** Default page size (4 KiB). */
+    public static final int DEFAULT_PAGE_SIZE = 4096;
+
+    /** Default maximum number of bytes retained by the cache (16 MiB). */
+    public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final int pageSize;
+    private final long pageMask;
+    private final WeightedLruCache<Long, ByteBuffer> pages;
+
+    /**
+     * Constructor with the default page size and memory budget.
+     *
+     * @param channel channel to read the pages from.
+     */
+    public MetadataPageCache(final FileChannel channel) {
+        this(channel, DEFAULT_PAGE_SIZE, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Constructor with custom page size and memory budget.
+     *
+     * @param channel  channel to read the pages from.
+     * @param pageSize size of the pages (power of two).
+     * @param maxBytes maximum number of bytes to retain in the cache.
+     */
+    public MetadataPageCache(final FileChannel channel, final int pageSize, final long maxBytes) {
+        Preconditions.checkArgument(channel != null, "null channel");
+        Preconditions.checkArgument(pageSize > 0 && Integer.bitCount(pageSize) == 1,
+                "page size should be a power of two: %s", pageSize);
+        Preconditions.checkArgument(maxBytes >= 0, "negative maxBytes: %s", maxBytes);
+        this.channel = channel;
+        this.pageSize = pageSize;
+        this.pageMask = ~((long) pageSize - 1);
+        this.pages = new WeightedLruCache<>(maxBytes, ByteBuffer::capacity);
+    }
+
+    /**
+     * Reads the bytes starting at the provided address.
+     *
+     * <p>If the requested bytes are contained in a single page, the returned buffer is a view of
+     * the cached page and no bytes are copied.
+     *
+     * @param address address of the first byte.
+     * @param length  number of bytes to read.
+     *
+     * @return read-only little-endian buffer with exactly {@code length} remaining bytes.
+     *
+     * @throws FileAddressException if the address is undefined.
+     * @throws EOFException         if the end of the file is reached before reading all the bytes.
+     * @throws IOException          if an IO error occurs.
+     */
+    public ByteBuffer read(final FileAddress address, final int length) throws IOException {
+        return read(checkAddress(address), length);
+    }
+
+    /**
+     * Reads the bytes starting at the provided position.
+     *
+     * <p>If the requested bytes are contained in a single page, the returned buffer is a view of
+     * the cached page and no bytes are copied.
+     *
+     * @param position position of the first byte in the file.
+     * @param length   number of bytes to read.
+     *
+     * @return read-only little-endian buffer with exactly {@code length} remaining bytes.
+     *
+     * @throws EOFException if the end of the file is reached before reading all the bytes.
+     * @throws IOException  if an IO error occurs.
+     */
+    public ByteBuffer read(final long position, final int length) throws IOException {
+        Preconditions.checkArgument(position >= 0, "negative position: %s", position);
+        Preconditions.checkArgument(length >= 0, "negative length: %s", length);
+        final long pagePosition = position & pageMask;
+        final int offset = (int) (position - pagePosition);
+        if (offset + length <= pageSize) {
+            final ByteBuffer page = getPage(pagePosition);
+            if (offset + length > page.limit()) {
+                throw new EOFException(String.format(
+                        "Position %s: %s bytes requested but only %s available",
+                        position, length, Math.max(0, page.limit() - offset)));
+            }
+            page.position(offset).limit(offset + length);
+            return page.slice().order(ByteOrder.LITTLE_ENDIAN);
+        }
+        // spans several pages: the bytes should be copied
+        final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        read(position, buffer);
+        buffer.flip();
+        return buffer.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Reads the bytes starting at the provided address into the buffer, until it is full.
+     *
+     * @param address     address of the first byte.
+     * @param destination buffer to store the bytes.
+     *
+     * @throws FileAddressException if the address is undefined.
+     * @throws EOFException         if the end of the file is reached before filling the buffer.
+     * @throws IOException          if an IO error occurs.
+     */
+    public void read(final FileAddress address, final ByteBuffer destination)
+            throws IOException {
+        read(checkAddress(address), destination);
+    }
+
+    /**
+     * Reads the bytes starting at the provided position into the buffer, until it is full.
+     *
+     * @param position    position of the first byte in the file.
+     * @param destination buffer to store the bytes.
+     *
+     * @throws EOFException if the end of the file is reached before filling the buffer.
+     * @throws IOException  if an IO error occurs.
+     */
+    public void read(final long position, final ByteBuffer destination) throws IOException {
+        Preconditions.checkArgument(position >= 0, "negative position: %s", position);
+        Preconditions.checkArgument(destination != null, "null destination");
+        long current = position;
+        while (destination.hasRemaining()) {
+            final long pagePosition = current & pageMask;
+            final ByteBuffer page = getPage(pagePosition);
+            if (current - pagePosition >= page.limit()) {
+                throw new EOFException(String.format("Position %s: %s bytes could not be read",
+                        position, destination.remaining()));
+            }
+            page.position((int) (current - pagePosition));
+            final int toCopy = Math.min(page.remaining(), destination.remaining());
+            page.limit(page.position() + toCopy);
+            destination.put(page);
+            current += toCopy;
+        }
+    }
+
+    // checks that the address is not undefined and returns its position
+    private static long checkAddress(final FileAddress address) {
+        Preconditions.checkArgument(address != null, "null address");
+        if (address.isUndefined()) {
+            throw new FileAddressException(address, "cannot be read");
+        }
+        return address.getPosition();
+    }
+
+    /**
+     * Gets the page starting at the provided position, loading it if it is not cached.
+     *
+     * @param pagePosition page-aligned position.
+     *
+     * @return read-only view of the page (the limit is lower than the page size for the last page
+     * of the file).
+     */
+    private ByteBuffer getPage(final long pagePosition) throws IOException {
+        // loaded outside of the lock to allow concurrent loading of different pages
+        return pages.get(pagePosition, this::loadPage).duplicate();
+    }
+
+    // reads the page from the channel with positional reads
+    private ByteBuffer loadPage(final long pagePosition) throws IOException {
+        final ByteBuffer page = ByteBuffer.allocate(pageSize);
+        while (page.hasRemaining()
+                && channel.read(page, pagePosition + page.position()) != -1) {
+            // keep reading until the page is full or the end of the file
+        }
+        page.flip();
+        return page.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns {@code true} if all the pages containing the bytes are cached.
+     *
+     * @param position position of the first byte in the file.
+     * @param length   number of bytes.
+     *
+     * @return {@code true} if the bytes can be read without loading pages; {@code false}
+     *     otherwise.
+     */
+    boolean isCached(final long position, final int length) {
+        final long last = (position + Math.max(length, 1) - 1) & pageMask;
+        for (long page = position & pageMask; page <= last; page += pageSize) {
+            if (!pages.containsKey(page)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the page-aligned range containing the bytes, to load the pages by other means (e.g.,
+     * asynchronous reads).
+     *
+     * @param position position of the first byte in the file.
+     * @param length   number of bytes.
+     *
+     * @return position of the first page and position after the last one.
+     */
+    long[] pageRange(final long position, final int length) {
+        final long first = position & pageMask;
+        final long last = (position + Math.max(length, 1) - 1) & pageMask;
+        return new long[] {first, last + pageSize};
+    }
+
+    /**
+     * Caches pages loaded by other means (see {@link #pageRange(long, int)}).
+     *
+     * @param firstPage position of the first page.
+     * @param data      bytes of the pages (from position to limit), which might end before the
+     *                  last page is full at the end of the file.
+     */
+    void cachePages(final long firstPage, final ByteBuffer data) {
+        Preconditions.checkArgument((firstPage & pageMask) == firstPage,
+                "not page-aligned position: %s", firstPage);
+        for (int offset = 0; offset < data.remaining(); offset += pageSize) {
+            final ByteBuffer page = ByteBuffer.allocate(pageSize);
+            final ByteBuffer source = data.duplicate();
+            source.position(data.position() + offset)
+                    .limit(Math.min(data.limit(), source.position() + pageSize));
+            page.put(source).flip();
+            pages.put(firstPage + offset, page.asReadOnlyBuffer());
+        }
+    }
+
+    /** Removes all the pages from the cache. */
+    public void invalidateAll() {
+        pages.invalidateAll();
+    }
+
+    /**
+     * Gets the page size.
+     *
+     * @return size of the pages in bytes.
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Gets the maximum number of bytes retained by the cache.
+     *
+     * @return memory budget in bytes.
+     */
+    public long getMaxBytes() {
+        return pages.getMaxWeight();
+    }
+
+    /**
+     * Gets the number of bytes currently retained by the cache.
+     *
+     * @return cached bytes.
+     */
+    public long getCachedBytes() {
+        return pages.getWeight();
+    }
+
+    /**
+     * Gets the number of page requests served from the cache.
+     *
+     * @return number of hits.
+     */
+    public long getHitCount() {
+        return pages.getHitCount();
+    }
+
+    /**
+     * Gets the number of page requests that required to read from the channel.
+     *
+     * @return number of misses.
+     */
+    public long getMissCount() {
+        return pages.getMissCount();
+    }
+
+    /**
+     * Gets the number of pages evicted from the cache.
+     *
+     * @return number of evictions.
+     */
+    public long getEvictionCount() {
+        return pages.getEvictionCount();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[pageSize=%s, maxBytes=%s, hits=%s, misses=%s, evictions=%s]",
+                this.getClass().getSimpleName(), pageSize, getMaxBytes(), getHitCount(),
+                getMissCount(), getEvictionCount());
+    }
+}
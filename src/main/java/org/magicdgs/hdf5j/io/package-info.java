@@ -0,0 +1,6 @@
+/**
+ * Input/Output components to access the bytes of HDF5 files.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+package org.magicdgs.hdf5j.io;
\ No newline at end of file
@@ -0,0 +1,73 @@
+package org.magicdgs.hdf5j.utils;
+
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Utilities for decoding the structures of the HDF5 format from buffers. All the methods use
+ * absolute indexes, so the position of the buffers is never modified.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class DecodingUtils {
+
+    // cannot be instantiated
+    private DecodingUtils() {}
+
+    /**
+     * Checks if the buffer starts with the signature.
+     *
+     * @param buffer    buffer with the structure at index 0.
+     * @param signature expected signature.
+     *
+     * @return {@code true} if the first bytes of the buffer are the signature; {@code false}
+     * otherwise.
+     */
+    public static boolean hasSignature(final ByteBuffer buffer, final byte[] signature) {
+        for (int i = 0; i < signature.length; i++) {
+            if (buffer.get(i) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks that the buffer starts with the signature of a structure.
+     *
+     * @param buffer    buffer with the structure at index 0.
+     * @param signature expected signature.
+     * @param structure name of the structure for the error message.
+     * @param address   address of the structure for the error message.
+     *
+     * @throws HDF5jException if the signature does not match.
+     */
+    public static void checkSignature(final ByteBuffer buffer, final byte[] signature,
+            final String structure, final long address) {
+        if (!hasSignature(buffer, signature)) {
+            throw new HDF5jException("Invalid " + structure + " signature at " + address);
+        }
+    }
+
+    /**
+     * Decodes a little-endian unsigned value with a variable number of bytes (e.g., the offsets
+     * and lengths of the fractal heap IDs or the number of records in the version 2 B-trees).
+     *
+     * @param buffer buffer with the value.
+     * @param index  index of the first byte.
+     * @param size   number of bytes of the value (at most 8).
+     *
+     * @return the decoded value.
+     */
+    public static long decodeUnsigned(final ByteBuffer buffer, final int index, final int size) {
+        Preconditions.checkArgument(size >= 0 && size <= Long.BYTES, "invalid size: %s", size);
+        long value = 0;
+        for (int i = 0; i < size; i++) {
+            value |= Byte.toUnsignedLong(buffer.get(index + i)) << (Byte.SIZE * i);
+        }
+        return value;
+    }
+}
@@ -6,9 +6,19 @@ import com.google.common.base.Preconditions;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 /**
  * Utilities for HDF5 files.
@@ -17,6 +27,9 @@ import java.nio.file.StandardOpenOption;
  */
 public final class HDF5Utils {
 
+    // first offset for the superblock after offset 0 (minimum userblock size)
+    private static final long FIRST_USERBLOCK_SUPERBLOCK_OFFSET = 512;
+
     // cannot be instantiated
     private HDF5Utils() {}
 
@@ -48,6 +61,9 @@ public final class HDF5Utils {
      * Checks if the start of the file is an HDF5 formatted file; that is, it starts with the
      * {@link HDF5Constants#HDF5_FORMAT_SIGNATURE}.
      *
+     * <p>Note: files with a userblock are not detected by this method. Use
+     * {@link #findSuperblockOffset(Path)} instead.
+     *
      * @param path file to check.
      *
      * @return {@code true} if the file is HDF5 formatted; {@code false} otherwise.
@@ -57,12 +73,164 @@ public final class HDF5Utils {
     public static boolean isHDF5File(final Path path) throws IOException {
         Preconditions.checkNotNull(path, "null path");
         // auto-closing with try-with-resources
-        try (final InputStream is = Files.newInputStream(path, StandardOpenOption.READ)) {
-            // does not require mark
-            return readHDF5signature(is);
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return hasHDF5signature(channel, 0,
+                    ByteBuffer.allocate(HDF5Constants.HDF5_FORMAT_SIGNATURE.length));
         }
     }
 
+    /**
+     * Finds the offset of the superblock in the file, which is located by searching the
+     * {@link HDF5Constants#HDF5_FORMAT_SIGNATURE} at byte offset 0, 512, and at successive
+     * locations in the file, each a multiple of two of the previous location (0, 512, 1024,
+     * 2048...).
+     *
+     * @param path file to check.
+     *
+     * @return offset of the superblock; {@code -1} if the file is not HDF5 formatted.
+     *
+     * @throws IOException if an IO error occurs.
+     * @see #findSuperblockOffset(FileChannel)
+     */
+    public static long findSuperblockOffset(final Path path) throws IOException {
+        Preconditions.checkNotNull(path, "null path");
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return findSuperblockOffset(channel);
+        }
+    }
+
+    /**
+     * Finds the offset of the superblock in the channel, which is located by searching the
+     * {@link HDF5Constants#HDF5_FORMAT_SIGNATURE} at byte offset 0, 512, and at successive
+     * locations in the file, each a multiple of two of the previous location (0, 512, 1024,
+     * 2048...).
+     *
+     * <p>Note: this method uses positional reads, so the position of the channel is not modified.
+     *
+     * @param channel file channel to check.
+     *
+     * @return offset of the superblock; {@code -1} if the channel is not HDF5 formatted.
+     *
+     * @throws IOException if an IO error occurs.
+     */
+    public static long findSuperblockOffset(final FileChannel channel) throws IOException {
+        Preconditions.checkNotNull(channel, "null channel");
+        final long lastOffset = channel.size() - HDF5Constants.HDF5_FORMAT_SIGNATURE.length;
+        // the buffer is re-used for every offset
+        final ByteBuffer buffer = ByteBuffer.allocate(HDF5Constants.HDF5_FORMAT_SIGNATURE.length);
+        if (hasHDF5signature(channel, 0, buffer)) {
+            return 0;
+        }
+        for (long offset = FIRST_USERBLOCK_SUPERBLOCK_OFFSET; offset <= lastOffset; offset *= 2) {
+            if (hasHDF5signature(channel, offset, buffer)) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the offset of the superblock (see {@link #findSuperblockOffset(Path)}) for every
+     * regular file in a directory tree. The files are checked in parallel, and a file or a
+     * directory which cannot be read (e.g., without permissions) does not prevent checking the
+     * rest.
+     *
+     * <p>Note: a file which cannot be read is mapped to {@code -1}, as the files which are not
+     * HDF5 formatted, and a directory which cannot be read is skipped. Use
+     * {@link #findSuperblockOffsets(Path, BiConsumer)} to report them separately.
+     *
+     * @param directory root of the directory tree.
+     *
+     * @return map from every regular file to its superblock offset ({@code -1} if the file is not
+     * HDF5 formatted or it cannot be read).
+     *
+     * @throws IOException if an IO error occurs while walking the directory tree.
+     */
+    public static Map<Path, Long> findSuperblockOffsets(final Path directory)
+            throws IOException {
+        final Map<Path, Long> unreadable = new ConcurrentHashMap<>();
+        final Map<Path, Long> offsets = findSuperblockOffsets(directory, (path, e) -> {
+            if (!Files.isDirectory(path)) {
+                unreadable.put(path, -1L);
+            }
+        });
+        offsets.putAll(unreadable);
+        return offsets;
+    }
+
+    /**
+     * Finds the offset of the superblock (see {@link #findSuperblockOffset(Path)}) for every
+     * regular file in a directory tree. The files are checked in parallel, and a file or a
+     * directory which cannot be read (e.g., without permissions) is reported to the failure
+     * handler without preventing checking the rest.
+     *
+     * @param directory root of the directory tree.
+     * @param onFailure handler for the files and directories which cannot be read, called with
+     *                  the path and the error (might be called concurrently).
+     *
+     * @return map from every regular file read to its superblock offset ({@code -1} if the file
+     * is not HDF5 formatted). The files which cannot be read are not included.
+     *
+     * @throws IOException if an IO error occurs while walking the directory tree.
+     */
+    public static Map<Path, Long> findSuperblockOffsets(final Path directory,
+            final BiConsumer<Path, IOException> onFailure) throws IOException {
+        Preconditions.checkNotNull(directory, "null directory");
+        Preconditions.checkNotNull(onFailure, "null failure handler");
+        // collect first: the walk does not split for parallel processing
+        final List<Path> files = new ArrayList<>();
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                // symbolic links are checked if they point to a regular file
+                if (attrs.isRegularFile() || attrs.isSymbolicLink() && Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(final Path file, final IOException e) {
+                onFailure.accept(file, e);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(final Path dir, final IOException e) {
+                if (e != null) {
+                    onFailure.accept(dir, e);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        final Map<Path, Long> offsets = new ConcurrentHashMap<>();
+        files.parallelStream().forEach(file -> {
+            try {
+                offsets.put(file, findSuperblockOffset(file));
+            } catch (final IOException e) {
+                onFailure.accept(file, e);
+            }
+        });
+        return offsets;
+    }
+
+    // helper method to check the signature at an offset with a positional read
+    private static boolean hasHDF5signature(final FileChannel channel, final long offset,
+            final ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) == -1) {
+                return false;
+            }
+        }
+        for (int i = 0; i < HDF5Constants.HDF5_FORMAT_SIGNATURE.length; i++) {
+            if (Byte.toUnsignedInt(buffer.get(i)) != HDF5Constants.HDF5_FORMAT_SIGNATURE[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     // helper method which consume the InputStream for avoid the usage of mark if it isn't necessary
     private static boolean readHDF5signature(final InputStream inputStream) throws IOException {
         // get the possible HDF5 signature
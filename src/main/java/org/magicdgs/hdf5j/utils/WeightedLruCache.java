@@ -0,0 +1,227 @@
+package org.magicdgs.hdf5j.utils;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Least-recently-used cache bounded by the total weight (e.g., retained bytes) of its values,
+ * with hit, miss and eviction counters. It backs the caches of decoded structures and file pages.
+ *
+ * <p>This class is thread-safe: values are loaded outside of the lock, so concurrent misses for
+ * different keys do not block each other (concurrent misses for the same key might load the value
+ * more than once).
+ *
+ * @param <K> type of the keys.
+ * @param <V> type of the values.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class WeightedLruCache<K, V> {
+
+    /**
+     * Loader for the values not cached.
+     *
+     * @param <K> type of the keys.
+     * @param <V> type of the values.
+     */
+    @FunctionalInterface
+    public interface Loader<K, V> {
+
+        /**
+         * Loads the value for the key.
+         *
+         * @param key the key.
+         *
+         * @return the value (not {@code null}).
+         *
+         * @throws IOException if an IO error occurs.
+         */
+        public V load(final K key) throws IOException;
+    }
+
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+
+    // access-ordered map for LRU eviction; guarded by itself
+    private final LinkedHashMap<K, V> values = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight = 0;
+
+    // statistics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructor for the cache.
+     *
+     * @param maxWeight maximum total weight of the cached values.
+     * @param weigher   function computing the weight of a value, which should not change.
+     */
+    public WeightedLruCache(final long maxWeight, final ToLongFunction<V> weigher) {
+        Preconditions.checkArgument(maxWeight >= 0, "negative maxWeight: %s", maxWeight);
+        Preconditions.checkArgument(weigher != null, "null weigher");
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Gets the value for the key, loading and caching it if it is not cached.
+     *
+     * @param key    the key.
+     * @param loader loader for the value if it is not cached.
+     *
+     * @return the value.
+     *
+     * @throws IOException if an IO error occurs while loading the value.
+     */
+    public V get(final K key, final Loader<? super K, ? extends V> loader) throws IOException {
+        V value;
+        synchronized (values) {
+            value = values.get(key);
+        }
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            value = loader.load(key);
+            cache(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Caches a value loaded by other means (e.g., asynchronously), which counts as a miss.
+     *
+     * @param key   the key.
+     * @param value the value.
+     */
+    public void put(final K key, final V value) {
+        Preconditions.checkArgument(value != null, "null value");
+        misses.increment();
+        cache(key, value);
+    }
+
+    // caches the value and evicts the least-recently-used ones if the budget is exceeded
+    private void cache(final K key, final V value) {
+        synchronized (values) {
+            final V previous = values.put(key, value);
+            if (previous != null) {
+                weight -= weigher.applyAsLong(previous);
+            }
+            weight += weigher.applyAsLong(value);
+            final Iterator<Map.Entry<K, V>> it = values.entrySet().iterator();
+            while (weight > maxWeight && it.hasNext()) {
+                weight -= weigher.applyAsLong(it.next().getValue());
+                it.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if the key is cached, without updating its recency or the counters.
+     *
+     * @param key the key.
+     *
+     * @return {@code true} if the key is cached; {@code false} otherwise.
+     */
+    public boolean containsKey(final K key) {
+        synchronized (values) {
+            return values.containsKey(key);
+        }
+    }
+
+    /**
+     * Removes the value for the key from the cache, if present.
+     *
+     * @param key the key.
+     */
+    public void invalidate(final K key) {
+        synchronized (values) {
+            final V removed = values.remove(key);
+            if (removed != null) {
+                weight -= weigher.applyAsLong(removed);
+            }
+        }
+    }
+
+    /** Removes all the values from the cache. */
+    public void invalidateAll() {
+        synchronized (values) {
+            values.clear();
+            weight = 0;
+        }
+    }
+
+    /**
+     * Gets the maximum total weight of the cached values.
+     *
+     * @return the weight budget.
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Gets the total weight of the cached values.
+     *
+     * @return the cached weight.
+     */
+    public long getWeight() {
+        synchronized (values) {
+            return weight;
+        }
+    }
+
+    /**
+     * Gets the number of values currently cached.
+     *
+     * @return number of values.
+     */
+    public int size() {
+        synchronized (values) {
+            return values.size();
+        }
+    }
+
+    /**
+     * Gets the number of requests served from the cache.
+     *
+     * @return number of hits.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of requests that required to load the value, and of the values cached with
+     * {@link #put(Object, Object)}.
+     *
+     * @return number of misses.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of values evicted from the cache.
+     *
+     * @return number of evictions.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[maxWeight=%s, hits=%s, misses=%s, evictions=%s]",
+                this.getClass().getSimpleName(), maxWeight, getHitCount(), getMissCount(),
+                getEvictionCount());
+    }
+}
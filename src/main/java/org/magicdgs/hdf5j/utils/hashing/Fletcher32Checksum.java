@@ -0,0 +1,72 @@
+package org.magicdgs.hdf5j.utils.hashing;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Implementation of the Fletcher-32 checksum as computed by the HDF5 library
+ * ({@code H5_checksum_fletcher32}), where the data is read as big-endian 16-bit words and an odd
+ * trailing byte is treated as the high byte of a word.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ * @implNote words are read four at a time with {@link ByteBuffer#getLong(int)}, and the sums are
+ * reduced every 360 words as in the reference implementation, which is the maximum number of words
+ * that can be added without overflowing 32 bits.
+ */
+public final class Fletcher32Checksum {
+
+    // maximum number of words before reducing the sums
+    private static final int BLOCK_WORDS = 360;
+
+    // cannot be instantiated
+    private Fletcher32Checksum() {}
+
+    /**
+     * Computes the checksum of the remaining bytes of the buffer. The buffer is not consumed.
+     *
+     * @param input heap or direct buffer.
+     *
+     * @return the 32-bit checksum.
+     */
+    public static int checksum(final ByteBuffer input) {
+        Preconditions.checkArgument(input != null, "null input");
+        final ByteBuffer data = (input.order() == ByteOrder.BIG_ENDIAN)
+                ? input : input.duplicate().order(ByteOrder.BIG_ENDIAN);
+        int pos = input.position();
+        int words = input.remaining() / 2;
+        int sum1 = 0;
+        int sum2 = 0;
+        while (words > 0) {
+            final int blockWords = Math.min(words, BLOCK_WORDS);
+            words -= blockWords;
+            final int end = pos + 2 * blockWords;
+            // unrolled: four words per iteration
+            for (; pos + Long.BYTES <= end; pos += Long.BYTES) {
+                final long fourWords = data.getLong(pos);
+                final int w0 = (int) (fourWords >>> 48);
+                final int w1 = (int) (fourWords >>> 32) & 0xFFFF;
+                final int w2 = (int) (fourWords >>> 16) & 0xFFFF;
+                final int w3 = (int) fourWords & 0xFFFF;
+                sum2 += 4 * sum1 + 4 * w0 + 3 * w1 + 2 * w2 + w3;
+                sum1 += w0 + w1 + w2 + w3;
+            }
+            for (; pos < end; pos += 2) {
+                sum1 += Short.toUnsignedInt(data.getShort(pos));
+                sum2 += sum1;
+            }
+            sum1 = (sum1 & 0xFFFF) + (sum1 >>> 16);
+            sum2 = (sum2 & 0xFFFF) + (sum2 >>> 16);
+        }
+        if (input.remaining() % 2 != 0) {
+            sum1 += Byte.toUnsignedInt(data.get(pos)) << 8;
+            sum2 += sum1;
+            sum1 = (sum1 & 0xFFFF) + (sum1 >>> 16);
+            sum2 = (sum2 & 0xFFFF) + (sum2 >>> 16);
+        }
+        sum1 = (sum1 & 0xFFFF) + (sum1 >>> 16);
+        sum2 = (sum2 & 0xFFFF) + (sum2 >>> 16);
+        return (sum2 << 16) | sum1;
+    }
+}
@@ -2,6 +2,9 @@ package org.magicdgs.hdf5j.utils.hashing;
 
 import com.google.common.base.Preconditions;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 /**
  * Implementation of <a href="http://www.burtleburtle.net/bob/hash/doobs.html">
  * Bob Jenkins' algorithm for 32-bits hashing</a>. Concretely, it implements the
@@ -12,11 +15,14 @@ import com.google.common.base.Preconditions;
  * for cryptographic purposes.
  *
  * @author Daniel Gomez-Sanchez (magicDGS)
+ * @implNote the input is read as little-endian 32-bits words (12 bytes per block) using the
+ * absolute {@link ByteBuffer#getInt(int)}, which works for both heap and direct (or mapped)
+ * buffers without copying them.
  */
 public class Lookup3HashFunction {
 
-    private static final int INTERNAL_STATE_CONSTANT = 0xdeadbeef;
-    private static final int LAST_BLOCK_LENGTH = 12;
+    static final int INTERNAL_STATE_CONSTANT = 0xdeadbeef;
+    static final int LAST_BLOCK_LENGTH = 12;
 
     /**
      * Hashes a variable-length key into a 32-bit value using the
@@ -40,9 +46,50 @@ public class Lookup3HashFunction {
     public final static int hashBytes(final byte[] input, final int offset, final int length,
             final int initValue) {
         Preconditions.checkPositionIndexes(offset, length, input.length);
-
         // compute the lenght that it is going to be used in the hash
-        int len = length - offset;
+        return hash(ByteBuffer.wrap(input).order(ByteOrder.LITTLE_ENDIAN), offset,
+                length - offset, initValue);
+    }
+
+    /**
+     * Hashes the remaining bytes of the buffer (from its position to its limit) into a 32-bit
+     * value using the
+     * <a href="http://www.burtleburtle.net/bob/c/lookup3.c">{@code lookup3.c#hashlittle()}</a>
+     * function.
+     *
+     * <p>Note: the buffer is not consumed, and the bytes are interpreted as little-endian
+     * independently of the {@link ByteBuffer#order()} of the buffer.
+     *
+     * @param input     heap or direct buffer to hash.
+     * @param initValue value for initialize the hash.
+     *
+     * @return a 32-bit hash.
+     */
+    public final static int hashBytes(final ByteBuffer input, final int initValue) {
+        Preconditions.checkArgument(input != null, "null input");
+        final ByteBuffer littleEndian = (input.order() == ByteOrder.LITTLE_ENDIAN)
+                ? input : input.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        return hash(littleEndian, input.position(), input.remaining(), initValue);
+    }
+
+    /**
+     * Creates a new {@link Lookup3Hasher} for an input of the provided length, to hash a key
+     * provided in several pieces (e.g., scattered buffers) without copying them together.
+     *
+     * @param length    total number of bytes that would be hashed.
+     * @param initValue value for initialize the hash.
+     *
+     * @return new hasher.
+     */
+    public final static Lookup3Hasher newHasher(final int length, final int initValue) {
+        Preconditions.checkArgument(length >= 0, "negative length: %s", length);
+        return new Lookup3Hasher(length, initValue);
+    }
+
+    // hashes len bytes from the little-endian buffer, starting at off
+    private static int hash(final ByteBuffer input, final int offset, final int length,
+            final int initValue) {
+        int len = length;
 
         // setting up the internal state
         int a = INTERNAL_STATE_CONSTANT + len + initValue;
@@ -52,18 +99,9 @@ public class Lookup3HashFunction {
         int off = offset;
         // all but the last block
         while (len > LAST_BLOCK_LENGTH) {
-            a += Byte.toUnsignedInt(input[off]);
-            a += Byte.toUnsignedInt(input[off + 1]) << 8;
-            a += Byte.toUnsignedInt(input[off + 2]) << 16;
-            a += Byte.toUnsignedInt(input[off + 3]) << 24;
-            b += Byte.toUnsignedInt(input[off + 4]);
-            b += Byte.toUnsignedInt(input[off + 5]) << 8;
-            b += Byte.toUnsignedInt(input[off + 6]) << 16;
-            b += Byte.toUnsignedInt(input[off + 7]) << 24;
-            c += Byte.toUnsignedInt(input[off + 8]);
-            c += Byte.toUnsignedInt(input[off + 9]) << 8;
-            c += Byte.toUnsignedInt(input[off + 10]) << 16;
-            c += Byte.toUnsignedInt(input[off + 11]) << 24;
+            a += input.getInt(off);
+            b += input.getInt(off + 4);
+            c += input.getInt(off + 8);
 
             // mixing
             a -= c;
@@ -90,31 +128,41 @@ public class Lookup3HashFunction {
             off += LAST_BLOCK_LENGTH;
         }
 
+        return finalBlock(a, b, c, input, off, len);
+    }
+
+    /**
+     * Adds the last block (up to 12 bytes) to the internal state and performs the final mixing.
+     *
+     * @return the final hash value.
+     */
+    static int finalBlock(int a, int b, int c, final ByteBuffer input, final int off,
+            final int len) {
         switch (len) {
             case 12:
-                c += Byte.toUnsignedInt(input[off + 11]) << 24;
+                c += Byte.toUnsignedInt(input.get(off + 11)) << 24;
             case 11:
-                c += Byte.toUnsignedInt(input[off + 10]) << 16;
+                c += Byte.toUnsignedInt(input.get(off + 10)) << 16;
             case 10:
-                c += Byte.toUnsignedInt(input[off + 9]) << 8;
+                c += Byte.toUnsignedInt(input.get(off + 9)) << 8;
             case 9:
-                c += Byte.toUnsignedInt(input[off + 8]);
+                c += Byte.toUnsignedInt(input.get(off + 8));
             case 8:
-                b += Byte.toUnsignedInt(input[off + 7]) << 24;
+                b += Byte.toUnsignedInt(input.get(off + 7)) << 24;
             case 7:
-                b += Byte.toUnsignedInt(input[off + 6]) << 16;
+                b += Byte.toUnsignedInt(input.get(off + 6)) << 16;
             case 6:
-                b += Byte.toUnsignedInt(input[off + 5]) << 8;
+                b += Byte.toUnsignedInt(input.get(off + 5)) << 8;
             case 5:
-                b += Byte.toUnsignedInt(input[off + 4]);
+                b += Byte.toUnsignedInt(input.get(off + 4));
             case 4:
-                a += Byte.toUnsignedInt(input[off + 3]) << 24;
+                a += Byte.toUnsignedInt(input.get(off + 3)) << 24;
             case 3:
-                a += Byte.toUnsignedInt(input[off + 2]) << 16;
+                a += Byte.toUnsignedInt(input.get(off + 2)) << 16;
             case 2:
-                a += Byte.toUnsignedInt(input[off + 1]) << 8;
+                a += Byte.toUnsignedInt(input.get(off + 1)) << 8;
             case 1:
-                a += Byte.toUnsignedInt(input[off]);
+                a += Byte.toUnsignedInt(input.get(off));
                 break;
             case 0:
                 return c;
@@ -143,7 +191,7 @@ public class Lookup3HashFunction {
     }
 
     // rotate function
-    private static int rot(final int x, final int k) {
+    static int rot(final int x, final int k) {
         return (x << k) | (x >>> (32 - k));
     }
 }
@@ -0,0 +1,135 @@
+package org.magicdgs.hdf5j.utils.hashing;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Incremental version of {@link Lookup3HashFunction}, which hashes a key provided in several
+ * pieces without copying them together. For example, a metadata block spread over several mapped
+ * regions or cached pages.
+ *
+ * <p>Because the length of the key is part of the initial state of the hash, it should be known
+ * beforehand. To create a hasher, use {@link Lookup3HashFunction#newHasher(int, int)}.
+ *
+ * <p>Note: instances of this class are not thread-safe.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public final class Lookup3Hasher {
+
+    private final int length;
+    private int received = 0;
+
+    // internal state
+    private int a;
+    private int b;
+    private int c;
+
+    // pending block: it is only mixed once it is known that it is not the last one
+    private final ByteBuffer block = ByteBuffer
+            .allocate(Lookup3HashFunction.LAST_BLOCK_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+
+    // use the factory method
+    Lookup3Hasher(final int length, final int initValue) {
+        this.length = length;
+        this.a = Lookup3HashFunction.INTERNAL_STATE_CONSTANT + length + initValue;
+        this.b = a;
+        this.c = a;
+    }
+
+    /**
+     * Adds the bytes from the array into the hash.
+     *
+     * @param input  bytes to hash.
+     * @param offset start hashing from this index.
+     * @param len    number of bytes to include.
+     *
+     * @return this hasher.
+     */
+    public Lookup3Hasher putBytes(final byte[] input, final int offset, final int len) {
+        Preconditions.checkPositionIndexes(offset, offset + len, input.length);
+        return putBytes(ByteBuffer.wrap(input, offset, len));
+    }
+
+    /**
+     * Adds the remaining bytes of the buffer into the hash. After this method returns, the buffer
+     * would not have any remaining bytes.
+     *
+     * @param input heap or direct buffer to hash.
+     *
+     * @return this hasher.
+     */
+    public Lookup3Hasher putBytes(final ByteBuffer input) {
+        Preconditions.checkArgument(input != null, "null input");
+        Preconditions.checkArgument(input.remaining() <= length - received,
+                "hasher expected %s more bytes, but %s were provided",
+                length - received, input.remaining());
+        final ByteBuffer littleEndian = (input.order() == ByteOrder.LITTLE_ENDIAN)
+                ? input : input.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int pos = input.position();
+        final int end = input.limit();
+        while (pos < end) {
+            // there are more bytes, so a full pending block can be mixed
+            if (!block.hasRemaining()) {
+                mix(block.getInt(0), block.getInt(4), block.getInt(8));
+                block.clear();
+            }
+            // mix directly from the input all the blocks that are not the last one
+            if (block.position() == 0) {
+                while (end - pos > Lookup3HashFunction.LAST_BLOCK_LENGTH) {
+                    mix(littleEndian.getInt(pos), littleEndian.getInt(pos + 4),
+                            littleEndian.getInt(pos + 8));
+                    pos += Lookup3HashFunction.LAST_BLOCK_LENGTH;
+                }
+            }
+            // the rest is kept as pending
+            final int toCopy = Math.min(block.remaining(), end - pos);
+            for (int i = 0; i < toCopy; i++) {
+                block.put(littleEndian.get(pos++));
+            }
+        }
+        received += input.remaining();
+        input.position(end);
+        return this;
+    }
+
+    /**
+     * Computes the hash for the provided bytes.
+     *
+     * @return a 32-bit hash.
+     *
+     * @throws IllegalStateException if the number of bytes provided is not the expected length.
+     */
+    public int hash() {
+        Preconditions.checkState(received == length,
+                "hasher expected %s bytes, but %s were provided", length, received);
+        return Lookup3HashFunction.finalBlock(a, b, c, block, 0, block.position());
+    }
+
+    // mixing of the internal state with a block
+    private void mix(final int k0, final int k1, final int k2) {
+        a += k0;
+        b += k1;
+        c += k2;
+        a -= c;
+        a ^= Lookup3HashFunction.rot(c, 4);
+        c += b;
+        b -= a;
+        b ^= Lookup3HashFunction.rot(a, 6);
+        a += c;
+        c -= b;
+        c ^= Lookup3HashFunction.rot(b, 8);
+        b += a;
+        a -= c;
+        a ^= Lookup3HashFunction.rot(c, 16);
+        c += b;
+        b -= a;
+        b ^= Lookup3HashFunction.rot(a, 19);
+        a += c;
+        c -= b;
+        c ^= Lookup3HashFunction.rot(b, 4);
+        b += a;
+    }
+}
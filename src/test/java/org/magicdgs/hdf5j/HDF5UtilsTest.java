@@ -4,6 +4,7 @@ import org.magicdgs.hdf5j.utils.HDF5Utils;
 
 import com.google.common.primitives.Bytes;
 import org.testng.Assert;
+import org.testng.SkipException;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.DataProvider;
@@ -17,9 +18,12 @@ import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Daniel Gomez-Sanchez (magicDGS)
@@ -123,4 +127,95 @@ public class HDF5UtilsTest extends HDF5jTest {
         Assert.assertEquals(HDF5Utils.isHDF5File(path), isHDF5);
     }
 
-}
\ No newline at end of file
+    // creates a file with a userblock of the provided size followed by an HDF5 file
+    private Path createFileWithUserblock(final Path directory, final String name,
+            final int userblockSize) throws IOException {
+        final byte[] hdf5 = Files.readAllBytes(HDF5jTestResources.getExamplesByApi().get(0));
+        final byte[] content = new byte[userblockSize + hdf5.length];
+        System.arraycopy(hdf5, 0, content, userblockSize, hdf5.length);
+        return Files.write(directory.resolve(name), content);
+    }
+
+    @DataProvider
+    public Iterator<Object[]> superblockOffsets() throws IOException {
+        final List<Object[]> data = new ArrayList<>();
+        // all the examples by API have the superblock at the beginning
+        HDF5jTestResources.getExamplesByApi().forEach(p -> data.add(new Object[] {p, 0L}));
+        // files with userblocks
+        for (final int userblockSize : new int[] {512, 1024, 4096}) {
+            data.add(new Object[] {
+                    createFileWithUserblock(tmpDir, "userblock" + userblockSize + ".h5",
+                            userblockSize), (long) userblockSize});
+        }
+        // the signature is not at a valid superblock offset
+        data.add(new Object[] {createFileWithUserblock(tmpDir, "userblock300.h5", 300), -1L});
+        // text file
+        data.add(new Object[] {
+                createTempFileWithContent("superblock_text.h5", "HDF5\r\nThis is a text file"),
+                -1L});
+        return data.iterator();
+    }
+
+    @Test(dataProvider = "superblockOffsets")
+    public void testFindSuperblockOffset(final Path path, final long expectedOffset)
+            throws Exception {
+        Assert.assertEquals(HDF5Utils.findSuperblockOffset(path), expectedOffset);
+    }
+
+    @Test
+    public void testFindSuperblockOffsets() throws Exception {
+        final Path directory = Files.createDirectories(tmpDir.resolve("crawl").resolve("nested"));
+        final Map<Path, Long> expected = new HashMap<>();
+        expected.put(createFileWithUserblock(directory.getParent(), "first.h5", 0), 0L);
+        expected.put(createFileWithUserblock(directory, "second.h5", 2048), 2048L);
+        expected.put(Files.write(directory.resolve("third.txt"), new byte[1024]), -1L);
+        Assert.assertEquals(HDF5Utils.findSuperblockOffsets(directory.getParent()), expected);
+    }
+
+    @Test
+    public void testFindSuperblockOffsetsWithUnreadableFile() throws Exception {
+        final Path directory = Files.createDirectories(tmpDir.resolve("unreadable"));
+        final Path readable = createFileWithUserblock(directory, "readable.h5", 512);
+        final Path unreadable = createFileWithUserblock(directory, "unreadable.h5", 0);
+        if (!unreadable.toFile().setReadable(false, false) || Files.isReadable(unreadable)) {
+            // e.g., running as root
+            throw new SkipException("Cannot make a file unreadable");
+        }
+        final Map<Path, Long> expected = new HashMap<>();
+        expected.put(readable, 512L);
+        expected.put(unreadable, -1L);
+        Assert.assertEquals(HDF5Utils.findSuperblockOffsets(directory), expected);
+        // reported separately with a failure handler
+        final List<Path> failures = Collections.synchronizedList(new ArrayList<>());
+        expected.remove(unreadable);
+        Assert.assertEquals(
+                HDF5Utils.findSuperblockOffsets(directory, (path, e) -> failures.add(path)),
+                expected);
+        Assert.assertEquals(failures, Collections.singletonList(unreadable));
+    }
+
+    @Test
+    public void testFindSuperblockOffsetsWithUnreadableDirectory() throws Exception {
+        final Path directory = Files.createDirectories(tmpDir.resolve("unreadable_directory"));
+        final Path readable = createFileWithUserblock(directory, "readable.h5", 1024);
+        final Path nested = Files.createDirectories(directory.resolve("nested"));
+        createFileWithUserblock(nested, "hidden.h5", 0);
+        if (!nested.toFile().setReadable(false, false) || Files.isReadable(nested)) {
+            // e.g., running as root
+            throw new SkipException("Cannot make a directory unreadable");
+        }
+        try {
+            final Map<Path, Long> expected = Collections.singletonMap(readable, 1024L);
+            Assert.assertEquals(HDF5Utils.findSuperblockOffsets(directory), expected);
+            final List<Path> failures = Collections.synchronizedList(new ArrayList<>());
+            Assert.assertEquals(
+                    HDF5Utils.findSuperblockOffsets(directory, (path, e) -> failures.add(path)),
+                    expected);
+            Assert.assertEquals(failures, Collections.singletonList(nested));
+        } finally {
+            // for removing the temporary directory
+            nested.toFile().setReadable(true, false);
+        }
+    }
+
+}
@@ -52,4 +52,15 @@ public final class HDF5jTestResources extends HDF5jTest {
         }
     }
 
+    /** Gets the examples by API test file with the provided name. */
+    public static Path getExampleByApi(final String fileName) {
+        final Path path = EXAMPLES_BY_API_FOLDER.resolve(fileName);
+        assertFileExists(path);
+        return path;
+    }
+
+    private static void assertFileExists(final Path path) {
+        Assert.assertTrue(Files.isRegularFile(path), path + " file does not exist");
+    }
+
 }
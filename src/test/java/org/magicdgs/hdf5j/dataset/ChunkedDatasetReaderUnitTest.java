@@ -0,0 +1,564 @@
+package org.magicdgs.hdf5j.dataset;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.HDF5jTestResources;
+import org.magicdgs.hdf5j.dataset.filters.ChunkFilter;
+import org.magicdgs.hdf5j.dataset.filters.DeflateFilter;
+import org.magicdgs.hdf5j.dataset.filters.Fletcher32Filter;
+import org.magicdgs.hdf5j.dataset.filters.FilterPipeline;
+import org.magicdgs.hdf5j.dataset.filters.NBitFilter;
+import org.magicdgs.hdf5j.dataset.filters.ScaleOffsetFilter;
+import org.magicdgs.hdf5j.dataset.filters.ShuffleFilter;
+import org.magicdgs.hdf5j.io.ChecksumVerification;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class ChunkedDatasetReaderUnitTest extends HDF5jTest {
+
+    // DS1 dataset in h5ex_d_chunk.h5 (6x8 integers, chunked 4x4)
+    private static final long BTREE_ADDRESS = 1400;
+    private static final int[] CHUNK_DIMENSIONS = new int[] {4, 4};
+    private static final int[][] EXPECTED_DATA = new int[][] {
+            {0, 1, 0, 0, 1, 0, 0, 1},
+            {1, 1, 0, 1, 1, 0, 1, 1},
+            {0, 0, 0, 0, 0, 0, 0, 0},
+            {0, 1, 0, 0, 1, 0, 0, 1},
+            {1, 1, 0, 1, 1, 0, 1, 1},
+            {0, 0, 0, 0, 0, 0, 0, 0}
+    };
+
+    private HDF5FileReader reader;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        reader = HDF5FileReader.open(HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5"));
+    }
+
+    @AfterClass
+    public void tearDown() throws Exception {
+        reader.close();
+    }
+
+    private static ChunkedLayout layout(final long rows, final long columns) {
+        return new ChunkedLayout(new long[] {rows, columns}, CHUNK_DIMENSIONS, Integer.BYTES,
+                BTREE_ADDRESS);
+    }
+
+    private static void assertData(final ByteBuffer buffer, final int rows) {
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < EXPECTED_DATA[i].length; j++) {
+                Assert.assertEquals(buffer.getInt(), EXPECTED_DATA[i][j],
+                        "wrong value at [" + i + "," + j + "]");
+            }
+        }
+    }
+
+    @DataProvider
+    public Object[][] pools() {
+        return new Object[][] {
+                {ForkJoinPool.commonPool()},
+                {new ForkJoinPool(1)},
+                {new ForkJoinPool(4)}
+        };
+    }
+
+    @Test(dataProvider = "pools")
+    public void testRead(final ForkJoinPool pool) throws Exception {
+        final ChunkedDatasetReader datasetReader =
+                new ChunkedDatasetReader(reader, layout(6, 8), FilterPipeline.EMPTY, pool);
+        Assert.assertEquals(datasetReader.getChunks().size(), 4);
+        final ByteBuffer buffer = ByteBuffer.allocate(6 * 8 * Integer.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        datasetReader.read(buffer);
+        Assert.assertFalse(buffer.hasRemaining());
+        buffer.flip();
+        assertData(buffer, 6);
+    }
+
+    @Test
+    public void testReadAtBufferPosition() throws Exception {
+        final ChunkedDatasetReader datasetReader =
+                new ChunkedDatasetReader(reader, layout(6, 8), FilterPipeline.EMPTY);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(Long.BYTES + 6 * 8 * Integer.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putLong(-1);
+        datasetReader.read(buffer);
+        buffer.flip();
+        Assert.assertEquals(buffer.getLong(), -1);
+        assertData(buffer, 6);
+    }
+
+    @Test
+    public void testReadPartialEdgeChunks() throws Exception {
+        // only the first row of the chunks in the second row is used
+        final ChunkedDatasetReader datasetReader =
+                new ChunkedDatasetReader(reader, layout(5, 8), FilterPipeline.EMPTY);
+        final ByteBuffer buffer = ByteBuffer.allocate(5 * 8 * Integer.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        datasetReader.read(buffer);
+        buffer.flip();
+        assertData(buffer, 5);
+    }
+
+    @Test
+    public void testFilterPipelineIsApplied() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final ChunkFilter countingFilter = new ChunkFilter() {
+            @Override
+            public int getFilterId() {
+                return 256;
+            }
+
+            @Override
+            public ByteBuffer decode(final ByteBuffer input, final int[] clientData,
+                    final int expectedSize) {
+                calls.incrementAndGet();
+                return input;
+            }
+        };
+        final ChunkedDatasetReader datasetReader = new ChunkedDatasetReader(reader,
+                layout(6, 8), FilterPipeline.EMPTY.append(countingFilter));
+        final ByteBuffer buffer = ByteBuffer.allocate(6 * 8 * Integer.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        datasetReader.read(buffer);
+        buffer.flip();
+        assertData(buffer, 6);
+        Assert.assertEquals(calls.get(), 4);
+    }
+
+    @Test(dataProvider = "pools")
+    public void testReadDeflate(final ForkJoinPool pool) throws Exception {
+        // DS1 dataset in h5ex_d_gzip.h5 (32x64 integers, chunked 4x8, compression level 9)
+        final ChunkedLayout layout = new ChunkedLayout(new long[] {32, 64}, new int[] {4, 8},
+                Integer.BYTES, BTREE_ADDRESS);
+        final FilterPipeline pipeline = FilterPipeline.EMPTY.append(DeflateFilter.INSTANCE, 9);
+        try (final HDF5FileReader gzipReader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_gzip.h5"))) {
+            final ChunkedDatasetReader datasetReader =
+                    new ChunkedDatasetReader(gzipReader, layout, pipeline, pool);
+            Assert.assertEquals(datasetReader.getChunks().size(), 64);
+            final ByteBuffer buffer = ByteBuffer.allocate((int) layout.getDatasetByteSize())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            datasetReader.read(buffer);
+            buffer.flip();
+            for (int i = 0; i < 32; i++) {
+                for (int j = 0; j < 64; j++) {
+                    Assert.assertEquals(buffer.getInt(), i * j - j);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testStreamChunks() throws Exception {
+        // DS1 dataset in h5ex_d_gzip.h5 (32x64 integers, chunked 4x8, compression level 9)
+        final ChunkedLayout layout = new ChunkedLayout(new long[] {32, 64}, new int[] {4, 8},
+                Integer.BYTES, BTREE_ADDRESS);
+        final FilterPipeline pipeline = FilterPipeline.EMPTY.append(DeflateFilter.INSTANCE, 9);
+        try (final HDF5FileReader gzipReader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_gzip.h5"))) {
+            final ChunkedDatasetReader datasetReader =
+                    new ChunkedDatasetReader(gzipReader, layout, pipeline);
+            Assert.assertEquals(datasetReader.stream().count(), 64);
+            // each block is a decoded chunk at its offset
+            final long sum = datasetReader.stream().parallel().mapToLong(block -> {
+                final long[] offset = block.getOffset();
+                Assert.assertEquals(block.getDimensions(), new long[] {4, 8});
+                final ByteBuffer data = block.getData();
+                long blockSum = 0;
+                for (long i = offset[0]; i < offset[0] + 4; i++) {
+                    for (long j = offset[1]; j < offset[1] + 8; j++) {
+                        final int value = data.getInt();
+                        Assert.assertEquals(value, i * j - j);
+                        blockSum += value;
+                    }
+                }
+                return blockSum;
+            }).sum();
+            // sum of j * (i - 1)
+            Assert.assertEquals(sum, (63 * 64 / 2) * (31 * 32 / 2 - 32));
+        }
+    }
+
+    @Test
+    public void testStreamPartialEdgeChunks() throws Exception {
+        final ChunkedDatasetReader datasetReader =
+                new ChunkedDatasetReader(reader, layout(5, 8), FilterPipeline.EMPTY);
+        final int[][] data = new int[5][8];
+        datasetReader.stream().forEach(block -> {
+            final long[] offset = block.getOffset();
+            final long[] dimensions = block.getDimensions();
+            Assert.assertEquals(block.getNumberOfElements(), dimensions[0] * dimensions[1]);
+            final ByteBuffer buffer = block.getData();
+            for (int i = 0; i < dimensions[0]; i++) {
+                for (int j = 0; j < dimensions[1]; j++) {
+                    data[(int) offset[0] + i][(int) offset[1] + j] = buffer.getInt();
+                }
+            }
+            Assert.assertFalse(buffer.hasRemaining());
+        });
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(data[i], EXPECTED_DATA[i]);
+        }
+    }
+
+    @Test(dataProvider = "pools")
+    public void testReadShuffleDeflate(final ForkJoinPool pool) throws Exception {
+        // DS1 dataset in h5ex_d_shuffle.h5 (32x64 integers, chunked 4x8, shuffle + deflate)
+        final ChunkedLayout layout = new ChunkedLayout(new long[] {32, 64}, new int[] {4, 8},
+                Integer.BYTES, BTREE_ADDRESS);
+        final FilterPipeline pipeline = FilterPipeline.EMPTY
+                .append(ShuffleFilter.INSTANCE, Integer.BYTES)
+                .append(DeflateFilter.INSTANCE, 9);
+        try (final HDF5FileReader shuffleReader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_shuffle.h5"))) {
+            final ByteBuffer buffer = ByteBuffer.allocate((int) layout.getDatasetByteSize())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            new ChunkedDatasetReader(shuffleReader, layout, pipeline, pool).read(buffer);
+            buffer.flip();
+            for (int i = 0; i < 32; i++) {
+                for (int j = 0; j < 64; j++) {
+                    Assert.assertEquals(buffer.getInt(), i * j - j);
+                }
+            }
+        }
+    }
+
+    @DataProvider
+    public Object[][] checksumVerifications() {
+        return new Object[][] {
+                {ChecksumVerification.ALWAYS},
+                {ChecksumVerification.sampled(10)},
+                {ChecksumVerification.NEVER}
+        };
+    }
+
+    @Test(dataProvider = "checksumVerifications")
+    public void testReadFletcher32(final ChecksumVerification verification) throws Exception {
+        // DS1 dataset in h5ex_d_checksum.h5 (32x64 integers, chunked 4x8, fletcher32)
+        final ChunkedLayout layout = new ChunkedLayout(new long[] {32, 64}, new int[] {4, 8},
+                Integer.BYTES, BTREE_ADDRESS);
+        try (final HDF5FileReader checksumReader = HDF5FileReader.open(
+                HDF5jTestResources.getExampleByApi("h5ex_d_checksum.h5"), verification)) {
+            final FilterPipeline pipeline = FilterPipeline.EMPTY
+                    .append(new Fletcher32Filter(checksumReader.getChecksumVerification()));
+            final ByteBuffer buffer = ByteBuffer.allocate((int) layout.getDatasetByteSize())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            new ChunkedDatasetReader(checksumReader, layout, pipeline).read(buffer);
+            buffer.flip();
+            for (int i = 0; i < 32; i++) {
+                for (int j = 0; j < 64; j++) {
+                    Assert.assertEquals(buffer.getInt(), i * j - j);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReadNBit() throws Exception {
+        // DS1 dataset in h5ex_d_nbit.h5 (32x64 integers with 16 bits at offset 5, chunked 4x8)
+        final ChunkedLayout layout = new ChunkedLayout(new long[] {32, 64}, new int[] {4, 8},
+                Integer.BYTES, BTREE_ADDRESS);
+        final FilterPipeline pipeline = FilterPipeline.EMPTY
+                .append(NBitFilter.INSTANCE, 8, 0, 32, 1, 4, 0, 16, 5);
+        try (final HDF5FileReader nbitReader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_nbit.h5"))) {
+            final ByteBuffer buffer = ByteBuffer.allocate((int) layout.getDatasetByteSize())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            new ChunkedDatasetReader(nbitReader, layout, pipeline).read(buffer);
+            buffer.flip();
+            for (int i = 0; i < 32; i++) {
+                for (int j = 0; j < 64; j++) {
+                    // sign-extend the 16 significant bits
+                    Assert.assertEquals((buffer.getInt() << 11) >> 16, i * j - j);
+                }
+            }
+        }
+    }
+
+    @Test(dataProvider = "pools")
+    public void testReadScaleOffset(final ForkJoinPool pool) throws Exception {
+        // DS1 dataset in h5ex_d_soint.h5 (32x64 integers, chunked 4x8, scale-offset)
+        final ChunkedLayout layout = new ChunkedLayout(new long[] {32, 64}, new int[] {4, 8},
+                Integer.BYTES, BTREE_ADDRESS);
+        final FilterPipeline pipeline = FilterPipeline.EMPTY.append(ScaleOffsetFilter.INSTANCE,
+                2, 0, 32, 0, 4, 1, 0, 1, 0, 0);
+        try (final HDF5FileReader scaleOffsetReader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_soint.h5"))) {
+            final ByteBuffer buffer = ByteBuffer.allocate((int) layout.getDatasetByteSize())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            new ChunkedDatasetReader(scaleOffsetReader, layout, pipeline, pool).read(buffer);
+            buffer.flip();
+            for (int i = 0; i < 32; i++) {
+                for (int j = 0; j < 64; j++) {
+                    Assert.assertEquals(buffer.getInt(), i * j - j);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReadDeflateExtended() throws Exception {
+        // DS1 dataset in h5ex_d_unlimgzip.h5 (4x7 integers extended to 6x10, chunked 4x4)
+        final ChunkedLayout layout = new ChunkedLayout(new long[] {6, 10}, new int[] {4, 4},
+                Integer.BYTES, BTREE_ADDRESS);
+        final FilterPipeline pipeline = FilterPipeline.EMPTY.append(DeflateFilter.INSTANCE, 9);
+        try (final HDF5FileReader gzipReader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_unlimgzip.h5"))) {
+            final ByteBuffer buffer = ByteBuffer.allocate((int) layout.getDatasetByteSize())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            new ChunkedDatasetReader(gzipReader, layout, pipeline).read(buffer);
+            buffer.flip();
+            for (int i = 0; i < 6; i++) {
+                for (int j = 0; j < 10; j++) {
+                    final int expected = (i < 4 && j < 7) ? i * j - j : j;
+                    Assert.assertEquals(buffer.getInt(), expected);
+                }
+            }
+        }
+    }
+
+    @DataProvider
+    public Object[][] selections() {
+        return new Object[][] {
+                // within a single chunk
+                {Hyperslab.region(new long[] {1, 2}, new long[] {2, 3})},
+                // window crossing chunk boundaries
+                {Hyperslab.region(new long[] {3, 5}, new long[] {10, 20})},
+                // strided blocks
+                {new Hyperslab(new long[] {1, 3}, new long[] {7, 10}, new long[] {4, 6},
+                        new long[] {3, 4})},
+                // single elements every 5 rows and 9 columns
+                {new Hyperslab(new long[] {0, 0}, new long[] {5, 9}, new long[] {7, 8},
+                        new long[] {1, 1})},
+                {Hyperslab.all(new long[] {32, 64})}
+        };
+    }
+
+    @Test(dataProvider = "selections")
+    public void testReadHyperslab(final Hyperslab selection) throws Exception {
+        // DS1 dataset in h5ex_d_gzip.h5 (32x64 integers, chunked 4x8, compression level 9)
+        final ChunkedLayout layout = new ChunkedLayout(new long[] {32, 64}, new int[] {4, 8},
+                Integer.BYTES, BTREE_ADDRESS);
+        final FilterPipeline pipeline = FilterPipeline.EMPTY.append(DeflateFilter.INSTANCE, 9);
+        try (final HDF5FileReader gzipReader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_gzip.h5"))) {
+            final ByteBuffer buffer = ByteBuffer
+                    .allocate((int) selection.getNumberOfElements() * Integer.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            new ChunkedDatasetReader(gzipReader, layout, pipeline).read(selection, buffer);
+            Assert.assertFalse(buffer.hasRemaining());
+            buffer.flip();
+            final long[] start = selection.getStart();
+            final long[] stride = selection.getStride();
+            final long[] block = selection.getBlock();
+            final long[] selected = selection.getSelectedDimensions();
+            for (long i = 0; i < selected[0]; i++) {
+                final long row = start[0] + (i / block[0]) * stride[0] + i % block[0];
+                for (long j = 0; j < selected[1]; j++) {
+                    final long column = start[1] + (j / block[1]) * stride[1] + j % block[1];
+                    Assert.assertEquals(buffer.getInt(), row * column - column,
+                            "wrong value at [" + row + "," + column + "]");
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReadAsync() throws Exception {
+        // DS1 dataset in h5ex_d_gzip.h5 (32x64 integers, chunked 4x8, compression level 9)
+        final ChunkedLayout layout = new ChunkedLayout(new long[] {32, 64}, new int[] {4, 8},
+                Integer.BYTES, BTREE_ADDRESS);
+        final FilterPipeline pipeline = FilterPipeline.EMPTY.append(DeflateFilter.INSTANCE, 9);
+        try (final HDF5FileReader gzipReader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_gzip.h5"))) {
+            final ChunkedDatasetReader datasetReader =
+                    new ChunkedDatasetReader(gzipReader, layout, pipeline);
+            // one row per request, issued at once (the index is loaded by the first one)
+            final List<CompletableFuture<ByteBuffer>> rows = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                final ByteBuffer buffer = ByteBuffer.allocate(64 * Integer.BYTES)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                rows.add(datasetReader.readAsync(
+                        Hyperslab.region(new long[] {i, 0}, new long[] {1, 64}), buffer));
+            }
+            for (int i = 0; i < 32; i++) {
+                final ByteBuffer row = rows.get(i).get();
+                Assert.assertEquals(row.remaining(), 64 * Integer.BYTES);
+                for (int j = 0; j < 64; j++) {
+                    Assert.assertEquals(row.getInt(), i * j - j,
+                            "wrong value at [" + i + "," + j + "]");
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReadAsyncBoundsOutstandingChunks() throws Exception {
+        // DS1 dataset in h5ex_d_gzip.h5 (32x64 integers, chunked 4x8, compression level 9)
+        final ChunkedLayout layout = new ChunkedLayout(new long[] {32, 64}, new int[] {4, 8},
+                Integer.BYTES, BTREE_ADDRESS);
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+        final AtomicInteger decoded = new AtomicInteger();
+        final ChunkFilter countingFilter = new ChunkFilter() {
+            @Override
+            public int getFilterId() {
+                return 256;
+            }
+
+            @Override
+            public ByteBuffer decode(final ByteBuffer input, final int[] clientData,
+                    final int expectedSize) {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                decoded.incrementAndGet();
+                active.decrementAndGet();
+                return input;
+            }
+        };
+        final FilterPipeline pipeline = FilterPipeline.EMPTY.append(DeflateFilter.INSTANCE, 9)
+                .append(countingFilter);
+        try (final HDF5FileReader gzipReader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_gzip.h5"))) {
+            final ChunkedDatasetReader datasetReader =
+                    new ChunkedDatasetReader(gzipReader, layout, pipeline, new ForkJoinPool(2));
+            final ByteBuffer buffer = ByteBuffer.allocate((int) layout.getDatasetByteSize())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            final ByteBuffer read = datasetReader
+                    .readAsync(Hyperslab.all(layout.getDimensions()), buffer).get();
+            Assert.assertEquals(decoded.get(), 64);
+            Assert.assertTrue(maxActive.get() <= 2, "chunks decoded at once: " + maxActive);
+            for (int i = 0; i < 32; i++) {
+                for (int j = 0; j < 64; j++) {
+                    Assert.assertEquals(read.getInt(), i * j - j);
+                }
+            }
+        }
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testReadAsyncChunkOutsideDataset() throws Exception {
+        final ByteBuffer buffer = ByteBuffer.allocate(3 * 8 * Integer.BYTES);
+        try {
+            new ChunkedDatasetReader(reader, layout(3, 8), FilterPipeline.EMPTY)
+                    .readAsync(Hyperslab.all(new long[] {3, 8}), buffer).get();
+        } catch (final ExecutionException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    @Test
+    public void testReadHyperslabOnlyIntersectingChunks() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final ChunkFilter countingFilter = new ChunkFilter() {
+            @Override
+            public int getFilterId() {
+                return 256;
+            }
+
+            @Override
+            public ByteBuffer decode(final ByteBuffer input, final int[] clientData,
+                    final int expectedSize) {
+                calls.incrementAndGet();
+                return input;
+            }
+        };
+        final ChunkedDatasetReader datasetReader = new ChunkedDatasetReader(reader,
+                layout(6, 8), FilterPipeline.EMPTY.append(countingFilter));
+        // rows 4-5 and columns 5-7 are in a single chunk
+        final ByteBuffer buffer = ByteBuffer.allocate(2 * 3 * Integer.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        datasetReader.read(Hyperslab.region(new long[] {4, 5}, new long[] {2, 3}), buffer);
+        Assert.assertEquals(calls.get(), 1);
+        buffer.flip();
+        for (int i = 4; i < 6; i++) {
+            for (int j = 5; j < 8; j++) {
+                Assert.assertEquals(buffer.getInt(), EXPECTED_DATA[i][j]);
+            }
+        }
+        // columns 3 and 4 of rows 0 and 4 are in the four chunks
+        calls.set(0);
+        buffer.clear();
+        datasetReader.read(new Hyperslab(new long[] {0, 3}, new long[] {4, 1},
+                new long[] {2, 1}, new long[] {1, 2}), buffer);
+        Assert.assertEquals(calls.get(), 4);
+    }
+
+    @Test
+    public void testReadUnwrittenChunksFillValue() throws Exception {
+        // the chunks of the last 4 rows are not written
+        final ChunkedDatasetReader datasetReader = new ChunkedDatasetReader(reader,
+                new ChunkedLayout(new long[] {12, 8}, CHUNK_DIMENSIONS, Integer.BYTES,
+                        BTREE_ADDRESS, new byte[] {99, 0, 0, 0}),
+                FilterPipeline.EMPTY);
+        Assert.assertTrue(datasetReader.hasUnwrittenChunks());
+        final Hyperslab selection = Hyperslab.region(new long[] {4, 2}, new long[] {8, 4});
+        final ByteBuffer buffer = ByteBuffer.allocate(8 * 4 * Integer.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        datasetReader.read(selection, buffer);
+        buffer.flip();
+        final ByteBuffer read = datasetReader.readAsync(selection,
+                ByteBuffer.allocate(8 * 4 * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN)).get();
+        for (int i = 4; i < 12; i++) {
+            for (int j = 2; j < 6; j++) {
+                final int expected = (i < 6) ? EXPECTED_DATA[i][j] : (i < 8) ? 0 : 99;
+                Assert.assertEquals(buffer.getInt(), expected, "sync [" + i + "," + j + "]");
+                Assert.assertEquals(read.getInt(), expected, "async [" + i + "," + j + "]");
+            }
+        }
+    }
+
+    @Test
+    public void testHasUnwrittenChunks() throws Exception {
+        Assert.assertFalse(new ChunkedDatasetReader(reader, layout(6, 8), FilterPipeline.EMPTY)
+                .hasUnwrittenChunks());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidFillValue() throws Exception {
+        new ChunkedLayout(new long[] {6, 8}, CHUNK_DIMENSIONS, Integer.BYTES, BTREE_ADDRESS,
+                new byte[Long.BYTES]);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSelectionOutOfBounds() throws Exception {
+        new ChunkedDatasetReader(reader, layout(6, 8), FilterPipeline.EMPTY)
+                .read(Hyperslab.region(new long[] {0, 4}, new long[] {1, 5}),
+                        ByteBuffer.allocate(20));
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testChunkOutsideDataset() throws Exception {
+        final ByteBuffer buffer = ByteBuffer.allocate(3 * 8 * Integer.BYTES);
+        new ChunkedDatasetReader(reader, layout(3, 8), FilterPipeline.EMPTY).read(buffer);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testDestinationTooSmall() throws Exception {
+        new ChunkedDatasetReader(reader, layout(6, 8), FilterPipeline.EMPTY)
+                .read(ByteBuffer.allocate(10));
+    }
+}
@@ -0,0 +1,185 @@
+package org.magicdgs.hdf5j.dataset;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.HDF5jTestResources;
+import org.magicdgs.hdf5j.dataset.filters.ChunkFilter;
+import org.magicdgs.hdf5j.dataset.filters.FilterPipeline;
+import org.magicdgs.hdf5j.fileformat.level2.DatatypeMessage;
+import org.magicdgs.hdf5j.fileformat.level2.HeaderMessage;
+import org.magicdgs.hdf5j.fileformat.level2.ObjectHeader;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class CompoundColumnsUnitTest extends HDF5jTest {
+
+    @DataProvider
+    public Object[][] pools() {
+        return new Object[][] {
+                {ForkJoinPool.commonPool()},
+                {new ForkJoinPool(1)},
+                {new ForkJoinPool(4)}
+        };
+    }
+
+    @Test(dataProvider = "pools")
+    public void testTransposeContiguous(final ForkJoinPool pool) throws Exception {
+        // DS1 in h5ex_t_cmpd.h5: 4 elements of 44 bytes
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_t_cmpd.h5"))) {
+            final DatatypeMessage type = ObjectHeader.read(reader, 800)
+                    .getDecodedMessage(HeaderMessage.DATATYPE, DatatypeMessage::decode);
+            final CompoundColumns columns = CompoundProjection
+                    .of(type, "Pressure (inHg)", "Serial number", "Location")
+                    .transpose(new ContiguousDatasetReader(reader,
+                            new ContiguousLayout(new long[] {4}, 44, 2256)), pool);
+            Assert.assertEquals(columns.size(), 4);
+            Assert.assertEquals(columns.getMembers().size(), 3);
+            Assert.assertEquals(columns.getDoubles("Pressure (inHg)"),
+                    new double[] {24.57, 22.95, 31.23, 84.11});
+            Assert.assertEquals(columns.getLongs("Serial number"),
+                    new long[] {1153, 1184, 1027, 1313});
+            // variable-length strings are kept as raw bytes
+            final ByteBuffer location = ByteBuffer.wrap(columns.getBytes("Location"))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            Assert.assertEquals(location.remaining(), 4 * 16);
+            Assert.assertEquals(location.getInt(0), 17);
+            Assert.assertEquals(location.getInt(3 * 16 + 12), 4);
+        }
+    }
+
+    @Test
+    public void testTransposeNestedTypes() throws Exception {
+        // DS1 in h5ex_t_cpxcmpd.h5: 2 elements of 80 bytes
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_t_cpxcmpd.h5"))) {
+            final DatatypeMessage type = ObjectHeader.read(reader, 15096)
+                    .getDecodedMessage(HeaderMessage.DATATYPE, DatatypeMessage::decode);
+            final CompoundColumns columns = CompoundProjection.of(type, "Color", "Location")
+                    .transpose(new ContiguousDatasetReader(reader,
+                            new ContiguousLayout(new long[] {2}, 80, 15608)));
+            // enumerated members use the column of their base type
+            Assert.assertEquals(columns.getInts("Color"), new int[] {1, 0});
+            Assert.assertEquals(columns.getBytes("Location").length, 2 * 24);
+            Assert.assertThrows(IllegalStateException.class, () -> columns.getDoubles("Color"));
+            Assert.assertThrows(IllegalArgumentException.class, () -> columns.getInts("Name"));
+        }
+    }
+
+    // compound of 4 bytes with an int member and a short member overlapping its lower bytes
+    private static DatatypeMessage overlappingIntType() {
+        final ByteBuffer data = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+        data.put((byte) 0x36).put((byte) 2).put((byte) 0).put((byte) 0).putInt(4);
+        data.put("value\0".getBytes()).put((byte) 0);
+        data.put((byte) 0x10).put((byte) 0x08).put((byte) 0).put((byte) 0).putInt(4)
+                .putShort((short) 0).putShort((short) 32);
+        data.put("low\0".getBytes()).put((byte) 0);
+        data.put((byte) 0x10).put((byte) 0x08).put((byte) 0).put((byte) 0).putInt(2)
+                .putShort((short) 0).putShort((short) 16);
+        data.flip();
+        return DatatypeMessage.decode(data);
+    }
+
+    @Test(dataProvider = "pools")
+    public void testTransposeChunked(final ForkJoinPool pool) throws Exception {
+        // DS1 in h5ex_d_chunk.h5 (6x8 integers, chunked 4x4) read as a compound
+        final int[] expected = {
+                0, 1, 0, 0, 1, 0, 0, 1,
+                1, 1, 0, 1, 1, 0, 1, 1,
+                0, 0, 0, 0, 0, 0, 0, 0,
+                0, 1, 0, 0, 1, 0, 0, 1,
+                1, 1, 0, 1, 1, 0, 1, 1,
+                0, 0, 0, 0, 0, 0, 0, 0
+        };
+        final AtomicInteger decoded = new AtomicInteger();
+        final ChunkFilter countingFilter = new ChunkFilter() {
+            @Override
+            public int getFilterId() {
+                return 256;
+            }
+
+            @Override
+            public ByteBuffer decode(final ByteBuffer input, final int[] clientData,
+                    final int expectedSize) {
+                decoded.incrementAndGet();
+                return input;
+            }
+        };
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5"))) {
+            final ChunkedDatasetReader datasetReader = new ChunkedDatasetReader(reader,
+                    new ChunkedLayout(new long[] {6, 8}, new int[] {4, 4}, 4, 1400),
+                    FilterPipeline.EMPTY.append(countingFilter), pool);
+            final CompoundColumns columns = CompoundProjection
+                    .of(overlappingIntType(), "low", "value").transpose(datasetReader, pool);
+            Assert.assertEquals(columns.size(), 6 * 8);
+            Assert.assertEquals(columns.getInts("value"), expected);
+            final short[] low = columns.getShorts("low");
+            for (int i = 0; i < expected.length; i++) {
+                Assert.assertEquals(low[i], expected[i]);
+            }
+            // blocks are aligned with the chunks
+            Assert.assertEquals(decoded.get(), 4);
+        }
+    }
+
+    @Test(dataProvider = "pools")
+    public void testTransposeUnwrittenChunks(final ForkJoinPool pool) throws Exception {
+        // DS1 in h5ex_d_chunk.h5 (chunked 4x4) as 12x8: rows 8-11 are not written to the file
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5"))) {
+            final ChunkedDatasetReader datasetReader = new ChunkedDatasetReader(reader,
+                    new ChunkedLayout(new long[] {12, 8}, new int[] {4, 4}, 4, 1400),
+                    FilterPipeline.EMPTY, pool);
+            final int[] values = CompoundProjection.of(overlappingIntType(), "value")
+                    .transpose(datasetReader, pool).getInts("value");
+            Assert.assertEquals(values.length, 12 * 8);
+            // second row of the first chunk
+            Assert.assertEquals(values[8 + 1], 1);
+            for (int i = 8 * 8; i < values.length; i++) {
+                Assert.assertEquals(values[i], 0, "unwritten element " + i);
+            }
+        }
+    }
+
+    @Test(dataProvider = "pools")
+    public void testTransposeUnwrittenChunksFillValue(final ForkJoinPool pool) throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5"))) {
+            final ChunkedDatasetReader datasetReader = new ChunkedDatasetReader(reader,
+                    new ChunkedLayout(new long[] {12, 8}, new int[] {4, 4}, 4, 1400,
+                            new byte[] {99, 1, 0, 0}),
+                    FilterPipeline.EMPTY, pool);
+            final CompoundColumns columns = CompoundProjection
+                    .of(overlappingIntType(), "low", "value").transpose(datasetReader, pool);
+            final int[] values = columns.getInts("value");
+            final short[] low = columns.getShorts("low");
+            // second row of the first chunk
+            Assert.assertEquals(values[8 + 1], 1);
+            for (int i = 8 * 8; i < values.length; i++) {
+                Assert.assertEquals(values[i], 0x163, "unwritten element " + i);
+                Assert.assertEquals(low[i], 0x163, "unwritten element " + i);
+            }
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testElementSizeMismatch() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_t_cmpd.h5"))) {
+            CompoundProjection.of(overlappingIntType(), "value").transpose(
+                    new ContiguousDatasetReader(reader,
+                            new ContiguousLayout(new long[] {4}, 44, 2256)));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.magicdgs.hdf5j.dataset;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.HDF5jTestResources;
+import org.magicdgs.hdf5j.fileformat.level2.DatatypeMessage;
+import org.magicdgs.hdf5j.fileformat.level2.HeaderMessage;
+import org.magicdgs.hdf5j.fileformat.level2.ObjectHeader;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.List;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class CompoundProjectionUnitTest extends HDF5jTest {
+
+    // DS1 in h5ex_t_cmpd.h5: 4 elements of 44 bytes
+    private static final long CMPD_HEADER = 800;
+    private static final ContiguousLayout CMPD_LAYOUT =
+            new ContiguousLayout(new long[] {4}, 44, 2256);
+
+    private static DatatypeMessage readDatatype(final HDF5FileReader reader, final long address)
+            throws Exception {
+        return ObjectHeader.read(reader, address)
+                .getDecodedMessage(HeaderMessage.DATATYPE, DatatypeMessage::decode);
+    }
+
+    @Test
+    public void testReadProjection() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_t_cmpd.h5"))) {
+            final CompoundProjection projection = CompoundProjection.of(
+                    readDatatype(reader, CMPD_HEADER), "Temperature (F)", "Serial number");
+            final List<FieldView> views = projection.read(
+                    new ContiguousDatasetReader(reader, CMPD_LAYOUT),
+                    Hyperslab.all(new long[] {4}));
+            Assert.assertEquals(views.size(), 2);
+            final FieldView temperature = views.get(0);
+            final FieldView serial = views.get(1);
+            Assert.assertEquals(temperature.getName(), "Temperature (F)");
+            Assert.assertEquals(temperature.size(), 4);
+            final double[] temperatures = {53.23, 55.12, 103.55, 1252.89};
+            final long[] serials = {1153, 1184, 1027, 1313};
+            for (int i = 0; i < 4; i++) {
+                Assert.assertEquals(temperature.getDouble(i), temperatures[i]);
+                Assert.assertEquals(serial.getLong(i), serials[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testReadSelection() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_t_cmpd.h5"))) {
+            final FieldView pressure = CompoundProjection
+                    .of(readDatatype(reader, CMPD_HEADER), "Pressure (inHg)")
+                    .read(new ContiguousDatasetReader(reader, CMPD_LAYOUT),
+                            Hyperslab.region(new long[] {1}, new long[] {2}))
+                    .get(0);
+            Assert.assertEquals(pressure.size(), 2);
+            Assert.assertEquals(pressure.getDouble(0), 22.95);
+            Assert.assertEquals(pressure.getDouble(1), 31.23);
+            Assert.assertThrows(IndexOutOfBoundsException.class, () -> pressure.getDouble(2));
+            Assert.assertThrows(IllegalStateException.class, () -> pressure.getInt(0));
+        }
+    }
+
+    @Test
+    public void testProjectNestedTypes() throws Exception {
+        // DS1 in h5ex_t_cpxcmpd.h5: 2 elements of 80 bytes
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_t_cpxcmpd.h5"))) {
+            final ByteBuffer elements = ByteBuffer.allocate(2 * 80);
+            new ContiguousDatasetReader(reader,
+                    new ContiguousLayout(new long[] {2}, 80, 15608)).read(elements);
+            elements.flip();
+            final List<FieldView> views = CompoundProjection
+                    .of(readDatatype(reader, 15096), "Location", "Color").project(elements);
+            final FieldView location = views.get(0);
+            final DoubleBuffer first = location.getBytes(0).asDoubleBuffer();
+            Assert.assertEquals(first.remaining(), 3);
+            Assert.assertEquals(first.get(0), -103234.21);
+            Assert.assertEquals(location.getBytes(1).asDoubleBuffer().get(2), 432.36);
+            Assert.assertEquals(views.get(1).getInt(0), 1);
+            Assert.assertEquals(views.get(1).getInt(1), 0);
+            // views do not modify the buffer
+            Assert.assertEquals(elements.position(), 0);
+        }
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testMissingMember() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_t_cmpd.h5"))) {
+            CompoundProjection.of(readDatatype(reader, CMPD_HEADER), "Serial number", "missing");
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testPartialElements() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_t_cmpd.h5"))) {
+            CompoundProjection.of(readDatatype(reader, CMPD_HEADER), "Serial number")
+                    .project(ByteBuffer.allocate(50));
+        }
+    }
+}
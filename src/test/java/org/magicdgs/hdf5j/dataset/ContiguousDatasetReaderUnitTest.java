@@ -0,0 +1,253 @@
+package org.magicdgs.hdf5j.dataset;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.HDF5jTestResources;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class ContiguousDatasetReaderUnitTest extends HDF5jTest {
+
+    // DS1 dataset in h5ex_d_hyper.h5 (6x8 integers, contiguous)
+    private static final ContiguousLayout LAYOUT =
+            new ContiguousLayout(new long[] {6, 8}, Integer.BYTES, 2144);
+    private static final int[][] EXPECTED_DATA = new int[][] {
+            {0, 1, 0, 0, 1, 0, 0, 1},
+            {1, 1, 0, 1, 1, 0, 1, 1},
+            {0, 0, 0, 0, 0, 0, 0, 0},
+            {0, 1, 0, 0, 1, 0, 0, 1},
+            {1, 1, 0, 1, 1, 0, 1, 1},
+            {0, 0, 0, 0, 0, 0, 0, 0}
+    };
+
+    private HDF5FileReader reader;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        reader = HDF5FileReader.open(HDF5jTestResources.getExampleByApi("h5ex_d_hyper.h5"));
+    }
+
+    @AfterClass
+    public void tearDown() throws Exception {
+        reader.close();
+    }
+
+    // selected elements of EXPECTED_DATA in row-major order
+    private static int[] expectedSelection(final Hyperslab selection) {
+        final long[] start = selection.getStart();
+        final long[] stride = selection.getStride();
+        final long[] block = selection.getBlock();
+        final long[] selected = selection.getSelectedDimensions();
+        final int[] expected = new int[(int) selection.getNumberOfElements()];
+        int k = 0;
+        for (int i = 0; i < selected[0]; i++) {
+            final long row = start[0] + (i / block[0]) * stride[0] + i % block[0];
+            for (int j = 0; j < selected[1]; j++) {
+                final long column = start[1] + (j / block[1]) * stride[1] + j % block[1];
+                expected[k++] = EXPECTED_DATA[(int) row][(int) column];
+            }
+        }
+        return expected;
+    }
+
+    @Test
+    public void testRead() throws Exception {
+        final ContiguousDatasetReader datasetReader = new ContiguousDatasetReader(reader, LAYOUT);
+        final ByteBuffer buffer = ByteBuffer.allocate(6 * 8 * Integer.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        datasetReader.read(buffer);
+        Assert.assertFalse(buffer.hasRemaining());
+        buffer.flip();
+        for (final int[] row : EXPECTED_DATA) {
+            for (final int value : row) {
+                Assert.assertEquals(buffer.getInt(), value);
+            }
+        }
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        final ContiguousDatasetReader datasetReader = new ContiguousDatasetReader(reader, LAYOUT);
+        // the dataset is smaller than a block
+        final DatasetBlock block = datasetReader.stream().findFirst().get();
+        Assert.assertEquals(datasetReader.stream().count(), 1);
+        Assert.assertEquals(block.getOffset(), new long[] {0, 0});
+        Assert.assertEquals(block.getDimensions(), new long[] {6, 8});
+        final ByteBuffer buffer = block.getData();
+        Assert.assertTrue(buffer.isReadOnly());
+        for (final int[] row : EXPECTED_DATA) {
+            for (final int value : row) {
+                Assert.assertEquals(buffer.getInt(), value);
+            }
+        }
+    }
+
+    @Test
+    public void testStreamEmpty() throws Exception {
+        Assert.assertEquals(new ContiguousDatasetReader(reader,
+                new ContiguousLayout(new long[] {0, 8}, Integer.BYTES, 2144)).stream().count(), 0);
+    }
+
+    @DataProvider
+    public Object[][] selections() {
+        return new Object[][] {
+                // selection in h5ex_d_hyper.c
+                {new Hyperslab(new long[] {0, 1}, new long[] {4, 4}, new long[] {2, 2},
+                        new long[] {2, 3})},
+                // selection written in h5ex_d_hyper.c
+                {new Hyperslab(new long[] {0, 0}, new long[] {3, 3}, new long[] {2, 3},
+                        new long[] {2, 2})},
+                {Hyperslab.region(new long[] {2, 3}, new long[] {3, 4})},
+                {Hyperslab.region(new long[] {5, 7}, new long[] {1, 1})},
+                {Hyperslab.all(new long[] {6, 8})},
+                // full rows
+                {new Hyperslab(new long[] {1, 0}, new long[] {2, 8}, new long[] {3, 1},
+                        new long[] {1, 8})},
+                // single column
+                {new Hyperslab(new long[] {0, 4}, new long[] {1, 1}, new long[] {6, 1},
+                        new long[] {1, 1})}
+        };
+    }
+
+    @Test(dataProvider = "selections")
+    public void testReadHyperslab(final Hyperslab selection) throws Exception {
+        final ContiguousDatasetReader datasetReader = new ContiguousDatasetReader(reader, LAYOUT);
+        final int[] expected = expectedSelection(selection);
+        final ByteBuffer buffer = ByteBuffer.allocate((expected.length + 1) * Integer.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(-1);
+        datasetReader.read(selection, buffer);
+        Assert.assertFalse(buffer.hasRemaining());
+        buffer.flip();
+        Assert.assertEquals(buffer.getInt(), -1);
+        for (final int value : expected) {
+            Assert.assertEquals(buffer.getInt(), value);
+        }
+    }
+
+    @Test(dataProvider = "selections")
+    public void testReadHyperslabAsync(final Hyperslab selection) throws Exception {
+        final ContiguousDatasetReader datasetReader = new ContiguousDatasetReader(reader, LAYOUT);
+        final int[] expected = expectedSelection(selection);
+        final ByteBuffer buffer = ByteBuffer.allocate((expected.length + 1) * Integer.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(-1);
+        final ByteBuffer read = datasetReader.readAsync(selection, buffer).get();
+        // the destination is not modified
+        Assert.assertEquals(buffer.position(), Integer.BYTES);
+        Assert.assertEquals(buffer.getInt(0), -1);
+        Assert.assertEquals(read.order(), ByteOrder.LITTLE_ENDIAN);
+        Assert.assertEquals(read.remaining(), expected.length * Integer.BYTES);
+        for (final int value : expected) {
+            Assert.assertEquals(read.getInt(), value);
+        }
+    }
+
+    @DataProvider
+    public Object[][] spannedSelections() {
+        return new Object[][] {
+                // gaps of 99 bytes: rows read at once
+                {new Hyperslab(new long[] {0, 1}, new long[] {1, 100}, new long[] {3, 50},
+                        new long[] {1, 1})},
+                // gaps of 4990 bytes (larger than the maximum gap) between the rows
+                {Hyperslab.region(new long[] {0, 0}, new long[] {3, 10})},
+                // gaps of 4095 and 4096 bytes (maximum gap) between the blocks
+                {new Hyperslab(new long[] {0, 3}, new long[] {1, 4097}, new long[] {3, 2},
+                        new long[] {1, 2})},
+                {new Hyperslab(new long[] {0, 0}, new long[] {1, 4098}, new long[] {3, 2},
+                        new long[] {1, 2})},
+                {Hyperslab.all(new long[] {3, 5000})}
+        };
+    }
+
+    @Test(dataProvider = "spannedSelections")
+    public void testReadHyperslabSpans(final Hyperslab selection) throws Exception {
+        // the bytes of the file as a 3x5000 dataset
+        final Path path = HDF5jTestResources.getExampleByApi("h5ex_t_cpxcmpd.h5");
+        final byte[] bytes = Files.readAllBytes(path);
+        try (final HDF5FileReader fileReader = HDF5FileReader.open(path)) {
+            final ContiguousDatasetReader datasetReader = new ContiguousDatasetReader(fileReader,
+                    new ContiguousLayout(new long[] {3, 5000}, 1, 0));
+            final ByteBuffer buffer =
+                    ByteBuffer.allocate((int) selection.getNumberOfElements() + 1);
+            buffer.put((byte) -1);
+            datasetReader.read(selection, buffer);
+            Assert.assertFalse(buffer.hasRemaining());
+            Assert.assertEquals(buffer.get(0), -1);
+            final long[] start = selection.getStart();
+            final long[] stride = selection.getStride();
+            final long[] block = selection.getBlock();
+            final long[] selected = selection.getSelectedDimensions();
+            int k = 1;
+            for (int i = 0; i < selected[0]; i++) {
+                final long row = start[0] + (i / block[0]) * stride[0] + i % block[0];
+                for (int j = 0; j < selected[1]; j++) {
+                    final long column = start[1] + (j / block[1]) * stride[1] + j % block[1];
+                    Assert.assertEquals(buffer.get(k++), bytes[(int) (row * 5000 + column)]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReadUnallocated() throws Exception {
+        final ContiguousDatasetReader datasetReader = new ContiguousDatasetReader(reader,
+                new ContiguousLayout(new long[] {2, 2}, Integer.BYTES,
+                        ContiguousLayout.UNALLOCATED));
+        final ByteBuffer buffer = ByteBuffer.allocate(4 * Integer.BYTES);
+        datasetReader.read(buffer);
+        Assert.assertFalse(buffer.hasRemaining());
+        Assert.assertEquals(buffer.array(), new byte[4 * Integer.BYTES]);
+    }
+
+    @Test
+    public void testReadUnallocatedFillValue() throws Exception {
+        final byte[] fillValue = new byte[] {1, 2, 3, 4};
+        final ContiguousDatasetReader datasetReader = new ContiguousDatasetReader(reader,
+                new ContiguousLayout(new long[] {3, 3}, Integer.BYTES,
+                        ContiguousLayout.UNALLOCATED, fillValue));
+        final Hyperslab selection = Hyperslab.region(new long[] {1, 0}, new long[] {2, 2});
+        final ByteBuffer buffer = ByteBuffer.allocate(5 * Integer.BYTES);
+        buffer.putInt(-1);
+        datasetReader.read(selection, buffer);
+        Assert.assertFalse(buffer.hasRemaining());
+        Assert.assertEquals(buffer.getInt(0), -1);
+        final ByteBuffer read =
+                datasetReader.readAsync(selection, ByteBuffer.allocate(4 * Integer.BYTES)).get();
+        Assert.assertEquals(read.remaining(), 4 * Integer.BYTES);
+        for (int i = 0; i < 4 * Integer.BYTES; i++) {
+            Assert.assertEquals(buffer.get(Integer.BYTES + i), fillValue[i % Integer.BYTES]);
+            Assert.assertEquals(read.get(i), fillValue[i % Integer.BYTES]);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidFillValue() throws Exception {
+        new ContiguousLayout(new long[] {3, 3}, Integer.BYTES, ContiguousLayout.UNALLOCATED,
+                new byte[Short.BYTES]);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSelectionOutOfBounds() throws Exception {
+        new ContiguousDatasetReader(reader, LAYOUT).read(
+                Hyperslab.region(new long[] {5, 0}, new long[] {2, 8}), ByteBuffer.allocate(64));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testDestinationTooSmall() throws Exception {
+        new ContiguousDatasetReader(reader, LAYOUT).read(
+                Hyperslab.region(new long[] {0, 0}, new long[] {2, 2}), ByteBuffer.allocate(15));
+    }
+}
@@ -0,0 +1,272 @@
+package org.magicdgs.hdf5j.dataset;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.HDF5jTestResources;
+import org.magicdgs.hdf5j.dataset.filters.ChunkFilter;
+import org.magicdgs.hdf5j.dataset.filters.DeflateFilter;
+import org.magicdgs.hdf5j.dataset.filters.FilterPipeline;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class DatasetBlockPublisherUnitTest extends HDF5jTest {
+
+    // DS1 dataset in h5ex_d_chunk.h5 (6x8 integers, chunked 4x4)
+    private static final ChunkedLayout CHUNKED_LAYOUT = new ChunkedLayout(new long[] {6, 8},
+            new int[] {4, 4}, Integer.BYTES, 1400);
+    // DS1 dataset in h5ex_d_hyper.h5 (6x8 integers, contiguous)
+    private static final ContiguousLayout CONTIGUOUS_LAYOUT =
+            new ContiguousLayout(new long[] {6, 8}, Integer.BYTES, 2144);
+    private static final int[][] EXPECTED_DATA = new int[][] {
+            {0, 1, 0, 0, 1, 0, 0, 1},
+            {1, 1, 0, 1, 1, 0, 1, 1},
+            {0, 0, 0, 0, 0, 0, 0, 0},
+            {0, 1, 0, 0, 1, 0, 0, 1},
+            {1, 1, 0, 1, 1, 0, 1, 1},
+            {0, 0, 0, 0, 0, 0, 0, 0}
+    };
+
+    // subscriber recording the signals, which requests blocks on demand
+    private static final class RecordingSubscriber implements DatasetBlockPublisher.Subscriber {
+        private final List<DatasetBlock> blocks = new CopyOnWriteArrayList<>();
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        private final long initialRequest;
+        private volatile DatasetBlockPublisher.Subscription subscription;
+        private volatile Throwable error = null;
+        private volatile boolean completed = false;
+
+        private RecordingSubscriber(final long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(final DatasetBlockPublisher.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest != 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(final DatasetBlock block) {
+            blocks.add(block);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            error = throwable;
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            terminated.countDown();
+        }
+
+        private void await() throws Exception {
+            Assert.assertTrue(terminated.await(10, TimeUnit.SECONDS), "not terminated");
+        }
+    }
+
+    // checks the blocks against EXPECTED_DATA
+    private static void assertBlocks(final List<DatasetBlock> blocks, final long expectedElements) {
+        long elements = 0;
+        for (final DatasetBlock block : blocks) {
+            final long[] offset = block.getOffset();
+            final long[] dimensions = block.getDimensions();
+            final ByteBuffer data = block.getData();
+            for (long i = offset[0]; i < offset[0] + dimensions[0]; i++) {
+                for (long j = offset[1]; j < offset[1] + dimensions[1]; j++) {
+                    Assert.assertEquals(data.getInt(), EXPECTED_DATA[(int) i][(int) j],
+                            "wrong value at [" + i + "," + j + "]");
+                }
+            }
+            Assert.assertFalse(data.hasRemaining());
+            elements += block.getNumberOfElements();
+        }
+        Assert.assertEquals(elements, expectedElements);
+    }
+
+    @Test
+    public void testPublishChunks() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5"))) {
+            final DatasetBlockPublisher publisher = new DatasetBlockPublisher(
+                    new ChunkedDatasetReader(reader, CHUNKED_LAYOUT, FilterPipeline.EMPTY));
+            Assert.assertEquals(publisher.getNumberOfBlocks(), 4);
+            final RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+            publisher.subscribe(subscriber);
+            subscriber.await();
+            Assert.assertNull(subscriber.error);
+            Assert.assertTrue(subscriber.completed);
+            Assert.assertEquals(subscriber.blocks.size(), 4);
+            // in row-major order of the chunks
+            Assert.assertEquals(subscriber.blocks.get(1).getOffset(), new long[] {0, 4});
+            Assert.assertEquals(subscriber.blocks.get(2).getDimensions(), new long[] {2, 4});
+            assertBlocks(subscriber.blocks, 6 * 8);
+        }
+    }
+
+    @Test
+    public void testPublishRegion() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5"))) {
+            // rows 1-4 and columns 2-6 are in the four chunks
+            final DatasetBlockPublisher publisher = new DatasetBlockPublisher(
+                    new ChunkedDatasetReader(reader, CHUNKED_LAYOUT, FilterPipeline.EMPTY),
+                    Hyperslab.region(new long[] {1, 2}, new long[] {4, 5}), 1);
+            Assert.assertEquals(publisher.getNumberOfBlocks(), 4);
+            final RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+            publisher.subscribe(subscriber);
+            subscriber.await();
+            Assert.assertTrue(subscriber.completed);
+            Assert.assertEquals(subscriber.blocks.get(0).getOffset(), new long[] {1, 2});
+            Assert.assertEquals(subscriber.blocks.get(0).getDimensions(), new long[] {3, 2});
+            assertBlocks(subscriber.blocks, 4 * 5);
+        }
+    }
+
+    @Test
+    public void testPublishContiguousRegion() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_hyper.h5"))) {
+            final DatasetBlockPublisher publisher = new DatasetBlockPublisher(
+                    new ContiguousDatasetReader(reader, CONTIGUOUS_LAYOUT),
+                    Hyperslab.region(new long[] {2, 1}, new long[] {3, 6}), 2);
+            // a single block of rows
+            Assert.assertEquals(publisher.getNumberOfBlocks(), 1);
+            final RecordingSubscriber subscriber = new RecordingSubscriber(1);
+            publisher.subscribe(subscriber);
+            subscriber.await();
+            Assert.assertTrue(subscriber.completed);
+            assertBlocks(subscriber.blocks, 3 * 6);
+        }
+    }
+
+    @Test
+    public void testBackpressure() throws Exception {
+        // DS1 dataset in h5ex_d_gzip.h5 (32x64 integers, chunked 4x8, compression level 9)
+        final ChunkedLayout layout = new ChunkedLayout(new long[] {32, 64}, new int[] {4, 8},
+                Integer.BYTES, 1400);
+        final AtomicInteger decoded = new AtomicInteger();
+        final ChunkFilter countingFilter = new ChunkFilter() {
+            @Override
+            public int getFilterId() {
+                return 256;
+            }
+
+            @Override
+            public ByteBuffer decode(final ByteBuffer input, final int[] clientData,
+                    final int expectedSize) {
+                decoded.incrementAndGet();
+                return input;
+            }
+        };
+        final FilterPipeline pipeline = FilterPipeline.EMPTY.append(DeflateFilter.INSTANCE, 9)
+                .append(countingFilter);
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_gzip.h5"))) {
+            final DatasetBlockPublisher publisher = new DatasetBlockPublisher(
+                    new ChunkedDatasetReader(reader, layout, pipeline),
+                    Hyperslab.all(layout.getDimensions()), 2);
+            Assert.assertEquals(publisher.getNumberOfBlocks(), 64);
+            final RecordingSubscriber subscriber = new RecordingSubscriber(0);
+            publisher.subscribe(subscriber);
+            // nothing is read without demand
+            Thread.sleep(50);
+            Assert.assertEquals(decoded.get(), 0);
+            // one block at a time: at most the requested blocks are read
+            for (int requested = 1; requested <= 64; requested++) {
+                subscriber.subscription.request(1);
+                while (subscriber.blocks.size() < requested) {
+                    Thread.sleep(1);
+                }
+                Assert.assertEquals(decoded.get(), requested);
+            }
+            subscriber.await();
+            Assert.assertTrue(subscriber.completed);
+            for (int k = 0; k < 64; k++) {
+                final DatasetBlock block = subscriber.blocks.get(k);
+                final long[] offset = block.getOffset();
+                Assert.assertEquals(offset, new long[] {(k / 8) * 4, (k % 8) * 8});
+                final ByteBuffer data = block.getData();
+                for (long i = offset[0]; i < offset[0] + 4; i++) {
+                    for (long j = offset[1]; j < offset[1] + 8; j++) {
+                        Assert.assertEquals(data.getInt(), i * j - j);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5"))) {
+            final DatasetBlockPublisher publisher = new DatasetBlockPublisher(
+                    new ChunkedDatasetReader(reader, CHUNKED_LAYOUT, FilterPipeline.EMPTY));
+            final RecordingSubscriber subscriber = new RecordingSubscriber(1);
+            publisher.subscribe(subscriber);
+            while (subscriber.blocks.isEmpty()) {
+                Thread.sleep(1);
+            }
+            subscriber.subscription.cancel();
+            subscriber.subscription.request(10);
+            Thread.sleep(50);
+            Assert.assertEquals(subscriber.blocks.size(), 1);
+            Assert.assertFalse(subscriber.completed);
+            Assert.assertNull(subscriber.error);
+        }
+    }
+
+    @Test
+    public void testNonPositiveRequest() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5"))) {
+            final RecordingSubscriber subscriber = new RecordingSubscriber(-1);
+            new DatasetBlockPublisher(
+                    new ChunkedDatasetReader(reader, CHUNKED_LAYOUT, FilterPipeline.EMPTY))
+                    .subscribe(subscriber);
+            subscriber.await();
+            Assert.assertTrue(subscriber.error instanceof IllegalArgumentException);
+            Assert.assertTrue(subscriber.blocks.isEmpty());
+        }
+    }
+
+    @Test
+    public void testReadErrorIsSignaled() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5"))) {
+            // the chunk index does not match the dataset size
+            final RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+            new DatasetBlockPublisher(new ChunkedDatasetReader(reader,
+                    new ChunkedLayout(new long[] {3, 8}, new int[] {4, 4}, Integer.BYTES, 1400),
+                    FilterPipeline.EMPTY)).subscribe(subscriber);
+            subscriber.await();
+            Assert.assertNotNull(subscriber.error);
+            Assert.assertFalse(subscriber.completed);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNotARegion() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_hyper.h5"))) {
+            new DatasetBlockPublisher(new ContiguousDatasetReader(reader, CONTIGUOUS_LAYOUT),
+                    new Hyperslab(new long[] {0, 0}, new long[] {2, 2}, new long[] {2, 2},
+                            new long[] {1, 1}), 1);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.magicdgs.hdf5j.dataset;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class DatasetBlockSpliteratorUnitTest extends HDF5jTest {
+
+    // blocks of a single row with the index as offset
+    private static DatasetBlock block(final int index) {
+        return new DatasetBlock(new long[] {index}, new long[] {1}, ByteBuffer.allocate(0));
+    }
+
+    @Test
+    public void testSplitOnBlocks() throws Exception {
+        final Spliterator<DatasetBlock> spliterator =
+                new DatasetBlockSpliterator(DatasetBlockSpliteratorUnitTest::block, 5);
+        Assert.assertEquals(spliterator.estimateSize(), 5);
+        Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+        Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+        Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+        final Spliterator<DatasetBlock> prefix = spliterator.trySplit();
+        Assert.assertEquals(prefix.estimateSize(), 2);
+        Assert.assertEquals(spliterator.estimateSize(), 3);
+        final List<Long> offsets = new ArrayList<>();
+        prefix.forEachRemaining(block -> offsets.add(block.getOffset()[0]));
+        Assert.assertTrue(spliterator.tryAdvance(block -> offsets.add(block.getOffset()[0])));
+        spliterator.forEachRemaining(block -> offsets.add(block.getOffset()[0]));
+        Assert.assertFalse(spliterator.tryAdvance(block -> Assert.fail()));
+        Assert.assertEquals(offsets, Arrays.asList(0L, 1L, 2L, 3L, 4L));
+        // single blocks cannot be split
+        final Spliterator<DatasetBlock> single =
+                new DatasetBlockSpliterator(DatasetBlockSpliteratorUnitTest::block, 1);
+        Assert.assertNull(single.trySplit());
+    }
+
+    @Test
+    public void testParallelStreamReadsEachBlockOnce() throws Exception {
+        final Set<Integer> read = ConcurrentHashMap.newKeySet();
+        final List<Long> offsets = StreamSupport.stream(new DatasetBlockSpliterator(index -> {
+            Assert.assertTrue(read.add(index), "block read twice: " + index);
+            return block(index);
+        }, 1000), true).map(block -> block.getOffset()[0]).collect(Collectors.toList());
+        Assert.assertEquals(read.size(), 1000);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(offsets.get(i).longValue(), i);
+        }
+    }
+
+    @Test(expectedExceptions = UncheckedIOException.class)
+    public void testIOException() throws Exception {
+        new DatasetBlockSpliterator(index -> {
+            throw new IOException("test");
+        }, 2).tryAdvance(block -> Assert.fail());
+    }
+}
@@ -0,0 +1,83 @@
+package org.magicdgs.hdf5j.dataset;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class HyperslabUnitTest extends HDF5jTest {
+
+    // selection in h5ex_d_hyper.c
+    private static final Hyperslab HYPERSLAB = new Hyperslab(new long[] {0, 1},
+            new long[] {4, 4}, new long[] {2, 2}, new long[] {2, 3});
+
+    @Test
+    public void testGetters() throws Exception {
+        Assert.assertEquals(HYPERSLAB.getRank(), 2);
+        Assert.assertEquals(HYPERSLAB.getStart(), new long[] {0, 1});
+        Assert.assertEquals(HYPERSLAB.getStride(), new long[] {4, 4});
+        Assert.assertEquals(HYPERSLAB.getCount(), new long[] {2, 2});
+        Assert.assertEquals(HYPERSLAB.getBlock(), new long[] {2, 3});
+        Assert.assertEquals(HYPERSLAB.getSelectedDimensions(), new long[] {4, 6});
+        Assert.assertEquals(HYPERSLAB.getNumberOfElements(), 24);
+    }
+
+    @Test
+    public void testRegion() throws Exception {
+        final Hyperslab region = Hyperslab.region(new long[] {1, 2}, new long[] {3, 4});
+        Assert.assertEquals(region.getSelectedDimensions(), new long[] {3, 4});
+        Assert.assertEquals(region.getNumberOfElements(), 12);
+        Assert.assertTrue(region.isWithin(new long[] {4, 6}));
+        Assert.assertFalse(region.isWithin(new long[] {4, 5}));
+        Assert.assertEquals(Hyperslab.all(new long[] {3, 4}),
+                Hyperslab.region(new long[] {0, 0}, new long[] {3, 4}));
+    }
+
+    @Test
+    public void testIsWithin() throws Exception {
+        // last selected element is (5, 7)
+        Assert.assertTrue(HYPERSLAB.isWithin(new long[] {6, 8}));
+        Assert.assertFalse(HYPERSLAB.isWithin(new long[] {5, 8}));
+        Assert.assertFalse(HYPERSLAB.isWithin(new long[] {6, 7}));
+        Assert.assertFalse(HYPERSLAB.isWithin(new long[] {6, 8, 1}));
+        // the last selected element overflows
+        final Hyperslab overflow = new Hyperslab(new long[] {1}, new long[] {Long.MAX_VALUE / 2},
+                new long[] {3}, new long[] {1});
+        Assert.assertFalse(overflow.isWithin(new long[] {Long.MAX_VALUE}));
+        Assert.assertFalse(Hyperslab.region(new long[] {Long.MAX_VALUE}, new long[] {2})
+                .isWithin(new long[] {Long.MAX_VALUE}));
+    }
+
+    @Test
+    public void testEquals() throws Exception {
+        final Hyperslab same = new Hyperslab(new long[] {0, 1}, new long[] {4, 4},
+                new long[] {2, 2}, new long[] {2, 3});
+        Assert.assertEquals(same, HYPERSLAB);
+        Assert.assertEquals(same.hashCode(), HYPERSLAB.hashCode());
+        Assert.assertNotEquals(Hyperslab.region(new long[] {0, 1}, new long[] {2, 3}),
+                HYPERSLAB);
+    }
+
+    @DataProvider
+    public Object[][] invalidArguments() {
+        return new Object[][] {
+                {new long[0], new long[0], new long[0], new long[0]},
+                {new long[] {0}, new long[] {1, 1}, new long[] {1}, new long[] {1}},
+                {new long[] {-1}, new long[] {1}, new long[] {1}, new long[] {1}},
+                {new long[] {0}, new long[] {1}, new long[] {0}, new long[] {1}},
+                {new long[] {0}, new long[] {1}, new long[] {1}, new long[] {0}},
+                // overlapping blocks
+                {new long[] {0}, new long[] {2}, new long[] {2}, new long[] {3}}
+        };
+    }
+
+    @Test(dataProvider = "invalidArguments", expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidArguments(final long[] start, final long[] stride, final long[] count,
+            final long[] block) throws Exception {
+        new Hyperslab(start, stride, count, block);
+    }
+}
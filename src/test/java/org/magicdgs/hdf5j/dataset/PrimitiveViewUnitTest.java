@@ -0,0 +1,137 @@
+package org.magicdgs.hdf5j.dataset;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.HDF5jTestResources;
+import org.magicdgs.hdf5j.dataset.filters.FilterPipeline;
+import org.magicdgs.hdf5j.fileformat.level2.DatatypeMessage;
+import org.magicdgs.hdf5j.fileformat.level2.HeaderMessage;
+import org.magicdgs.hdf5j.fileformat.level2.ObjectHeader;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class PrimitiveViewUnitTest extends HDF5jTest {
+
+    // DS1 in h5ex_t_int.h5 and h5ex_t_float.h5 (4x7, contiguous)
+    private static final ContiguousLayout INT64_LAYOUT =
+            new ContiguousLayout(new long[] {4, 7}, Long.BYTES, 2144);
+    private static final ContiguousLayout FLOAT64_LAYOUT =
+            new ContiguousLayout(new long[] {4, 7}, Double.BYTES, 2144);
+
+    private static DatatypeMessage readDatatype(final HDF5FileReader reader) throws Exception {
+        return ObjectHeader.read(reader, 800)
+                .getDecodedMessage(HeaderMessage.DATATYPE, DatatypeMessage::decode);
+    }
+
+    @Test
+    public void testMappedBigEndian() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_t_int.h5"))) {
+            final PrimitiveView view = PrimitiveView.read(
+                    new ContiguousDatasetReader(reader, INT64_LAYOUT), readDatatype(reader));
+            Assert.assertTrue(view.isMapped());
+            Assert.assertTrue(view.getBytes().isDirect());
+            Assert.assertEquals(view.size(), 4 * 7);
+            final LongBuffer values = view.asLongBuffer();
+            Assert.assertTrue(values.isReadOnly());
+            for (int i = 0; i < 4; i++) {
+                for (int j = 0; j < 7; j++) {
+                    Assert.assertEquals(values.get(), j * (i - 1L));
+                }
+            }
+            Assert.assertThrows(IllegalStateException.class, view::asDoubleBuffer);
+            Assert.assertThrows(IllegalStateException.class, view::asIntBuffer);
+        }
+    }
+
+    @Test
+    public void testMappedRows() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_t_float.h5"))) {
+            // consecutive rows are mapped
+            final PrimitiveView view = PrimitiveView.read(
+                    new ContiguousDatasetReader(reader, FLOAT64_LAYOUT), readDatatype(reader),
+                    Hyperslab.region(new long[] {1, 0}, new long[] {2, 7}));
+            Assert.assertTrue(view.isMapped());
+            final DoubleBuffer values = view.asDoubleBuffer();
+            Assert.assertEquals(values.remaining(), 2 * 7);
+            for (int i = 1; i < 3; i++) {
+                for (int j = 0; j < 7; j++) {
+                    Assert.assertEquals(values.get(), i / (j + 0.5) + j, 1e-12);
+                }
+            }
+            // slices share the memory
+            final PrimitiveView slice = view.slice(7, 3);
+            Assert.assertEquals(slice.size(), 3);
+            Assert.assertTrue(slice.isMapped());
+            Assert.assertEquals(slice.asDoubleBuffer().get(0), 4.0);
+            Assert.assertThrows(IndexOutOfBoundsException.class, () -> view.slice(10, 5));
+        }
+    }
+
+    @Test
+    public void testDirectColumns() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_t_float.h5"))) {
+            // columns are not consecutive in the file
+            final PrimitiveView view = PrimitiveView.read(
+                    new ContiguousDatasetReader(reader, FLOAT64_LAYOUT), readDatatype(reader),
+                    Hyperslab.region(new long[] {0, 1}, new long[] {4, 2}));
+            Assert.assertFalse(view.isMapped());
+            Assert.assertTrue(view.getBytes().isDirect());
+            final DoubleBuffer values = view.asDoubleBuffer();
+            for (int i = 0; i < 4; i++) {
+                for (int j = 1; j < 3; j++) {
+                    Assert.assertEquals(values.get(), i / (j + 0.5) + j, 1e-12);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDirectChunks() throws Exception {
+        // DS1 in h5ex_d_chunk.h5 (6x8 integers, chunked 4x4)
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5"))) {
+            final PrimitiveView view = PrimitiveView.read(new ChunkedDatasetReader(reader,
+                    new ChunkedLayout(new long[] {6, 8}, new int[] {4, 4}, 4, 1400),
+                    FilterPipeline.EMPTY), readDatatype(reader));
+            Assert.assertFalse(view.isMapped());
+            Assert.assertTrue(view.getBytes().isDirect());
+            final IntBuffer values = view.asIntBuffer();
+            Assert.assertEquals(values.remaining(), 6 * 8);
+            final int[] firstRow = new int[8];
+            values.get(firstRow);
+            Assert.assertEquals(firstRow, new int[] {0, 1, 0, 0, 1, 0, 0, 1});
+        }
+    }
+
+    @Test
+    public void testMapWholeDataset() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_t_float.h5"))) {
+            final ContiguousDatasetReader datasetReader =
+                    new ContiguousDatasetReader(reader, FLOAT64_LAYOUT);
+            Assert.assertEquals(datasetReader.map().remaining(), 4 * 7 * Double.BYTES);
+            Assert.assertTrue(datasetReader.map().isReadOnly());
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testElementSizeMismatch() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_t_float.h5"))) {
+            PrimitiveView.read(new ContiguousDatasetReader(reader,
+                    new ContiguousLayout(new long[] {4, 7}, Integer.BYTES, 2144)),
+                    readDatatype(reader));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.magicdgs.hdf5j.dataset;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.HDF5jTestResources;
+import org.magicdgs.hdf5j.fileformat.level1.GlobalHeapCache;
+import org.magicdgs.hdf5j.fileformat.level2.AttributeMessage;
+import org.magicdgs.hdf5j.fileformat.level2.DataspaceMessage;
+import org.magicdgs.hdf5j.fileformat.level2.DatatypeMessage;
+import org.magicdgs.hdf5j.fileformat.level2.HeaderMessage;
+import org.magicdgs.hdf5j.fileformat.level2.ObjectHeader;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class VariableLengthDecoderUnitTest extends HDF5jTest {
+
+    private static final String[] EXPECTED_STRINGS = {"Parting", "is such", "sweet", "sorrow."};
+    private static final int[][] EXPECTED_SEQUENCES = {
+            {3, 2, 1},
+            {1, 1, 2, 3, 5, 8, 13, 21, 34, 55, 89, 144}
+    };
+
+    // object header of DS1 in all the files
+    private static final long HEADER_ADDRESS = 800;
+    // contiguous data of DS1 in the dataset files
+    private static final long DATA_ADDRESS = 2144;
+
+    // reads the elements of DS1
+    private static ByteBuffer readDataset(final HDF5FileReader reader,
+            final DatatypeMessage type) throws Exception {
+        final ObjectHeader header = ObjectHeader.read(reader, HEADER_ADDRESS);
+        final DataspaceMessage dataspace = DataspaceMessage
+                .decode(header.getMessageAt(header.indexOf(HeaderMessage.DATASPACE)), reader);
+        final ByteBuffer elements =
+                ByteBuffer.allocate((int) dataspace.getNumberOfElements() * type.getSize());
+        new ContiguousDatasetReader(reader, new ContiguousLayout(dataspace.getDimensions(),
+                type.getSize(), DATA_ADDRESS)).read(elements);
+        elements.flip();
+        return elements;
+    }
+
+    private static DatatypeMessage readDatatype(final HDF5FileReader reader) throws Exception {
+        return ObjectHeader.read(reader, HEADER_ADDRESS)
+                .getDecodedMessage(HeaderMessage.DATATYPE, DatatypeMessage::decode);
+    }
+
+    // reads the A1 attribute of DS1
+    private static AttributeMessage readAttribute(final HDF5FileReader reader) throws Exception {
+        final ObjectHeader header = ObjectHeader.read(reader, HEADER_ADDRESS);
+        return AttributeMessage
+                .decode(header.getMessageAt(header.indexOf(HeaderMessage.ATTRIBUTE)), reader);
+    }
+
+    private static void assertSequences(final ByteBuffer[] sequences) {
+        Assert.assertEquals(sequences.length, EXPECTED_SEQUENCES.length);
+        for (int i = 0; i < sequences.length; i++) {
+            final int[] values = new int[sequences[i].remaining() / Integer.BYTES];
+            sequences[i].asIntBuffer().get(values);
+            Assert.assertEquals(values, EXPECTED_SEQUENCES[i], "sequence " + i);
+        }
+    }
+
+    @Test
+    public void testDecodeDatasetStrings() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_t_vlstring.h5"))) {
+            final DatatypeMessage type = readDatatype(reader);
+            final ByteBuffer elements = readDataset(reader, type);
+            final VariableLengthDecoder decoder = new VariableLengthDecoder(reader, type);
+            Assert.assertEquals(decoder.decodeStrings(elements), EXPECTED_STRINGS);
+            Assert.assertEquals(elements.position(), 0);
+            // all the strings are in the same collection, which is read once
+            Assert.assertEquals(decoder.getGlobalHeapCache().getMissCount(), 1);
+            Assert.assertEquals(decoder.getGlobalHeapCache().getHitCount(), 0);
+            // decoding again uses the cached collection
+            Assert.assertEquals(decoder.decodeStrings(elements), EXPECTED_STRINGS);
+            Assert.assertEquals(decoder.getGlobalHeapCache().getHitCount(), 1);
+        }
+    }
+
+    @Test
+    public void testDecodeDatasetSequences() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_t_vlen.h5"))) {
+            final DatatypeMessage type = readDatatype(reader);
+            assertSequences(new VariableLengthDecoder(reader, type)
+                    .decodeSequences(readDataset(reader, type)));
+        }
+    }
+
+    @Test
+    public void testDecodeAttributeStrings() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_t_vlstringatt.h5"))) {
+            final AttributeMessage attribute = readAttribute(reader);
+            Assert.assertEquals(attribute.getName(), "A1");
+            Assert.assertEquals(attribute.getDataspace().getDimensions(), new long[] {4});
+            Assert.assertTrue(attribute.getDatatype().isVariableLengthString());
+            Assert.assertEquals(new VariableLengthDecoder(reader, attribute.getDatatype())
+                    .decodeStrings(attribute.getData()), EXPECTED_STRINGS);
+        }
+    }
+
+    @Test
+    public void testDecodeAttributeSequences() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_t_vlenatt.h5"))) {
+            final AttributeMessage attribute = readAttribute(reader);
+            Assert.assertEquals(attribute.getName(), "A1");
+            Assert.assertEquals(attribute.getDataspace().getNumberOfElements(), 2);
+            assertSequences(new VariableLengthDecoder(reader, attribute.getDatatype())
+                    .decodeSequences(attribute.getData()));
+        }
+    }
+
+    @Test
+    public void testDecodeCompoundMember() throws Exception {
+        // "Location" member of DS1 in h5ex_t_cmpd.h5
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_t_cmpd.h5"))) {
+            final CompoundColumns columns = CompoundProjection.of(readDatatype(reader), "Location")
+                    .transpose(new ContiguousDatasetReader(reader,
+                            new ContiguousLayout(new long[] {4}, 44, 2256)));
+            final GlobalHeapCache heaps = new GlobalHeapCache(reader);
+            final VariableLengthDecoder decoder = new VariableLengthDecoder(reader,
+                    columns.getMembers().get(0).getType(), heaps);
+            Assert.assertSame(decoder.getGlobalHeapCache(), heaps);
+            final String[] locations =
+                    decoder.decodeStrings(ByteBuffer.wrap(columns.getBytes("Location")));
+            Assert.assertEquals(locations, new String[] {"Exterior (static)", "Intake",
+                    "Intake manifold", "Exhaust manifold"}, Arrays.toString(locations));
+        }
+    }
+
+    @Test
+    public void testEmptyElements() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_t_vlstring.h5"))) {
+            final VariableLengthDecoder decoder =
+                    new VariableLengthDecoder(reader, readDatatype(reader));
+            // zero-length elements are not resolved
+            Assert.assertEquals(decoder.decodeStrings(ByteBuffer.allocate(32)),
+                    new String[] {"", ""});
+            Assert.assertEquals(decoder.getGlobalHeapCache().getMissCount(), 0);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testSequencesFromStringType() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_t_vlstring.h5"))) {
+            new VariableLengthDecoder(reader, readDatatype(reader))
+                    .decodeSequences(ByteBuffer.allocate(16));
+        }
+    }
+}
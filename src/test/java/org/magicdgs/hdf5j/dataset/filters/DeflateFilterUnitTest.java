@@ -0,0 +1,118 @@
+package org.magicdgs.hdf5j.dataset.filters;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class DeflateFilterUnitTest extends HDF5jTest {
+
+    private static byte[] data(final int length) {
+        final byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (i % 7 + i / 100);
+        }
+        return data;
+    }
+
+    private static byte[] compress(final byte[] data) {
+        final Deflater deflater = new Deflater(6);
+        deflater.setInput(data);
+        deflater.finish();
+        final byte[] output = new byte[data.length + 64];
+        final int length = deflater.deflate(output);
+        deflater.end();
+        return Arrays.copyOf(output, length);
+    }
+
+    private static byte[] toArray(final ByteBuffer buffer) {
+        final byte[] array = new byte[buffer.remaining()];
+        buffer.duplicate().get(array);
+        return array;
+    }
+
+    @DataProvider
+    public Object[][] sizes() {
+        return new Object[][] {{0}, {10}, {1000}, {100000}};
+    }
+
+    @Test(dataProvider = "sizes")
+    public void testDecode(final int size) throws Exception {
+        final byte[] data = data(size);
+        final ByteBuffer input = ByteBuffer.wrap(compress(data));
+        final ByteBuffer decoded = DeflateFilter.INSTANCE.decode(input, new int[] {6}, size);
+        Assert.assertFalse(input.hasRemaining());
+        Assert.assertEquals(toArray(decoded), data);
+    }
+
+    @Test(dataProvider = "sizes")
+    public void testDecodeDirectInput(final int size) throws Exception {
+        final byte[] data = data(size);
+        final byte[] compressed = compress(data);
+        final ByteBuffer input = ByteBuffer.allocateDirect(compressed.length);
+        input.put(compressed).flip();
+        Assert.assertEquals(toArray(DeflateFilter.INSTANCE.decode(input, new int[0], size)), data);
+    }
+
+    @Test
+    public void testRelease() throws Exception {
+        final byte[] data = data(1000);
+        final byte[] compressed = compress(data);
+        DeflateFilter.INSTANCE.decode(ByteBuffer.wrap(compressed), new int[] {6}, 1000);
+        DeflateFilter.release();
+        // a new inflater is created for the thread
+        Assert.assertEquals(toArray(DeflateFilter.INSTANCE.decode(ByteBuffer.wrap(compressed),
+                new int[] {6}, 1000)), data);
+    }
+
+    @Test
+    public void testReleaseWithoutDecoding() throws Exception {
+        final byte[] data = data(1000);
+        final byte[] compressed = compress(data);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<byte[]> decoded = executor.submit(() -> {
+                // nothing to release in a new thread, even twice
+                DeflateFilter.release();
+                DeflateFilter.release();
+                return toArray(DeflateFilter.INSTANCE.decode(ByteBuffer.wrap(compressed),
+                        new int[] {6}, 1000));
+            });
+            Assert.assertEquals(decoded.get(), data);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDecodeLargerThanExpected() throws Exception {
+        final byte[] data = data(5000);
+        final ByteBuffer decoded =
+                DeflateFilter.INSTANCE.decode(ByteBuffer.wrap(compress(data)), new int[0], 10);
+        Assert.assertEquals(toArray(decoded), data);
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testTruncatedStream() throws Exception {
+        final byte[] compressed = compress(data(1000));
+        DeflateFilter.INSTANCE.decode(ByteBuffer.wrap(compressed, 0, compressed.length / 2),
+                new int[0], 1000);
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testInvalidStream() throws Exception {
+        DeflateFilter.INSTANCE.decode(ByteBuffer.wrap(data(100)), new int[0], 100);
+    }
+}
@@ -0,0 +1,53 @@
+package org.magicdgs.hdf5j.dataset.filters;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class FilterPipelineUnitTest extends HDF5jTest {
+
+    // filter that adds its parameter to every byte
+    private static final class AddFilter implements ChunkFilter {
+        @Override
+        public int getFilterId() {
+            return 256;
+        }
+
+        @Override
+        public ByteBuffer decode(final ByteBuffer input, final int[] clientData,
+                final int expectedSize) {
+            for (int i = input.position(); i < input.limit(); i++) {
+                input.put(i, (byte) (input.get(i) + clientData[0]));
+            }
+            return input;
+        }
+    }
+
+    @Test
+    public void testDecodeWithMask() throws Exception {
+        final FilterPipeline pipeline = FilterPipeline.EMPTY
+                .append(new AddFilter(), 1)
+                .append(new AddFilter(), 10)
+                .append(new AddFilter(), 100);
+        Assert.assertEquals(pipeline.size(), 3);
+        Assert.assertEquals(pipeline.decode(ByteBuffer.wrap(new byte[] {0}), 0, 1).get(0), 111);
+        // skip the second filter
+        Assert.assertEquals(pipeline.decode(ByteBuffer.wrap(new byte[] {0}), 0b010, 1).get(0),
+                101);
+        // all filters skipped
+        Assert.assertEquals(pipeline.decode(ByteBuffer.wrap(new byte[] {0}), -1, 1).get(0), 0);
+    }
+
+    @Test
+    public void testEmptyPipeline() throws Exception {
+        final ByteBuffer input = ByteBuffer.wrap(new byte[] {1, 2});
+        Assert.assertSame(FilterPipeline.EMPTY.decode(input, 0, 2), input);
+        Assert.assertEquals(FilterPipeline.EMPTY.size(), 0);
+    }
+}
@@ -0,0 +1,97 @@
+package org.magicdgs.hdf5j.dataset.filters;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.io.ChecksumVerification;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+import org.magicdgs.hdf5j.utils.hashing.Fletcher32Checksum;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class Fletcher32FilterUnitTest extends HDF5jTest {
+
+    private static final byte[] DATA = new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11};
+
+    private static ByteBuffer chunk(final int checksum) {
+        final ByteBuffer chunk = ByteBuffer.allocate(DATA.length + 4)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        chunk.put(DATA).putInt(checksum).flip();
+        return chunk;
+    }
+
+    private static ByteBuffer validChunk() {
+        return chunk(Fletcher32Checksum.checksum(ByteBuffer.wrap(DATA)));
+    }
+
+    private static ByteBuffer corruptedChunk() {
+        return chunk(Fletcher32Checksum.checksum(ByteBuffer.wrap(DATA)) + 1);
+    }
+
+    private static void assertData(final ByteBuffer decoded) {
+        final byte[] array = new byte[decoded.remaining()];
+        decoded.get(array);
+        Assert.assertEquals(array, DATA);
+    }
+
+    @Test
+    public void testDecode() throws Exception {
+        final ByteBuffer input = validChunk();
+        assertData(Fletcher32Filter.INSTANCE.decode(input, new int[0], DATA.length));
+        Assert.assertFalse(input.hasRemaining());
+    }
+
+    @Test
+    public void testDecodeSwappedChecksum() throws Exception {
+        final int checksum = Fletcher32Checksum.checksum(ByteBuffer.wrap(DATA));
+        final int swapped = ((checksum & 0x00FF00FF) << 8) | ((checksum >>> 8) & 0x00FF00FF);
+        assertData(Fletcher32Filter.INSTANCE.decode(chunk(swapped), new int[0], DATA.length));
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testCorruptedChunk() throws Exception {
+        Fletcher32Filter.INSTANCE.decode(corruptedChunk(), new int[0], DATA.length);
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testTooSmallChunk() throws Exception {
+        Fletcher32Filter.INSTANCE.decode(ByteBuffer.allocate(3), new int[0], 0);
+    }
+
+    @Test
+    public void testNoVerification() throws Exception {
+        final Fletcher32Filter filter = new Fletcher32Filter(ChecksumVerification.NEVER);
+        for (int i = 0; i < 10; i++) {
+            assertData(filter.decode(corruptedChunk(), new int[0], DATA.length));
+        }
+    }
+
+    @Test
+    public void testSampledVerification() throws Exception {
+        final Fletcher32Filter filter = new Fletcher32Filter(ChecksumVerification.sampled(3));
+        // first chunk is verified
+        Assert.assertThrows(HDF5jException.class,
+                () -> filter.decode(corruptedChunk(), new int[0], DATA.length));
+        // the next two are not verified
+        assertData(filter.decode(corruptedChunk(), new int[0], DATA.length));
+        assertData(filter.decode(corruptedChunk(), new int[0], DATA.length));
+        // the fourth is verified
+        Assert.assertThrows(HDF5jException.class,
+                () -> filter.decode(corruptedChunk(), new int[0], DATA.length));
+        assertData(filter.decode(validChunk(), new int[0], DATA.length));
+    }
+
+    @Test
+    public void testVerificationPolicies() throws Exception {
+        Assert.assertSame(ChecksumVerification.sampled(1), ChecksumVerification.ALWAYS);
+        Assert.assertTrue(ChecksumVerification.ALWAYS.shouldVerify(7));
+        Assert.assertFalse(ChecksumVerification.NEVER.shouldVerify(0));
+        Assert.assertTrue(ChecksumVerification.sampled(4).shouldVerify(8));
+        Assert.assertFalse(ChecksumVerification.sampled(4).shouldVerify(9));
+    }
+}
@@ -0,0 +1,242 @@
+package org.magicdgs.hdf5j.dataset.filters;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.HDF5jTestResources;
+import org.magicdgs.hdf5j.fileformat.level1.ChunkEntry;
+import org.magicdgs.hdf5j.fileformat.level1.RawDataChunkIndex;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class NBitFilterUnitTest extends HDF5jTest {
+
+    // DS1 dataset in h5ex_d_nbit.h5 (32x64 integers with 16 bits at offset 5, chunked 4x8)
+    private static final long BTREE_ADDRESS = 1400;
+    private static final int CHUNK_COLUMNS = 8;
+    private static final int[] CLIENT_DATA = new int[] {8, 0, 32, 1, 4, 0, 16, 5};
+
+    // client data for an atomic type, with the number of elements, size, precision and offset
+    private static int[] atomic(final int elements, final int size, final int precision,
+            final int offset) {
+        return new int[] {8, 0, elements, 1, size, 0, precision, offset};
+    }
+
+    private interface ChunkConsumer {
+        void accept(final ChunkEntry entry, final ByteBuffer chunk) throws Exception;
+    }
+
+    private static void forEachChunk(final ChunkConsumer consumer) throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_nbit.h5"))) {
+            for (final ChunkEntry entry : new RawDataChunkIndex(reader, BTREE_ADDRESS, 2)
+                    .getChunks()) {
+                final ByteBuffer chunk = ByteBuffer.allocate(entry.getSize());
+                reader.readRaw(entry.getAddress(), chunk);
+                chunk.flip();
+                consumer.accept(entry, chunk);
+            }
+        }
+    }
+
+    private static long expected(final ChunkEntry entry, final int index) {
+        final long i = entry.getOffset(0) + index / CHUNK_COLUMNS;
+        final long j = entry.getOffset(1) + index % CHUNK_COLUMNS;
+        return i * j - j;
+    }
+
+    @Test
+    public void testDecodeIntsFromFile() throws Exception {
+        forEachChunk((entry, chunk) -> {
+            final int[] values = new int[33];
+            Assert.assertEquals(NBitFilter.INSTANCE.decodeInts(chunk, CLIENT_DATA, true, values, 1),
+                    32);
+            Assert.assertFalse(chunk.hasRemaining());
+            Assert.assertEquals(values[0], 0);
+            for (int k = 0; k < 32; k++) {
+                Assert.assertEquals(values[k + 1], expected(entry, k));
+            }
+        });
+    }
+
+    @Test
+    public void testDecodeLongsFromFile() throws Exception {
+        forEachChunk((entry, chunk) -> {
+            final long[] values = new long[32];
+            NBitFilter.INSTANCE.decodeLongs(chunk, CLIENT_DATA, true, values, 0);
+            for (int k = 0; k < 32; k++) {
+                Assert.assertEquals(values[k], expected(entry, k));
+            }
+        });
+    }
+
+    @Test
+    public void testDecodeFromFile() throws Exception {
+        forEachChunk((entry, chunk) -> {
+            final ByteBuffer decoded = NBitFilter.INSTANCE.decode(chunk, CLIENT_DATA, 128);
+            Assert.assertEquals(decoded.remaining(), 128);
+            final ByteBuffer values = decoded.order(ByteOrder.LITTLE_ENDIAN);
+            for (int k = 0; k < 32; k++) {
+                final int value = values.getInt();
+                // padding bits are zero and the 16 significant bits start at offset 5
+                Assert.assertEquals(value & ~(0xFFFF << 5), 0);
+                Assert.assertEquals((value << 11) >> 16, expected(entry, k));
+            }
+        });
+    }
+
+    @Test
+    public void testDecodeUnsignedInts() throws Exception {
+        // 3-bit fields: 101 011 111 0(padding)
+        final ByteBuffer input = ByteBuffer.wrap(new byte[] {(byte) 0b10101111, (byte) 0b10000000});
+        final int[] values = new int[3];
+        NBitFilter.INSTANCE.decodeInts(input, atomic(3, 1, 3, 0), false, values, 0);
+        Assert.assertEquals(values, new int[] {5, 3, 7});
+        input.rewind();
+        NBitFilter.INSTANCE.decodeInts(input, atomic(3, 1, 3, 0), true, values, 0);
+        Assert.assertEquals(values, new int[] {-3, 3, -1});
+    }
+
+    @Test
+    public void testDecodeFullPrecisionLongs() throws Exception {
+        final long[] expected = new long[] {Long.MIN_VALUE, -1, 0, 1, Long.MAX_VALUE};
+        final ByteBuffer input = ByteBuffer.allocate(expected.length * Long.BYTES);
+        for (final long value : expected) {
+            input.putLong(value);
+        }
+        input.flip();
+        final long[] values = new long[expected.length];
+        NBitFilter.INSTANCE.decodeLongs(input, atomic(5, 8, 64, 0), true, values, 0);
+        Assert.assertEquals(values, expected);
+    }
+
+    @Test
+    public void testDecodeFloats() throws Exception {
+        // the lowest 8 bits of the mantissa are not stored
+        final float[] expected = new float[] {1f, -2.5f, 1024.125f, Float.POSITIVE_INFINITY};
+        final ByteBuffer input = ByteBuffer.allocate(expected.length * 3);
+        for (final float value : expected) {
+            final int bits = Float.floatToIntBits(value);
+            input.put((byte) (bits >>> 24)).put((byte) (bits >>> 16)).put((byte) (bits >>> 8));
+        }
+        input.flip();
+        final float[] values = new float[expected.length];
+        NBitFilter.INSTANCE.decodeFloats(input, atomic(4, 4, 24, 8), values, 0);
+        Assert.assertEquals(values, expected);
+    }
+
+    @Test
+    public void testDecodeDoubles() throws Exception {
+        final double[] expected = new double[] {0.1, -1e300, Double.MIN_VALUE, Math.PI};
+        final ByteBuffer input = ByteBuffer.allocate(expected.length * Double.BYTES);
+        for (final double value : expected) {
+            input.putDouble(value);
+        }
+        input.flip();
+        final double[] values = new double[expected.length];
+        NBitFilter.INSTANCE.decodeDoubles(input, atomic(4, 8, 64, 0), values, 0);
+        Assert.assertEquals(values, expected);
+    }
+
+    @Test
+    public void testDecodeBigEndian() throws Exception {
+        // 12-bit fields at offset 2 of a 2-bytes big-endian type: 0xABC and 0x123
+        final ByteBuffer input = ByteBuffer.wrap(new byte[] {(byte) 0xAB, (byte) 0xC1, 0x23});
+        final int[] clientData = new int[] {8, 0, 2, 1, 2, 1, 12, 2};
+        final ByteBuffer decoded = NBitFilter.INSTANCE.decode(input, clientData, 4);
+        Assert.assertEquals(decoded.order(ByteOrder.BIG_ENDIAN).getShort(0), 0xABC << 2);
+        Assert.assertEquals(decoded.getShort(2), 0x123 << 2);
+    }
+
+    @Test
+    public void testDecodeLargeType() throws Exception {
+        // 80-bit field at offset 4 of a 16-bytes little-endian type
+        final byte[] packed = new byte[10];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = (byte) (i + 1);
+        }
+        final ByteBuffer decoded = NBitFilter.INSTANCE
+                .decode(ByteBuffer.wrap(packed), atomic(1, 16, 80, 4), 16);
+        // expected: the packed bits as a big-endian integer, shifted 4 bits and little-endian
+        final byte[] expected = new byte[16];
+        for (int i = 0; i < packed.length; i++) {
+            final int value = Byte.toUnsignedInt(packed[packed.length - 1 - i]) << 4;
+            expected[i] |= (byte) value;
+            expected[i + 1] |= (byte) (value >>> 8);
+        }
+        final byte[] actual = new byte[16];
+        decoded.get(actual);
+        Assert.assertEquals(actual, expected);
+    }
+
+    @Test
+    public void testDecodeNoOp() throws Exception {
+        final ByteBuffer input = ByteBuffer.wrap(new byte[] {1, 2, 3, 4});
+        final ByteBuffer decoded = NBitFilter.INSTANCE.decode(input, new int[] {5, 0, 2, 4, 2}, 4);
+        Assert.assertEquals(decoded.remaining(), 4);
+        Assert.assertEquals(decoded.get(0), 1);
+        Assert.assertEquals(decoded.get(3), 4);
+    }
+
+    @Test
+    public void testNotCompressed() throws Exception {
+        final ByteBuffer input = ByteBuffer.allocate(8);
+        Assert.assertSame(NBitFilter.INSTANCE.decode(input, new int[] {8, 1, 2, 1, 4, 0, 32, 0}, 8),
+                input);
+    }
+
+    @DataProvider
+    public Object[][] unsupportedClasses() {
+        return new Object[][] {
+                // compound
+                {new int[] {10, 0, 2, 3, 4, 0}},
+                // array
+                {new int[] {10, 0, 2, 2, 8, 1, 4, 0, 32, 0}},
+                // unknown class
+                {new int[] {6, 0, 2, 7, 4, 0}}
+        };
+    }
+
+    @Test(dataProvider = "unsupportedClasses", expectedExceptions = HDF5jException.class)
+    public void testUnsupportedClass(final int[] clientData) throws Exception {
+        NBitFilter.INSTANCE.decode(ByteBuffer.allocate(8), clientData, 8);
+    }
+
+    @Test
+    public void testNotCompressedCompound() throws Exception {
+        final ByteBuffer input = ByteBuffer.allocate(8);
+        Assert.assertSame(NBitFilter.INSTANCE.decode(input, new int[] {10, 1, 2, 3, 4, 0}, 8),
+                input);
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testTruncatedChunk() throws Exception {
+        NBitFilter.INSTANCE.decodeInts(ByteBuffer.allocate(3), atomic(2, 4, 16, 0), true,
+                new int[2], 0);
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testTypeTooLarge() throws Exception {
+        NBitFilter.INSTANCE.decodeInts(ByteBuffer.allocate(8), atomic(2, 8, 16, 0), true,
+                new int[2], 0);
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testInvalidPrecision() throws Exception {
+        NBitFilter.INSTANCE.decode(ByteBuffer.allocate(8), atomic(2, 4, 30, 4), 8);
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void testTargetTooSmall() throws Exception {
+        NBitFilter.INSTANCE.decodeInts(ByteBuffer.allocate(8), atomic(4, 2, 16, 0), true,
+                new int[4], 1);
+    }
+}
@@ -0,0 +1,257 @@
+package org.magicdgs.hdf5j.dataset.filters;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.HDF5jTestResources;
+import org.magicdgs.hdf5j.fileformat.level1.ChunkEntry;
+import org.magicdgs.hdf5j.fileformat.level1.RawDataChunkIndex;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class ScaleOffsetFilterUnitTest extends HDF5jTest {
+
+    // DS1 dataset in h5ex_d_soint.h5 and h5ex_d_sofloat.h5 (32x64, chunked 4x8)
+    private static final long BTREE_ADDRESS = 1400;
+    private static final int CHUNK_COLUMNS = 8;
+    private static final int[] INT_CLIENT_DATA = clientData(2, 0, 32, 0, 4, 1, true, 0);
+    private static final int[] DOUBLE_CLIENT_DATA = clientData(0, 2, 32, 1, 8, 0, true, 0);
+
+    private static int[] clientData(final int scaleType, final int scaleFactor,
+            final int elements, final int typeClass, final int size, final int sign,
+            final boolean fillDefined, final long fillValue) {
+        final int[] clientData = new int[20];
+        clientData[0] = scaleType;
+        clientData[1] = scaleFactor;
+        clientData[2] = elements;
+        clientData[3] = typeClass;
+        clientData[4] = size;
+        clientData[5] = sign;
+        clientData[6] = 0;
+        clientData[7] = (fillDefined) ? 1 : 0;
+        clientData[8] = (int) fillValue;
+        clientData[9] = (int) (fillValue >>> 32);
+        return clientData;
+    }
+
+    // packs the offsets with the minimum bits after the chunk header
+    private static ByteBuffer chunk(final int minBits, final long minValue,
+            final long... offsets) {
+        final ByteBuffer chunk = ByteBuffer.allocate(21 + (offsets.length * minBits + 7) / 8)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        chunk.putInt(minBits).put((byte) Long.BYTES).putLong(minValue);
+        int bit = 21 * Byte.SIZE;
+        for (final long offset : offsets) {
+            for (int b = minBits - 1; b >= 0; b--, bit++) {
+                if ((offset >>> b & 1) == 1) {
+                    final int index = bit / Byte.SIZE;
+                    chunk.put(index, (byte) (chunk.get(index) | 0x80 >>> (bit % Byte.SIZE)));
+                }
+            }
+        }
+        chunk.clear();
+        return chunk;
+    }
+
+    private interface ChunkConsumer {
+        void accept(final ChunkEntry entry, final ByteBuffer chunk) throws Exception;
+    }
+
+    private static void forEachChunk(final String file, final ChunkConsumer consumer)
+            throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi(file))) {
+            for (final ChunkEntry entry : new RawDataChunkIndex(reader, BTREE_ADDRESS, 2)
+                    .getChunks()) {
+                final ByteBuffer chunk = ByteBuffer.allocate(entry.getSize());
+                reader.readRaw(entry.getAddress(), chunk);
+                chunk.flip();
+                consumer.accept(entry, chunk);
+            }
+        }
+    }
+
+    private static long row(final ChunkEntry entry, final int index) {
+        return entry.getOffset(0) + index / CHUNK_COLUMNS;
+    }
+
+    private static long column(final ChunkEntry entry, final int index) {
+        return entry.getOffset(1) + index % CHUNK_COLUMNS;
+    }
+
+    private static long expectedInt(final ChunkEntry entry, final int index) {
+        return row(entry, index) * column(entry, index) - column(entry, index);
+    }
+
+    private static double expectedDouble(final ChunkEntry entry, final int index) {
+        return (row(entry, index) + 1) / (column(entry, index) + 0.3) + column(entry, index);
+    }
+
+    @Test
+    public void testDecodeIntsFromFile() throws Exception {
+        forEachChunk("h5ex_d_soint.h5", (entry, chunk) -> {
+            final int[] values = new int[32];
+            Assert.assertEquals(
+                    ScaleOffsetFilter.INSTANCE.decodeInts(chunk, INT_CLIENT_DATA, values, 0), 32);
+            Assert.assertFalse(chunk.hasRemaining());
+            for (int k = 0; k < 32; k++) {
+                Assert.assertEquals(values[k], expectedInt(entry, k));
+            }
+        });
+    }
+
+    @Test
+    public void testDecodeLongsFromFile() throws Exception {
+        forEachChunk("h5ex_d_soint.h5", (entry, chunk) -> {
+            final long[] values = new long[34];
+            ScaleOffsetFilter.INSTANCE.decodeLongs(chunk, INT_CLIENT_DATA, values, 2);
+            for (int k = 0; k < 32; k++) {
+                Assert.assertEquals(values[k + 2], expectedInt(entry, k));
+            }
+        });
+    }
+
+    @Test
+    public void testDecodeIntegersFromFile() throws Exception {
+        forEachChunk("h5ex_d_soint.h5", (entry, chunk) -> {
+            final ByteBuffer decoded = ScaleOffsetFilter.INSTANCE
+                    .decode(chunk, INT_CLIENT_DATA, 128).order(ByteOrder.LITTLE_ENDIAN);
+            Assert.assertEquals(decoded.remaining(), 128);
+            for (int k = 0; k < 32; k++) {
+                Assert.assertEquals(decoded.getInt(), expectedInt(entry, k));
+            }
+        });
+    }
+
+    @Test
+    public void testDecodeDoublesFromFile() throws Exception {
+        forEachChunk("h5ex_d_sofloat.h5", (entry, chunk) -> {
+            final double[] values = new double[32];
+            ScaleOffsetFilter.INSTANCE.decodeDoubles(chunk, DOUBLE_CLIENT_DATA, values, 0);
+            for (int k = 0; k < 32; k++) {
+                // two decimal digits are kept
+                Assert.assertEquals(values[k], expectedDouble(entry, k), 0.005);
+            }
+        });
+    }
+
+    @Test
+    public void testDecodeFloatingPointFromFile() throws Exception {
+        forEachChunk("h5ex_d_sofloat.h5", (entry, chunk) -> {
+            final double[] expected = new double[32];
+            ScaleOffsetFilter.INSTANCE
+                    .decodeDoubles(chunk.duplicate(), DOUBLE_CLIENT_DATA, expected, 0);
+            final ByteBuffer decoded = ScaleOffsetFilter.INSTANCE
+                    .decode(chunk, DOUBLE_CLIENT_DATA, 256).order(ByteOrder.LITTLE_ENDIAN);
+            for (int k = 0; k < 32; k++) {
+                Assert.assertEquals(decoded.getDouble(), expected[k]);
+            }
+        });
+    }
+
+    @Test
+    public void testDecodeWithFillValue() throws Exception {
+        final int[] clientData = clientData(2, 0, 4, 0, 4, 1, true, -7);
+        final int[] values = new int[4];
+        // the maximum offset (all bits set) marks the fill value
+        ScaleOffsetFilter.INSTANCE.decodeInts(chunk(3, 10, 0, 7, 6, 1), clientData, values, 0);
+        Assert.assertEquals(values, new int[] {10, -7, 16, 11});
+    }
+
+    @Test
+    public void testDecodeUnsignedAndSignedBytes() throws Exception {
+        final long[] values = new long[3];
+        ScaleOffsetFilter.INSTANCE.decodeLongs(chunk(3, 250, 0, 5, 6),
+                clientData(2, 0, 3, 0, 1, 0, false, 0), values, 0);
+        Assert.assertEquals(values, new long[] {250, 255, 0});
+        ScaleOffsetFilter.INSTANCE.decodeLongs(chunk(3, -128, 0, 1, 7),
+                clientData(2, 0, 3, 0, 1, 1, false, 0), values, 0);
+        Assert.assertEquals(values, new long[] {-128, -127, -121});
+    }
+
+    @Test
+    public void testDecodeSameValues() throws Exception {
+        final int[] values = new int[3];
+        ScaleOffsetFilter.INSTANCE.decodeInts(chunk(0, 42),
+                clientData(2, 0, 3, 0, 2, 1, false, 0), values, 0);
+        Assert.assertEquals(values, new int[] {42, 42, 42});
+    }
+
+    @Test
+    public void testDecodeFullPrecision() throws Exception {
+        // stored without offset from the minimum
+        final ByteBuffer input = chunk(32, 0);
+        final ByteBuffer raw = ByteBuffer.allocate(input.capacity() + 8)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        raw.put(input).putInt(Integer.MIN_VALUE).putInt(Integer.MAX_VALUE).flip();
+        final long[] values = new long[2];
+        ScaleOffsetFilter.INSTANCE.decodeLongs(raw, clientData(2, 0, 2, 0, 4, 1, false, 0),
+                values, 0);
+        Assert.assertEquals(values, new long[] {Integer.MIN_VALUE, Integer.MAX_VALUE});
+    }
+
+    @Test
+    public void testDecodeFloats() throws Exception {
+        final long minValue = Float.floatToIntBits(-1.5f);
+        final int[] clientData = clientData(0, 1, 3, 1, 4, 0, true, Float.floatToIntBits(-99f));
+        final float[] values = new float[3];
+        ScaleOffsetFilter.INSTANCE.decodeFloats(chunk(5, minValue, 0, 25, 31), clientData,
+                values, 0);
+        Assert.assertEquals(values[0], -1.5f, 1e-6f);
+        Assert.assertEquals(values[1], 1f, 1e-6f);
+        Assert.assertEquals(values[2], -99f);
+        final ByteBuffer decoded = ScaleOffsetFilter.INSTANCE
+                .decode(chunk(5, minValue, 0, 25, 31), clientData, 12)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        Assert.assertEquals(decoded.getFloat(4), 1f, 1e-6f);
+    }
+
+    @Test
+    public void testDecodeFloatsInDoublePrecision() throws Exception {
+        // 11 / 10 - 1.5 is -0.39999998 in float arithmetic, but -0.4 narrowed from double
+        final float[] values = new float[1];
+        ScaleOffsetFilter.INSTANCE.decodeFloats(chunk(4, Float.floatToIntBits(-1.5f), 11),
+                clientData(0, 1, 1, 1, 4, 0, false, 0), values, 0);
+        Assert.assertEquals(values[0], -0.4f);
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testExponentScaleNotSupported() throws Exception {
+        ScaleOffsetFilter.INSTANCE.decodeDoubles(chunk(4, 0, 1),
+                clientData(1, 2, 1, 1, 8, 0, false, 0), new double[1], 0);
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testIntegersIntoFloatingPoint() throws Exception {
+        ScaleOffsetFilter.INSTANCE.decodeDoubles(chunk(4, 0, 1),
+                clientData(2, 0, 1, 0, 8, 1, false, 0), new double[1], 0);
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testTypeTooLarge() throws Exception {
+        ScaleOffsetFilter.INSTANCE.decodeInts(chunk(4, 0, 1),
+                clientData(2, 0, 1, 0, 8, 1, false, 0), new int[1], 0);
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testTruncatedHeader() throws Exception {
+        ScaleOffsetFilter.INSTANCE.decode(ByteBuffer.allocate(20), INT_CLIENT_DATA, 128);
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testTruncatedData() throws Exception {
+        ScaleOffsetFilter.INSTANCE.decode(chunk(9, 0, 1, 2, 3), INT_CLIENT_DATA, 128);
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testInvalidMinimumBits() throws Exception {
+        ScaleOffsetFilter.INSTANCE.decode(chunk(40, 0), INT_CLIENT_DATA, 128);
+    }
+}
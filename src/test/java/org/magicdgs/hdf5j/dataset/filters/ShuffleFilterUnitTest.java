@@ -0,0 +1,77 @@
+package org.magicdgs.hdf5j.dataset.filters;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class ShuffleFilterUnitTest extends HDF5jTest {
+
+    // reference implementation of the shuffle
+    private static byte[] shuffle(final byte[] data, final int elementSize) {
+        final byte[] shuffled = data.clone();
+        final int elements = data.length / elementSize;
+        for (int i = 0; i < elements; i++) {
+            for (int b = 0; b < elementSize; b++) {
+                shuffled[b * elements + i] = data[i * elementSize + b];
+            }
+        }
+        return shuffled;
+    }
+
+    private static byte[] toArray(final ByteBuffer buffer) {
+        final byte[] array = new byte[buffer.remaining()];
+        buffer.duplicate().get(array);
+        return array;
+    }
+
+    @DataProvider
+    public Object[][] elementSizesAndLengths() {
+        final List<Object[]> data = new ArrayList<>();
+        for (final int elementSize : new int[] {1, 2, 3, 4, 8, 16}) {
+            // include incomplete blocks and leftover bytes
+            for (final int length : new int[] {0, 1, 7, 16, 64, 67, 1000, 1021}) {
+                data.add(new Object[] {elementSize, length});
+            }
+        }
+        return data.toArray(new Object[data.size()][]);
+    }
+
+    @Test(dataProvider = "elementSizesAndLengths")
+    public void testDecode(final int elementSize, final int length) throws Exception {
+        final byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (31 * i + i / 7);
+        }
+        final ByteBuffer input = ByteBuffer.wrap(shuffle(data, elementSize));
+        final ByteBuffer decoded =
+                ShuffleFilter.INSTANCE.decode(input, new int[] {elementSize}, length);
+        if (decoded != input) {
+            Assert.assertFalse(input.hasRemaining());
+        }
+        Assert.assertEquals(toArray(decoded), data);
+    }
+
+    @Test
+    public void testDecodeWithOffset() throws Exception {
+        final byte[] data = new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16};
+        final byte[] shuffled = shuffle(data, 4);
+        final ByteBuffer input = ByteBuffer.allocateDirect(shuffled.length + 3);
+        input.put(new byte[3]).put(shuffled).flip().position(3);
+        Assert.assertEquals(toArray(ShuffleFilter.INSTANCE.decode(input, new int[] {4}, 16)),
+                data);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testMissingClientData() throws Exception {
+        ShuffleFilter.INSTANCE.decode(ByteBuffer.allocate(8), new int[0], 8);
+    }
+}
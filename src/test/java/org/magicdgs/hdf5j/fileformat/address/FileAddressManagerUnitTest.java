@@ -1,5 +1,6 @@
 package org.magicdgs.hdf5j.fileformat.address;
 
+import org.magicdgs.hdf5j.HDF5jTestResources;
 import org.magicdgs.hdf5j.utils.exceptions.FileAddressException;
 
 import org.mockito.Mockito;
@@ -7,8 +8,18 @@ import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.io.EOFException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * @author Daniel Gomez-Sanchez (magicDGS)
@@ -84,6 +95,79 @@ public class FileAddressManagerUnitTest {
         Assert.assertEquals(address.position, position);
     }
 
+    @DataProvider
+    public Object[][] positionsToDecode() {
+        final List<Object[]> data = new ArrayList<>();
+        final ByteOrder[] orders = new ByteOrder[] {ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN};
+        for (final ByteOrder order : orders) {
+            // specialized sizes
+            data.add(new Object[] {Short.BYTES, order, 0xABCD});
+            data.add(new Object[] {Integer.BYTES, order, 0xABCDEF01L});
+            data.add(new Object[] {Long.BYTES, order, Long.MAX_VALUE});
+            // arbitrary sizes
+            data.add(new Object[] {3, order, 0xABCDEF});
+            data.add(new Object[] {10, order, 189765});
+            // undefined
+            data.add(new Object[] {Short.BYTES, order, -1});
+            data.add(new Object[] {Integer.BYTES, order, -1});
+            data.add(new Object[] {Long.BYTES, order, -1});
+            data.add(new Object[] {3, order, -1});
+            data.add(new Object[] {10, order, -1});
+        }
+        return data.toArray(new Object[data.size()][]);
+    }
+
+    @Test(dataProvider = "positionsToDecode")
+    public void testDecodePosition(final int size, final ByteOrder order, final long position)
+            throws Exception {
+        final FileAddressManager manager = new FileAddressManager(size);
+        // one byte before and after the address
+        final ByteBuffer buffer = ByteBuffer.allocate(size + 2).order(order);
+        buffer.put((byte) 1);
+        manager.encodeAddress(manager.decodeAddress(position), buffer);
+        buffer.put((byte) 1);
+        buffer.flip();
+        // absolute decoding does not consume the buffer
+        Assert.assertEquals(manager.decodePosition(buffer, 1), position);
+        Assert.assertEquals(buffer.position(), 0);
+        // relative decoding consumes the address
+        buffer.get();
+        Assert.assertEquals(manager.decodePosition(buffer), position);
+        Assert.assertEquals(buffer.remaining(), 1);
+    }
+
+    @Test
+    public void testDecodeLittleEndianAddress() throws Exception {
+        final FileAddressManager manager = new FileAddressManager(Integer.BYTES);
+        final ByteBuffer buffer = ByteBuffer.wrap(new byte[] {0x01, 0x02, 0x03, 0x04})
+                .order(ByteOrder.LITTLE_ENDIAN);
+        Assert.assertEquals(manager.decodeAddress(buffer).position, 0x04030201);
+    }
+
+    @Test(expectedExceptions = FileAddressException.class)
+    public void testDecodeNegativeLongPosition() throws Exception {
+        final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(0, -2);
+        new FileAddressManager(Long.BYTES).decodePosition(buffer);
+    }
+
+    @DataProvider
+    public Object[][] positionsNotEncodable() {
+        return new Object[][] {
+                // do not fit into the number of bytes
+                {Short.BYTES, 0x1FFFF},
+                {Integer.BYTES, 0x1FFFFFFFFL},
+                // all bits set is reserved for the undefined address
+                {Short.BYTES, 0xFFFF},
+                {Integer.BYTES, 0xFFFFFFFFL}
+        };
+    }
+
+    @Test(dataProvider = "positionsNotEncodable", expectedExceptions = FileAddressException.class)
+    public void testDecodeAddressFromPositionNotEncodable(final int size, final long position)
+            throws Exception {
+        new FileAddressManager(size).decodeAddress(position);
+    }
+
     @Test
     public void testEncodeAddress() throws Exception {
         final int position = 10;
@@ -178,4 +262,69 @@ public class FileAddressManagerUnitTest {
         manager.seek(Mockito.mock(SeekableByteChannel.class), manager.getUndefinedAddress());
     }
 
-}
\ No newline at end of file
+    // B-tree of the root group in h5ex_d_chunk.h5
+    private static final long TREE_SIGNATURE_POSITION = 136;
+
+    private static FileChannel openChunk() throws Exception {
+        final Path path = HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5");
+        return FileChannel.open(path, StandardOpenOption.READ);
+    }
+
+    @Test
+    public void testRead() throws Exception {
+        final FileAddressManager manager = new FileAddressManager(8);
+        try (final FileChannel channel = openChunk()) {
+            final ByteBuffer buffer = ByteBuffer.allocate(6);
+            buffer.position(2);
+            final FileAddress read = manager.read(channel,
+                    manager.decodeAddress(TREE_SIGNATURE_POSITION), buffer);
+            Assert.assertEquals(read.position, TREE_SIGNATURE_POSITION);
+            Assert.assertFalse(buffer.hasRemaining());
+            Assert.assertEquals(buffer.array(), new byte[] {0, 0, 'T', 'R', 'E', 'E'});
+            // the channel is not moved
+            Assert.assertEquals(channel.position(), 0);
+        }
+    }
+
+    @Test
+    public void testConcurrentReads() throws Exception {
+        final FileAddressManager manager = new FileAddressManager(8);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (final FileChannel channel = openChunk()) {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        final ByteBuffer buffer = ByteBuffer.allocate(4);
+                        manager.read(channel, manager.decodeAddress(TREE_SIGNATURE_POSITION),
+                                buffer);
+                        Assert.assertEquals(buffer.array(), new byte[] {'T', 'R', 'E', 'E'});
+                    }
+                    return null;
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = EOFException.class)
+    public void testReadAfterEndOfFile() throws Exception {
+        final FileAddressManager manager = new FileAddressManager(8);
+        try (final FileChannel channel = openChunk()) {
+            manager.read(channel, manager.decodeAddress(channel.size() - 2),
+                    ByteBuffer.allocate(4));
+        }
+    }
+
+    @Test(expectedExceptions = FileAddressException.class)
+    public void testCannotReadUndefinedAddress() throws Exception {
+        final FileAddressManager manager = new FileAddressManager(4);
+        try (final FileChannel channel = openChunk()) {
+            manager.read(channel, manager.getUndefinedAddress(), ByteBuffer.allocate(4));
+        }
+    }
+}
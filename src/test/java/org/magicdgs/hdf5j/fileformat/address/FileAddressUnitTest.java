@@ -23,6 +23,8 @@ public class FileAddressUnitTest {
         // assert that the files are equal because of the position
         Assert.assertEquals(longAddress.position, 10);
         Assert.assertEquals(intAddress.position, 10);
+        Assert.assertEquals(longAddress.getPosition(), 10);
+        Assert.assertFalse(longAddress.isUndefined());
         Assert.assertEquals(longAddress, intAddress);
         // and in this case, they also have the same hashCode
         Assert.assertEquals(longAddress.hashCode(), intAddress.hashCode());
@@ -53,6 +55,8 @@ public class FileAddressUnitTest {
         final FileAddress undefined =
                 new FileAddress(ByteBuffer.allocate(Integer.BYTES).putInt(-1).array());
         Assert.assertEquals(undefined.position, -1);
+        Assert.assertEquals(undefined.getPosition(), -1);
+        Assert.assertTrue(undefined.isUndefined());
         Assert.assertEquals(undefined.hexDisplay(), "UndefinedAddress[4]:0xffffffffffffffff");
     }
 
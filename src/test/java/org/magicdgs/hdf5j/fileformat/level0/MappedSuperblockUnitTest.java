@@ -0,0 +1,183 @@
+package org.magicdgs.hdf5j.fileformat.level0;
+
+import org.magicdgs.hdf5j.HDF5Constants;
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.HDF5jTestResources;
+import org.magicdgs.hdf5j.fileformat.level1.SymbolTableEntry;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+import org.magicdgs.hdf5j.utils.exceptions.SuperblockVersionException;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class MappedSuperblockUnitTest extends HDF5jTest {
+
+    // creates a superblock buffer for the version, with 8 bytes offsets/lengths and field values
+    private static ByteBuffer createSuperblock(final int version) {
+        final ByteBuffer buffer = ByteBuffer.allocate(MappedSuperblock.MAX_SUPERBLOCK_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        for (final int b : HDF5Constants.HDF5_FORMAT_SIGNATURE) {
+            buffer.put((byte) b);
+        }
+        buffer.put((byte) version);
+        if (version < 2) {
+            // free-space, root symbol table entry, reserved and shared header versions
+            buffer.put(new byte[] {0, 0, 0, 0});
+            // size of offsets/lengths and reserved
+            buffer.put(new byte[] {8, 8, 0});
+            // group leaf/internal node K
+            buffer.putShort((short) 4).putShort((short) 16);
+            // file consistency flags
+            buffer.putInt(0);
+            if (version == 1) {
+                // indexed storage internal node K and reserved
+                buffer.putShort((short) 32).putShort((short) 0);
+            }
+            // base, free-space, end-of-file and driver address
+            buffer.putLong(0).putLong(-1).putLong(2048).putLong(-1);
+            // root group symbol table entry (name offset, header address, cache type, reserved)
+            buffer.putLong(0).putLong(96).putInt(1).putInt(0);
+            // scratch-pad space
+            buffer.put(new byte[16]);
+        } else {
+            // size of offsets/lengths and file consistency flags
+            buffer.put(new byte[] {8, 4, 5});
+            // base, superblock extension, end-of-file and root group object header
+            buffer.putLong(0).putLong(-1).putLong(2048).putLong(48);
+            // checksum
+            buffer.putInt(0xcafe);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @DataProvider
+    public Iterator<Object[]> examplesByApi() {
+        return HDF5jTestResources.getExamplesByApi().stream()
+                .map(p -> new Object[] {p}).iterator();
+    }
+
+    @Test(dataProvider = "examplesByApi")
+    public void testMapExampleFiles(final Path path) throws Exception {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final Superblock superblock = MappedSuperblock.map(channel, 0);
+            Assert.assertEquals(superblock.getSizeOfOffsets(), 8);
+            Assert.assertEquals(superblock.getSizeOfLengths(), 8);
+            // the example files are not wrapped and are not truncated
+            Assert.assertEquals(superblock.getBaseAddress().hexDisplay(), "FileAddress[8]:0x0");
+            Assert.assertEquals(superblock.getEndOfFileAddress().hexDisplay(),
+                    "FileAddress[8]:0x" + Long.toHexString(channel.size()));
+        }
+    }
+
+    @Test
+    public void testVersion0() throws Exception {
+        final Superblock superblock = MappedSuperblock.decode(createSuperblock(0));
+        Assert.assertEquals(superblock.getVersionNumber(), 0);
+        Assert.assertEquals(superblock.getBlockByteSize(), 96);
+        Assert.assertEquals(superblock.getFreeSpaceManagerVersionNumber(),
+                HDF5Constants.FREE_SPACE_MANAGER_VERSION_NUMBER);
+        Assert.assertEquals(superblock.getRootSymbolTableEntryVersionNumber(),
+                HDF5Constants.ROOT_SYMBOL_TABLE_ENTRY_VERSION_NUMBER);
+        Assert.assertEquals(superblock.getSharedHeaderMessageFormatVersionNumber(),
+                HDF5Constants.SHARED_HEADER_MESSAGE_FORMAT_VERSION_NUMBER);
+        Assert.assertEquals(superblock.getGroupLeafNodeK(), 4);
+        Assert.assertEquals(superblock.getGroupInternalNodeK(), 16);
+        Assert.assertEquals(superblock.getFileConsistencyFlags(), 0);
+        Assert.assertEquals(superblock.getEndOfFileAddress().hexDisplay(),
+                "FileAddress[8]:0x800");
+        Assert.assertEquals(superblock.getAddressOfGlobalFreeSpaceIndex().hexDisplay(),
+                "UndefinedAddress[8]:0xffffffffffffffff");
+        final SymbolTableEntry root = superblock.getRootGroupSymbolTableEntry();
+        Assert.assertEquals(root.getLinkNameOffset(), 0);
+        Assert.assertEquals(root.getObjectHeaderAddress(), 96);
+        Assert.assertTrue(root.hasCachedSymbolTable());
+        Assert.assertEquals(root.getBTreeAddress(), 0);
+        Assert.assertEquals(root.getLocalHeapAddress(), 0);
+        // not present in version 0
+        Assert.assertThrows(SuperblockVersionException.class,
+                superblock::getIndexedStorageInternalNodeK);
+        Assert.assertThrows(SuperblockVersionException.class, superblock::getSuperblockChecksum);
+    }
+
+    @Test
+    public void testVersion1() throws Exception {
+        final Superblock superblock = MappedSuperblock.decode(createSuperblock(1));
+        Assert.assertEquals(superblock.getVersionNumber(), 1);
+        Assert.assertEquals(superblock.getBlockByteSize(), 100);
+        Assert.assertEquals(superblock.getIndexedStorageInternalNodeK(), 32);
+        Assert.assertEquals(superblock.getEndOfFileAddress().hexDisplay(),
+                "FileAddress[8]:0x800");
+    }
+
+    @DataProvider
+    public Object[][] newVersions() {
+        return new Object[][] {{2}, {3}};
+    }
+
+    @Test(dataProvider = "newVersions")
+    public void testVersion2And3(final int version) throws Exception {
+        final Superblock superblock = MappedSuperblock.decode(createSuperblock(version));
+        Assert.assertEquals(superblock.getVersionNumber(), version);
+        Assert.assertEquals(superblock.getBlockByteSize(), 48);
+        Assert.assertEquals(superblock.getSizeOfLengths(), 4);
+        Assert.assertEquals(superblock.getFileConsistencyFlags(), 5);
+        Assert.assertEquals(superblock.getRootGroupObjectHeaderAddress().hexDisplay(),
+                "FileAddress[8]:0x30");
+        Assert.assertEquals(superblock.getSuperblockExtensionAddress().hexDisplay(),
+                "UndefinedAddress[8]:0xffffffffffffffff");
+        Assert.assertEquals(superblock.getSuperblockChecksum(), 0xcafe);
+        // not present in version 2+
+        Assert.assertThrows(SuperblockVersionException.class, superblock::getGroupLeafNodeK);
+        Assert.assertThrows(SuperblockVersionException.class,
+                superblock::getRootGroupSymbolTableEntry);
+    }
+
+    @Test
+    public void testWrite() throws Exception {
+        final ByteBuffer expected = createSuperblock(2);
+        final Path tmpFile = Files.createTempFile(this.getClass().getSimpleName(), ".h5");
+        tmpFile.toFile().deleteOnExit();
+        try (final SeekableByteChannel channel = Files.newByteChannel(tmpFile,
+                StandardOpenOption.WRITE)) {
+            MappedSuperblock.decode(expected).write(channel);
+        }
+        final byte[] written = Files.readAllBytes(tmpFile);
+        Assert.assertEquals(written.length, 48);
+        Assert.assertEquals(ByteBuffer.wrap(written), expected);
+    }
+
+    @Test(expectedExceptions = SuperblockVersionException.class)
+    public void testUnsupportedVersion() throws Exception {
+        final ByteBuffer buffer = createSuperblock(0);
+        buffer.put(HDF5Constants.HDF5_FORMAT_SIGNATURE.length, (byte) 4);
+        MappedSuperblock.decode(buffer);
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testInvalidSignature() throws Exception {
+        final ByteBuffer buffer = createSuperblock(0);
+        buffer.put(0, (byte) 0);
+        MappedSuperblock.decode(buffer);
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testTruncatedSuperblock() throws Exception {
+        final ByteBuffer buffer = createSuperblock(0);
+        buffer.limit(50);
+        MappedSuperblock.decode(buffer);
+    }
+}
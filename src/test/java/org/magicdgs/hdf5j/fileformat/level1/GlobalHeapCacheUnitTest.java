@@ -0,0 +1,97 @@
+package org.magicdgs.hdf5j.fileformat.level1;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.HDF5jTestResources;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class GlobalHeapCacheUnitTest extends HDF5jTest {
+
+    // collection with the strings of DS1 in h5ex_t_vlstring.h5
+    private static final long COLLECTION_ADDRESS = 4192;
+
+    private static HDF5FileReader openVlString() throws Exception {
+        return HDF5FileReader.open(HDF5jTestResources.getExampleByApi("h5ex_t_vlstring.h5"));
+    }
+
+    private static String asString(final ByteBuffer object) {
+        final byte[] bytes = new byte[object.remaining()];
+        object.get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void testReadCollection() throws Exception {
+        try (final HDF5FileReader reader = openVlString()) {
+            final long cachedBytes = reader.getMetadataCache().getCachedBytes();
+            final GlobalHeapCollection collection =
+                    GlobalHeapCollection.read(reader, COLLECTION_ADDRESS);
+            // read bypassing the metadata cache
+            Assert.assertEquals(reader.getMetadataCache().getCachedBytes(), cachedBytes);
+            Assert.assertEquals(collection.getAddress(), COLLECTION_ADDRESS);
+            Assert.assertEquals(collection.getSize(), 4096);
+            Assert.assertEquals(collection.getNumberOfObjects(), 4);
+            Assert.assertFalse(collection.contains(0));
+            Assert.assertFalse(collection.contains(5));
+            Assert.assertEquals(asString(collection.getObject(1)), "is such");
+            Assert.assertEquals(asString(collection.getObject(2)), "sweet");
+            Assert.assertEquals(asString(collection.getObject(3)), "sorrow.");
+            Assert.assertEquals(asString(collection.getObject(4)), "Parting");
+            Assert.assertTrue(collection.getObject(4).isReadOnly());
+        }
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testMissingObject() throws Exception {
+        try (final HDF5FileReader reader = openVlString()) {
+            GlobalHeapCollection.read(reader, COLLECTION_ADDRESS).getObject(5);
+        }
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testInvalidSignature() throws Exception {
+        try (final HDF5FileReader reader = openVlString()) {
+            // object header of DS1
+            GlobalHeapCollection.read(reader, 800);
+        }
+    }
+
+    @Test
+    public void testCachedCollection() throws Exception {
+        try (final HDF5FileReader reader = openVlString()) {
+            final GlobalHeapCache cache = new GlobalHeapCache(reader);
+            final GlobalHeapCollection collection = cache.get(COLLECTION_ADDRESS);
+            Assert.assertSame(cache.get(COLLECTION_ADDRESS), collection);
+            Assert.assertEquals(cache.getHitCount(), 1);
+            Assert.assertEquals(cache.getMissCount(), 1);
+            Assert.assertEquals(cache.size(), 1);
+            Assert.assertEquals(cache.getCachedBytes(), collection.getSize());
+            cache.invalidate(COLLECTION_ADDRESS);
+            Assert.assertEquals(cache.size(), 0);
+            Assert.assertEquals(cache.getCachedBytes(), 0);
+            Assert.assertNotSame(cache.get(COLLECTION_ADDRESS), collection);
+            cache.invalidateAll();
+            Assert.assertEquals(cache.size(), 0);
+        }
+    }
+
+    @Test
+    public void testEvictionBySize() throws Exception {
+        try (final HDF5FileReader reader = openVlString()) {
+            final GlobalHeapCache cache = new GlobalHeapCache(reader, 4095);
+            Assert.assertEquals(cache.get(COLLECTION_ADDRESS).getNumberOfObjects(), 4);
+            Assert.assertEquals(cache.size(), 0);
+            Assert.assertEquals(cache.getCachedBytes(), 0);
+            Assert.assertEquals(cache.getEvictionCount(), 1);
+        }
+    }
+}
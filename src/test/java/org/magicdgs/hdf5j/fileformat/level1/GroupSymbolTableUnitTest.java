@@ -0,0 +1,98 @@
+package org.magicdgs.hdf5j.fileformat.level1;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.HDF5jTestResources;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class GroupSymbolTableUnitTest extends HDF5jTest {
+
+    // symbol table of the root group in h5ex_g_iterate.h5
+    private static final long ROOT_BTREE_ADDRESS = 384;
+    private static final long ROOT_HEAP_ADDRESS = 96;
+
+    @Test
+    public void testGetEntries() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_g_iterate.h5"))) {
+            final GroupSymbolTable table =
+                    new GroupSymbolTable(reader, ROOT_BTREE_ADDRESS, ROOT_HEAP_ADDRESS);
+            final List<SymbolTableEntry> entries = table.getEntries();
+            final LocalHeap heap = table.readLocalHeap();
+            final String[] expectedNames = {"DS1", "DT1", "G1", "L1"};
+            final long[] expectedAddresses = {1928, 2216, 1552, 2296};
+            Assert.assertEquals(entries.size(), expectedNames.length);
+            for (int i = 0; i < expectedNames.length; i++) {
+                final SymbolTableEntry entry = entries.get(i);
+                Assert.assertEquals(heap.getString(entry.getLinkNameOffset()),
+                        expectedNames[i]);
+                Assert.assertEquals(entry.getObjectHeaderAddress(), expectedAddresses[i]);
+            }
+            // only the group caches its symbol table
+            final SymbolTableEntry group = entries.get(2);
+            Assert.assertTrue(group.hasCachedSymbolTable());
+            Assert.assertEquals(group.getBTreeAddress(), 1008);
+            Assert.assertEquals(group.getLocalHeapAddress(), 976);
+            final SymbolTableEntry dataset = entries.get(0);
+            Assert.assertEquals(dataset.getCacheType(), SymbolTableEntry.NO_CACHE);
+            Assert.assertFalse(dataset.hasCachedSymbolTable());
+            Assert.assertEquals(dataset.getBTreeAddress(), -1);
+        }
+    }
+
+    @Test
+    public void testEmptyGroup() throws Exception {
+        // G1 in h5ex_g_create.h5 does not have members
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_g_create.h5"))) {
+            Assert.assertTrue(new GroupSymbolTable(reader, 840, 1384).getEntries().isEmpty());
+        }
+    }
+
+    @Test
+    public void testReadSymbolTableNode() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_g_iterate.h5"))) {
+            final BTreeV1Node node = BTreeV1Node.read(reader, ROOT_BTREE_ADDRESS,
+                    reader.getSuperblock().getSizeOfLengths(), BTreeV1Node.GROUP_NODE_TYPE,
+                    reader.getGroupInternalNodeK());
+            final SymbolTableNode symbols = SymbolTableNode.read(reader,
+                    node.getChildAddress(0), reader.getGroupLeafNodeK());
+            Assert.assertEquals(symbols.getNumberOfSymbols(), 4);
+            Assert.assertEquals(symbols.getEntry(3).getObjectHeaderAddress(), 2296);
+        }
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testWrongSymbolTableNodeSignature() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_g_iterate.h5"))) {
+            SymbolTableNode.read(reader, ROOT_BTREE_ADDRESS, reader.getGroupLeafNodeK());
+        }
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testWrongLocalHeapSignature() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_g_iterate.h5"))) {
+            LocalHeap.read(reader, ROOT_BTREE_ADDRESS);
+        }
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testLocalHeapOffsetOutOfBounds() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_g_iterate.h5"))) {
+            final LocalHeap heap = LocalHeap.read(reader, ROOT_HEAP_ADDRESS);
+            heap.getString(heap.getDataSegmentSize());
+        }
+    }
+}
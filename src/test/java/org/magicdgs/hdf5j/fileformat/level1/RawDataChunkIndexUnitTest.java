@@ -0,0 +1,72 @@
+package org.magicdgs.hdf5j.fileformat.level1;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.HDF5jTestResources;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class RawDataChunkIndexUnitTest extends HDF5jTest {
+
+    // B-tree for the DS1 dataset in h5ex_d_chunk.h5
+    private static final long CHUNK_BTREE_ADDRESS = 1400;
+    // B-tree for the root group in h5ex_d_chunk.h5
+    private static final long GROUP_BTREE_ADDRESS = 136;
+
+    @Test
+    public void testGetChunks() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5"))) {
+            final List<ChunkEntry> chunks =
+                    new RawDataChunkIndex(reader, CHUNK_BTREE_ADDRESS, 2).getChunks();
+            Assert.assertEquals(chunks, Arrays.asList(
+                    new ChunkEntry(new long[] {0, 0}, 64, 0, 4016),
+                    new ChunkEntry(new long[] {0, 4}, 64, 0, 4080),
+                    new ChunkEntry(new long[] {4, 0}, 64, 0, 4144),
+                    new ChunkEntry(new long[] {4, 4}, 64, 0, 4208)));
+        }
+    }
+
+    @Test
+    public void testReadNode() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5"))) {
+            final BTreeV1Node node = BTreeV1Node.read(reader, CHUNK_BTREE_ADDRESS,
+                    ChunkEntry.keySize(2), BTreeV1Node.RAW_DATA_CHUNK_NODE_TYPE,
+                    reader.getIndexedStorageInternalNodeK());
+            Assert.assertEquals(node.getNodeType(), BTreeV1Node.RAW_DATA_CHUNK_NODE_TYPE);
+            Assert.assertEquals(node.getNodeLevel(), 0);
+            Assert.assertEquals(node.getEntriesUsed(), 4);
+            Assert.assertEquals(node.getLeftSibling(), -1);
+            Assert.assertEquals(node.getRightSibling(), -1);
+            Assert.assertEquals(node.getChildAddress(3), 4208);
+            // last key is the upper bound for the chunks
+            Assert.assertEquals(node.getKey(4).getLong(8), 4);
+            Assert.assertEquals(node.getKey(4).getInt(0), 0);
+        }
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testWrongNodeType() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5"))) {
+            new RawDataChunkIndex(reader, GROUP_BTREE_ADDRESS, 2).getChunks();
+        }
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testWrongSignature() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5"))) {
+            new RawDataChunkIndex(reader, CHUNK_BTREE_ADDRESS + 1, 2).getChunks();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.magicdgs.hdf5j.fileformat.level2;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class BTreeKValuesMessageUnitTest extends HDF5jTest {
+
+    private static HeaderMessage message(final int version, final int indexed,
+            final int internal, final int leaf) {
+        final ByteBuffer data = ByteBuffer.allocate(7).order(ByteOrder.LITTLE_ENDIAN);
+        data.put((byte) version).putShort((short) indexed).putShort((short) internal)
+                .putShort((short) leaf);
+        data.flip();
+        return new HeaderMessage(HeaderMessage.BTREE_K_VALUES, 0, data);
+    }
+
+    @Test
+    public void testDecode() throws Exception {
+        final BTreeKValuesMessage kValues = BTreeKValuesMessage.decode(message(0, 64, 32, 40000));
+        Assert.assertEquals(kValues.getIndexedStorageInternalNodeK(), 64);
+        Assert.assertEquals(kValues.getGroupInternalNodeK(), 32);
+        // unsigned values
+        Assert.assertEquals(kValues.getGroupLeafNodeK(), 40000);
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testUnsupportedVersion() throws Exception {
+        BTreeKValuesMessage.decode(message(1, 32, 16, 4));
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testZeroK() throws Exception {
+        BTreeKValuesMessage.decode(message(0, 32, 0, 4));
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testTruncated() throws Exception {
+        BTreeKValuesMessage.decode(new HeaderMessage(HeaderMessage.BTREE_K_VALUES, 0,
+                ByteBuffer.allocate(5)));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testWrongType() throws Exception {
+        BTreeKValuesMessage.decode(new HeaderMessage(HeaderMessage.SYMBOL_TABLE, 0,
+                ByteBuffer.allocate(16)));
+    }
+}
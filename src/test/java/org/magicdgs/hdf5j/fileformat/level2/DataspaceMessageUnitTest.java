@@ -0,0 +1,78 @@
+package org.magicdgs.hdf5j.fileformat.level2;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.HDF5jTestResources;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class DataspaceMessageUnitTest extends HDF5jTest {
+
+    // file with 8-byte lengths
+    private HDF5FileReader reader;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        reader = HDF5FileReader.open(HDF5jTestResources.getExampleByApi("h5ex_t_vlen.h5"));
+    }
+
+    @AfterClass
+    public void tearDown() throws Exception {
+        reader.close();
+    }
+
+    private static HeaderMessage message(final ByteBuffer data) {
+        data.flip();
+        return new HeaderMessage(HeaderMessage.DATASPACE, 0, data);
+    }
+
+    @Test
+    public void testDecodeFromHeader() throws Exception {
+        // DS1 in h5ex_t_vlen.h5 (version 1)
+        final ObjectHeader header = ObjectHeader.read(reader, 800);
+        final DataspaceMessage dataspace = DataspaceMessage
+                .decode(header.getMessageAt(header.indexOf(HeaderMessage.DATASPACE)), reader);
+        Assert.assertEquals(dataspace.getRank(), 1);
+        Assert.assertEquals(dataspace.getDimensions(), new long[] {2});
+        Assert.assertEquals(dataspace.getMaximumDimensions(), new long[] {2});
+        Assert.assertEquals(dataspace.getNumberOfElements(), 2);
+    }
+
+    @Test
+    public void testDecodeVersion2() throws Exception {
+        final ByteBuffer data = ByteBuffer.allocate(36).order(ByteOrder.LITTLE_ENDIAN);
+        data.put((byte) 2).put((byte) 2).put((byte) 1).put((byte) 1);
+        data.putLong(3).putLong(5).putLong(10).putLong(-1);
+        final DataspaceMessage dataspace = DataspaceMessage.decode(message(data), reader);
+        Assert.assertEquals(dataspace.getDimensions(), new long[] {3, 5});
+        Assert.assertEquals(dataspace.getMaximumDimensions(), new long[] {10, -1});
+        Assert.assertEquals(dataspace.getNumberOfElements(), 15);
+    }
+
+    @Test
+    public void testScalarAndNull() throws Exception {
+        final ByteBuffer scalar = ByteBuffer.allocate(4).put(new byte[] {2, 0, 0, 0});
+        Assert.assertEquals(DataspaceMessage.decode(message(scalar), reader)
+                .getNumberOfElements(), 1);
+        final ByteBuffer empty = ByteBuffer.allocate(4).put(new byte[] {2, 0, 0, 2});
+        Assert.assertEquals(DataspaceMessage.decode(message(empty), reader)
+                .getNumberOfElements(), 0);
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testTruncated() throws Exception {
+        final ByteBuffer data = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        data.put((byte) 2).put((byte) 1).put((byte) 0).put((byte) 1).putInt(3);
+        DataspaceMessage.decode(message(data), reader);
+    }
+}
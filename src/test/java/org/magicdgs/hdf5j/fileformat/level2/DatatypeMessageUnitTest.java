@@ -0,0 +1,116 @@
+package org.magicdgs.hdf5j.fileformat.level2;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.HDF5jTestResources;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class DatatypeMessageUnitTest extends HDF5jTest {
+
+    private static DatatypeMessage readDatatype(final String fileName, final long address)
+            throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi(fileName))) {
+            return ObjectHeader.read(reader, address)
+                    .getDecodedMessage(HeaderMessage.DATATYPE, DatatypeMessage::decode);
+        }
+    }
+
+    private static void assertMember(final DatatypeMessage.Member member, final String name,
+            final int offset, final int typeClass, final int size) {
+        Assert.assertEquals(member.getName(), name);
+        Assert.assertEquals(member.getOffset(), offset);
+        Assert.assertEquals(member.getType().getTypeClass(), typeClass);
+        Assert.assertEquals(member.getType().getSize(), size);
+    }
+
+    @Test
+    public void testDecodeCompound() throws Exception {
+        // DS1 in h5ex_t_cmpd.h5 (version 1 compound)
+        final DatatypeMessage type = readDatatype("h5ex_t_cmpd.h5", 800);
+        Assert.assertEquals(type.getTypeClass(), DatatypeMessage.COMPOUND);
+        Assert.assertEquals(type.getVersion(), 1);
+        Assert.assertEquals(type.getSize(), 44);
+        Assert.assertEquals(type.getMembers().size(), 4);
+        assertMember(type.getMembers().get(0), "Serial number", 0, DatatypeMessage.FIXED_POINT,
+                8);
+        assertMember(type.getMembers().get(1), "Location", 8, DatatypeMessage.VARIABLE_LENGTH,
+                16);
+        assertMember(type.getMembers().get(2), "Temperature (F)", 28,
+                DatatypeMessage.FLOATING_POINT, 8);
+        assertMember(type.getMembers().get(3), "Pressure (inHg)", 36,
+                DatatypeMessage.FLOATING_POINT, 8);
+        final DatatypeMessage serial = type.getMember("Serial number").getType();
+        Assert.assertEquals(serial.getByteOrder(), ByteOrder.BIG_ENDIAN);
+        Assert.assertTrue(serial.isSigned());
+        Assert.assertTrue(type.getMember("Location").getType().isVariableLengthString());
+        Assert.assertNull(type.getMember("missing"));
+    }
+
+    @Test
+    public void testDecodeNestedTypes() throws Exception {
+        // DS1 in h5ex_t_cpxcmpd.h5 (version 2 compound with nested types)
+        final DatatypeMessage type = readDatatype("h5ex_t_cpxcmpd.h5", 15096);
+        Assert.assertEquals(type.getVersion(), 2);
+        Assert.assertEquals(type.getSize(), 80);
+        Assert.assertEquals(type.getMembers().size(), 6);
+        // variable-length sequence of compounds
+        final DatatypeMessage sensors = type.getMember("Sensors").getType();
+        Assert.assertEquals(sensors.getTypeClass(), DatatypeMessage.VARIABLE_LENGTH);
+        Assert.assertFalse(sensors.isVariableLengthString());
+        Assert.assertEquals(sensors.getBaseType().getTypeClass(), DatatypeMessage.COMPOUND);
+        Assert.assertEquals(sensors.getBaseType().getMembers().size(), 4);
+        assertMember(type.getMember("Color"), "Color", 32, DatatypeMessage.ENUMERATED, 4);
+        Assert.assertEquals(type.getMember("Color").getType().getBaseType().getSize(), 4);
+        final DatatypeMessage location = type.getMember("Location").getType();
+        Assert.assertEquals(location.getTypeClass(), DatatypeMessage.ARRAY);
+        Assert.assertEquals(location.getArrayDimensions(), new int[] {3});
+        Assert.assertEquals(location.getBaseType().getTypeClass(),
+                DatatypeMessage.FLOATING_POINT);
+        assertMember(type.getMember("Group"), "Group", 60, DatatypeMessage.REFERENCE, 8);
+        assertMember(type.getMember("Surveyed areas"), "Surveyed areas", 68,
+                DatatypeMessage.REFERENCE, 12);
+    }
+
+    @Test
+    public void testDecodeVersion3Compound() throws Exception {
+        // version 3: names are not padded and offsets use 1 byte for sizes lower than 256
+        final ByteBuffer data = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+        data.put((byte) 0x36).put((byte) 2).put((byte) 0).put((byte) 0).putInt(12);
+        data.put("a\0".getBytes()).put((byte) 0);
+        data.put((byte) 0x10).put((byte) 0).put((byte) 0).put((byte) 0).putInt(4)
+                .putShort((short) 0).putShort((short) 32);
+        data.put("bc\0".getBytes()).put((byte) 4);
+        data.put((byte) 0x11).put((byte) 0x20).put((byte) 0x3f).put((byte) 0).putInt(8)
+                .putShort((short) 0).putShort((short) 64).put((byte) 52).put((byte) 11)
+                .put((byte) 0).put((byte) 52).putInt(1023);
+        data.flip();
+        final DatatypeMessage type = DatatypeMessage.decode(data);
+        Assert.assertFalse(data.hasRemaining());
+        Assert.assertEquals(type.getVersion(), 3);
+        assertMember(type.getMembers().get(0), "a", 0, DatatypeMessage.FIXED_POINT, 4);
+        assertMember(type.getMembers().get(1), "bc", 4, DatatypeMessage.FLOATING_POINT, 8);
+        Assert.assertEquals(type.getMember("bc").getType().getByteOrder(),
+                ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testMemberOutOfCompound() throws Exception {
+        final ByteBuffer data = ByteBuffer.allocate(32).order(ByteOrder.LITTLE_ENDIAN);
+        data.put((byte) 0x36).put((byte) 1).put((byte) 0).put((byte) 0).putInt(4);
+        data.put("a\0".getBytes()).put((byte) 2);
+        data.put((byte) 0x10).put((byte) 0).put((byte) 0).put((byte) 0).putInt(4)
+                .putShort((short) 0).putShort((short) 32);
+        data.flip();
+        DatatypeMessage.decode(new HeaderMessage(HeaderMessage.DATATYPE, 0, data));
+    }
+}
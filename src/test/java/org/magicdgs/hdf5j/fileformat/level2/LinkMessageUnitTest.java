@@ -0,0 +1,79 @@
+package org.magicdgs.hdf5j.fileformat.level2;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.fileformat.address.FileAddressManager;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class LinkMessageUnitTest extends HDF5jTest {
+
+    private static final FileAddressManager ADDRESS_MANAGER = new FileAddressManager(8);
+
+    // link message named "ext" with the link type present and the value (with its length)
+    private static ByteBuffer message(final int linkType, final byte[] value) {
+        final ByteBuffer data = ByteBuffer.allocate(7 + 2 + value.length)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        data.put((byte) 1).put((byte) 0x08).put((byte) linkType);
+        data.put((byte) 3).put("ext".getBytes(StandardCharsets.US_ASCII));
+        data.putShort((short) value.length).put(value);
+        data.flip();
+        return data;
+    }
+
+    @Test
+    public void testDecodeExternalLink() throws Exception {
+        final byte[] value = "\0file.h5\0/group/dataset\0".getBytes(StandardCharsets.US_ASCII);
+        final LinkMessage link = LinkMessage.decode(message(LinkMessage.EXTERNAL_LINK, value),
+                ADDRESS_MANAGER);
+        Assert.assertEquals(link.getName(), "ext");
+        Assert.assertEquals(link.getLinkType(), LinkMessage.EXTERNAL_LINK);
+        Assert.assertFalse(link.isHardLink());
+        Assert.assertEquals(link.getAddress(), -1);
+        Assert.assertNull(link.getSoftLinkValue());
+        Assert.assertEquals(link.getExternalFileName(), "file.h5");
+        Assert.assertEquals(link.getExternalObjectPath(), "/group/dataset");
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testExternalLinkWithoutTerminator() throws Exception {
+        final byte[] value = "\0file.h5\0/group".getBytes(StandardCharsets.US_ASCII);
+        LinkMessage.decode(message(LinkMessage.EXTERNAL_LINK, value), ADDRESS_MANAGER);
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testUnsupportedExternalLinkVersion() throws Exception {
+        final byte[] value = "\u0010file.h5\0/\0".getBytes(StandardCharsets.US_ASCII);
+        LinkMessage.decode(message(LinkMessage.EXTERNAL_LINK, value), ADDRESS_MANAGER);
+    }
+
+    @Test
+    public void testDecodeUserDefinedLink() throws Exception {
+        final LinkMessage link = LinkMessage.decode(message(100, new byte[] {1, 2, 3}),
+                ADDRESS_MANAGER);
+        Assert.assertEquals(link.getName(), "ext");
+        Assert.assertEquals(link.getLinkType(), 100);
+        Assert.assertEquals(link.getAddress(), -1);
+        Assert.assertNull(link.getExternalFileName());
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testUserDefinedLinkTooShort() throws Exception {
+        final ByteBuffer data = message(100, new byte[] {1, 2, 3});
+        data.limit(data.limit() - 1);
+        LinkMessage.decode(data, ADDRESS_MANAGER);
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testReservedLinkType() throws Exception {
+        LinkMessage.decode(message(2, new byte[0]), ADDRESS_MANAGER);
+    }
+}
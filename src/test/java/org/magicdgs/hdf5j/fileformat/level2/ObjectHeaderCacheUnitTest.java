@@ -0,0 +1,130 @@
+package org.magicdgs.hdf5j.fileformat.level2;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.HDF5jTestResources;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.exceptions.FileAddressException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class ObjectHeaderCacheUnitTest extends HDF5jTest {
+
+    // object headers in h5ex_g_traverse.h5
+    private static final long[] TRAVERSE_HEADERS = {928, 1552, 2504, 2552, 4792, 5744};
+
+    private static HDF5FileReader openTraverse() throws Exception {
+        return HDF5FileReader.open(HDF5jTestResources.getExampleByApi("h5ex_g_traverse.h5"));
+    }
+
+    @Test
+    public void testCachedHeader() throws Exception {
+        try (final HDF5FileReader reader = openTraverse()) {
+            final ObjectHeaderCache cache = new ObjectHeaderCache(reader);
+            final ObjectHeader header = cache.get(1552);
+            Assert.assertSame(cache.get(1552), header);
+            Assert.assertEquals(cache.getHitCount(), 1);
+            Assert.assertEquals(cache.getMissCount(), 1);
+            Assert.assertEquals(cache.size(), 1);
+            Assert.assertEquals(cache.getCachedBytes(), header.getRetainedSize());
+            // same messages as the header read from the file
+            final ObjectHeader read = ObjectHeader.read(reader, 1552);
+            Assert.assertEquals(header.getVersion(), read.getVersion());
+            Assert.assertEquals(header.getMessages().size(), read.getMessages().size());
+            for (int i = 0; i < read.getMessages().size(); i++) {
+                final HeaderMessage expected = read.getMessages().get(i);
+                final HeaderMessage actual = header.getMessages().get(i);
+                Assert.assertEquals(actual.getType(), expected.getType());
+                Assert.assertEquals(actual.getFlags(), expected.getFlags());
+                Assert.assertEquals(actual.getData(), expected.getData());
+            }
+            cache.invalidate(1552);
+            Assert.assertEquals(cache.size(), 0);
+            Assert.assertEquals(cache.getCachedBytes(), 0);
+            Assert.assertNotSame(cache.get(1552), header);
+        }
+    }
+
+    @Test
+    public void testEvictionByRetainedSize() throws Exception {
+        try (final HDF5FileReader reader = openTraverse()) {
+            long total = 0;
+            long largest = 0;
+            for (final long address : TRAVERSE_HEADERS) {
+                final long size = ObjectHeader.read(reader, address).getRetainedSize();
+                total += size;
+                largest = Math.max(largest, size);
+            }
+            // budget for all the headers but the first one
+            final long maxBytes = total - ObjectHeader.read(reader, TRAVERSE_HEADERS[0])
+                    .getRetainedSize();
+            Assert.assertTrue(maxBytes >= largest);
+            final ObjectHeaderCache cache = new ObjectHeaderCache(reader, maxBytes);
+            for (final long address : TRAVERSE_HEADERS) {
+                cache.get(address);
+                Assert.assertTrue(cache.getCachedBytes() <= maxBytes);
+            }
+            Assert.assertEquals(cache.getEvictionCount(), 1);
+            Assert.assertEquals(cache.size(), TRAVERSE_HEADERS.length - 1);
+            // the least-recently-used was evicted
+            cache.get(TRAVERSE_HEADERS[1]);
+            Assert.assertEquals(cache.getHitCount(), 1);
+            cache.get(TRAVERSE_HEADERS[0]);
+            Assert.assertEquals(cache.getMissCount(), TRAVERSE_HEADERS.length + 1);
+        }
+    }
+
+    @Test
+    public void testZeroBudget() throws Exception {
+        try (final HDF5FileReader reader = openTraverse()) {
+            final ObjectHeaderCache cache = new ObjectHeaderCache(reader, 0);
+            Assert.assertEquals(cache.get(928).getAddress(), 928);
+            Assert.assertEquals(cache.size(), 0);
+            Assert.assertEquals(cache.getCachedBytes(), 0);
+            Assert.assertEquals(cache.getEvictionCount(), 1);
+        }
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (final HDF5FileReader reader = openTraverse()) {
+            final ObjectHeaderCache cache = new ObjectHeaderCache(reader, 1024);
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        final long address =
+                                TRAVERSE_HEADERS[(thread + i) % TRAVERSE_HEADERS.length];
+                        Assert.assertEquals(cache.get(address).getAddress(), address);
+                    }
+                    return null;
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+            Assert.assertEquals(cache.getHitCount() + cache.getMissCount(), 8 * 500);
+            Assert.assertTrue(cache.getCachedBytes() <= 1024);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = FileAddressException.class)
+    public void testUndefinedAddress() throws Exception {
+        try (final HDF5FileReader reader = openTraverse()) {
+            new ObjectHeaderCache(reader).get(reader.getAddressManager().getUndefinedAddress());
+        }
+    }
+}
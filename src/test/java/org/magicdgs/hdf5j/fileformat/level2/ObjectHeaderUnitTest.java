@@ -0,0 +1,208 @@
+package org.magicdgs.hdf5j.fileformat.level2;
+
+import org.magicdgs.hdf5j.HDF5Constants;
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.HDF5jTestResources;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+import org.magicdgs.hdf5j.utils.hashing.Lookup3HashFunction;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class ObjectHeaderUnitTest extends HDF5jTest {
+
+    @Test
+    public void testReadGroupHeader() throws Exception {
+        // G1 in h5ex_g_create.h5
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_g_create.h5"))) {
+            final ObjectHeader header = ObjectHeader.read(reader, 800);
+            Assert.assertEquals(header.getAddress(), 800);
+            Assert.assertEquals(header.getVersion(), 1);
+            Assert.assertEquals(header.getReferenceCount(), 1);
+            final HeaderMessage message = header.getMessage(HeaderMessage.SYMBOL_TABLE);
+            Assert.assertNotNull(message);
+            Assert.assertEquals(message.getSize(), 16);
+            final SymbolTableMessage symbolTable =
+                    SymbolTableMessage.decode(message, reader.getAddressManager());
+            Assert.assertEquals(symbolTable.getBTreeAddress(), 840);
+            Assert.assertEquals(symbolTable.getLocalHeapAddress(), 1384);
+            Assert.assertNull(header.getMessage(HeaderMessage.LINK_INFO));
+            for (final HeaderMessage m : header.getMessages()) {
+                Assert.assertNotEquals(m.getType(), HeaderMessage.NIL);
+                Assert.assertNotEquals(m.getType(), HeaderMessage.CONTINUATION);
+            }
+        }
+    }
+
+    @Test
+    public void testReadDatasetHeader() throws Exception {
+        // DS1 in h5ex_g_iterate.h5 is not a group
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_g_iterate.h5"))) {
+            final ObjectHeader header = ObjectHeader.read(reader, 1928);
+            Assert.assertFalse(header.getMessages().isEmpty());
+            Assert.assertNull(header.getMessage(HeaderMessage.SYMBOL_TABLE));
+        }
+    }
+
+    @Test
+    public void testReadContinuationBlock() throws Exception {
+        // DS1 in h5ex_t_intatt.h5 stores the attribute in a continuation block
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_t_intatt.h5"))) {
+            final ObjectHeader header = ObjectHeader.read(reader, 800);
+            Assert.assertEquals(header.getVersion(), 1);
+            Assert.assertEquals(header.getNumberOfMessages(), 6);
+            Assert.assertEquals(header.getMessageSize(header.indexOf(HeaderMessage.ATTRIBUTE)),
+                    280);
+        }
+    }
+
+    @Test
+    public void testReadVersion2Header() throws Exception {
+        // root group of h5ex_g_compact2.h5 (compact new-style group)
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_g_compact2.h5"))) {
+            final ObjectHeader header = ObjectHeader.read(reader,
+                    reader.getSuperblock().getRootGroupObjectHeaderAddress().getPosition());
+            Assert.assertEquals(header.getVersion(), 2);
+            // no reference count message
+            Assert.assertEquals(header.getReferenceCount(), 1);
+            Assert.assertEquals(header.getMessages().size(), 3);
+            final LinkInfoMessage linkInfo = LinkInfoMessage.decode(
+                    header.getMessage(HeaderMessage.LINK_INFO), reader.getAddressManager());
+            Assert.assertFalse(linkInfo.isDense());
+            Assert.assertEquals(linkInfo.getNameIndexAddress(), -1);
+            Assert.assertEquals(linkInfo.getMaximumCreationIndex(), -1);
+            final LinkMessage link = LinkMessage.decode(header.getMessage(HeaderMessage.LINK),
+                    reader.getAddressManager());
+            Assert.assertEquals(link.getName(), "G1");
+            Assert.assertTrue(link.isHardLink());
+            Assert.assertEquals(link.getAddress(), 195);
+            Assert.assertEquals(link.getCreationOrder(), -1);
+        }
+    }
+
+    @Test
+    public void testReadVersion2ReferenceCount() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(writeReferenceCountHeader(0, 3))) {
+            final ObjectHeader header = ObjectHeader.read(reader, 48);
+            Assert.assertEquals(header.getVersion(), 2);
+            Assert.assertEquals(header.getReferenceCount(), 3);
+            Assert.assertNotNull(header.getMessage(HeaderMessage.REFERENCE_COUNT));
+        }
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testUnsupportedReferenceCountVersion() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(writeReferenceCountHeader(1, 3))) {
+            ObjectHeader.read(reader, 48);
+        }
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testInvalidReferenceCount() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(writeReferenceCountHeader(0, 0))) {
+            ObjectHeader.read(reader, 48);
+        }
+    }
+
+    // version 2 superblock (48 bytes) followed by a version 2 object header with only an
+    // object reference count message
+    private static Path writeReferenceCountHeader(final int version, final int count)
+            throws Exception {
+        final ByteBuffer file = ByteBuffer.allocate(48 + 20).order(ByteOrder.LITTLE_ENDIAN);
+        for (final int b : HDF5Constants.HDF5_FORMAT_SIGNATURE) {
+            file.put((byte) b);
+        }
+        file.put((byte) 2).put((byte) 8).put((byte) 8).put((byte) 0);
+        // base, extension, end of file and root group addresses
+        file.putLong(0).putLong(-1).putLong(file.capacity()).putLong(48);
+        putChecksum(file, 0);
+        file.put("OHDR".getBytes(StandardCharsets.US_ASCII)).put((byte) 2).put((byte) 0);
+        // chunk size (1 byte) and object reference count message
+        file.put((byte) 9);
+        file.put((byte) HeaderMessage.REFERENCE_COUNT).putShort((short) 5).put((byte) 0);
+        file.put((byte) version).putInt(count);
+        putChecksum(file, 48);
+        final Path path = Files.createTempFile(ObjectHeaderUnitTest.class.getSimpleName(),
+                ".h5");
+        path.toFile().deleteOnExit();
+        Files.write(path, file.array());
+        return path;
+    }
+
+    private static void putChecksum(final ByteBuffer file, final int start) {
+        final ByteBuffer data = file.duplicate();
+        data.limit(file.position()).position(start);
+        file.putInt(Lookup3HashFunction.hashBytes(data, 0));
+    }
+
+    @Test
+    public void testReadLinkMessagesWithCreationOrder() throws Exception {
+        // index_group in h5ex_g_corder.h5 tracks the creation order of the links
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_g_corder.h5"))) {
+            final ObjectHeader header = ObjectHeader.read(reader, 800);
+            Assert.assertEquals(header.getVersion(), 1);
+            final LinkInfoMessage linkInfo = LinkInfoMessage.decode(
+                    header.getMessage(HeaderMessage.LINK_INFO), reader.getAddressManager());
+            Assert.assertEquals(linkInfo.getMaximumCreationIndex(), 4);
+            Assert.assertEquals(linkInfo.getCreationOrderIndexAddress(), -1);
+            final String[] names = {"H", "D", "F", "5"};
+            int order = 0;
+            for (final HeaderMessage message : header.getMessages()) {
+                if (message.getType() == HeaderMessage.LINK) {
+                    final LinkMessage link =
+                            LinkMessage.decode(message, reader.getAddressManager());
+                    Assert.assertEquals(link.getName(), names[order]);
+                    Assert.assertEquals(link.getCreationOrder(), order++);
+                }
+            }
+            Assert.assertEquals(order, names.length);
+        }
+    }
+
+    @Test
+    public void testLazyMessages() throws Exception {
+        // index_group in h5ex_g_corder.h5 (link info and 4 link messages, among others)
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_g_corder.h5"))) {
+            final ObjectHeader header = ObjectHeader.read(reader, 800);
+            final int linkInfo = header.indexOf(HeaderMessage.LINK_INFO);
+            Assert.assertNotEquals(linkInfo, -1);
+            Assert.assertEquals(header.indexOf(HeaderMessage.SYMBOL_TABLE), -1);
+            Assert.assertEquals(header.getMessages().size(), header.getNumberOfMessages());
+            for (int i = 0; i < header.getNumberOfMessages(); i++) {
+                final HeaderMessage message = header.getMessageAt(i);
+                Assert.assertSame(header.getMessageAt(i), message);
+                Assert.assertSame(header.getMessages().get(i), message);
+                Assert.assertEquals(message.getType(), header.getMessageType(i));
+                Assert.assertEquals(message.getSize(), header.getMessageSize(i));
+            }
+            // decoded once
+            final LinkInfoMessage decoded = header.getDecodedMessage(HeaderMessage.LINK_INFO,
+                    m -> LinkInfoMessage.decode(m, reader.getAddressManager()));
+            Assert.assertEquals(decoded.getMaximumCreationIndex(), 4);
+            Assert.assertSame(header.getDecodedMessage(HeaderMessage.LINK_INFO, m -> {
+                throw new AssertionError("decoded twice");
+            }), decoded);
+            Assert.assertNull(header.getDecodedMessage(HeaderMessage.SYMBOL_TABLE,
+                    m -> SymbolTableMessage.decode(m, reader.getAddressManager())));
+        }
+    }
+}
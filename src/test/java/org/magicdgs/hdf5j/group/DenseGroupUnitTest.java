@@ -0,0 +1,541 @@
+package org.magicdgs.hdf5j.group;
+
+import org.magicdgs.hdf5j.HDF5Constants;
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.fileformat.level1.FractalHeap;
+import org.magicdgs.hdf5j.io.ChecksumVerification;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.io.MetadataChecksumVerifier;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+import org.magicdgs.hdf5j.utils.hashing.Lookup3HashFunction;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Tests for dense groups, using files written by {@link DenseGroupFile} as there are no example
+ * files with dense link storage.
+ *
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class DenseGroupUnitTest extends HDF5jTest {
+
+    @DataProvider
+    public Object[][] numberOfLinks() {
+        return new Object[][] {
+                // root direct block and root leaf
+                {3},
+                // root indirect block with direct blocks and internal root node
+                {200},
+                // child indirect block
+                {600}
+        };
+    }
+
+    @Test(dataProvider = "numberOfLinks")
+    public void testGetMemberAddress(final int numberOfLinks) throws Exception {
+        final DenseGroupFile file = new DenseGroupFile(numberOfLinks);
+        try (final HDF5FileReader reader = HDF5FileReader.open(file.write())) {
+            final Group root = new GroupResolver(reader).getRootGroup();
+            Assert.assertTrue(root instanceof DenseGroup);
+            Assert.assertEquals(root.size(), numberOfLinks);
+            for (int i = 0; i < numberOfLinks; i++) {
+                Assert.assertEquals(root.getMemberAddress(DenseGroupFile.name(i)),
+                        DenseGroupFile.address(i));
+            }
+            Assert.assertEquals(root.getMemberAddress(DenseGroupFile.name(numberOfLinks)),
+                    Group.NOT_FOUND);
+            Assert.assertEquals(root.getMemberAddress(""), Group.NOT_FOUND);
+        }
+    }
+
+    @Test(dataProvider = "numberOfLinks")
+    public void testGetMemberNames(final int numberOfLinks) throws Exception {
+        final DenseGroupFile file = new DenseGroupFile(numberOfLinks);
+        try (final HDF5FileReader reader = HDF5FileReader.open(file.write())) {
+            final List<String> expected = new ArrayList<>();
+            for (int i = 0; i < numberOfLinks; i++) {
+                expected.add(DenseGroupFile.name(i));
+            }
+            expected.sort(Comparator.naturalOrder());
+            Assert.assertEquals(new GroupResolver(reader).getRootGroup().getMemberNames(),
+                    expected);
+        }
+    }
+
+    @Test
+    public void testResolve() throws Exception {
+        final DenseGroupFile file = new DenseGroupFile(600);
+        try (final HDF5FileReader reader = HDF5FileReader.open(file.write())) {
+            final GroupResolver resolver = new GroupResolver(reader);
+            Assert.assertEquals(resolver.resolve("/link_599"), DenseGroupFile.address(599));
+            Assert.assertEquals(resolver.resolve("/link_600"), Group.NOT_FOUND);
+        }
+    }
+
+    @Test
+    public void testCorruptedNameIndex() throws Exception {
+        final DenseGroupFile file = new DenseGroupFile(3);
+        final Path path = file.write();
+        // corrupt the checksum of the B-tree header
+        final byte[] bytes = Files.readAllBytes(path);
+        bytes[(int) file.bTreeChecksumAddress] ^= 1;
+        Files.write(path, bytes);
+        try (final HDF5FileReader reader =
+                HDF5FileReader.open(path, ChecksumVerification.NEVER)) {
+            Assert.assertEquals(new GroupResolver(reader).resolve("link_1"),
+                    DenseGroupFile.address(1));
+        }
+        try (final HDF5FileReader reader = HDF5FileReader.open(path)) {
+            Assert.assertThrows(HDF5jException.class, () -> new GroupResolver(reader));
+        }
+    }
+
+    @Test
+    public void testCorruptedDirectBlock() throws Exception {
+        final DenseGroupFile file = new DenseGroupFile(200);
+        final Path path = file.write();
+        // corrupt the checksum of the first direct block
+        final byte[] bytes = Files.readAllBytes(path);
+        final int checksumEnd =
+                (int) file.firstDirectBlockAddress + DenseGroupFile.DIRECT_BLOCK_HEADER_SIZE;
+        bytes[checksumEnd - 1] ^= 1;
+        Files.write(path, bytes);
+        try (final HDF5FileReader reader = HDF5FileReader.open(path)) {
+            final GroupResolver resolver = new GroupResolver(reader);
+            Assert.assertThrows(HDF5jException.class, () -> resolver.resolve("link_0"));
+            // still fails, as it was not verified
+            Assert.assertThrows(HDF5jException.class, () -> resolver.resolve("link_0"));
+        }
+        // the sweep reports the block and the members (out of the file)
+        final List<Long> expected = new ArrayList<>();
+        expected.add(file.firstDirectBlockAddress);
+        for (int i = 0; i < 200; i++) {
+            expected.add(DenseGroupFile.address(i));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (final HDF5FileReader reader = HDF5FileReader.open(path, ChecksumVerification.ALWAYS,
+                new MetadataChecksumVerifier(MetadataChecksumVerifier.Mode.LAZY, executor, 64))) {
+            Assert.assertEquals(new GroupResolver(reader).verifyMetadata(), expected);
+        }
+        try (final HDF5FileReader reader = HDF5FileReader.open(path, ChecksumVerification.ALWAYS,
+                MetadataChecksumVerifier.eager(executor))) {
+            Assert.assertThrows(HDF5jException.class, () -> new GroupResolver(reader));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSweepDoesNotSampleChecksums() throws Exception {
+        final DenseGroupFile file = new DenseGroupFile(200);
+        final Path path = file.write();
+        final byte[] bytes = Files.readAllBytes(path);
+        bytes[(int) file.rootIndirectBlockChecksumAddress] ^= 1;
+        Files.write(path, bytes);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (final HDF5FileReader reader = HDF5FileReader.open(path,
+                ChecksumVerification.sampled(1_000_000),
+                new MetadataChecksumVerifier(MetadataChecksumVerifier.Mode.LAZY, executor, 64))) {
+            Assert.assertTrue(new GroupResolver(reader).verifyMetadata()
+                    .contains(file.rootIndirectBlockAddress));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnsampledDirectBlockIsSettled() throws Exception {
+        final DenseGroupFile file = new DenseGroupFile(200);
+        final Path path = file.write();
+        // corrupt the checksum of the first direct block, which is not sampled
+        final byte[] bytes = Files.readAllBytes(path);
+        final int checksumEnd =
+                (int) file.firstDirectBlockAddress + DenseGroupFile.DIRECT_BLOCK_HEADER_SIZE;
+        bytes[checksumEnd - 1] ^= 1;
+        Files.write(path, bytes);
+        try (final HDF5FileReader reader = HDF5FileReader.open(path,
+                ChecksumVerification.sampled(1_000_000), MetadataChecksumVerifier.lazy())) {
+            final GroupResolver resolver = new GroupResolver(reader);
+            Assert.assertEquals(resolver.resolve("link_0"), DenseGroupFile.address(0));
+            Assert.assertFalse(reader.getMetadataVerifier()
+                    .isPending(file.firstDirectBlockAddress));
+            Assert.assertEquals(resolver.resolve("link_0"), DenseGroupFile.address(0));
+        }
+    }
+
+    @Test
+    public void testCorruptedIndirectBlockAfterSweep() throws Exception {
+        final DenseGroupFile file = new DenseGroupFile(200);
+        final Path path = file.write();
+        // corrupt the checksum of the root indirect block
+        final byte[] bytes = Files.readAllBytes(path);
+        bytes[(int) file.rootIndirectBlockChecksumAddress] ^= 1;
+        Files.write(path, bytes);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (final HDF5FileReader reader = HDF5FileReader.open(path, ChecksumVerification.ALWAYS,
+                new MetadataChecksumVerifier(MetadataChecksumVerifier.Mode.LAZY, executor, 64))) {
+            final GroupResolver resolver = new GroupResolver(reader);
+            Assert.assertTrue(
+                    resolver.verifyMetadata().contains(file.rootIndirectBlockAddress));
+            // the structures decoded by the sweep are not cached
+            Assert.assertThrows(HDF5jException.class, () -> resolver.resolve("link_0"));
+            Assert.assertThrows(HDF5jException.class,
+                    () -> resolver.getRootGroup().getMemberNames());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testTinyObject() throws Exception {
+        final DenseGroupFile file = new DenseGroupFile(3);
+        try (final HDF5FileReader reader = HDF5FileReader.open(file.write())) {
+            final FractalHeap heap = FractalHeap.read(reader, file.heapAddress);
+            Assert.assertEquals(heap.getHeapIdLength(), 7);
+            Assert.assertEquals(heap.getNumberOfManagedObjects(), 3);
+            // type 2 (tiny) and length 3
+            final ByteBuffer heapId =
+                    ByteBuffer.wrap(new byte[] {0x22, 'a', 'b', 'c', 0, 0, 0});
+            final byte[] object = new byte[3];
+            heap.getObject(heapId).get(object);
+            Assert.assertEquals(object, new byte[] {'a', 'b', 'c'});
+            Assert.assertEquals(heapId.position(), 0);
+        }
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testHugeObjectRejected() throws Exception {
+        final DenseGroupFile file = new DenseGroupFile(3);
+        try (final HDF5FileReader reader = HDF5FileReader.open(file.write())) {
+            // type 1 (huge)
+            FractalHeap.read(reader, file.heapAddress)
+                    .getObject(ByteBuffer.wrap(new byte[] {0x10, 1, 0, 0, 0, 0, 0}));
+        }
+    }
+
+    /**
+     * Minimal file with a version 2 superblock and a root group with dense link storage, laid
+     * out as the library does: a fractal heap with the link messages (width 4, starting block
+     * size 512 and maximum direct block size 1024) and a version 2 B-tree indexing them by the
+     * lookup3 hash of the names (node size 512).
+     */
+    private static final class DenseGroupFile {
+
+        private static final long UNDEFINED = -1;
+        private static final int WIDTH = 4;
+        private static final int STARTING_BLOCK_SIZE = 512;
+        private static final int MAXIMUM_DIRECT_BLOCK_SIZE = 1024;
+        private static final int MAXIMUM_DIRECT_ROWS = 3;
+        private static final int HEAP_OFFSET_SIZE = 4;
+        private static final int HEAP_ID_LENGTH = 7;
+        // signature, version, heap address, block offset and checksum
+        private static final int DIRECT_BLOCK_HEADER_SIZE = 9 + 8 + HEAP_OFFSET_SIZE;
+        private static final int NODE_SIZE = 512;
+        private static final int RECORD_SIZE = Integer.BYTES + HEAP_ID_LENGTH;
+        private static final int RECORDS_PER_LEAF = 40;
+
+        private final int numberOfLinks;
+        private final ByteBuffer file = ByteBuffer.allocate(1 << 16)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        private long heapAddress;
+        private long firstDirectBlockAddress;
+        private long rootIndirectBlockAddress;
+        private long rootIndirectBlockChecksumAddress;
+        private long bTreeChecksumAddress;
+        // end of the last heap block written
+        private int heapEnd;
+
+        private DenseGroupFile(final int numberOfLinks) {
+            this.numberOfLinks = numberOfLinks;
+        }
+
+        private static String name(final int i) {
+            return "link_" + i;
+        }
+
+        private static long address(final int i) {
+            return 100_000 + 8 * i;
+        }
+
+        private Path write() throws Exception {
+            // superblock (48 bytes) and root object header (33 bytes)
+            final long rootAddress = 48;
+            heapAddress = 96;
+            final long[] heapIds = writeHeap();
+            final long bTreeAddress = align(file.position());
+            writeNameIndex(bTreeAddress, heapIds);
+            final int eof = file.position();
+            writeObjectHeader(rootAddress, heapAddress, bTreeAddress);
+            writeSuperblock(rootAddress, eof);
+            final Path path = Files.createTempFile(DenseGroupUnitTest.class.getSimpleName(),
+                    ".h5");
+            path.toFile().deleteOnExit();
+            Files.write(path, Arrays.copyOf(file.array(), eof));
+            return path;
+        }
+
+        private void writeSuperblock(final long rootAddress, final long eof) {
+            file.position(0);
+            for (final int b : HDF5Constants.HDF5_FORMAT_SIGNATURE) {
+                file.put((byte) b);
+            }
+            file.put((byte) 2).put((byte) 8).put((byte) 8).put((byte) 0);
+            file.putLong(0).putLong(UNDEFINED).putLong(eof).putLong(rootAddress);
+            putChecksum(0);
+        }
+
+        private void writeObjectHeader(final long address, final long heap, final long bTree) {
+            file.position((int) address);
+            file.put("OHDR".getBytes(StandardCharsets.US_ASCII)).put((byte) 2).put((byte) 0);
+            // chunk size (1 byte) and link info message
+            file.put((byte) 22);
+            file.put((byte) 0x02).putShort((short) 18).put((byte) 0);
+            file.put((byte) 0).put((byte) 0).putLong(heap).putLong(bTree);
+            putChecksum((int) address);
+        }
+
+        // returns the heap IDs of the links (offset in the high bits and length in the low bits)
+        private long[] writeHeap() {
+            // direct blocks in the order of the doubling table: {heap offset, size}
+            final List<long[]> blocks = new ArrayList<>();
+            final long[] heapIds = new long[numberOfLinks];
+            final List<ByteBuffer> contents = new ArrayList<>();
+            int link = 0;
+            long offset = 0;
+            while (link < numberOfLinks) {
+                final int size = directBlockSize(blocks.size());
+                final ByteBuffer block = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+                block.position(DIRECT_BLOCK_HEADER_SIZE);
+                while (link < numberOfLinks && block.remaining() >= linkMessage(link).length) {
+                    final byte[] message = linkMessage(link);
+                    heapIds[link++] = ((offset + block.position()) << 16) | message.length;
+                    block.put(message);
+                }
+                blocks.add(new long[] {offset, size});
+                contents.add(block);
+                offset += size;
+            }
+            // header: 22 fixed bytes, 12 lengths, 3 offsets and checksum
+            final int headerSize = 22 + 12 * 8 + 3 * 8 + 4;
+            long next = heapAddress + headerSize;
+            final long[] blockAddresses = new long[blocks.size()];
+            firstDirectBlockAddress = next;
+            for (int i = 0; i < blocks.size(); i++) {
+                blockAddresses[i] = next;
+                writeDirectBlock(next, blocks.get(i)[0], contents.get(i));
+                next += blocks.get(i)[1];
+            }
+            final long rootBlock;
+            final int rootRows;
+            if (blocks.size() == 1) {
+                rootBlock = blockAddresses[0];
+                rootRows = 0;
+            } else {
+                rootBlock = next;
+                rootRows = (blocks.size() <= 3 * WIDTH) ? (blocks.size() - 1) / WIDTH + 1
+                        : MAXIMUM_DIRECT_ROWS + (blocks.size() - 3 * WIDTH - 1)
+                        / (WIDTH * WIDTH) + 1;
+                writeIndirectBlocks(rootBlock, rootRows, blockAddresses);
+            }
+            writeHeapHeader(rootBlock, rootRows, offset);
+            file.position(heapEnd);
+            return heapIds;
+        }
+
+        // size of the direct block with the index, for blocks of rows 0-2 and the direct blocks
+        // of the indirect blocks of row 3
+        private static int directBlockSize(final int index) {
+            return (index < WIDTH * 2 || index >= WIDTH * 3)
+                    ? STARTING_BLOCK_SIZE : MAXIMUM_DIRECT_BLOCK_SIZE;
+        }
+
+        private void writeHeapHeader(final long rootBlock, final int rootRows,
+                final long managedSpace) {
+            file.position((int) heapAddress);
+            file.put("FRHP".getBytes(StandardCharsets.US_ASCII)).put((byte) 0);
+            file.putShort((short) HEAP_ID_LENGTH).putShort((short) 0);
+            // direct blocks checksummed
+            file.put((byte) 0x02);
+            file.putInt(4096);
+            file.putLong(0).putLong(UNDEFINED).putLong(0).putLong(UNDEFINED);
+            file.putLong(managedSpace).putLong(managedSpace).putLong(managedSpace);
+            file.putLong(numberOfLinks);
+            file.putLong(0).putLong(0).putLong(0).putLong(0);
+            file.putShort((short) WIDTH);
+            file.putLong(STARTING_BLOCK_SIZE).putLong(MAXIMUM_DIRECT_BLOCK_SIZE);
+            file.putShort((short) 32).putShort((short) 1);
+            file.putLong(rootBlock).putShort((short) rootRows);
+            putChecksum((int) heapAddress);
+        }
+
+        private void writeDirectBlock(final long address, final long offset,
+                final ByteBuffer block) {
+            block.position(0);
+            block.put("FHDB".getBytes(StandardCharsets.US_ASCII)).put((byte) 0);
+            block.putLong(heapAddress).putInt((int) offset);
+            // checksum of the block with the checksum field zeroed
+            final int checksum = Lookup3HashFunction.hashBytes(ByteBuffer.wrap(block.array()), 0);
+            block.putInt(checksum);
+            file.position((int) address);
+            file.put(block.array());
+            heapEnd = Math.max(heapEnd, file.position());
+        }
+
+        private void writeIndirectBlocks(final long address, final int rows,
+                final long[] blockAddresses) {
+            final int directEntries = Math.min(rows, MAXIMUM_DIRECT_ROWS) * WIDTH;
+            // child indirect blocks with one row, after the root
+            final int rootSize = 9 + 8 + HEAP_OFFSET_SIZE + rows * WIDTH * 8 + 4;
+            final int childSize = 9 + 8 + HEAP_OFFSET_SIZE + WIDTH * 8 + 4;
+            final long[] children = new long[(rows - Math.min(rows, MAXIMUM_DIRECT_ROWS))
+                    * WIDTH];
+            for (int c = 0; c < children.length; c++) {
+                final int first = directEntries + c * WIDTH;
+                if (first >= blockAddresses.length) {
+                    children[c] = UNDEFINED;
+                    continue;
+                }
+                children[c] = address + rootSize + c * childSize;
+                // row 3 starts after 2 rows of 512 and one of 1024
+                final long offset = WIDTH * 4L * STARTING_BLOCK_SIZE + c * WIDTH
+                        * STARTING_BLOCK_SIZE;
+                writeIndirectBlock(children[c], offset,
+                        Arrays.copyOfRange(blockAddresses, first, first + WIDTH));
+            }
+            final long[] entries = new long[rows * WIDTH];
+            Arrays.fill(entries, UNDEFINED);
+            System.arraycopy(blockAddresses, 0, entries, 0,
+                    Math.min(directEntries, blockAddresses.length));
+            System.arraycopy(children, 0, entries, directEntries, children.length);
+            writeIndirectBlock(address, 0, entries);
+        }
+
+        private void writeIndirectBlock(final long address, final long offset,
+                final long[] entries) {
+            file.position((int) address);
+            file.put("FHIB".getBytes(StandardCharsets.US_ASCII)).put((byte) 0);
+            file.putLong(heapAddress).putInt((int) offset);
+            for (final long entry : entries) {
+                // entries past the allocated blocks are 0 (see writeIndirectBlocks)
+                file.putLong((entry == 0) ? UNDEFINED : entry);
+            }
+            if (offset == 0) {
+                rootIndirectBlockAddress = address;
+                rootIndirectBlockChecksumAddress = file.position();
+            }
+            putChecksum((int) address);
+            heapEnd = Math.max(heapEnd, file.position());
+        }
+
+        private void writeNameIndex(final long address, final long[] heapIds) {
+            final Integer[] order = new Integer[numberOfLinks];
+            for (int i = 0; i < numberOfLinks; i++) {
+                order[i] = i;
+            }
+            // sorted by unsigned hash and name, as in the library
+            Arrays.sort(order, Comparator
+                    .comparingLong((Integer i) -> Integer.toUnsignedLong(hash(name(i))))
+                    .thenComparing(i -> name(i)));
+            // header with checksum: 16 + 8 + 2 + 8 + 4 bytes
+            long next = address + 38;
+            final int depth = (numberOfLinks <= RECORDS_PER_LEAF) ? 0 : 1;
+            final long rootAddress;
+            final int rootRecords;
+            if (depth == 0) {
+                rootAddress = next;
+                rootRecords = numberOfLinks;
+                writeNode("BTLF", rootAddress, order, 0, numberOfLinks, heapIds, null);
+            } else {
+                // leaves separated by one record
+                final List<long[]> pointers = new ArrayList<>();
+                final List<Integer> separators = new ArrayList<>();
+                int start = 0;
+                while (start < numberOfLinks) {
+                    final int end = Math.min(start + RECORDS_PER_LEAF, numberOfLinks);
+                    writeNode("BTLF", next, order, start, end, heapIds, null);
+                    pointers.add(new long[] {next, end - start});
+                    next += NODE_SIZE;
+                    if (end < numberOfLinks) {
+                        separators.add(order[end]);
+                    }
+                    start = end + 1;
+                }
+                rootAddress = next;
+                rootRecords = separators.size();
+                writeNode("BTIN", rootAddress, separators.toArray(new Integer[0]), 0,
+                        rootRecords, heapIds, pointers);
+            }
+            file.position((int) address);
+            file.put("BTHD".getBytes(StandardCharsets.US_ASCII)).put((byte) 0).put((byte) 5);
+            file.putInt(NODE_SIZE).putShort((short) RECORD_SIZE).putShort((short) depth);
+            file.put((byte) 100).put((byte) 40);
+            file.putLong(rootAddress).putShort((short) rootRecords).putLong(numberOfLinks);
+            bTreeChecksumAddress = file.position();
+            putChecksum((int) address);
+            file.position((int) rootAddress + NODE_SIZE);
+        }
+
+        private void writeNode(final String signature, final long address,
+                final Integer[] order, final int start, final int end, final long[] heapIds,
+                final List<long[]> pointers) {
+            file.position((int) address);
+            file.put(signature.getBytes(StandardCharsets.US_ASCII)).put((byte) 0)
+                    .put((byte) 5);
+            for (int r = start; r < end; r++) {
+                final int link = order[r];
+                file.putInt(hash(name(link)));
+                // managed object: 4 bytes of offset and 2 of length
+                file.put((byte) 0).putInt((int) (heapIds[link] >>> 16))
+                        .putShort((short) heapIds[link]);
+            }
+            if (pointers != null) {
+                for (final long[] pointer : pointers) {
+                    // leaves have at most 45 records, so the count uses 1 byte
+                    file.putLong(pointer[0]).put((byte) pointer[1]);
+                }
+            }
+            putChecksum((int) address);
+        }
+
+        private static int hash(final String name) {
+            return Lookup3HashFunction.hashBytes(
+                    ByteBuffer.wrap(name.getBytes(StandardCharsets.UTF_8)), 0);
+        }
+
+        // version 1, flags 0 (1-byte name length and hard link), name and address
+        private static byte[] linkMessage(final int link) {
+            final byte[] name = name(link).getBytes(StandardCharsets.UTF_8);
+            final ByteBuffer message = ByteBuffer.allocate(3 + name.length + 8)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            message.put((byte) 1).put((byte) 0).put((byte) name.length).put(name)
+                    .putLong(address(link));
+            return message.array();
+        }
+
+        // writes the checksum of the bytes from start to the current position
+        private void putChecksum(final int start) {
+            final ByteBuffer data = file.duplicate();
+            data.limit(file.position()).position(start);
+            file.putInt(Lookup3HashFunction.hashBytes(data, 0));
+        }
+
+        private static long align(final long position) {
+            return (position + 7) & ~7L;
+        }
+    }
+}
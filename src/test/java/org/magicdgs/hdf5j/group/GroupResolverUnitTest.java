@@ -0,0 +1,155 @@
+package org.magicdgs.hdf5j.group;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.HDF5jTestResources;
+import org.magicdgs.hdf5j.io.ChecksumVerification;
+import org.magicdgs.hdf5j.io.HDF5FileReader;
+import org.magicdgs.hdf5j.io.MetadataChecksumVerifier;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class GroupResolverUnitTest extends HDF5jTest {
+
+    @DataProvider
+    public Object[][] traversePaths() {
+        return new Object[][] {
+                {"/", 928},
+                {"", 928},
+                {"/group1", 1552},
+                {"group1", 1552},
+                {"/group1/dset1", 2552},
+                {"/group1/group3", 2504},
+                {"/group2", 2504},
+                {"/group2/dset2", 2552},
+                {"/group1/group3/group4/group2", 5744},
+                {"//group1/./group3/", 2504},
+                // hard link back to group1
+                {"/group1/group3/group4/group1/group5", 1552},
+                {"/group1/group3/group4/group1/group5/group3/group4/group1", 4792},
+                {"/group3", Group.NOT_FOUND},
+                {"/group1/group3/missing", Group.NOT_FOUND},
+                {"/missing/group3", Group.NOT_FOUND}
+        };
+    }
+
+    @Test(dataProvider = "traversePaths")
+    public void testResolve(final String path, final long expected) throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_g_traverse.h5"))) {
+            Assert.assertEquals(new GroupResolver(reader).resolve(path), expected);
+        }
+    }
+
+    @Test
+    public void testRootGroupMembers() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_g_iterate.h5"))) {
+            final Group root = new GroupResolver(reader).getRootGroup();
+            Assert.assertEquals(root.size(), 4);
+            Assert.assertEquals(root.getMemberNames(), Arrays.asList("DS1", "DT1", "G1", "L1"));
+            Assert.assertEquals(root.getMemberAddress("DT1"), 2216);
+            Assert.assertEquals(root.getMemberAddress("G2"), Group.NOT_FOUND);
+        }
+    }
+
+    @Test
+    public void testOpenGroupFromObjectHeader() throws Exception {
+        // G1 in h5ex_g_create.h5 does not cache the symbol table in the root group
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_g_create.h5"))) {
+            final GroupResolver resolver = new GroupResolver(reader);
+            Assert.assertEquals(resolver.resolve("/G1"), 800);
+            final Group group = resolver.openGroup(800);
+            Assert.assertSame(resolver.openGroup(800), group);
+            Assert.assertEquals(group.getObjectHeaderAddress(), 800);
+            Assert.assertEquals(group.size(), 0);
+            Assert.assertEquals(group.getMemberNames(), Collections.emptyList());
+            Assert.assertEquals(resolver.resolve("/G1/missing"), Group.NOT_FOUND);
+        }
+    }
+
+    @Test
+    public void testCachedGroupsAreShared() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_g_traverse.h5"))) {
+            final GroupResolver resolver = new GroupResolver(reader);
+            resolver.resolve("/group1/group3/group4");
+            final Group group3 = resolver.openGroup(2504);
+            Assert.assertEquals(group3.getMemberNames(), Arrays.asList("dset2", "group4"));
+            Assert.assertSame(resolver.openGroup(resolver.resolve("/group2")), group3);
+        }
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testIntermediateComponentNotAGroup() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_g_iterate.h5"))) {
+            new GroupResolver(reader).resolve("/DS1/member");
+        }
+    }
+
+    @Test
+    public void testCompactGroup() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_g_corder.h5"))) {
+            final GroupResolver resolver = new GroupResolver(reader);
+            Assert.assertEquals(resolver.resolve("/index_group/H"), 1368);
+            Assert.assertEquals(resolver.resolve("/index_group/5"), 3480);
+            Assert.assertEquals(resolver.resolve("/index_group/G"), Group.NOT_FOUND);
+            final Group group = resolver.openGroup(800);
+            Assert.assertTrue(group instanceof CompactGroup);
+            Assert.assertEquals(group.getMemberNames(), Arrays.asList("5", "D", "F", "H"));
+            // members are old-style groups
+            Assert.assertEquals(resolver.openGroup(1368).size(), 0);
+        }
+    }
+
+    @Test
+    public void testVersion2Superblock() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_g_compact2.h5"))) {
+            final GroupResolver resolver = new GroupResolver(reader);
+            Assert.assertEquals(resolver.getRootGroup().getObjectHeaderAddress(), 48);
+            Assert.assertEquals(resolver.getRootGroup().getMemberNames(),
+                    Collections.singletonList("G1"));
+            Assert.assertEquals(resolver.resolve("/G1"), 195);
+            Assert.assertEquals(resolver.openGroup(195).size(), 0);
+        }
+    }
+
+    @DataProvider
+    public Object[][] exampleFiles() {
+        return new Object[][] {
+                {"h5ex_g_traverse.h5"},
+                {"h5ex_g_iterate.h5"},
+                {"h5ex_g_create.h5"},
+                {"h5ex_g_corder.h5"},
+                {"h5ex_g_compact2.h5"}
+        };
+    }
+
+    @Test(dataProvider = "exampleFiles")
+    public void testVerifyMetadata(final String fileName) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (final HDF5FileReader reader = HDF5FileReader.open(
+                HDF5jTestResources.getExampleByApi(fileName), ChecksumVerification.ALWAYS,
+                MetadataChecksumVerifier.eager(executor))) {
+            final GroupResolver resolver = new GroupResolver(reader);
+            // already verified on construction
+            Assert.assertEquals(resolver.verifyMetadata(), Collections.emptyList());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.magicdgs.hdf5j.group;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class LinkNameIndexUnitTest extends HDF5jTest {
+
+    @DataProvider
+    public Object[][] sizes() {
+        return new Object[][] {{0}, {1}, {2}, {3}, {17}, {200_000}};
+    }
+
+    @Test(dataProvider = "sizes")
+    public void testGet(final int size) {
+        final String[] names = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = "member_" + i;
+        }
+        final LinkNameIndex index = new LinkNameIndex(names);
+        for (int i = 0; i < size; i++) {
+            Assert.assertEquals(index.get(names[i]), i);
+        }
+        Assert.assertEquals(index.get("member_" + size), -1);
+        Assert.assertEquals(index.get(""), -1);
+    }
+
+    @Test
+    public void testCollidingHashCodes() {
+        // "Aa" and "BB" have the same hash code
+        final String[] names = {"AaAa", "AaBB", "BBAa", "BBBB"};
+        final LinkNameIndex index = new LinkNameIndex(names);
+        for (int i = 0; i < names.length; i++) {
+            Assert.assertEquals(index.get(names[i]), i);
+        }
+        Assert.assertEquals(index.get("AaAaAa"), -1);
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testDuplicatedNames() {
+        new LinkNameIndex(new String[] {"a", "b", "a"});
+    }
+}
@@ -0,0 +1,193 @@
+package org.magicdgs.hdf5j.io;
+
+import org.magicdgs.hdf5j.HDF5Constants;
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.HDF5jTestResources;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+import org.magicdgs.hdf5j.utils.hashing.Lookup3HashFunction;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class HDF5FileReaderUnitTest extends HDF5jTest {
+
+    @Test
+    public void testOpen() throws Exception {
+        final Path path = HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5");
+        try (final HDF5FileReader reader = HDF5FileReader.open(path)) {
+            Assert.assertEquals(reader.getPath(), path);
+            Assert.assertEquals(reader.getSuperblock().getVersionNumber(), 0);
+            Assert.assertEquals(reader.getAddressManager().getAddressSize(), 8);
+            Assert.assertEquals(reader.getIndexedStorageInternalNodeK(),
+                    HDF5Constants.DEFAULT_INDEXED_STORAGE_INTERNAL_NODE_K);
+            // B-tree signature for the root group
+            final ByteBuffer metadata = reader.readMetadata(136, 4);
+            Assert.assertEquals(metadata.getInt(), 0x45455254);
+            final ByteBuffer raw = ByteBuffer.allocate(4);
+            reader.readRaw(136, raw);
+            Assert.assertEquals(raw.array(), new byte[] {'T', 'R', 'E', 'E'});
+            final ByteBuffer mapped = reader.mapRaw(136, 4);
+            Assert.assertTrue(mapped.isReadOnly());
+            Assert.assertEquals(mapped.getInt(), 0x45455254);
+        }
+    }
+
+    @Test(expectedExceptions = HDF5jException.class)
+    public void testOpenNonHDF5File() throws Exception {
+        final Path path = Files.createTempFile("nonHDF5", ".h5");
+        try {
+            Files.write(path, new byte[1024]);
+            HDF5FileReader.open(path);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test(expectedExceptions = EOFException.class)
+    public void testReadRawAfterEndOfFile() throws Exception {
+        final Path path = HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5");
+        try (final HDF5FileReader reader = HDF5FileReader.open(path)) {
+            reader.readRaw(Files.size(path) - 2, ByteBuffer.allocate(4));
+        }
+    }
+
+    @Test(expectedExceptions = EOFException.class)
+    public void testMapRawAfterEndOfFile() throws Exception {
+        final Path path = HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5");
+        try (final HDF5FileReader reader = HDF5FileReader.open(path)) {
+            reader.mapRaw(Files.size(path) - 2, 4);
+        }
+    }
+
+    @Test
+    public void testReadAsync() throws Exception {
+        final Path path = HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5");
+        try (final HDF5FileReader reader = HDF5FileReader.open(path)) {
+            // many reads at once
+            final List<CompletableFuture<ByteBuffer>> raw = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                raw.add(reader.readRawAsync(136, ByteBuffer.allocate(4)));
+            }
+            for (final CompletableFuture<ByteBuffer> future : raw) {
+                final ByteBuffer buffer = future.get();
+                Assert.assertFalse(buffer.hasRemaining());
+                Assert.assertEquals(buffer.array(), new byte[] {'T', 'R', 'E', 'E'});
+            }
+            // the metadata pages are cached after the first read
+            final MetadataPageCache cache = reader.getMetadataCache();
+            final long misses = cache.getMissCount();
+            Assert.assertEquals(reader.readMetadataAsync(136, 4).get().getInt(), 0x45455254);
+            Assert.assertEquals(cache.getMissCount(), misses + 1);
+            Assert.assertEquals(reader.readMetadataAsync(136, 4).get().getInt(), 0x45455254);
+            Assert.assertEquals(reader.readMetadata(136, 4).getInt(), 0x45455254);
+            Assert.assertEquals(cache.getMissCount(), misses + 1);
+            // spanning two pages
+            final int pageSize = cache.getPageSize();
+            final ByteBuffer expected = reader.readMetadata(pageSize - 2, 4);
+            final ByteBuffer spanning = reader.readMetadataAsync(pageSize - 2, 4).get();
+            Assert.assertTrue(spanning.isReadOnly());
+            Assert.assertEquals(spanning, expected);
+        }
+    }
+
+    @Test(expectedExceptions = EOFException.class)
+    public void testReadRawAsyncAfterEndOfFile() throws Exception {
+        final Path path = HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5");
+        try (final HDF5FileReader reader = HDF5FileReader.open(path)) {
+            reader.readRawAsync(Files.size(path) - 2, ByteBuffer.allocate(4)).get();
+        } catch (final ExecutionException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    @Test(expectedExceptions = EOFException.class)
+    public void testReadMetadataAsyncAfterEndOfFile() throws Exception {
+        final Path path = HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5");
+        try (final HDF5FileReader reader = HDF5FileReader.open(path)) {
+            reader.readMetadataAsync(Files.size(path) - 2, 4).get();
+        } catch (final ExecutionException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    @Test
+    public void testDecodeLength() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_d_chunk.h5"))) {
+            final ByteBuffer buffer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putLong(0, 1234);
+            Assert.assertEquals(reader.decodeLength(buffer), 1234);
+            Assert.assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    @Test
+    public void testKValuesWithoutSuperblockExtension() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(HDF5jTestResources.getExampleByApi("h5ex_g_phase.h5"))) {
+            Assert.assertEquals(reader.getSuperblock().getVersionNumber(), 2);
+            Assert.assertEquals(reader.getIndexedStorageInternalNodeK(),
+                    HDF5Constants.DEFAULT_INDEXED_STORAGE_INTERNAL_NODE_K);
+            Assert.assertEquals(reader.getGroupInternalNodeK(),
+                    HDF5Constants.DEFAULT_GROUP_INTERNAL_NODE_K);
+            Assert.assertEquals(reader.getGroupLeafNodeK(),
+                    HDF5Constants.DEFAULT_GROUP_LEAF_NODE_K);
+        }
+    }
+
+    @Test
+    public void testKValuesFromSuperblockExtension() throws Exception {
+        try (final HDF5FileReader reader = HDF5FileReader
+                .open(writeFileWithKValues(64, 32, 8))) {
+            Assert.assertEquals(reader.getIndexedStorageInternalNodeK(), 64);
+            Assert.assertEquals(reader.getGroupInternalNodeK(), 32);
+            Assert.assertEquals(reader.getGroupLeafNodeK(), 8);
+        }
+    }
+
+    // version 2 superblock (48 bytes) followed by the superblock extension, whose object header
+    // contains only the B-tree 'K' values message
+    private static Path writeFileWithKValues(final int indexedStorageInternalNodeK,
+            final int groupInternalNodeK, final int groupLeafNodeK) throws Exception {
+        final ByteBuffer file = ByteBuffer.allocate(48 + 22).order(ByteOrder.LITTLE_ENDIAN);
+        for (final int b : HDF5Constants.HDF5_FORMAT_SIGNATURE) {
+            file.put((byte) b);
+        }
+        file.put((byte) 2).put((byte) 8).put((byte) 8).put((byte) 0);
+        // base, extension, end of file and root group addresses
+        file.putLong(0).putLong(48).putLong(file.capacity()).putLong(48);
+        putChecksum(file, 0);
+        file.put("OHDR".getBytes(StandardCharsets.US_ASCII)).put((byte) 2).put((byte) 0);
+        // chunk size (1 byte) and B-tree 'K' values message
+        file.put((byte) 11);
+        file.put((byte) 0x13).putShort((short) 7).put((byte) 0);
+        file.put((byte) 0).putShort((short) indexedStorageInternalNodeK)
+                .putShort((short) groupInternalNodeK).putShort((short) groupLeafNodeK);
+        putChecksum(file, 48);
+        final Path path = Files.createTempFile(HDF5FileReaderUnitTest.class.getSimpleName(),
+                ".h5");
+        path.toFile().deleteOnExit();
+        Files.write(path, file.array());
+        return path;
+    }
+
+    private static void putChecksum(final ByteBuffer file, final int start) {
+        final ByteBuffer data = file.duplicate();
+        data.limit(file.position()).position(start);
+        file.putInt(Lookup3HashFunction.hashBytes(data, 0));
+    }
+}
@@ -0,0 +1,145 @@
+package org.magicdgs.hdf5j.io;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+import org.magicdgs.hdf5j.utils.hashing.Lookup3HashFunction;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class MetadataChecksumVerifierUnitTest extends HDF5jTest {
+
+    private static final Path PATH = Paths.get("test.h5");
+
+    // structure with the trailing checksum
+    private static ByteBuffer structure(final int size, final boolean corrupt) {
+        final ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < size - Integer.BYTES; i++) {
+            buffer.put((byte) (i * 31 + size));
+        }
+        buffer.flip();
+        final int checksum = Lookup3HashFunction.hashBytes(buffer, 0);
+        buffer.limit(size).position(size - Integer.BYTES);
+        buffer.putInt((corrupt) ? ~checksum : checksum).flip();
+        return buffer;
+    }
+
+    @Test
+    public void testLazyVerification() throws Exception {
+        final MetadataChecksumVerifier verifier = MetadataChecksumVerifier.lazy();
+        Assert.assertEquals(verifier.getMode(), MetadataChecksumVerifier.Mode.LAZY);
+        Assert.assertTrue(verifier.isPending(10));
+        final ByteBuffer valid = structure(40, false);
+        verifier.verify(PATH, valid, 36, 10);
+        Assert.assertEquals(valid.position(), 0);
+        Assert.assertFalse(verifier.isPending(10));
+        // verified only on first touch
+        verifier.verify(PATH, structure(40, true), 36, 10);
+        Assert.assertThrows(HDF5jException.class,
+                () -> verifier.verify(PATH, structure(40, true), 36, 20));
+        Assert.assertTrue(verifier.isPending(20));
+    }
+
+    @Test
+    public void testSkip() throws Exception {
+        final MetadataChecksumVerifier verifier = MetadataChecksumVerifier.lazy();
+        verifier.skip(10);
+        Assert.assertFalse(verifier.isPending(10));
+        // skipped structures are not verified outside of sweeps
+        verifier.verify(PATH, structure(40, true), 36, 10);
+        // but a sweep still verifies them
+        Assert.assertEquals(verifier.sweep(() -> {
+            Assert.assertTrue(verifier.isPending(10));
+            verifier.verify(PATH, structure(40, true), 36, 10);
+        }), Collections.singletonList(10L));
+    }
+
+    @Test
+    public void testEmbeddedChecksum() throws Exception {
+        final ByteBuffer block = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < block.limit(); i++) {
+            block.put(i, (byte) i);
+        }
+        // checksum at offset 8, computed with the field zeroed
+        block.putInt(8, 0);
+        block.putInt(8, Lookup3HashFunction.hashBytes(block.duplicate(), 0));
+        MetadataChecksumVerifier.lazy().verify(PATH, block, 8, 0);
+        block.put(63, (byte) 0);
+        Assert.assertThrows(HDF5jException.class,
+                () -> MetadataChecksumVerifier.lazy().verify(PATH, block, 8, 0));
+    }
+
+    @Test
+    public void testEmbeddedChecksumAtAnyOffset() throws Exception {
+        // the trailing checksum (offset 33) is not hashed
+        for (int offset = 0; offset < 33; offset++) {
+            final ByteBuffer block = ByteBuffer.allocate(37).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < block.limit(); i++) {
+                block.put(i, (byte) (i * 7));
+            }
+            block.putInt(offset, 0);
+            block.putInt(offset, Lookup3HashFunction.hashBytes(block.duplicate(), 0));
+            MetadataChecksumVerifier.lazy().verify(PATH, block, offset, 0);
+            Assert.assertEquals(block.position(), 0);
+            Assert.assertEquals(block.limit(), 37);
+        }
+    }
+
+    @Test
+    public void testOff() throws Exception {
+        final MetadataChecksumVerifier verifier = MetadataChecksumVerifier.off();
+        Assert.assertFalse(verifier.isPending(10));
+        verifier.verify(PATH, structure(40, true), 36, 10);
+        Assert.assertEquals(verifier.sweep(() ->
+                verifier.verify(PATH, structure(40, true), 36, 10)), Collections.emptyList());
+    }
+
+    @Test
+    public void testSweep() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final MetadataChecksumVerifier verifier = new MetadataChecksumVerifier(
+                    MetadataChecksumVerifier.Mode.EAGER, executor, 1000);
+            final List<Long> expected = new ArrayList<>();
+            final List<Long> corrupt = verifier.sweep(() -> {
+                for (long address = 0; address < 1000; address++) {
+                    final boolean isCorrupt = address % 97 == 3;
+                    if (isCorrupt) {
+                        expected.add(address);
+                    }
+                    verifier.verify(PATH, structure(20 + (int) address % 50, isCorrupt),
+                            16 + (int) address % 50, address);
+                    // submitted structures are not verified again within the sweep
+                    Assert.assertFalse(verifier.isPending(address));
+                    verifier.verify(PATH, structure(20, true), 16, address);
+                }
+            });
+            Assert.assertEquals(corrupt, expected);
+            Assert.assertFalse(verifier.isPending(0));
+            Assert.assertTrue(verifier.isPending(3));
+            // corrupt structures fail when touched outside the sweep
+            Assert.assertThrows(HDF5jException.class,
+                    () -> verifier.verify(PATH, structure(23, true), 19, 3));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testChecksumOutOfStructure() throws Exception {
+        MetadataChecksumVerifier.lazy().verify(PATH, structure(20, false), 17, 0);
+    }
+}
@@ -0,0 +1,139 @@
+package org.magicdgs.hdf5j.io;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.fileformat.address.FileAddressManager;
+import org.magicdgs.hdf5j.utils.exceptions.FileAddressException;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class MetadataPageCacheUnitTest extends HDF5jTest {
+
+    private static final int FILE_SIZE = 10000;
+    private static final int PAGE_SIZE = 1024;
+
+    private static final FileAddressManager MANAGER = new FileAddressManager(Long.BYTES);
+
+    private Path file;
+    private FileChannel channel;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        final byte[] content = new byte[FILE_SIZE];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        file = Files.write(Files.createTempFile(this.getClass().getSimpleName(), ".bin"),
+                content);
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    @AfterClass
+    public void tearDown() throws IOException {
+        channel.close();
+        Files.delete(file);
+    }
+
+    private static void assertContent(final ByteBuffer buffer, final long position,
+            final int length) {
+        Assert.assertEquals(buffer.remaining(), length);
+        for (int i = 0; i < length; i++) {
+            Assert.assertEquals(buffer.get(buffer.position() + i), (byte) (position + i));
+        }
+    }
+
+    @DataProvider
+    public Object[][] readRanges() {
+        return new Object[][] {
+                // in the first page
+                {0, 10},
+                // full page
+                {PAGE_SIZE, PAGE_SIZE},
+                // spanning two pages
+                {PAGE_SIZE - 5, 10},
+                // spanning several pages
+                {100, 3 * PAGE_SIZE},
+                // last page (shorter than the page size)
+                {FILE_SIZE - 10, 10}
+        };
+    }
+
+    @Test(dataProvider = "readRanges")
+    public void testRead(final long position, final int length) throws Exception {
+        final MetadataPageCache cache = new MetadataPageCache(channel, PAGE_SIZE, 4 * PAGE_SIZE);
+        assertContent(cache.read(MANAGER.decodeAddress(position), length), position, length);
+        final ByteBuffer destination = ByteBuffer.allocate(length);
+        cache.read(MANAGER.decodeAddress(position), destination);
+        destination.flip();
+        assertContent(destination, position, length);
+    }
+
+    @Test
+    public void testHitsAndMisses() throws Exception {
+        final MetadataPageCache cache = new MetadataPageCache(channel, PAGE_SIZE, 2 * PAGE_SIZE);
+        // first read is a miss
+        cache.read(MANAGER.decodeAddress(10), 10);
+        Assert.assertEquals(cache.getMissCount(), 1);
+        Assert.assertEquals(cache.getHitCount(), 0);
+        // the same page is a hit
+        cache.read(MANAGER.decodeAddress(20), 10);
+        Assert.assertEquals(cache.getMissCount(), 1);
+        Assert.assertEquals(cache.getHitCount(), 1);
+        Assert.assertEquals(cache.getCachedBytes(), PAGE_SIZE);
+        // two more pages evicts the first one
+        cache.read(MANAGER.decodeAddress(PAGE_SIZE), 10);
+        cache.read(MANAGER.decodeAddress(2 * PAGE_SIZE), 10);
+        Assert.assertEquals(cache.getMissCount(), 3);
+        Assert.assertEquals(cache.getEvictionCount(), 1);
+        Assert.assertEquals(cache.getCachedBytes(), 2 * PAGE_SIZE);
+        // the first page should be loaded again
+        cache.read(MANAGER.decodeAddress(0), 10);
+        Assert.assertEquals(cache.getMissCount(), 4);
+        // invalidation removes all the pages
+        cache.invalidateAll();
+        Assert.assertEquals(cache.getCachedBytes(), 0);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() throws Exception {
+        final MetadataPageCache cache = new MetadataPageCache(channel, PAGE_SIZE, 2 * PAGE_SIZE);
+        cache.read(MANAGER.decodeAddress(0), 10);
+        cache.read(MANAGER.decodeAddress(PAGE_SIZE), 10);
+        // access the first page, so the second one is the least-recently used
+        cache.read(MANAGER.decodeAddress(0), 10);
+        cache.read(MANAGER.decodeAddress(2 * PAGE_SIZE), 10);
+        Assert.assertEquals(cache.getMissCount(), 3);
+        // first page is still cached
+        cache.read(MANAGER.decodeAddress(0), 10);
+        Assert.assertEquals(cache.getMissCount(), 3);
+    }
+
+    @Test(expectedExceptions = EOFException.class)
+    public void testReadAfterEndOfFile() throws Exception {
+        new MetadataPageCache(channel).read(MANAGER.decodeAddress(FILE_SIZE - 5), 10);
+    }
+
+    @Test(expectedExceptions = FileAddressException.class)
+    public void testReadUndefinedAddress() throws Exception {
+        new MetadataPageCache(channel).read(MANAGER.getUndefinedAddress(), 10);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidPageSize() throws Exception {
+        new MetadataPageCache(channel, 1000, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,78 @@
+package org.magicdgs.hdf5j.utils;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+import org.magicdgs.hdf5j.utils.exceptions.HDF5jException;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class DecodingUtilsUnitTest extends HDF5jTest {
+
+    private static final byte[] SIGNATURE = "TEST".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    public void testHasSignature() throws Exception {
+        final ByteBuffer buffer = ByteBuffer.wrap("TESTING".getBytes(StandardCharsets.US_ASCII));
+        buffer.position(3);
+        Assert.assertTrue(DecodingUtils.hasSignature(buffer, SIGNATURE));
+        // absolute indexes
+        Assert.assertEquals(buffer.position(), 3);
+        Assert.assertFalse(DecodingUtils.hasSignature(
+                ByteBuffer.wrap("TREE".getBytes(StandardCharsets.US_ASCII)), SIGNATURE));
+        // signature with bytes over 127
+        Assert.assertTrue(DecodingUtils.hasSignature(
+                ByteBuffer.wrap(new byte[] {(byte) 0x89, 'H'}), new byte[] {(byte) 0x89, 'H'}));
+    }
+
+    @Test
+    public void testCheckSignature() throws Exception {
+        DecodingUtils.checkSignature(ByteBuffer.wrap(SIGNATURE), SIGNATURE, "test", 0);
+    }
+
+    @Test
+    public void testCheckInvalidSignature() throws Exception {
+        try {
+            DecodingUtils.checkSignature(
+                    ByteBuffer.wrap("TEXT".getBytes(StandardCharsets.US_ASCII)), SIGNATURE,
+                    "test structure", 100);
+            Assert.fail("invalid signature not detected");
+        } catch (final HDF5jException e) {
+            Assert.assertEquals(e.getMessage(), "Invalid test structure signature at 100");
+        }
+    }
+
+    @DataProvider
+    public Object[][] unsignedValues() {
+        final byte[] bytes = new byte[] {
+                0x01, 0x02, (byte) 0xFF, 0x04, 0x05, 0x06, 0x07, (byte) 0x88, 0x09};
+        return new Object[][] {
+                {bytes, 0, 0, 0L},
+                {bytes, 0, 1, 0x01L},
+                {bytes, 1, 2, 0xFF02L},
+                {bytes, 0, 3, 0xFF0201L},
+                {bytes, 2, 5, 0x07060504FFL},
+                {bytes, 0, 8, 0x88070605_04FF0201L},
+                {bytes, 1, 8, 0x0988070605_04FF02L}
+        };
+    }
+
+    @Test(dataProvider = "unsignedValues")
+    public void testDecodeUnsigned(final byte[] bytes, final int index, final int size,
+            final long expected) throws Exception {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        Assert.assertEquals(DecodingUtils.decodeUnsigned(buffer, index, size), expected);
+        Assert.assertEquals(buffer.position(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testDecodeUnsignedTooLarge() throws Exception {
+        DecodingUtils.decodeUnsigned(ByteBuffer.allocate(16), 0, 9);
+    }
+}
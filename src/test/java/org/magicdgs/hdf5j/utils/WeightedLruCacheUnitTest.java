@@ -0,0 +1,83 @@
+package org.magicdgs.hdf5j.utils;
+
+import org.magicdgs.hdf5j.HDF5jTest;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class WeightedLruCacheUnitTest extends HDF5jTest {
+
+    @Test
+    public void testGet() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final WeightedLruCache<Integer, String> cache = new WeightedLruCache<>(10, String::length);
+        final WeightedLruCache.Loader<Integer, String> loader = key -> {
+            loads.incrementAndGet();
+            return "value" + key;
+        };
+        Assert.assertEquals(cache.get(1, loader), "value1");
+        Assert.assertEquals(cache.get(1, loader), "value1");
+        Assert.assertEquals(loads.get(), 1);
+        Assert.assertEquals(cache.getHitCount(), 1);
+        Assert.assertEquals(cache.getMissCount(), 1);
+        Assert.assertEquals(cache.getWeight(), 6);
+        Assert.assertTrue(cache.containsKey(1));
+        cache.invalidate(1);
+        Assert.assertFalse(cache.containsKey(1));
+        Assert.assertEquals(cache.getWeight(), 0);
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws Exception {
+        final WeightedLruCache<Integer, String> cache = new WeightedLruCache<>(6, String::length);
+        cache.put(1, "aa");
+        cache.put(2, "bb");
+        cache.put(3, "cc");
+        // access 1, so 2 is the least-recently used
+        Assert.assertEquals(cache.get(1, key -> "xx"), "aa");
+        cache.put(4, "d");
+        Assert.assertEquals(cache.getEvictionCount(), 1);
+        Assert.assertFalse(cache.containsKey(2));
+        Assert.assertEquals(cache.getWeight(), 5);
+        // replacing a value updates the weight
+        cache.put(4, "dd");
+        Assert.assertEquals(cache.getWeight(), 6);
+        Assert.assertEquals(cache.size(), 3);
+        Assert.assertEquals(cache.getMissCount(), 5);
+        cache.invalidateAll();
+        Assert.assertEquals(cache.getWeight(), 0);
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void testValueHeavierThanBudgetIsNotRetained() throws Exception {
+        final WeightedLruCache<Integer, String> cache = new WeightedLruCache<>(2, String::length);
+        Assert.assertEquals(cache.get(1, key -> "long"), "long");
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertEquals(cache.getEvictionCount(), 1);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testLoaderError() throws Exception {
+        final WeightedLruCache<Integer, String> cache = new WeightedLruCache<>(2, String::length);
+        try {
+            cache.get(1, key -> {
+                throw new IOException("test");
+            });
+        } finally {
+            Assert.assertEquals(cache.size(), 0);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNegativeMaxWeight() {
+        new WeightedLruCache<Integer, String>(-1, String::length);
+    }
+}
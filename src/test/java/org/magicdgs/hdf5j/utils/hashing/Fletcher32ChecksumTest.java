@@ -0,0 +1,67 @@
+package org.magicdgs.hdf5j.utils.hashing;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * @author Daniel Gomez-Sanchez (magicDGS)
+ */
+public class Fletcher32ChecksumTest {
+
+    private static byte[] pattern(final int length) {
+        final byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (i * 31 + i / 7);
+        }
+        return data;
+    }
+
+    @DataProvider
+    public static Object[][] bytesToChecksum() {
+        final byte[] ones = new byte[10001];
+        Arrays.fill(ones, (byte) 0xFF);
+        return new Object[][] {
+                {new byte[0], 0},
+                // odd number of bytes
+                {"a".getBytes(StandardCharsets.US_ASCII), 0x61006100},
+                {"abcde".getBytes(StandardCharsets.US_ASCII), 0x4ff029c7},
+                // even number of bytes, not multiple of the unrolled block
+                {"abcdef".getBytes(StandardCharsets.US_ASCII), 0x50562a2d},
+                {"abcdefgh".getBytes(StandardCharsets.US_ASCII), 0xe1eb9195},
+                {pattern(7), 0x6ecb7518},
+                // exactly two reduction blocks
+                {pattern(720), 0x7024602b},
+                // several reduction blocks
+                {pattern(1001), 0x3416e815},
+                {pattern(10000), 0x84d5c904},
+                // maximum values to check overflows
+                {ones, 0xff00ff00}
+        };
+    }
+
+    @Test(dataProvider = "bytesToChecksum")
+    public void testChecksumHeapBuffer(final byte[] input, final int expected) throws Exception {
+        final ByteBuffer buffer = ByteBuffer.wrap(input);
+        Assert.assertEquals(Fletcher32Checksum.checksum(buffer), expected);
+        // the buffer is not consumed
+        Assert.assertEquals(buffer.remaining(), input.length);
+        // the byte order of the buffer does not matter
+        Assert.assertEquals(Fletcher32Checksum.checksum(buffer.order(ByteOrder.LITTLE_ENDIAN)),
+                expected);
+    }
+
+    @Test(dataProvider = "bytesToChecksum")
+    public void testChecksumDirectBufferWithOffset(final byte[] input, final int expected)
+            throws Exception {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(input.length + 3);
+        buffer.position(3);
+        buffer.put(input).position(3);
+        Assert.assertEquals(Fletcher32Checksum.checksum(buffer), expected);
+    }
+}
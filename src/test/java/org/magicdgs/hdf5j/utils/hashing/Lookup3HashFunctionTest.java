@@ -4,6 +4,10 @@ import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * @author Daniel Gomez-Sanchez (magicDGS)
  */
@@ -63,4 +67,62 @@ public class Lookup3HashFunctionTest {
             throws Exception {
         Assert.assertEquals(Lookup3HashFunction.hashBytes(input, k, len, 0), expectedHash);
     }
-}
\ No newline at end of file
+
+    @Test(dataProvider = "bytesToHash")
+    public void testHashHeapBuffer(byte[] input, int k, int len, final int expectedHash)
+            throws Exception {
+        final ByteBuffer buffer = ByteBuffer.wrap(input, k, len - k);
+        Assert.assertEquals(Lookup3HashFunction.hashBytes(buffer, 0), expectedHash);
+        // the buffer is not consumed
+        Assert.assertEquals(buffer.position(), k);
+    }
+
+    @Test(dataProvider = "bytesToHash")
+    public void testHashDirectBuffer(byte[] input, int k, int len, final int expectedHash)
+            throws Exception {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(input.length);
+        buffer.put(input).position(k).limit(len);
+        Assert.assertEquals(Lookup3HashFunction.hashBytes(buffer, 0), expectedHash);
+    }
+
+    @DataProvider
+    public static Object[][] piecesToHash() {
+        final List<Object[]> data = new ArrayList<>();
+        for (final Object[] toHash : bytesToHash()) {
+            // one, two, five and thirteen bytes per piece
+            for (final int pieceSize : new int[] {1, 2, 5, 13}) {
+                data.add(new Object[] {toHash[0], toHash[1], toHash[2], pieceSize, toHash[3]});
+            }
+        }
+        return data.toArray(new Object[data.size()][]);
+    }
+
+    @Test(dataProvider = "piecesToHash")
+    public void testHasher(byte[] input, int k, int len, final int pieceSize,
+            final int expectedHash) throws Exception {
+        final Lookup3Hasher hasher = Lookup3HashFunction.newHasher(len - k, 0);
+        for (int i = k; i < len; i += pieceSize) {
+            final int end = Math.min(len, i + pieceSize);
+            // alternate between arrays and direct buffers
+            if ((i / pieceSize) % 2 == 0) {
+                hasher.putBytes(input, i, end - i);
+            } else {
+                final ByteBuffer piece = ByteBuffer.allocateDirect(end - i);
+                piece.put(input, i, end - i).flip();
+                hasher.putBytes(piece);
+                Assert.assertFalse(piece.hasRemaining());
+            }
+        }
+        Assert.assertEquals(hasher.hash(), expectedHash);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testHasherWithMissingBytes() throws Exception {
+        Lookup3HashFunction.newHasher(10, 0).putBytes(new byte[5], 0, 5).hash();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testHasherWithExtraBytes() throws Exception {
+        Lookup3HashFunction.newHasher(4, 0).putBytes(new byte[5], 0, 5);
+    }
+}